@@ -0,0 +1,96 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.ChargeRule;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.StandardChargeRule;
+import com.swissre.rental.pricing.TariffRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices rentals with the standard charge rules plus {@code extraRules} city surcharges that only
+ * apply to E-Vans. Compact vans never run the surcharges, so their time should not move with the
+ * number of rules; E-Vans driven in the city run all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ChargePipelineBenchmark {
+
+    private static final int POOL_SIZE = 1 << 10;
+
+    @Param({"COMPACT_VAN", "E_VAN"})
+    public VehicleType vehicleType;
+
+    @Param({"0", "24"})
+    public int extraRules;
+
+    private CostCalculator calculator;
+    private VehicleRental[] rentals;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<ChargeRule> rules = new ArrayList<>(List.of(StandardChargeRule.values()));
+        for (int i = 0; i < extraRules; i++) {
+            rules.add(new EVanCitySurcharge(BigDecimal.valueOf(i, 2)));
+        }
+        calculator = new CostCalculator(new TariffRegistry(), new MetricsRegistry(), rules);
+        rentals = new RentalGenerator().rentals(POOL_SIZE, vehicleType).toArray(new VehicleRental[0]);
+    }
+
+    @Benchmark
+    public CostBreakdown calculate() {
+        VehicleRental rental = rentals[next];
+        next = (next + 1) & (POOL_SIZE - 1);
+        return calculator.calculate(rental);
+    }
+
+    private record EVanCitySurcharge(BigDecimal amount) implements ChargeRule {
+
+        @Override
+        public ChargeComponent component() {
+            return ChargeComponent.CONGESTION;
+        }
+
+        @Override
+        public Set<VehicleType> vehicleTypes() {
+            return EnumSet.of(VehicleType.E_VAN);
+        }
+
+        @Override
+        public Set<Input> requiredInputs() {
+            return EnumSet.of(Input.CITY_KILOMETERS);
+        }
+
+        @Override
+        public BigDecimal charge(VehicleRental rental, Tariff tariff) {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** Prices a single rental per invocation, cycling through a fixed pool of generated rentals of one type. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CostCalculatorBenchmark {
+
+    private static final int POOL_SIZE = 1 << 10;
+
+    @Param({"COMPACT_VAN", "LARGE_VAN", "E_VAN"})
+    public VehicleType vehicleType;
+
+    private CostCalculator calculator;
+    private VehicleRental[] rentals;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        calculator = new CostCalculator();
+        rentals = new RentalGenerator().rentals(POOL_SIZE, vehicleType).toArray(new VehicleRental[0]);
+    }
+
+    @Benchmark
+    public CostBreakdown calculate() {
+        VehicleRental rental = rentals[next];
+        next = (next + 1) & (POOL_SIZE - 1);
+        return calculator.calculate(rental);
+    }
+}
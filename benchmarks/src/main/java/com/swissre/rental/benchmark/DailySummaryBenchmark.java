@@ -0,0 +1,46 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Prices a whole day of generated rentals with {@link CostCalculator#calculateDailySummary(List)}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DailySummaryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rentals;
+
+    private CostCalculator calculator;
+    private List<VehicleRental> day;
+
+    @Setup
+    public void setUp() {
+        calculator = new CostCalculator();
+        day = List.copyOf(new RentalGenerator().rentals(rentals));
+    }
+
+    @Benchmark
+    public DailySummary calculateDailySummary() {
+        return calculator.calculateDailySummary(day);
+    }
+}
@@ -0,0 +1,198 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.io.RentalIngestionServer;
+import com.swissre.rental.io.RentalJournal;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Load client for the depot ingestion server. Every connection is a virtual thread that sends a
+ * window of rental lines, waits for all of their answers and repeats, for a fixed duration after
+ * a warmup; the run reports acknowledged rentals per second and the p50/p99 round trip of a window.
+ *
+ * <p>Usage: {@code IngestionLoadTest [--port=port] [--journal=dir] [--connections=200] [--window=32]
+ * [--seconds=20] [--warmup=5]}. Without a port an embedded server is started on a free loopback
+ * port, whose sink discards the rentals, or appends them to a journal in {@code dir}.</p>
+ */
+public final class IngestionLoadTest {
+
+    private static final int DISTINCT_WINDOWS = 256;
+
+    private IngestionLoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        int port = -1;
+        Path journalDirectory = null;
+        int connections = 200;
+        int window = 32;
+        int seconds = 20;
+        int warmup = 5;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--port=")) {
+                port = Integer.parseInt(value);
+            } else if (arg.startsWith("--journal=")) {
+                journalDirectory = Path.of(value);
+            } else if (arg.startsWith("--connections=")) {
+                connections = Integer.parseInt(value);
+            } else if (arg.startsWith("--window=")) {
+                window = Integer.parseInt(value);
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Integer.parseInt(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        RentalJournal journal = null;
+        RentalIngestionServer server = null;
+        if (port < 0) {
+            journal = journalDirectory == null ? null : RentalJournal.open(journalDirectory);
+            RentalJournal sinkJournal = journal;
+            server = new RentalIngestionServer(new CostCalculator(), breakdowns -> {
+                if (sinkJournal != null) {
+                    List<VehicleRental> rentals = new ArrayList<>(breakdowns.size());
+                    breakdowns.forEach(breakdown -> rentals.add(breakdown.rental()));
+                    sinkJournal.appendAll(rentals);
+                }
+            }, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+            port = server.port();
+        }
+        try {
+            List<byte[]> windows = windows(window);
+            run(port, windows, window, connections, warmup);
+            Report report = run(port, windows, window, connections, seconds);
+            System.out.printf(Locale.ROOT, "%d connections, window %d%s: %d rentals in %d s, %.0f rentals/s,"
+                            + " window round trip p50 %.2f ms, p99 %.2f ms, %d errors%n",
+                    connections, window, journal == null ? "" : ", journaled", report.rentals, seconds,
+                    report.rentals / (double) seconds, report.percentile(0.50), report.percentile(0.99),
+                    report.errors);
+            if (server != null) {
+                System.out.println(server.stats());
+            }
+        } finally {
+            if (server != null) {
+                server.close();
+            }
+            if (journal != null) {
+                journal.close();
+            }
+        }
+    }
+
+    private static List<byte[]> windows(int window) {
+        RentalGenerator generator = new RentalGenerator();
+        List<byte[]> windows = new ArrayList<>(DISTINCT_WINDOWS);
+        for (int i = 0; i < DISTINCT_WINDOWS; i++) {
+            StringBuilder sb = new StringBuilder(window * 40);
+            for (int j = 0; j < window; j++) {
+                VehicleRental rental = generator.next();
+                sb.append(rental.vehicleType().name()).append(',')
+                        .append(rental.kilometersDriven().toPlainString()).append(',')
+                        .append(rental.energyConsumed().toPlainString()).append(',')
+                        .append(rental.motorwayVignette() ? 'y' : 'n').append(',')
+                        .append(rental.gubristTunnelPassages()).append(',')
+                        .append(rental.cityKilometers().toPlainString()).append('\n');
+            }
+            windows.add(sb.toString().getBytes(StandardCharsets.US_ASCII));
+        }
+        return windows;
+    }
+
+    private static Report run(int port, List<byte[]> windows, int window, int connections, int seconds)
+            throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Report>> futures = new ArrayList<>(connections);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < connections; c++) {
+                int offset = c;
+                futures.add(executor.submit(() -> connection(port, windows, window, offset, deadline)));
+            }
+        }
+        long[] latencies = new long[0];
+        long rentals = 0;
+        long errors = 0;
+        for (Future<Report> future : futures) {
+            Report report = future.get();
+            int length = latencies.length;
+            latencies = Arrays.copyOf(latencies, length + report.latencies.length);
+            System.arraycopy(report.latencies, 0, latencies, length, report.latencies.length);
+            rentals += report.rentals;
+            errors += report.errors;
+        }
+        Arrays.sort(latencies);
+        return new Report(latencies, rentals, errors);
+    }
+
+    private static Report connection(int port, List<byte[]> windows, int window, int offset, long deadline)
+            throws IOException {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        byte[] answers = new byte[8192];
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port)) {
+            socket.setTcpNoDelay(true);
+            OutputStream out = socket.getOutputStream();
+            InputStream in = socket.getInputStream();
+            for (int i = offset; System.nanoTime() < deadline; i++) {
+                long start = System.nanoTime();
+                out.write(windows.get(i % windows.size()));
+                int lines = 0;
+                boolean lineStart = true;
+                while (lines < window) {
+                    int read = in.read(answers);
+                    if (read == -1) {
+                        throw new IOException("Server closed the connection");
+                    }
+                    for (int b = 0; b < read; b++) {
+                        if (lineStart && answers[b] == 'E') {
+                            errors++;
+                        }
+                        lineStart = answers[b] == '\n';
+                        if (lineStart) {
+                            lines++;
+                        }
+                    }
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+        return new Report(Arrays.copyOf(latencies, count), (long) count * window, errors);
+    }
+
+    private record Report(long[] latencies, long rentals, long errors) {
+
+        /** Round trip in milliseconds at {@code quantile} of the sorted samples. */
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.io.RentalCsvImporter;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+import com.swissre.rental.store.MappedRentalStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Scans and reopens a {@link MappedRentalStore} against holding the same rentals in a
+ * {@code List<VehicleRental>}.
+ *
+ * <p>{@code scan*} sums all subtotals with the fixed-point calculator; {@code priceMapped} feeds
+ * every rental to the {@link CostCalculator} instead. {@code reopen} opens the store from its
+ * files, which is all a restart has to do, while {@code loadList} builds the list again from the
+ * same rentals written as CSV, the fastest way to load them onto the heap.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class MappedRentalStoreBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int rentals;
+
+    private Path directory;
+    private Path csv;
+    private FixedPointCostCalculator fixedPoint;
+    private CostCalculator calculator;
+    private MappedRentalStore store;
+    private List<VehicleRental> list;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mapped-rentals");
+        csv = directory.resolve("rentals.csv");
+        fixedPoint = new FixedPointCostCalculator();
+        calculator = new CostCalculator();
+        list = new ArrayList<>(new RentalGenerator().rentals(rentals));
+        store = MappedRentalStore.open(directory.resolve("store"));
+        try (BufferedWriter writer = Files.newBufferedWriter(csv)) {
+            for (VehicleRental rental : list) {
+                store.append(rental);
+                writer.write(rental.vehicleType().name() + ',' + rental.kilometersDriven().toPlainString() + ','
+                        + rental.energyConsumed().toPlainString() + ',' + (rental.motorwayVignette() ? 'y' : 'n')
+                        + ',' + rental.gubristTunnelPassages() + ',' + rental.cityKilometers().toPlainString());
+                writer.newLine();
+            }
+        }
+        store.force();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public long scanMapped() {
+        return store.grandTotalCentimes(fixedPoint);
+    }
+
+    @Benchmark
+    public long scanList() {
+        return fixedPoint.grandTotalCentimes(list);
+    }
+
+    @Benchmark
+    public BigDecimal priceMapped() {
+        BigDecimal[] total = {BigDecimal.ZERO};
+        store.forEach(rental -> total[0] = total[0].add(calculator.calculate(rental).subtotal()));
+        return total[0];
+    }
+
+    @Benchmark
+    public long reopen() throws IOException {
+        try (MappedRentalStore reopened = MappedRentalStore.open(directory.resolve("store"))) {
+            return reopened.size();
+        }
+    }
+
+    @Benchmark
+    public List<VehicleRental> loadList() throws IOException {
+        List<VehicleRental> loaded = new ArrayList<>(rentals);
+        new RentalCsvImporter().importFile(csv, loaded::addAll);
+        return loaded;
+    }
+}
@@ -0,0 +1,60 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+import com.swissre.rental.store.PackedRentalStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sums a day of rentals held either in a {@link PackedRentalStore} or as {@link VehicleRental}
+ * records in an {@link ArrayList}. Both price with the same {@link FixedPointCostCalculator}, so
+ * the difference is the memory layout: three packed {@code long}s per rental against a record and
+ * three {@link java.math.BigDecimal}s scattered over the heap.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class PackedRentalStoreBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int rentals;
+
+    private FixedPointCostCalculator calculator;
+    private List<VehicleRental> list;
+    private PackedRentalStore packed;
+
+    @Setup
+    public void setUp() {
+        calculator = new FixedPointCostCalculator();
+        list = new ArrayList<>(new RentalGenerator().rentals(rentals));
+        packed = new PackedRentalStore(rentals);
+        list.forEach(packed::add);
+    }
+
+    @Benchmark
+    public long grandTotalPacked() {
+        return packed.grandTotalCentimes(calculator);
+    }
+
+    @Benchmark
+    public long grandTotalList() {
+        return calculator.grandTotalCentimes(list);
+    }
+}
@@ -0,0 +1,70 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.ParallelSummaryCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CostCalculator#calculateDailySummary(List)} with {@link ParallelSummaryCalculator}
+ * on pools of {@code parallelism} workers. The speedup at each level is the sequential score divided
+ * by the parallel one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ParallelSummaryBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int rentals;
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    private CostCalculator calculator;
+    private ForkJoinPool pool;
+    private ParallelSummaryCalculator parallel;
+    private List<VehicleRental> day;
+
+    @Setup
+    public void setUp() {
+        calculator = new CostCalculator();
+        pool = new ForkJoinPool(parallelism);
+        parallel = new ParallelSummaryCalculator(calculator, pool, ParallelSummaryCalculator.DEFAULT_CHUNK_SIZE);
+        day = List.copyOf(new RentalGenerator().rentals(rentals));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public DailySummary sequential() {
+        return calculator.calculateDailySummary(day);
+    }
+
+    @Benchmark
+    public DailySummary parallel() {
+        return parallel.calculateDailySummary(day);
+    }
+}
@@ -0,0 +1,138 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.store.PersistentVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the {@link PersistentVector} behind the open day with a {@link CopyOnWriteArrayList},
+ * the usual way to give readers stable snapshots while writers continue. Both hold one day of
+ * priced rentals.
+ *
+ * <p>Each benchmark keeps its collection at the same size. The persistent vector simply drops the
+ * new version; the copy-on-write list has to undo its change, so {@code appendCopyOnWrite} and
+ * {@code removeCopyOnWrite} each pay for two copies of the array. {@code sumSnapshot*} takes a
+ * snapshot and walks it once, as a summary or report render would.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class PersistentVectorBenchmark {
+
+    private static final int POOL_SIZE = 1 << 8;
+
+    @Param({"1000", "100000"})
+    public int rentals;
+
+    private PersistentVector<CostBreakdown> vector;
+    private CopyOnWriteArrayList<CostBreakdown> copyOnWrite;
+    private CostBreakdown[] pool;
+    private int[] indexes;
+    private int next;
+    private int updates;
+
+    @Setup
+    public void setUp() {
+        CostCalculator calculator = new CostCalculator();
+        RentalGenerator generator = new RentalGenerator();
+        List<CostBreakdown> day = calculator.calculateDailySummary(generator.rentals(rentals)).breakdowns();
+        vector = PersistentVector.copyOf(day);
+        copyOnWrite = new CopyOnWriteArrayList<>(day);
+        pool = calculator.calculateDailySummary(generator.rentals(POOL_SIZE)).breakdowns()
+                .toArray(new CostBreakdown[0]);
+        indexes = new int[POOL_SIZE];
+        for (int i = 0; i < POOL_SIZE; i++) {
+            indexes[i] = Math.floorMod(pool[i].hashCode(), rentals);
+        }
+    }
+
+    @Benchmark
+    public PersistentVector<CostBreakdown> appendPersistent() {
+        return vector.plus(pool[nextQuery()]);
+    }
+
+    @Benchmark
+    public CostBreakdown appendCopyOnWrite() {
+        copyOnWrite.add(pool[nextQuery()]);
+        return copyOnWrite.remove(rentals);
+    }
+
+    @Benchmark
+    public PersistentVector<CostBreakdown> updatePersistent() {
+        int query = nextQuery();
+        return vector.with(indexes[query], pool[query]);
+    }
+
+    /** Rotates the replacement per pass over the pool, since setting the element already there copies nothing. */
+    @Benchmark
+    public CostBreakdown updateCopyOnWrite() {
+        int query = nextQuery();
+        return copyOnWrite.set(indexes[query], pool[(query + ++updates / POOL_SIZE) & (POOL_SIZE - 1)]);
+    }
+
+    @Benchmark
+    public PersistentVector<CostBreakdown> removePersistent() {
+        return vector.minus(indexes[nextQuery()]);
+    }
+
+    @Benchmark
+    public CostBreakdown removeCopyOnWrite() {
+        int index = indexes[nextQuery()];
+        CostBreakdown removed = copyOnWrite.remove(index);
+        copyOnWrite.add(index, removed);
+        return removed;
+    }
+
+    @Benchmark
+    public CostBreakdown getPersistent() {
+        return vector.get(indexes[nextQuery()]);
+    }
+
+    @Benchmark
+    public CostBreakdown getCopyOnWrite() {
+        return copyOnWrite.get(indexes[nextQuery()]);
+    }
+
+    @Benchmark
+    public BigDecimal sumSnapshotPersistent() {
+        return sum(vector);
+    }
+
+    @Benchmark
+    public BigDecimal sumSnapshotCopyOnWrite() {
+        return sum(copyOnWrite);
+    }
+
+    private static BigDecimal sum(Iterable<CostBreakdown> snapshot) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (CostBreakdown breakdown : snapshot) {
+            total = total.add(breakdown.subtotal());
+        }
+        return total;
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (POOL_SIZE - 1);
+        return query;
+    }
+}
@@ -0,0 +1,188 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.http.PricingServer;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Closed-loop load generator for the HTTP pricing service. Each client is a virtual thread
+ * that sends its next request as soon as the previous answer arrived, for a fixed duration
+ * after a warmup, and the run reports requests per second and latency percentiles.
+ *
+ * <p>Usage: {@code PricingLoadTest [--url=http://host:port] [--endpoint=/quote] [--batch=1]
+ * [--clients=64] [--seconds=20] [--warmup=5]}. Without a URL an embedded server is started on
+ * a free loopback port. Bodies are built once from the seeded {@link RentalGenerator}; for
+ * {@code /quotes} and {@code /summary} each request carries {@code batch} rentals.</p>
+ */
+public final class PricingLoadTest {
+
+    private static final int DISTINCT_BODIES = 1024;
+
+    private PricingLoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        String url = null;
+        String endpoint = "/quote";
+        int batch = 1;
+        int clients = 64;
+        int seconds = 20;
+        int warmup = 5;
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--url=")) {
+                url = value;
+            } else if (arg.startsWith("--endpoint=")) {
+                endpoint = value;
+            } else if (arg.startsWith("--batch=")) {
+                batch = Integer.parseInt(value);
+            } else if (arg.startsWith("--clients=")) {
+                clients = Integer.parseInt(value);
+            } else if (arg.startsWith("--seconds=")) {
+                seconds = Integer.parseInt(value);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(value);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+
+        PricingServer server = null;
+        if (url == null) {
+            server = new PricingServer(new CostCalculator(),
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            server.start();
+            url = "http://localhost:" + server.port();
+        }
+        try {
+            URI uri = URI.create(url + endpoint);
+            List<String> bodies = bodies(endpoint.equals("/quote") ? 0 : batch);
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            run(client, uri, bodies, clients, warmup);
+            Report report = run(client, uri, bodies, clients, seconds);
+            System.out.printf(Locale.ROOT, "%s batch=%d clients=%d: %d requests in %d s, %.0f req/s"
+                            + " (%.0f rentals/s), p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d errors%n",
+                    endpoint, endpoint.equals("/quote") ? 1 : batch, clients, report.latencies.length, seconds,
+                    report.latencies.length / (double) seconds,
+                    report.latencies.length * (endpoint.equals("/quote") ? 1 : batch) / (double) seconds,
+                    report.percentile(0.50), report.percentile(0.99), report.percentile(1.0), report.errors);
+        } finally {
+            if (server != null) {
+                server.stop(0);
+            }
+        }
+    }
+
+    /** Single rental objects for a batch of 0, otherwise arrays of {@code batch} rentals. */
+    private static List<String> bodies(int batch) {
+        RentalGenerator generator = new RentalGenerator();
+        List<String> bodies = new ArrayList<>(DISTINCT_BODIES);
+        for (int i = 0; i < DISTINCT_BODIES; i++) {
+            if (batch == 0) {
+                bodies.add(json(new StringBuilder(), generator.next()).toString());
+                continue;
+            }
+            StringBuilder sb = new StringBuilder("[");
+            for (int j = 0; j < batch; j++) {
+                if (j > 0) {
+                    sb.append(',');
+                }
+                json(sb, generator.next());
+            }
+            bodies.add(sb.append(']').toString());
+        }
+        return bodies;
+    }
+
+    private static StringBuilder json(StringBuilder sb, VehicleRental rental) {
+        return sb.append("{\"vehicleType\":\"").append(rental.vehicleType().name())
+                .append("\",\"kilometersDriven\":").append(rental.kilometersDriven().toPlainString())
+                .append(",\"energyConsumed\":").append(rental.energyConsumed().toPlainString())
+                .append(",\"motorwayVignette\":").append(rental.motorwayVignette())
+                .append(",\"gubristTunnelPassages\":").append(rental.gubristTunnelPassages())
+                .append(",\"cityKilometers\":").append(rental.cityKilometers().toPlainString())
+                .append('}');
+    }
+
+    private static Report run(HttpClient client, URI uri, List<String> bodies, int clients, int seconds)
+            throws InterruptedException, ExecutionException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        List<Future<Report>> futures = new ArrayList<>(clients);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                futures.add(executor.submit(() -> client(client, uri, bodies, offset, deadline)));
+            }
+        }
+        long[] latencies = new long[0];
+        long errors = 0;
+        for (Future<Report> future : futures) {
+            Report report = future.get();
+            int length = latencies.length;
+            latencies = Arrays.copyOf(latencies, length + report.latencies.length);
+            System.arraycopy(report.latencies, 0, latencies, length, report.latencies.length);
+            errors += report.errors;
+        }
+        Arrays.sort(latencies);
+        return new Report(latencies, errors);
+    }
+
+    private static Report client(HttpClient client, URI uri, List<String> bodies, int offset, long deadline) {
+        long[] latencies = new long[1024];
+        int count = 0;
+        long errors = 0;
+        for (int i = offset; System.nanoTime() < deadline; i++) {
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(bodies.get(i % bodies.size())))
+                    .build();
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() != 200) {
+                    errors++;
+                    continue;
+                }
+            } catch (IOException e) {
+                errors++;
+                continue;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = System.nanoTime() - start;
+        }
+        return new Report(Arrays.copyOf(latencies, count), errors);
+    }
+
+    private record Report(long[] latencies, long errors) {
+
+        /** Latency in milliseconds at {@code quantile} of the sorted samples. */
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.store.RentalStore;
+import com.swissre.rental.store.SealedDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queries a {@link RentalStore} holding a year of sealed days: looking up one closed day and the
+ * revenue of a random date range. {@code revenueBySumming} adds up the cached day totals of the
+ * range and {@code revenueByRepricing} prices every rental in it again, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class RentalStoreBenchmark {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2025, 2, 13);
+    private static final int DAYS = 365;
+    private static final int QUERY_POOL_SIZE = 1 << 8;
+
+    @Param({"100", "1000"})
+    public int rentalsPerDay;
+
+    private CostCalculator calculator;
+    private RentalStore store;
+    private List<List<VehicleRental>> rentalsByDay;
+    private LocalDate[] from;
+    private LocalDate[] to;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        calculator = new CostCalculator();
+        store = new RentalStore(FIRST_DAY);
+        rentalsByDay = new ArrayList<>(DAYS);
+        RentalGenerator generator = new RentalGenerator();
+        for (int day = 0; day < DAYS; day++) {
+            List<VehicleRental> rentals = generator.rentals(rentalsPerDay);
+            rentals.forEach(rental -> store.add(calculator.calculate(rental)));
+            store.seal(FIRST_DAY.plusDays(day + 1));
+            rentalsByDay.add(rentals);
+        }
+        SplittableRandom random = new SplittableRandom(RentalGenerator.DEFAULT_SEED);
+        from = new LocalDate[QUERY_POOL_SIZE];
+        to = new LocalDate[QUERY_POOL_SIZE];
+        for (int i = 0; i < QUERY_POOL_SIZE; i++) {
+            int first = random.nextInt(DAYS);
+            from[i] = FIRST_DAY.plusDays(first);
+            to[i] = FIRST_DAY.plusDays(first + random.nextInt(DAYS - first));
+        }
+    }
+
+    @Benchmark
+    public SealedDay sealedDay() {
+        LocalDate date = from[nextQuery()];
+        return store.sealedDay(date).orElseThrow();
+    }
+
+    @Benchmark
+    public BigDecimal revenue() {
+        int query = nextQuery();
+        return store.revenue(from[query], to[query]);
+    }
+
+    @Benchmark
+    public BigDecimal revenueBySumming() {
+        int query = nextQuery();
+        BigDecimal total = BigDecimal.ZERO;
+        for (SealedDay day : store.sealedDays(from[query], to[query])) {
+            total = total.add(day.revenue());
+        }
+        return total;
+    }
+
+    @Benchmark
+    public BigDecimal revenueByRepricing() {
+        int query = nextQuery();
+        int first = (int) (from[query].toEpochDay() - FIRST_DAY.toEpochDay());
+        int last = (int) (to[query].toEpochDay() - FIRST_DAY.toEpochDay());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int day = first; day <= last; day++) {
+            total = total.add(calculator.calculateDailySummary(rentalsByDay.get(day)).grandTotal());
+        }
+        return total;
+    }
+
+    private int nextQuery() {
+        int query = next;
+        next = (next + 1) & (QUERY_POOL_SIZE - 1);
+        return query;
+    }
+}
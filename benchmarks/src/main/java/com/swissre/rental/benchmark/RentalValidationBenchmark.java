@@ -0,0 +1,85 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.RentalInput;
+import com.swissre.rental.model.RentalValidator;
+import com.swissre.rental.model.VehicleRental;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validates a feed of 10,000 rentals in which a share of rows is bad, either with
+ * {@link RentalValidator} or by constructing every row and catching the exception. Bad rows break
+ * one invariant each: negative kilometers, city kilometers beyond the total, or a missing field.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RentalValidationBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    @Param({"1", "10", "50"})
+    public int badRowPercent;
+
+    private List<RentalInput> inputs;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(RentalGenerator.DEFAULT_SEED);
+        inputs = new ArrayList<>(ROWS);
+        for (VehicleRental rental : new RentalGenerator().rentals(ROWS)) {
+            RentalInput input = new RentalInput(rental.vehicleType(), rental.kilometersDriven(),
+                    rental.energyConsumed(), rental.motorwayVignette(), rental.gubristTunnelPassages(),
+                    rental.cityKilometers());
+            inputs.add(random.nextInt(100) < badRowPercent ? broken(input, random.nextInt(3)) : input);
+        }
+    }
+
+    @Benchmark
+    public RentalValidator.Result validate() {
+        return RentalValidator.validate(inputs);
+    }
+
+    @Benchmark
+    public List<VehicleRental> throwAndCatch() {
+        List<VehicleRental> rentals = new ArrayList<>(inputs.size());
+        List<String> errors = new ArrayList<>();
+        for (RentalInput input : inputs) {
+            try {
+                rentals.add(input.toRental());
+            } catch (IllegalArgumentException | NullPointerException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return rentals;
+    }
+
+    private static RentalInput broken(RentalInput input, int kind) {
+        return switch (kind) {
+            case 0 -> new RentalInput(input.vehicleType(), input.kilometersDriven().negate().subtract(BigDecimal.ONE),
+                    input.energyConsumed(), input.motorwayVignette(), input.gubristTunnelPassages(), BigDecimal.ZERO);
+            case 1 -> new RentalInput(input.vehicleType(), input.kilometersDriven(), input.energyConsumed(),
+                    input.motorwayVignette(), input.gubristTunnelPassages(), input.kilometersDriven().add(BigDecimal.ONE));
+            default -> new RentalInput(input.vehicleType(), input.kilometersDriven(), null,
+                    input.motorwayVignette(), input.gubristTunnelPassages(), input.cityKilometers());
+        };
+    }
+}
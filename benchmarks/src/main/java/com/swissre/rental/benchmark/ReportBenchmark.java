@@ -0,0 +1,79 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.report.CompanySummaryFormatter;
+import com.swissre.rental.report.CustomerReceiptFormatter;
+import com.swissre.rental.report.SummaryFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders customer receipts and company summaries from pre-priced rentals, so only formatting is measured.
+ * The report date is fixed to keep the output identical between runs. Divide the summary scores by
+ * {@code summaryRentals} for time and allocation per rendered rental.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ReportBenchmark {
+
+    private static final LocalDate REPORT_DATE = LocalDate.of(2026, 2, 13);
+    private static final int RECEIPT_POOL_SIZE = 1 << 8;
+
+    @Param({"10", "1000"})
+    public int summaryRentals;
+
+    private CustomerReceiptFormatter receiptFormatter;
+    private CompanySummaryFormatter summaryFormatter;
+    private SummaryFormatter plainSummaryFormatter;
+    private CostBreakdown[] receipts;
+    private DailySummary summary;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        CostCalculator calculator = new CostCalculator();
+        receiptFormatter = new CustomerReceiptFormatter(REPORT_DATE);
+        summaryFormatter = new CompanySummaryFormatter(REPORT_DATE);
+        plainSummaryFormatter = new SummaryFormatter();
+        List<CostBreakdown> priced = calculator.calculateDailySummary(
+                new RentalGenerator().rentals(RECEIPT_POOL_SIZE)).breakdowns();
+        receipts = priced.toArray(new CostBreakdown[0]);
+        summary = calculator.calculateDailySummary(new RentalGenerator().rentals(summaryRentals));
+    }
+
+    @Benchmark
+    public String formatReceipt() {
+        CostBreakdown breakdown = receipts[next];
+        next = (next + 1) & (RECEIPT_POOL_SIZE - 1);
+        return receiptFormatter.formatReceipt(breakdown);
+    }
+
+    @Benchmark
+    public String formatSummary() {
+        return summaryFormatter.formatSummary(summary);
+    }
+
+    @Benchmark
+    public String formatPlainSummary() {
+        return plainSummaryFormatter.format(summary);
+    }
+}
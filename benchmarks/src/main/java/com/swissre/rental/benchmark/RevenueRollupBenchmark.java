@@ -0,0 +1,100 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.RevenueRollup;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records priced rentals into a {@link RevenueRollup} and reads it back. {@code record} and
+ * {@code recordBatch} run on four threads sharing one rollup to show that recording does not
+ * serialize; {@code recordBatch} scores are per batch of {@value #BATCH_SIZE}. {@code walkBreakdowns}
+ * totals one day's breakdowns by vehicle type and component the way the rollup replaces.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class RevenueRollupBenchmark {
+
+    private static final int POOL_SIZE = 1 << 12;
+    private static final int BATCH_SIZE = 256;
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final ChargeComponent[] COMPONENTS = ChargeComponent.values();
+
+    @Param({"100000"})
+    public int rentals;
+
+    private CostBreakdown[] pool;
+    private List<CostBreakdown> poolView;
+    private List<CostBreakdown> day;
+    private RevenueRollup rollup;
+
+    @Setup
+    public void setUp() {
+        CostCalculator calculator = new CostCalculator();
+        day = calculator.calculateDailySummary(new RentalGenerator().rentals(rentals)).breakdowns();
+        pool = day.subList(0, POOL_SIZE).toArray(new CostBreakdown[0]);
+        poolView = Arrays.asList(pool);
+        rollup = new RevenueRollup();
+        rollup.recordAll(day);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record(Cursor cursor) {
+        rollup.record(pool[cursor.next]);
+        cursor.next = (cursor.next + 1) & (POOL_SIZE - 1);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordBatch(Cursor cursor) {
+        int from = cursor.next & (POOL_SIZE - BATCH_SIZE);
+        rollup.recordAll(poolView.subList(from, from + BATCH_SIZE));
+        cursor.next = (from + BATCH_SIZE) & (POOL_SIZE - 1);
+    }
+
+    @Benchmark
+    public RevenueRollup.Snapshot snapshot() {
+        return rollup.snapshot();
+    }
+
+    @Benchmark
+    public BigDecimal[] walkBreakdowns() {
+        BigDecimal[] totals = new BigDecimal[TYPES.length * COMPONENTS.length];
+        Arrays.fill(totals, BigDecimal.ZERO);
+        for (CostBreakdown breakdown : day) {
+            int cell = breakdown.rental().vehicleType().ordinal() * COMPONENTS.length;
+            for (ChargeComponent component : COMPONENTS) {
+                totals[cell + component.ordinal()] = totals[cell + component.ordinal()].add(component.amountOf(breakdown));
+            }
+        }
+        return totals;
+    }
+}
@@ -0,0 +1,102 @@
+package com.swissre.rental.benchmark;
+
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.TariffRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices rentals with {@code events} Gubrist passages and as many city segments at random times
+ * against a tariff with rush-hour and night windows. {@code flat} prices the same rentals without
+ * their times, which is what every rental cost before windows existed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TariffWindowBenchmark {
+
+    private static final int POOL_SIZE = 1 << 8;
+    private static final String GUBRIST_WINDOWS = "06:30-09:00@4.00,16:00-19:00@4.00";
+    private static final String CONGESTION_WINDOWS =
+            "06:30-09:00@2.00,11:30-13:30@1.50,16:00-19:00@2.00,19:00-22:00@1.20,22:00-05:00@0.50";
+
+    @Param({"1", "12", "48"})
+    public int events;
+
+    private CostCalculator calculator;
+    private VehicleRental[] timed;
+    private VehicleRental[] flat;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Tariff base = Tariff.DEFAULT;
+        Tariff tariff = new Tariff("rush-hour", base.ratesPerKm(), base.energyRates(), base.vignetteCost(),
+                base.gubristCostPerPassage(), base.gubristMaxPaid(), base.congestionRatePerKm(), base.ecoBonusAmount(),
+                base.ecoBonusMinKm(), base.ecoBonusMaxKwhPer100(), TariffWindows.parse(GUBRIST_WINDOWS),
+                TariffWindows.parse(CONGESTION_WINDOWS));
+        calculator = new CostCalculator(new TariffRegistry(tariff));
+
+        SplittableRandom random = new SplittableRandom(RentalGenerator.DEFAULT_SEED);
+        List<VehicleRental> rentals = new RentalGenerator().rentals(POOL_SIZE, VehicleType.LARGE_VAN);
+        timed = new VehicleRental[POOL_SIZE];
+        flat = new VehicleRental[POOL_SIZE];
+        LocalDateTime day = LocalDateTime.of(2026, 10, 18, 0, 0);
+        for (int i = 0; i < POOL_SIZE; i++) {
+            VehicleRental rental = rentals.get(i);
+            List<LocalDateTime> passages = new ArrayList<>(events);
+            List<CitySegment> segments = new ArrayList<>(events);
+            BigDecimal cityKm = BigDecimal.ZERO;
+            for (int e = 0; e < events; e++) {
+                passages.add(day.plusSeconds(random.nextInt(24 * 60 * 60)));
+                BigDecimal km = BigDecimal.valueOf(random.nextInt(1, 5_000), 3);
+                segments.add(new CitySegment(day.plusSeconds(random.nextInt(24 * 60 * 60)), km));
+                cityKm = cityKm.add(km);
+            }
+            BigDecimal totalKm = rental.kilometersDriven().max(cityKm);
+            timed[i] = new VehicleRental(rental.vehicleType(), totalKm, rental.energyConsumed(),
+                    rental.motorwayVignette(), events, cityKm, passages, segments);
+            flat[i] = new VehicleRental(rental.vehicleType(), totalKm, rental.energyConsumed(),
+                    rental.motorwayVignette(), events, cityKm);
+        }
+    }
+
+    @Benchmark
+    public CostBreakdown timed() {
+        VehicleRental rental = timed[next];
+        next = (next + 1) & (POOL_SIZE - 1);
+        return calculator.calculate(rental);
+    }
+
+    @Benchmark
+    public CostBreakdown flat() {
+        VehicleRental rental = flat[next];
+        next = (next + 1) & (POOL_SIZE - 1);
+        return calculator.calculate(rental);
+    }
+}
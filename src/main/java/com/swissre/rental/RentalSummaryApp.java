@@ -1,18 +1,41 @@
 package com.swissre.rental;
 
+import com.swissre.rental.http.PricingServer;
+import com.swissre.rental.io.BulkReceiptJob;
+import com.swissre.rental.io.ImportError;
+import com.swissre.rental.io.ImportResult;
+import com.swissre.rental.io.RentalCsvImporter;
+import com.swissre.rental.io.RentalIngestionServer;
+import com.swissre.rental.io.RentalJournal;
+import com.swissre.rental.jfr.FlightRecording;
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.metrics.MetricsSnapshot;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.RevenueRollup;
+import com.swissre.rental.pricing.TariffRegistry;
 import com.swissre.rental.report.CompanySummaryFormatter;
 import com.swissre.rental.report.CustomerReceiptFormatter;
+import com.swissre.rental.store.RentalStore;
+import com.swissre.rental.store.SealedDay;
 import com.swissre.rental.ui.ConsoleUI;
 
 import com.swissre.rental.model.VehicleType;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Scanner;
 
 import static com.swissre.rental.util.Constants.NO_RENTALS_ADDED_YET;
@@ -20,28 +43,101 @@ import static com.swissre.rental.util.Constants.NO_RENTALS_ADDED_YET;
 /**
  * Application entry point and interactive main loop.
  *
- * <p>Owns the in-memory rental list and orchestrates the menu-driven workflow:
+ * <p>Owns the in-memory {@link RentalStore} and orchestrates the menu-driven workflow:
  * adding rentals, printing customer receipts, and generating company daily summaries.
+ * Each rental is priced once when it is added; the breakdowns and the running grand total
+ * are kept alongside the rentals, so printing a summary only renders and never re-prices.
+ * When the clock passes midnight the open day is sealed and a new one is opened, so the app
+ * can run for days and still answer for closed days without re-pricing. Receipts and summaries
+ * are dated with the open day.
  * All collaborators ({@link ConsoleUI}, {@link CostCalculator},
  * {@link CustomerReceiptFormatter}, {@link CompanySummaryFormatter}) are injected
  * via the constructor for testability.</p>
  */
 public class RentalSummaryApp {
 
+    private static final String IMPORT_OPTION = "--import=";
+    private static final String JOURNAL_OPTION = "--journal=";
+    private static final String RECEIPTS_OPTION = "--receipts=";
+    private static final String SERVE_OPTION = "--serve=";
+    private static final String INGEST_OPTION = "--ingest=";
+    private static final String METRICS_OPTION = "--metrics";
+    private static final String RECORD_OPTION = "--record=";
+
     private final ConsoleUI ui;
     private final CostCalculator calculator;
     private final CustomerReceiptFormatter receiptFormatter;
     private final CompanySummaryFormatter summaryFormatter;
-    private final List<VehicleRental> rentals;
+    private final RentalStore store;
+    private final Clock clock;
+    private final RentalJournal journal;
+    private final MetricsRegistry metrics;
+    private final LatencyHistogram[] actionLatency;
 
     public RentalSummaryApp(ConsoleUI ui, CostCalculator calculator,
                             CustomerReceiptFormatter receiptFormatter,
                             CompanySummaryFormatter summaryFormatter) {
+        this(ui, calculator, receiptFormatter, summaryFormatter, null);
+    }
+
+    /**
+     * Creates an app whose rentals survive restarts: the rentals recovered by {@code journal} are
+     * priced into the running totals of the day they were journaled on, and every rental added
+     * afterwards is logged to it. If that day has already ended, it stays open until the next rental
+     * or menu action seals it, so its receipts can still be written after midnight.
+     */
+    public RentalSummaryApp(ConsoleUI ui, CostCalculator calculator,
+                            CustomerReceiptFormatter receiptFormatter,
+                            CompanySummaryFormatter summaryFormatter,
+                            RentalJournal journal) {
+        this(ui, calculator, receiptFormatter, summaryFormatter, journal, new MetricsRegistry());
+    }
+
+    /**
+     * Creates an app that records how long each menu action takes, including the time spent
+     * waiting for input, as {@code ui.action.<choice>} in {@code metrics}. Pass the same registry
+     * to the calculator and formatters to see pricing and rendering next to it.
+     */
+    public RentalSummaryApp(ConsoleUI ui, CostCalculator calculator,
+                            CustomerReceiptFormatter receiptFormatter,
+                            CompanySummaryFormatter summaryFormatter,
+                            RentalJournal journal, MetricsRegistry metrics) {
+        this(ui, calculator, receiptFormatter, summaryFormatter, journal, metrics, Clock.systemDefaultZone());
+    }
+
+    /** Creates an app whose days start and end by {@code clock}. */
+    RentalSummaryApp(ConsoleUI ui, CostCalculator calculator,
+                     CustomerReceiptFormatter receiptFormatter,
+                     CompanySummaryFormatter summaryFormatter,
+                     RentalJournal journal, MetricsRegistry metrics, Clock clock) {
         this.ui = ui;
         this.calculator = calculator;
         this.receiptFormatter = receiptFormatter;
         this.summaryFormatter = summaryFormatter;
-        this.rentals = new ArrayList<>();
+        this.clock = clock;
+        LocalDate today = LocalDate.now(clock);
+        this.store = new RentalStore(journal == null ? today : journal.recoveredDay().orElse(today));
+        this.journal = journal;
+        this.metrics = metrics;
+        this.actionLatency = new LatencyHistogram[] {
+                metrics.histogram("ui.action.exit"),
+                metrics.histogram("ui.action.addRental"),
+                metrics.histogram("ui.action.customerReceipt"),
+                metrics.histogram("ui.action.companySummary"),
+                metrics.histogram("ui.action.testSummary")
+        };
+        if (journal != null) {
+            Tariff tariff = calculator.currentTariff();
+            for (VehicleRental rental : journal.recovered()) {
+                CostBreakdown breakdown = calculator.calculate(rental, tariff);
+                if (recordable(breakdown)) {
+                    store.add(breakdown);
+                }
+            }
+            if (journal.recoveredDay().isEmpty()) {
+                checkpoint();
+            }
+        }
     }
 
     public void run() {
@@ -52,6 +148,8 @@ public class RentalSummaryApp {
             ui.displayMenu();
             int choice = ui.getMenuChoice();
 
+            long start = System.nanoTime();
+            closeDayIfDue();
             switch (choice) {
                 case 1 -> addRental();
                 case 2 -> printCustomerReceipt();
@@ -62,37 +160,235 @@ public class RentalSummaryApp {
                     running = false;
                 }
             }
+            actionLatency[choice].recordSince(start);
             ui.displayMessage("");
         }
     }
 
+    /** Current values of every counter and latency histogram in the app's metrics registry. */
+    public MetricsSnapshot metrics() {
+        return metrics.snapshot();
+    }
+
+    /** Returns the open day's summary from the running totals, without re-pricing any rental. */
+    public DailySummary currentSummary() {
+        return store.openSummary();
+    }
+
+    /** The open day and the sealed days before it, e.g. to look up a closed day or a date range's revenue. */
+    public RentalStore store() {
+        return store;
+    }
+
+    /**
+     * Seals the open day and opens {@code nextDate}. The journal only holds the open day, so it is
+     * checkpointed empty; the sealed day's totals are kept in memory.
+     */
+    public SealedDay closeDay(LocalDate nextDate) {
+        SealedDay closed = store.seal(nextDate);
+        checkpoint();
+        ui.displayMessage("Closed " + closed.date() + ": " + closed.rentalCount() + " rentals, CHF "
+                + closed.revenue().toPlainString());
+        return closed;
+    }
+
+    /**
+     * Replaces the open day's rental at {@code index} with {@code rental}, priced with the current
+     * tariff, and returns the new breakdown. The journal is rewritten, so the correction survives
+     * restarts.
+     */
+    public CostBreakdown correctRental(int index, VehicleRental rental) {
+        CostBreakdown corrected = calculator.calculate(rental);
+        if (!RevenueRollup.canRecord(corrected)) {
+            throw new IllegalArgumentException(tooLarge(corrected));
+        }
+        store.update(index, corrected);
+        checkpoint();
+        return corrected;
+    }
+
+    /** Removes the open day's rental at {@code index}, e.g. a cancelled one, and returns it. */
+    public CostBreakdown removeRental(int index) {
+        CostBreakdown removed = store.remove(index);
+        checkpoint();
+        return removed;
+    }
+
+    private void closeDayIfDue() {
+        LocalDate today = LocalDate.now(clock);
+        if (today.isAfter(store.openDate())) {
+            closeDay(today);
+        }
+    }
+
+    /**
+     * Re-prices every rental added so far and checks that the running totals match exactly.
+     * A tariff published after rentals were added makes the check fail by design.
+     */
+    public boolean verifyRunningTotals() {
+        return calculator.calculateDailySummary(store.openRentals()).equals(currentSummary());
+    }
+
+    /**
+     * Bulk-imports rentals from a CSV file (see {@link RentalCsvImporter} for the format), pricing
+     * each batch into the running totals as it arrives. Rejected rows are reported with their line
+     * numbers, followed by the throughput for the import alone and for import plus summary.
+     */
+    public ImportResult importRentals(Path file) throws IOException {
+        closeDayIfDue();
+        Tariff tariff = calculator.currentTariff();
+        ImportResult result = new RentalCsvImporter().importFile(file, batch -> {
+            List<CostBreakdown> priced = new ArrayList<>(batch.size());
+            List<VehicleRental> recorded = new ArrayList<>(batch.size());
+            for (VehicleRental rental : batch) {
+                CostBreakdown breakdown = calculator.calculate(rental, tariff);
+                if (recordable(breakdown)) {
+                    priced.add(breakdown);
+                    recorded.add(rental);
+                }
+            }
+            log(recorded);
+            store.addAll(priced);
+            checkpointIfDue();
+        });
+
+        for (ImportError error : result.errors()) {
+            ui.displayError(error.toString());
+        }
+        if (result.rowsRejected() > result.errors().size()) {
+            ui.displayError((result.rowsRejected() - result.errors().size()) + " further rows rejected");
+        }
+        ui.displayMessage(String.format(Locale.ROOT,
+                "Imported %d rentals (%d rejected) in %.1f ms: %.0f rows/s import, %.0f rows/s import + summary",
+                result.rowsImported(), result.rowsRejected(), result.totalNanos() / 1_000_000.0,
+                result.importRowsPerSecond(), result.totalRowsPerSecond()));
+        ui.displayMessage("Total rentals: " + store.openRentals().size());
+        return result;
+    }
+
+    /**
+     * Writes a receipt file for every rental added so far into {@code directory}, reporting
+     * progress as it goes. See {@link BulkReceiptJob}.
+     */
+    public BulkReceiptJob.Result writeReceipts(Path directory) throws IOException, InterruptedException {
+        BulkReceiptJob job = new BulkReceiptJob(calculator, receiptFormatter);
+        List<VehicleRental> rentals = store.openRentals();
+        BulkReceiptJob.Result result = job.run(store.openDate(), rentals, directory, (written, failed) ->
+                ui.displayMessage("Receipts written: " + written + " of " + rentals.size()
+                        + (failed > 0 ? " (" + failed + " failed)" : "")));
+
+        for (BulkReceiptJob.ReceiptError error : result.errors()) {
+            ui.displayError("Receipt " + error.receiptNumber() + ": " + error.message());
+        }
+        ui.displayMessage(String.format(Locale.ROOT, "Wrote %d receipts to %s in %.1f ms (%.0f receipts/s)",
+                result.written(), directory, result.elapsedNanos() / 1_000_000.0, result.receiptsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Adds rentals that were priced elsewhere, journaling them as one group. This is the sink of the
+     * {@link RentalIngestionServer}; like the rest of the app it must only be called from one thread.
+     */
+    public void ingest(List<CostBreakdown> priced) {
+        closeDayIfDue();
+        List<VehicleRental> added = new ArrayList<>(priced.size());
+        for (CostBreakdown breakdown : priced) {
+            if (!RevenueRollup.canRecord(breakdown)) {
+                throw new IllegalArgumentException(tooLarge(breakdown));
+            }
+            added.add(breakdown.rental());
+        }
+        log(added);
+        store.addAll(priced);
+        checkpointIfDue();
+    }
+
     private void addRental() {
         VehicleRental rental = ui.promptForRental();
-        rentals.add(rental);
-        ui.displayMessage("Rental added successfully. Total rentals: " + rentals.size());
+        CostBreakdown breakdown = calculator.calculate(rental);
+        if (!recordable(breakdown)) {
+            return;
+        }
+        log(List.of(rental));
+        store.add(breakdown);
+        checkpointIfDue();
+        ui.displayMessage("Rental added successfully. Total rentals: " + store.openRentals().size());
+    }
+
+    /**
+     * Whether the day's totals can hold {@code breakdown}; reports it otherwise. Checked before a rental
+     * is journaled, so the journal never holds a rental that could not be recovered.
+     */
+    private boolean recordable(CostBreakdown breakdown) {
+        if (RevenueRollup.canRecord(breakdown)) {
+            return true;
+        }
+        ui.displayError(tooLarge(breakdown));
+        return false;
+    }
+
+    private static String tooLarge(CostBreakdown breakdown) {
+        return "Rental not recorded: CHF " + breakdown.subtotal().toPlainString()
+                + " exceeds what the daily totals can hold";
+    }
+
+    private void log(List<VehicleRental> added) {
+        if (added.isEmpty() || journal == null) {
+            return;
+        }
+        try {
+            if (added.size() == 1) {
+                journal.append(added.get(0));
+            } else {
+                journal.appendAll(added);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal rentals", e);
+        }
+    }
+
+    private void checkpointIfDue() {
+        if (journal != null && journal.checkpointDue()) {
+            checkpoint();
+        }
+    }
+
+    private void checkpoint() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.checkpoint(store.openDate(), store.openRentals());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not checkpoint rental journal", e);
+        }
     }
 
     private void printCustomerReceipt() {
+        List<VehicleRental> rentals = store.openRentals();
         if (rentals.isEmpty()) {
             ui.displayError(NO_RENTALS_ADDED_YET);
             return;
         }
 
         int index = ui.selectRentalIndex(rentals);
-        CostBreakdown breakdown = calculator.calculate(rentals.get(index));
         ui.displayMessage("");
-        ui.displayMessage(receiptFormatter.formatReceipt(breakdown));
+        ui.displayMessage(receiptFormatter.formatReceipt(store.openDate(), currentSummary().breakdowns().get(index)));
     }
 
     private void printCompanySummary() {
-        if (rentals.isEmpty()) {
+        if (store.openRentals().isEmpty()) {
             ui.displayError(NO_RENTALS_ADDED_YET);
             return;
         }
 
-        DailySummary summary = calculator.calculateDailySummary(rentals);
         ui.displayMessage("");
-        ui.displayMessage(summaryFormatter.formatSummary(summary));
+        try {
+            summaryFormatter.writeSummary(store.openDate(), currentSummary(), ui.output());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not print company summary", e);
+        }
+        ui.displayMessage("");
     }
 
     private void printTestCompanySummary() {
@@ -107,17 +403,102 @@ public class RentalSummaryApp {
 
         DailySummary summary = calculator.calculateDailySummary(testRentals);
         ui.displayMessage("");
-        ui.displayMessage(summaryFormatter.formatSummary(summary));
+        ui.displayMessage(summaryFormatter.formatSummary(store.openDate(), summary));
     }
 
-    public static void main(String[] args) {
+    /**
+     * Usage: {@code RentalSummaryApp [tariff.properties] [--journal=dir] [--import=rentals.csv] [--receipts=dir]
+     * [--serve=port] [--ingest=port] [--metrics] [--record=file.jfr]}.
+     * With a journal directory, rentals are recovered from it on startup and logged to it as they
+     * are added. The rentals file is imported before the interactive menu starts. With a receipts
+     * directory, a receipt file is written for every rental and the application exits without
+     * starting the menu. With a serve port, the application runs headless as an HTTP pricing service
+     * until it is killed; with an ingest port, it runs headless collecting the day's rentals from
+     * depot terminals into the journal until it is killed. With {@code --metrics}, pricing, rendering
+     * and menu latencies are printed on exit; the pricing service serves them at {@code /metrics}.
+     * With {@code --record}, a Flight Recorder recording including the rental events is written to
+     * the file on exit.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
         Scanner scanner = new Scanner(System.in);
         ConsoleUI ui = new ConsoleUI(scanner, System.out);
-        CostCalculator calculator = new CostCalculator();
-        CustomerReceiptFormatter receiptFormatter = new CustomerReceiptFormatter();
-        CompanySummaryFormatter summaryFormatter = new CompanySummaryFormatter();
+        TariffRegistry tariffs = new TariffRegistry();
+        Path importFile = null;
+        Path journalDirectory = null;
+        Path receiptsDirectory = null;
+        int servePort = -1;
+        int ingestPort = -1;
+        boolean printMetrics = false;
+        Path recordingFile = null;
+        for (String arg : args) {
+            if (arg.startsWith(IMPORT_OPTION)) {
+                importFile = Path.of(arg.substring(IMPORT_OPTION.length()));
+            } else if (arg.startsWith(JOURNAL_OPTION)) {
+                journalDirectory = Path.of(arg.substring(JOURNAL_OPTION.length()));
+            } else if (arg.startsWith(RECEIPTS_OPTION)) {
+                receiptsDirectory = Path.of(arg.substring(RECEIPTS_OPTION.length()));
+            } else if (arg.equals(METRICS_OPTION)) {
+                printMetrics = true;
+            } else if (arg.startsWith(RECORD_OPTION)) {
+                recordingFile = Path.of(arg.substring(RECORD_OPTION.length()));
+            } else if (arg.startsWith(INGEST_OPTION)) {
+                ingestPort = Integer.parseInt(arg.substring(INGEST_OPTION.length()));
+            } else if (arg.startsWith(SERVE_OPTION)) {
+                servePort = Integer.parseInt(arg.substring(SERVE_OPTION.length()));
+            } else {
+                tariffs.load(Path.of(arg));
+            }
+        }
+        FlightRecording recording = recordingFile == null ? null : FlightRecording.start(recordingFile);
+        if (recording != null) {
+            ui.displayMessage("Recording flight events to " + recording.destination());
+        }
+        MetricsRegistry metrics = new MetricsRegistry();
+        CostCalculator calculator = new CostCalculator(tariffs, metrics);
+        if (servePort >= 0) {
+            PricingServer server = new PricingServer(calculator, new InetSocketAddress(servePort), metrics);
+            server.start();
+            ui.displayMessage("Pricing service listening on port " + server.port());
+            Thread.currentThread().join();
+            return;
+        }
+        Clock clock = Clock.systemDefaultZone();
+        CustomerReceiptFormatter receiptFormatter = new CustomerReceiptFormatter(LocalDate.now(clock), metrics);
+        CompanySummaryFormatter summaryFormatter = new CompanySummaryFormatter(LocalDate.now(clock), metrics);
 
-        RentalSummaryApp app = new RentalSummaryApp(ui, calculator, receiptFormatter, summaryFormatter);
-        app.run();
+        RentalJournal journal = journalDirectory == null ? null : RentalJournal.open(journalDirectory);
+        try {
+            if (journal != null && !journal.recovered().isEmpty()) {
+                ui.displayMessage(String.format(Locale.ROOT, "Recovered %d rentals from the journal in %.1f ms",
+                        journal.recovered().size(), journal.stats().recoveryNanos() / 1_000_000.0));
+            }
+            RentalSummaryApp app = new RentalSummaryApp(ui, calculator, receiptFormatter, summaryFormatter, journal,
+                    metrics, clock);
+            if (importFile != null) {
+                app.importRentals(importFile);
+            }
+            if (receiptsDirectory != null) {
+                app.writeReceipts(receiptsDirectory);
+            } else if (ingestPort >= 0) {
+                RentalIngestionServer server = new RentalIngestionServer(calculator, app::ingest,
+                        new InetSocketAddress(ingestPort));
+                server.start();
+                ui.displayMessage("Accepting rentals from depot terminals on port " + server.port());
+                Thread.currentThread().join();
+            } else {
+                app.run();
+            }
+            if (printMetrics) {
+                ui.displayMessage(app.metrics().format());
+            }
+        } finally {
+            if (journal != null) {
+                journal.close();
+            }
+            if (recording != null) {
+                recording.close();
+                ui.displayMessage("Flight recording written to " + recording.destination());
+            }
+        }
     }
 }
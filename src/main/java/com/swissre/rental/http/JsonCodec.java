@@ -0,0 +1,289 @@
+package com.swissre.rental.http;
+
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsSnapshot;
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hand-written JSON mapping between the pricing model and the HTTP API, without reflection.
+ *
+ * <p>A rental is read from an object with {@code vehicleType}, {@code kilometersDriven} and
+ * {@code energyConsumed} (required) and {@code motorwayVignette}, {@code gubristTunnelPassages}
+ * and {@code cityKilometers} (optional, defaulting to no vignette, no passages and no city
+ * kilometers). For time-of-day tariffs, {@code gubristPassageTimes} lists ISO local date-times
+ * and {@code citySegments} objects with a {@code start} date-time and {@code kilometers}; they
+ * default the passage count and city kilometers when those are omitted. Unknown members are
+ * rejected so typos do not silently price as zero. Amounts
+ * are written as exact JSON numbers with two decimals.</p>
+ */
+final class JsonCodec {
+
+    private static final Set<String> RENTAL_FIELDS = Set.of("vehicleType", "kilometersDriven", "energyConsumed",
+            "motorwayVignette", "gubristTunnelPassages", "cityKilometers", "gubristPassageTimes", "citySegments");
+    private static final Set<String> SEGMENT_FIELDS = Set.of("start", "kilometers");
+    private static final int MAX_DIGITS = 30;
+
+    private JsonCodec() {
+    }
+
+    static VehicleRental rental(Object json) {
+        if (!(json instanceof Map<?, ?> object)) {
+            throw new IllegalArgumentException("Rental must be a JSON object");
+        }
+        for (Object name : object.keySet()) {
+            if (!RENTAL_FIELDS.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name);
+            }
+        }
+
+        VehicleType type = vehicleType(object.get("vehicleType"));
+        BigDecimal kilometers = decimal(object, "kilometersDriven", null);
+        BigDecimal energy = decimal(object, "energyConsumed", null);
+        boolean vignette = bool(object, "motorwayVignette");
+        List<LocalDateTime> passageTimes = passageTimes(object.get("gubristPassageTimes"));
+        List<CitySegment> segments = citySegments(object.get("citySegments"));
+        int passages = object.containsKey("gubristTunnelPassages")
+                ? count(object, "gubristTunnelPassages") : passageTimes.size();
+        BigDecimal cityKilometers = decimal(object, "cityKilometers", segments.stream()
+                .map(CitySegment::kilometers).reduce(BigDecimal.ZERO, BigDecimal::add));
+        return new VehicleRental(type, kilometers, energy, vignette, passages, cityKilometers, passageTimes, segments);
+    }
+
+    /** Reads a JSON array of rentals; errors name the offending index. */
+    static List<VehicleRental> rentals(Object json) {
+        if (!(json instanceof List<?> array)) {
+            throw new IllegalArgumentException("Expected a JSON array of rentals");
+        }
+        List<VehicleRental> rentals = new ArrayList<>(array.size());
+        for (int i = 0; i < array.size(); i++) {
+            try {
+                rentals.add(rental(array.get(i)));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("rentals[" + i + "]: " + e.getMessage(), e);
+            }
+        }
+        return rentals;
+    }
+
+    static StringBuilder writeBreakdown(StringBuilder sb, CostBreakdown breakdown) {
+        sb.append("{\"rental\":");
+        writeRental(sb, breakdown.rental());
+        amount(sb, "distanceCost", breakdown.distanceCost());
+        amount(sb, "energyCost", breakdown.energyCost());
+        amount(sb, "vignetteCost", breakdown.vignetteCost());
+        amount(sb, "gubristCost", breakdown.gubristCost());
+        amount(sb, "congestionCost", breakdown.congestionCost());
+        amount(sb, "ecoBonus", breakdown.ecoBonus());
+        amount(sb, "subtotal", breakdown.subtotal());
+        sb.append(",\"tariffVersion\":");
+        return writeString(sb, breakdown.tariffVersion()).append('}');
+    }
+
+    static StringBuilder writeBreakdowns(StringBuilder sb, List<CostBreakdown> breakdowns) {
+        sb.append('[');
+        for (int i = 0; i < breakdowns.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            writeBreakdown(sb, breakdowns.get(i));
+        }
+        return sb.append(']');
+    }
+
+    static StringBuilder writeSummary(StringBuilder sb, DailySummary summary) {
+        sb.append("{\"vehicleCount\":").append(summary.breakdowns().size());
+        amount(sb, "grandTotal", summary.grandTotal());
+        sb.append(",\"breakdowns\":");
+        return writeBreakdowns(sb, summary.breakdowns()).append('}');
+    }
+
+    static StringBuilder writeMetrics(StringBuilder sb, MetricsSnapshot snapshot) {
+        sb.append("{\"counters\":{");
+        boolean first = true;
+        for (Map.Entry<String, Long> counter : snapshot.counters().entrySet()) {
+            sb.append(first ? "" : ",");
+            writeString(sb, counter.getKey()).append(':').append(counter.getValue());
+            first = false;
+        }
+        sb.append("},\"histograms\":{");
+        first = true;
+        for (Map.Entry<String, LatencyHistogram.Snapshot> histogram : snapshot.histograms().entrySet()) {
+            LatencyHistogram.Snapshot h = histogram.getValue();
+            sb.append(first ? "" : ",");
+            writeString(sb, histogram.getKey())
+                    .append(":{\"count\":").append(h.count())
+                    .append(",\"meanNanos\":").append(h.meanNanos())
+                    .append(",\"p50Nanos\":").append(h.p50Nanos())
+                    .append(",\"p90Nanos\":").append(h.p90Nanos())
+                    .append(",\"p99Nanos\":").append(h.p99Nanos())
+                    .append(",\"p999Nanos\":").append(h.p999Nanos())
+                    .append(",\"maxNanos\":").append(h.maxNanos()).append('}');
+            first = false;
+        }
+        return sb.append("}}");
+    }
+
+    static String error(String message) {
+        return writeString(new StringBuilder("{\"error\":"), message).append('}').toString();
+    }
+
+    static StringBuilder writeString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"');
+    }
+
+    private static void writeRental(StringBuilder sb, VehicleRental rental) {
+        sb.append("{\"vehicleType\":\"").append(rental.vehicleType().name()).append('"');
+        sb.append(",\"kilometersDriven\":").append(rental.kilometersDriven().toPlainString());
+        sb.append(",\"energyConsumed\":").append(rental.energyConsumed().toPlainString());
+        sb.append(",\"motorwayVignette\":").append(rental.motorwayVignette());
+        sb.append(",\"gubristTunnelPassages\":").append(rental.gubristTunnelPassages());
+        sb.append(",\"cityKilometers\":").append(rental.cityKilometers().toPlainString());
+        if (!rental.gubristPassageTimes().isEmpty()) {
+            sb.append(",\"gubristPassageTimes\":[");
+            for (int i = 0; i < rental.gubristPassageTimes().size(); i++) {
+                sb.append(i > 0 ? ",\"" : "\"").append(rental.gubristPassageTimes().get(i)).append('"');
+            }
+            sb.append(']');
+        }
+        if (!rental.citySegments().isEmpty()) {
+            sb.append(",\"citySegments\":[");
+            for (int i = 0; i < rental.citySegments().size(); i++) {
+                CitySegment segment = rental.citySegments().get(i);
+                sb.append(i > 0 ? "," : "").append("{\"start\":\"").append(segment.start())
+                        .append("\",\"kilometers\":").append(segment.kilometers().toPlainString()).append('}');
+            }
+            sb.append(']');
+        }
+        sb.append('}');
+    }
+
+    private static void amount(StringBuilder sb, String name, BigDecimal value) {
+        sb.append(",\"").append(name).append("\":").append(value.toPlainString());
+    }
+
+    private static VehicleType vehicleType(Object value) {
+        if (!(value instanceof String name)) {
+            throw new IllegalArgumentException("vehicleType must be one of COMPACT_VAN, LARGE_VAN, E_VAN");
+        }
+        for (VehicleType type : VehicleType.values()) {
+            if (type.name().equals(name)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("vehicleType must be one of COMPACT_VAN, LARGE_VAN, E_VAN");
+    }
+
+    /** Reads a number, rejecting absurd magnitudes that would only serve to exhaust memory when printed. */
+    private static BigDecimal decimal(Map<?, ?> object, String name, BigDecimal defaultValue) {
+        Object value = object.get(name);
+        if (value == null && defaultValue != null && !object.containsKey(name)) {
+            return defaultValue;
+        }
+        if (!(value instanceof BigDecimal number)) {
+            throw new IllegalArgumentException(name + " must be a number");
+        }
+        if (number.scale() > MAX_DIGITS || number.precision() - number.scale() > MAX_DIGITS) {
+            throw new IllegalArgumentException(name + " is out of range");
+        }
+        return number;
+    }
+
+    private static List<LocalDateTime> passageTimes(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> array)) {
+            throw new IllegalArgumentException("gubristPassageTimes must be an array of date-times");
+        }
+        List<LocalDateTime> times = new ArrayList<>(array.size());
+        for (Object time : array) {
+            times.add(dateTime(time, "gubristPassageTimes"));
+        }
+        return times;
+    }
+
+    private static List<CitySegment> citySegments(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> array)) {
+            throw new IllegalArgumentException("citySegments must be an array of objects");
+        }
+        List<CitySegment> segments = new ArrayList<>(array.size());
+        for (Object element : array) {
+            if (!(element instanceof Map<?, ?> segment) || !SEGMENT_FIELDS.containsAll(segment.keySet())) {
+                throw new IllegalArgumentException("citySegments must hold objects with start and kilometers");
+            }
+            segments.add(new CitySegment(dateTime(segment.get("start"), "citySegments start"),
+                    decimal(segment, "kilometers", null)));
+        }
+        return segments;
+    }
+
+    private static LocalDateTime dateTime(Object value, String name) {
+        if (value instanceof String text) {
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException(name + " must be a date-time like 2026-10-18T07:45", e);
+            }
+        }
+        throw new IllegalArgumentException(name + " must be a date-time like 2026-10-18T07:45");
+    }
+
+    private static boolean bool(Map<?, ?> object, String name) {
+        Object value = object.get(name);
+        if (value == null && !object.containsKey(name)) {
+            return false;
+        }
+        if (!(value instanceof Boolean flag)) {
+            throw new IllegalArgumentException(name + " must be true or false");
+        }
+        return flag;
+    }
+
+    private static int count(Map<?, ?> object, String name) {
+        Object value = object.get(name);
+        if (value == null && !object.containsKey(name)) {
+            return 0;
+        }
+        if (!(value instanceof BigDecimal number)) {
+            throw new IllegalArgumentException(name + " must be a whole number");
+        }
+        try {
+            return number.intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must be a whole number", e);
+        }
+    }
+}
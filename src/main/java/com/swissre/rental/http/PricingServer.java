@@ -0,0 +1,166 @@
+package com.swissre.rental.http;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless pricing service on the JDK's built-in HTTP server, one virtual thread per exchange.
+ *
+ * <p>All endpoints take a JSON body by {@code POST} and answer with JSON:</p>
+ * <ul>
+ *   <li>{@code /quote} — one rental object, answered with its cost breakdown</li>
+ *   <li>{@code /quotes} — an array of rentals, answered with an array of breakdowns in the same order</li>
+ *   <li>{@code /summary} — an array of rentals, answered with the daily summary</li>
+ * </ul>
+ *
+ * <p>{@code GET /metrics} answers with a snapshot of the {@link MetricsRegistry} the server was
+ * given, counters by name and latency histograms in nanoseconds.</p>
+ *
+ * <p>A batch is priced with a single tariff, captured when the request arrives. Invalid input
+ * is answered with {@code 400} and an {@code {"error": "..."}} body, bodies above
+ * {@value #MAX_BODY_BYTES} bytes with {@code 413}.</p>
+ */
+public class PricingServer {
+
+    public static final int MAX_BODY_BYTES = 16 * 1024 * 1024;
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+
+    static {
+        // The server writes the response headers and the body separately; with Nagle's algorithm the
+        // body then waits for the client's delayed ACK, adding about 40 ms to every small response.
+        // The property is read once, when the first server is created, and can still be overridden.
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+    }
+
+    private final CostCalculator calculator;
+    private final MetricsRegistry metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public PricingServer(CostCalculator calculator, InetSocketAddress address) throws IOException {
+        this(calculator, address, new MetricsRegistry());
+    }
+
+    public PricingServer(CostCalculator calculator, InetSocketAddress address, MetricsRegistry metrics)
+            throws IOException {
+        this.calculator = calculator;
+        this.metrics = metrics;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/quote", exchange -> handle(exchange, "/quote", "POST", this::quote));
+        server.createContext("/quotes", exchange -> handle(exchange, "/quotes", "POST", this::quotes));
+        server.createContext("/summary", exchange -> handle(exchange, "/summary", "POST", this::summary));
+        server.createContext("/metrics", exchange -> handle(exchange, "/metrics", "GET", json ->
+                JsonCodec.writeMetrics(new StringBuilder(4096), metrics.snapshot()).toString()));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** The bound port, useful when the server was created on port 0. */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests and waits up to {@code delaySeconds} for running exchanges to finish. */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    private String quote(Object json) {
+        VehicleRental rental = JsonCodec.rental(json);
+        return JsonCodec.writeBreakdown(new StringBuilder(512), calculator.calculate(rental)).toString();
+    }
+
+    private String quotes(Object json) {
+        List<VehicleRental> rentals = JsonCodec.rentals(json);
+        Tariff tariff = calculator.currentTariff();
+        List<CostBreakdown> breakdowns = new ArrayList<>(rentals.size());
+        for (VehicleRental rental : rentals) {
+            breakdowns.add(calculator.calculate(rental, tariff));
+        }
+        return JsonCodec.writeBreakdowns(new StringBuilder(512 * rentals.size() + 2), breakdowns).toString();
+    }
+
+    private String summary(Object json) {
+        List<VehicleRental> rentals = JsonCodec.rentals(json);
+        return JsonCodec.writeSummary(new StringBuilder(512 * rentals.size() + 64),
+                calculator.calculateDailySummary(rentals)).toString();
+    }
+
+    /** Answers {@code method} requests to exactly {@code path}; a {@code GET} endpoint receives no body. */
+    private static void handle(HttpExchange exchange, String path, String method, Endpoint endpoint)
+            throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(path)) {
+                respond(exchange, 404, JsonCodec.error("Not found"));
+                return;
+            }
+            if (!method.equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", method);
+                respond(exchange, 405, JsonCodec.error("Method not allowed"));
+                return;
+            }
+            byte[] body = method.equals("GET") ? null : readBody(exchange.getRequestBody());
+            if (method.equals("POST") && body == null) {
+                respond(exchange, 413, JsonCodec.error("Request body exceeds " + MAX_BODY_BYTES + " bytes"));
+                return;
+            }
+            int status = 200;
+            String response;
+            try {
+                Object json = body == null ? null : JsonParser.parse(new String(body, StandardCharsets.UTF_8));
+                response = endpoint.handle(json);
+            } catch (IllegalArgumentException e) {
+                status = 400;
+                response = JsonCodec.error(e.getMessage());
+            } catch (RuntimeException e) {
+                status = 500;
+                response = JsonCodec.error("Internal error");
+            }
+            respond(exchange, status, response);
+        }
+    }
+
+    /** Reads the whole body, or returns {@code null} once it grows beyond the limit. */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_BODY_BYTES + 1);
+        return body.length > MAX_BODY_BYTES ? null : body;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        String handle(Object json);
+    }
+}
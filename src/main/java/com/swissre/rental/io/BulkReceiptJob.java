@@ -0,0 +1,147 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.report.CustomerReceiptFormatter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * End-of-day job that prices every rental of a day, renders its customer receipt and writes it
+ * to its own file, concurrently on virtual threads.
+ *
+ * <p>Rentals are pulled lazily from the source and at most {@code maxConcurrency} receipts are
+ * in flight at any time, so memory use and open file descriptors stay bounded however many
+ * rentals there are. Receipt {@code n} (1-based, in source order) is written to
+ * {@code receipt-0000000n.txt}. A failed receipt is recorded and the job carries on. The tariff
+ * is captured once, so all receipts of a run use the same rates.</p>
+ */
+public class BulkReceiptJob {
+
+    public static final int DEFAULT_MAX_CONCURRENCY = 256;
+    public static final int DEFAULT_PROGRESS_INTERVAL = 10_000;
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    private final CostCalculator calculator;
+    private final CustomerReceiptFormatter formatter;
+    private final int maxConcurrency;
+    private final int progressInterval;
+
+    public BulkReceiptJob(CostCalculator calculator, CustomerReceiptFormatter formatter) {
+        this(calculator, formatter, DEFAULT_MAX_CONCURRENCY, DEFAULT_PROGRESS_INTERVAL);
+    }
+
+    public BulkReceiptJob(CostCalculator calculator, CustomerReceiptFormatter formatter, int maxConcurrency,
+                          int progressInterval) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max Concurrency must be positive");
+        }
+        if (progressInterval < 1) {
+            throw new IllegalArgumentException("Progress Interval must be positive");
+        }
+        this.calculator = calculator;
+        this.formatter = formatter;
+        this.maxConcurrency = maxConcurrency;
+        this.progressInterval = progressInterval;
+    }
+
+    static String fileName(long receiptNumber) {
+        String digits = Long.toString(receiptNumber);
+        return "receipt-" + "0".repeat(Math.max(0, 8 - digits.length())) + digits + ".txt";
+    }
+
+    /**
+     * Writes one receipt file per rental into {@code directory}, creating it if needed, and returns
+     * once every receipt has been written or has failed. {@code progress} is called after every
+     * {@code progressInterval} finished receipts and once at the end; it may be called from
+     * several threads at once.
+     */
+    public Result run(Iterable<VehicleRental> rentals, Path directory, ProgressListener progress)
+            throws IOException, InterruptedException {
+        return run(formatter::formatReceipt, rentals, directory, progress);
+    }
+
+    /** Like {@link #run(Iterable, Path, ProgressListener)}, with every receipt dated {@code date}. */
+    public Result run(LocalDate date, Iterable<VehicleRental> rentals, Path directory, ProgressListener progress)
+            throws IOException, InterruptedException {
+        return run(breakdown -> formatter.formatReceipt(date, breakdown), rentals, directory, progress);
+    }
+
+    private Result run(Function<CostBreakdown, String> receipts, Iterable<VehicleRental> rentals, Path directory,
+                       ProgressListener progress) throws IOException, InterruptedException {
+        Files.createDirectories(directory);
+        Tariff tariff = calculator.currentTariff();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        AtomicLong written = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        AtomicLong finished = new AtomicLong();
+        List<ReceiptError> errors = new ArrayList<>();
+        long start = System.nanoTime();
+
+        long submitted = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (VehicleRental rental : rentals) {
+                permits.acquire();
+                long receiptNumber = ++submitted;
+                executor.execute(() -> {
+                    try {
+                        String receipt = receipts.apply(calculator.calculate(rental, tariff));
+                        Files.writeString(directory.resolve(fileName(receiptNumber)), receipt, StandardCharsets.UTF_8);
+                        written.incrementAndGet();
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                        synchronized (errors) {
+                            if (errors.size() < MAX_REPORTED_ERRORS) {
+                                errors.add(new ReceiptError(receiptNumber, String.valueOf(e.getMessage())));
+                            }
+                        }
+                    } finally {
+                        permits.release();
+                        if (finished.incrementAndGet() % progressInterval == 0) {
+                            progress.onProgress(written.get(), failed.get());
+                        }
+                    }
+                });
+            }
+        }
+
+        progress.onProgress(written.get(), failed.get());
+        errors.sort(Comparator.comparingLong(ReceiptError::receiptNumber));
+        return new Result(written.get(), failed.get(), List.copyOf(errors), System.nanoTime() - start);
+    }
+
+    /** Receives the number of receipts written and failed so far. */
+    @FunctionalInterface
+    public interface ProgressListener {
+
+        ProgressListener NONE = (written, failed) -> { };
+
+        void onProgress(long written, long failed);
+    }
+
+    /** A receipt that could not be rendered or written. */
+    public record ReceiptError(long receiptNumber, String message) {
+    }
+
+    /** Outcome of a run; {@code errors} holds at most {@value BulkReceiptJob#MAX_REPORTED_ERRORS} entries. */
+    public record Result(long written, long failed, List<ReceiptError> errors, long elapsedNanos) {
+
+        public double receiptsPerSecond() {
+            return elapsedNanos <= 0 ? 0.0 : (written + failed) * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
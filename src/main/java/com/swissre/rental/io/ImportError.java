@@ -0,0 +1,10 @@
+package com.swissre.rental.io;
+
+/** A rejected CSV row: the 1-based line number and why it was rejected. */
+public record ImportError(long lineNumber, String message) {
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + message;
+    }
+}
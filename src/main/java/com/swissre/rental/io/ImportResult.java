@@ -0,0 +1,38 @@
+package com.swissre.rental.io;
+
+import java.util.List;
+
+/**
+ * Outcome of a bulk import.
+ *
+ * <p>{@code importNanos} covers reading and parsing only; {@code consumerNanos} is the time spent
+ * in the batch consumer (e.g. pricing the rentals into a summary), so both the raw import rate and
+ * the end-to-end rate can be reported. {@code errors} holds at most the configured number of
+ * rejected rows, while {@code rowsRejected} counts all of them.</p>
+ */
+public record ImportResult(
+        long rowsImported,
+        long rowsRejected,
+        List<ImportError> errors,
+        long importNanos,
+        long consumerNanos
+) {
+
+    public long totalNanos() {
+        return importNanos + consumerNanos;
+    }
+
+    /** Rows per second for reading and parsing alone, counting rejected rows. */
+    public double importRowsPerSecond() {
+        return rowsPerSecond(rowsImported + rowsRejected, importNanos);
+    }
+
+    /** Rows per second including the batch consumer, counting rejected rows. */
+    public double totalRowsPerSecond() {
+        return rowsPerSecond(rowsImported + rowsRejected, totalNanos());
+    }
+
+    private static double rowsPerSecond(long rows, long nanos) {
+        return nanos <= 0 ? 0.0 : rows * 1_000_000_000.0 / nanos;
+    }
+}
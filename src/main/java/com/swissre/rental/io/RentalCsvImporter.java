@@ -0,0 +1,165 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * High-throughput bulk import of rentals from CSV files.
+ *
+ * <p>Expected columns: {@code vehicleType,kilometers,energy,vignette,gubristPassages,cityKilometers},
+ * where the vehicle type is a {@link VehicleType} name and the vignette is
+ * {@code true/false}, {@code yes/no} or {@code y/n}. A header line starting with
+ * {@code vehicleType}, blank lines and {@code #} comments are skipped.</p>
+ *
+ * <p>Input is read through a large byte buffer and each line is parsed in place by a
+ * {@link RentalLineParser}, so no intermediate {@code String} is built per field. Rentals are
+ * handed to the caller in batches. Bad rows are recorded with their line number and skipped
+ * instead of stopping the import.</p>
+ */
+public class RentalCsvImporter {
+
+    public static final int DEFAULT_BATCH_SIZE = 8_192;
+    public static final int DEFAULT_MAX_REPORTED_ERRORS = 10_000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] HEADER_PREFIX = "vehicletype".getBytes(StandardCharsets.US_ASCII);
+
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public RentalCsvImporter() {
+        this(DEFAULT_BATCH_SIZE, DEFAULT_MAX_REPORTED_ERRORS);
+    }
+
+    public RentalCsvImporter(int batchSize, int maxReportedErrors) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch Size must be positive");
+        }
+        if (maxReportedErrors < 0) {
+            throw new IllegalArgumentException("Max Reported Errors must not be negative");
+        }
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ImportResult importFile(Path file, Consumer<List<VehicleRental>> batches) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return importStream(in, batches);
+        }
+    }
+
+    /**
+     * Imports all rows from the stream, passing full batches to {@code batches} as they fill up
+     * and a final partial batch at the end. The stream is not closed.
+     */
+    public ImportResult importStream(InputStream in, Consumer<List<VehicleRental>> batches) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run(batches);
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int filled = 0;
+        int read;
+        while ((read = in.read(buffer, filled, buffer.length - filled)) != -1) {
+            filled += read;
+            int consumed = run.parseLines(buffer, filled, false);
+            if (consumed == 0 && filled == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                continue;
+            }
+            System.arraycopy(buffer, consumed, buffer, 0, filled - consumed);
+            filled -= consumed;
+        }
+        run.parseLines(buffer, filled, true);
+        run.flush();
+
+        long totalNanos = System.nanoTime() - start;
+        return new ImportResult(run.imported, run.rejected, List.copyOf(run.errors),
+                totalNanos - run.consumerNanos, run.consumerNanos);
+    }
+
+    private final class Run {
+
+        private final Consumer<List<VehicleRental>> batches;
+        private final List<ImportError> errors = new ArrayList<>();
+        private final RentalLineParser parser = new RentalLineParser();
+        private List<VehicleRental> batch;
+        private long lineNumber;
+        private long imported;
+        private long rejected;
+        private long consumerNanos;
+
+        private Run(Consumer<List<VehicleRental>> batches) {
+            this.batches = batches;
+            this.batch = new ArrayList<>(batchSize);
+        }
+
+        /** Parses complete lines from {@code buffer[0, length)} and returns the number of bytes consumed. */
+        private int parseLines(byte[] buffer, int length, boolean endOfInput) {
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (buffer[i] == '\n') {
+                    parseLine(buffer, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfInput && lineStart < length) {
+                parseLine(buffer, lineStart, length);
+                lineStart = length;
+            }
+            return lineStart;
+        }
+
+        private void parseLine(byte[] line, int from, int to) {
+            lineNumber++;
+            if (to > from && line[to - 1] == '\r') {
+                to--;
+            }
+            int start = RentalLineParser.skipBlanks(line, from, to);
+            if (start == to || line[start] == '#') {
+                return;
+            }
+            if (lineNumber == 1 && RentalLineParser.startsWithIgnoreCase(line, start, to, HEADER_PREFIX)) {
+                return;
+            }
+
+            VehicleRental rental = parser.parse(line, start, to);
+            if (rental == null) {
+                reject(parser.error());
+                return;
+            }
+            imported++;
+            batch.add(rental);
+            if (batch.size() == batchSize) {
+                flush();
+            }
+        }
+
+        private void reject(String message) {
+            rejected++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportError(lineNumber, message));
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<VehicleRental> full = batch;
+            batch = new ArrayList<>(batchSize);
+            long start = System.nanoTime();
+            batches.accept(full);
+            consumerNanos += System.nanoTime() - start;
+        }
+    }
+}
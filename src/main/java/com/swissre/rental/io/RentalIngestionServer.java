@@ -0,0 +1,447 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking TCP server through which many depot terminals push rentals into one shared day.
+ *
+ * <p>The protocol is line based: a terminal sends one rental per line in the
+ * {@link RentalCsvImporter CSV import} columns, e.g. {@code E_VAN,95,20,y,3,0}, and receives one
+ * line per rental, in order: {@code OK <subtotal>} once the rental has been priced and handed to
+ * the sink, or {@code ERR <reason>}. Blank lines are ignored. A line longer than
+ * {@value #MAX_LINE_LENGTH} bytes is answered with {@code ERR} and the connection is closed after
+ * the outstanding answers. Terminals may pipeline any number of lines.</p>
+ *
+ * <p>A single selector thread reads all connections and parses the lines in place from each
+ * connection's read buffer. Parsed batches go through a bounded queue to one ingestion thread,
+ * which prices everything it finds queued with one tariff and passes it to the sink in a single
+ * call, so a journaling sink commits many terminals' rentals together. When the queue is full the
+ * selector stops reading, and a terminal that does not read its answers stops being read once
+ * {@value #MAX_PENDING_ACK_BYTES} bytes of answers are waiting for it; in both cases TCP flow
+ * control then slows the senders down instead of the server buffering without bound.</p>
+ */
+public class RentalIngestionServer implements Closeable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+    public static final int MAX_LINE_LENGTH = 1024;
+    public static final int MAX_PENDING_ACK_BYTES = 64 * 1024;
+
+    private static final int READ_BUFFER_SIZE = 16 * 1024;
+    private static final int MAX_BATCHES_PER_SINK_CALL = 1024;
+    private static final long POLL_MILLIS = 100;
+    private static final byte[] OK = "OK ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERR = "ERR ".getBytes(StandardCharsets.US_ASCII);
+
+    private final CostCalculator calculator;
+    private final Sink sink;
+    private final int queueCapacity;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final BlockingQueue<Batch> queue;
+    private final Queue<Connection> answered = new ConcurrentLinkedQueue<>();
+    private final List<Connection> paused = new ArrayList<>();
+    private final Thread selectorThread;
+    private final Thread ingestionThread;
+    private final AtomicLong connections = new AtomicLong();
+    private final AtomicLong ingested = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong pauses = new AtomicLong();
+    private volatile boolean running;
+
+    public RentalIngestionServer(CostCalculator calculator, Sink sink, InetSocketAddress address) throws IOException {
+        this(calculator, sink, address, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public RentalIngestionServer(CostCalculator calculator, Sink sink, InetSocketAddress address, int queueCapacity)
+            throws IOException {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("Queue Capacity must be positive");
+        }
+        this.calculator = calculator;
+        this.sink = sink;
+        this.queueCapacity = queueCapacity;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        try {
+            serverChannel.bind(address);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            serverChannel.close();
+            selector.close();
+            throw e;
+        }
+        this.selectorThread = Thread.ofPlatform().name("rental-ingestion-selector").unstarted(this::selectLoop);
+        this.ingestionThread = Thread.ofPlatform().name("rental-ingestion").unstarted(this::ingestLoop);
+    }
+
+    public void start() {
+        running = true;
+        selectorThread.start();
+        ingestionThread.start();
+    }
+
+    /** The bound port, useful when the server was created on port 0. */
+    public int port() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public Stats stats() {
+        return new Stats(connections.get(), ingested.get(), rejected.get(), pauses.get());
+    }
+
+    /**
+     * Stops accepting and reading, closes all connections and waits for both threads to finish.
+     * Batches already handed to the sink are complete; answers not yet written are dropped.
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        selector.wakeup();
+        try {
+            selectorThread.join();
+            ingestionThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            serverChannel.close();
+            selector.close();
+        }
+    }
+
+    private void selectLoop() {
+        try {
+            while (running) {
+                selector.select();
+                writeAnswers();
+                resumeIfDrained();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                        continue;
+                    }
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isWritable()) {
+                            connection.write();
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                    } catch (IOException e) {
+                        connection.close();
+                    }
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            running = false;
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection connection) {
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            Connection connection = new Connection(channel);
+            connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+            connections.incrementAndGet();
+        }
+    }
+
+    private void writeAnswers() {
+        Connection connection;
+        while ((connection = answered.poll()) != null) {
+            try {
+                connection.write();
+            } catch (IOException e) {
+                connection.close();
+            }
+        }
+    }
+
+    /** Resumes connections paused on a full queue once the queue is at most half full again. */
+    private void resumeIfDrained() {
+        if (paused.isEmpty() || queue.size() > queueCapacity / 2) {
+            return;
+        }
+        for (Connection connection : paused) {
+            connection.pausedOnQueue = false;
+            connection.updateInterest();
+        }
+        paused.clear();
+    }
+
+    private void ingestLoop() {
+        List<Batch> batches = new ArrayList<>();
+        List<CostBreakdown> priced = new ArrayList<>();
+        try {
+            while (running) {
+                // Polled rather than interrupted on close: an interrupt would close a journal's file channel.
+                Batch first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batches.add(first);
+                queue.drainTo(batches, MAX_BATCHES_PER_SINK_CALL - 1);
+                String failure = null;
+                try {
+                    Tariff tariff = calculator.currentTariff();
+                    for (Batch batch : batches) {
+                        for (VehicleRental rental : batch.rentals) {
+                            if (rental != null) {
+                                priced.add(calculator.calculate(rental, tariff));
+                            }
+                        }
+                    }
+                    sink.accept(priced);
+                    ingested.addAndGet(priced.size());
+                } catch (IOException | RuntimeException e) {
+                    failure = "Ingestion failed: " + e.getMessage();
+                }
+
+                int next = 0;
+                for (Batch batch : batches) {
+                    next = answer(batch, priced, next, failure);
+                }
+                batches.clear();
+                priced.clear();
+                selector.wakeup();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Queues the answer lines of {@code batch}, whose breakdowns start at {@code priced[next]}. */
+    private int answer(Batch batch, List<CostBreakdown> priced, int next, String failure) {
+        byte[][] lines = new byte[batch.rentals.size()][];
+        int size = 0;
+        for (int i = 0; i < lines.length; i++) {
+            String error = batch.errors.get(i);
+            if (error == null && failure == null) {
+                lines[i] = priced.get(next++).subtotal().toPlainString().getBytes(StandardCharsets.US_ASCII);
+                size += OK.length;
+            } else {
+                if (error == null) {
+                    next++;
+                    error = failure;
+                }
+                lines[i] = error.getBytes(StandardCharsets.UTF_8);
+                size += ERR.length;
+                rejected.incrementAndGet();
+            }
+            size += lines[i].length + 1;
+        }
+
+        ByteBuffer answers = ByteBuffer.allocate(size);
+        for (int i = 0; i < lines.length; i++) {
+            answers.put(batch.errors.get(i) == null && failure == null ? OK : ERR).put(lines[i]).put((byte) '\n');
+        }
+        Connection connection = batch.connection;
+        connection.answers.add(answers.flip());
+        connection.pendingAnswerBytes.addAndGet(answers.remaining());
+        connection.inFlight.decrementAndGet();
+        answered.add(connection);
+        return next;
+    }
+
+    /** Receives every priced rental once; called from a single thread. */
+    @FunctionalInterface
+    public interface Sink {
+
+        void accept(List<CostBreakdown> breakdowns) throws IOException;
+    }
+
+    /** Counters since the server was created; {@code backpressurePauses} counts reads suspended on a full queue. */
+    public record Stats(long connections, long rentalsIngested, long linesRejected, long backpressurePauses) {
+    }
+
+    /** The lines parsed from one read; {@code errors[i]} is set where {@code rentals[i]} could not be parsed. */
+    private static final class Batch {
+
+        private final Connection connection;
+        private final List<VehicleRental> rentals = new ArrayList<>();
+        private final List<String> errors = new ArrayList<>();
+
+        private Batch(Connection connection) {
+            this.connection = connection;
+        }
+
+        private void add(VehicleRental rental) {
+            rentals.add(rental);
+            errors.add(null);
+        }
+
+        private void reject(String error) {
+            rentals.add(null);
+            errors.add(error);
+        }
+    }
+
+    /** Per-terminal state; everything except the answer queue and counters is confined to the selector thread. */
+    private final class Connection {
+
+        private final SocketChannel channel;
+        private final ByteBuffer in = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        private final RentalLineParser parser = new RentalLineParser();
+        private final Queue<ByteBuffer> answers = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingAnswerBytes = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private SelectionKey key;
+        private ByteBuffer writing;
+        private boolean endOfInput;
+        private boolean pausedOnQueue;
+        private boolean closed;
+
+        private Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        private void read() throws IOException {
+            if (queue.remainingCapacity() == 0) {
+                pausedOnQueue = true;
+                paused.add(this);
+                pauses.incrementAndGet();
+                updateInterest();
+                return;
+            }
+            if (channel.read(in) == -1) {
+                endOfInput = true;
+            }
+
+            byte[] bytes = in.array();
+            int length = in.position();
+            Batch batch = new Batch(this);
+            int lineStart = 0;
+            for (int i = 0; i < length; i++) {
+                if (bytes[i] == '\n') {
+                    parseLine(batch, bytes, lineStart, i);
+                    lineStart = i + 1;
+                }
+            }
+            if (endOfInput && lineStart < length) {
+                parseLine(batch, bytes, lineStart, length);
+                lineStart = length;
+            } else if (length - lineStart > MAX_LINE_LENGTH) {
+                batch.reject("Line exceeds " + MAX_LINE_LENGTH + " bytes");
+                endOfInput = true;
+                lineStart = length;
+            }
+            in.flip().position(lineStart);
+            in.compact();
+
+            if (!batch.rentals.isEmpty()) {
+                inFlight.incrementAndGet();
+                queue.add(batch);
+            }
+            updateInterest();
+            closeIfDone();
+        }
+
+        private void parseLine(Batch batch, byte[] line, int from, int to) {
+            if (to > from && line[to - 1] == '\r') {
+                to--;
+            }
+            int start = RentalLineParser.skipBlanks(line, from, to);
+            if (start == to) {
+                return;
+            }
+            VehicleRental rental = parser.parse(line, start, to);
+            if (rental == null) {
+                batch.reject(parser.error());
+            } else {
+                batch.add(rental);
+            }
+        }
+
+        private void write() throws IOException {
+            if (closed) {
+                return;
+            }
+            while (true) {
+                if (writing == null) {
+                    writing = answers.poll();
+                    if (writing == null) {
+                        break;
+                    }
+                }
+                int written = channel.write(writing);
+                pendingAnswerBytes.addAndGet(-written);
+                if (writing.hasRemaining()) {
+                    break;
+                }
+                writing = null;
+            }
+            updateInterest();
+            closeIfDone();
+        }
+
+        private void updateInterest() {
+            if (closed) {
+                return;
+            }
+            boolean read = !endOfInput && !pausedOnQueue && pendingAnswerBytes.get() <= MAX_PENDING_ACK_BYTES;
+            boolean write = writing != null;
+            key.interestOps((read ? SelectionKey.OP_READ : 0) | (write ? SelectionKey.OP_WRITE : 0));
+        }
+
+        /** Closes once the terminal has finished sending and every answer has been written. */
+        private void closeIfDone() {
+            if (endOfInput && inFlight.get() == 0 && writing == null && answers.isEmpty()) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // Nothing left to tell the terminal.
+            }
+        }
+    }
+}
@@ -0,0 +1,705 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, crash-safe journal of added rentals.
+ *
+ * <p>Each rental is written as a compact binary record framed as {@code [length][payload][crc32c]},
+ * where the payload holds a sequence number and the rental fields, including any passage times and
+ * city segments. {@link #append} returns once
+ * the record is on disk. Concurrent appenders share fsyncs through group commit: whoever reaches
+ * the disk first writes and forces everything queued so far, so a burst of appends costs only a
+ * few fsyncs. {@link #appendAll} logs a whole batch with a single fsync.</p>
+ *
+ * <p>{@link #open} replays the snapshot and journal, truncating a torn tail left by a crash.
+ * {@link #checkpoint} writes all rentals to a new snapshot and empties the journal, which bounds
+ * how much has to be replayed on the next start. A checkpoint can record the day its rentals belong
+ * to in the snapshot and journal headers; {@link #recoveredDay()} reports it after a restart.</p>
+ *
+ * <p>The first I/O error while writing fails the journal: what was queued may or may not be on disk,
+ * so every later append, checkpoint and close rethrows that error. Reopening the journal recovers
+ * whatever did reach the disk.</p>
+ */
+public final class RentalJournal implements Closeable {
+
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 100_000;
+
+    static final String JOURNAL_FILE = "rentals.journal";
+    static final String SNAPSHOT_FILE = "rentals.snapshot";
+
+    private static final int JOURNAL_MAGIC = 0x4A43524A;
+    private static final int SNAPSHOT_MAGIC = 0x4A435253;
+    private static final short FORMAT_VERSION = 3;
+    /** Version 2 records end after the city kilometers and are read as rentals without times. */
+    private static final short UNTIMED_FORMAT_VERSION = 2;
+    private static final int JOURNAL_HEADER_BYTES = 14;
+    private static final long NO_DAY = Long.MIN_VALUE;
+    private static final int MAX_RECORD_BYTES = 1 << 20;
+    private static final int SNAPSHOT_FLUSH_BYTES = 1 << 20;
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final Path directory;
+    private final int checkpointInterval;
+    private final FileChannel channel;
+    private final List<VehicleRental> recovered;
+    private final LocalDate recoveredDay;
+    private final long recoveryNanos;
+
+    private final Object appendLock = new Object();
+    private final Object flushLock = new Object();
+    private RecordBuffer pending = new RecordBuffer();
+    private RecordBuffer spare = new RecordBuffer();
+    private long lastAppendedSequence;
+    private volatile long durableSequence;
+    private long appendsSinceCheckpoint;
+    private long appends;
+    private long fsyncs;
+    private long bytesWritten;
+    private long checkpoints;
+    private long day;
+    private volatile IOException failure;
+
+    private RentalJournal(Path directory, int checkpointInterval, FileChannel channel, List<VehicleRental> recovered,
+                          long day, long lastSequence, long recoveryNanos) {
+        this.directory = directory;
+        this.checkpointInterval = checkpointInterval;
+        this.channel = channel;
+        this.recovered = recovered;
+        this.recoveredDay = day == NO_DAY ? null : LocalDate.ofEpochDay(day);
+        this.day = day;
+        this.lastAppendedSequence = lastSequence;
+        this.durableSequence = lastSequence;
+        this.recoveryNanos = recoveryNanos;
+    }
+
+    public static RentalJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_CHECKPOINT_INTERVAL);
+    }
+
+    /**
+     * Opens the journal in {@code directory}, creating it if needed, and replays the rentals
+     * recorded so far; they are available from {@link #recovered()}.
+     */
+    public static RentalJournal open(Path directory, int checkpointInterval) throws IOException {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("Checkpoint Interval must be positive");
+        }
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+
+        List<VehicleRental> rentals = new ArrayList<>();
+        long[] snapshot = readSnapshot(directory.resolve(SNAPSHOT_FILE), rentals);
+        long snapshotSequence = snapshot[0];
+
+        Path journalFile = directory.resolve(JOURNAL_FILE);
+        FileChannel channel = FileChannel.open(journalFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long lastSequence = snapshotSequence;
+            // Days only move forward: after a crash between writing the snapshot and rewriting the
+            // journal header, the later of the two is the day of the recovered rentals.
+            long day = snapshot[1];
+            if (isNewJournal(channel)) {
+                writeJournalHeader(channel, NO_DAY);
+            } else {
+                long[] replay = replayJournal(journalFile, snapshotSequence, rentals);
+                lastSequence = Math.max(lastSequence, replay[1]);
+                day = Math.max(day, replay[2]);
+                if (replay[0] < channel.size()) {
+                    channel.truncate(replay[0]);
+                    channel.force(false);
+                }
+            }
+            channel.position(channel.size());
+            return new RentalJournal(directory, checkpointInterval, channel,
+                    Collections.unmodifiableList(rentals), day, lastSequence, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Rentals restored from the snapshot and journal when this journal was opened, in append order. */
+    public List<VehicleRental> recovered() {
+        return recovered;
+    }
+
+    /**
+     * The day the recovered rentals belong to, as recorded by the last {@link #checkpoint(LocalDate, List)};
+     * empty for a new journal or one that was never checkpointed with a day.
+     */
+    public Optional<LocalDate> recoveredDay() {
+        return Optional.ofNullable(recoveredDay);
+    }
+
+    /** Logs one rental and returns once it is durable. */
+    public void append(VehicleRental rental) throws IOException {
+        long sequence;
+        synchronized (appendLock) {
+            ensureUsable();
+            sequence = enqueue(rental);
+        }
+        awaitDurable(sequence);
+    }
+
+    /** Logs a batch of rentals and returns once all of them are durable, normally after a single fsync. */
+    public void appendAll(List<VehicleRental> rentals) throws IOException {
+        if (rentals.isEmpty()) {
+            return;
+        }
+        long sequence;
+        synchronized (appendLock) {
+            ensureUsable();
+            sequence = lastAppendedSequence;
+            for (VehicleRental rental : rentals) {
+                sequence = enqueue(rental);
+            }
+        }
+        awaitDurable(sequence);
+    }
+
+    /** Returns whether enough rentals were appended since the last checkpoint that a new one should be taken. */
+    public boolean checkpointDue() {
+        synchronized (appendLock) {
+            return appendsSinceCheckpoint >= checkpointInterval;
+        }
+    }
+
+    /**
+     * Replaces the snapshot with {@code rentals} and empties the journal, keeping the day recorded by
+     * the previous checkpoint. {@code rentals} must be the complete state, i.e. everything recovered
+     * plus everything appended so far, in order; appends must not run concurrently with a checkpoint.
+     */
+    public void checkpoint(List<VehicleRental> rentals) throws IOException {
+        synchronized (flushLock) {
+            writeCheckpoint(day, rentals);
+        }
+    }
+
+    /**
+     * Like {@link #checkpoint(List)}, and records that {@code rentals} and everything appended after
+     * them belong to {@code day}.
+     */
+    public void checkpoint(LocalDate day, List<VehicleRental> rentals) throws IOException {
+        synchronized (flushLock) {
+            writeCheckpoint(day.toEpochDay(), rentals);
+        }
+    }
+
+    /** Holds flushLock. */
+    private void writeCheckpoint(long day, List<VehicleRental> rentals) throws IOException {
+        long sequence;
+        synchronized (appendLock) {
+            sequence = lastAppendedSequence;
+        }
+        flushUpTo(sequence);
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        Path temporary = directory.resolve(SNAPSHOT_FILE + ".tmp");
+        writeSnapshot(temporary, sequence, day, rentals);
+        try {
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(directory);
+
+            writeJournalHeader(channel, day);
+            channel.position(JOURNAL_HEADER_BYTES);
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        }
+        this.day = day;
+        synchronized (appendLock) {
+            appendsSinceCheckpoint = lastAppendedSequence - sequence;
+            checkpoints++;
+        }
+    }
+
+    public JournalStats stats() {
+        synchronized (appendLock) {
+            return new JournalStats(appends, fsyncs, bytesWritten, checkpoints, recovered.size(), recoveryNanos);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            synchronized (flushLock) {
+                long sequence;
+                synchronized (appendLock) {
+                    sequence = lastAppendedSequence;
+                }
+                flushUpTo(sequence);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    /** Rethrows the error that failed the journal, if any. */
+    private void ensureUsable() throws IOException {
+        IOException cause = failure;
+        if (cause != null) {
+            throw new IOException("Rental journal failed and must be reopened: " + directory, cause);
+        }
+    }
+
+    private long enqueue(VehicleRental rental) {
+        long sequence = ++lastAppendedSequence;
+        int start = pending.beginRecord();
+        pending.putLong(sequence);
+        encode(pending, rental);
+        pending.endRecord(start);
+        appendsSinceCheckpoint++;
+        appends++;
+        return sequence;
+    }
+
+    private void awaitDurable(long sequence) throws IOException {
+        if (durableSequence >= sequence) {
+            return;
+        }
+        synchronized (flushLock) {
+            flushUpTo(sequence);
+        }
+    }
+
+    /**
+     * Writes and forces everything queued so far, unless {@code sequence} is already durable. Holds flushLock.
+     * An I/O error fails the journal; the batch is dropped, since part of it may already be on disk.
+     */
+    private void flushUpTo(long sequence) throws IOException {
+        ensureUsable();
+        if (durableSequence >= sequence) {
+            return;
+        }
+        RecordBuffer batch;
+        long batchSequence;
+        synchronized (appendLock) {
+            batch = pending;
+            pending = spare;
+            batchSequence = lastAppendedSequence;
+        }
+
+        int batchBytes = batch.size;
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(batch.bytes, 0, batchBytes);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+            durableSequence = batchSequence;
+        } catch (IOException e) {
+            failure = e;
+            throw e;
+        } finally {
+            synchronized (appendLock) {
+                if (failure == null) {
+                    fsyncs++;
+                    bytesWritten += batchBytes;
+                }
+                batch.clear();
+                spare = batch;
+            }
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk, so the rename survives a crash. Windows
+     * cannot open a directory as a channel and makes the rename durable itself.
+     */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    /** Whether the journal is empty or holds only the start of a header, as left by a crash while creating it. */
+    private static boolean isNewJournal(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size >= JOURNAL_HEADER_BYTES) {
+            return false;
+        }
+        ByteBuffer start = ByteBuffer.allocate((int) size);
+        while (start.hasRemaining()) {
+            if (channel.read(start, start.position()) < 0) {
+                break;
+            }
+        }
+        byte[] identity = ByteBuffer.allocate(Integer.BYTES + Short.BYTES)
+                .putInt(JOURNAL_MAGIC).putShort(FORMAT_VERSION).array();
+        int length = (int) Math.min(size, identity.length);
+        return Arrays.equals(start.array(), 0, length, identity, 0, length);
+    }
+
+    private static boolean isReadable(short version) {
+        return version == FORMAT_VERSION || version == UNTIMED_FORMAT_VERSION;
+    }
+
+    /** Empties the journal and writes its header, recording the day of the rentals that will follow. */
+    private static void writeJournalHeader(FileChannel channel, long day) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER_BYTES)
+                .putInt(JOURNAL_MAGIC).putShort(FORMAT_VERSION).putLong(day).flip();
+        channel.truncate(0);
+        channel.write(header, 0);
+        channel.force(true);
+    }
+
+    /**
+     * Replays journal records after {@code snapshotSequence} into {@code rentals}. Returns the byte offset just
+     * past the last intact record, the last sequence number seen and the day recorded in the header.
+     */
+    private static long[] replayJournal(Path file, long snapshotSequence, List<VehicleRental> rentals) throws IOException {
+        try (RecordReader reader = new RecordReader(Files.newInputStream(file))) {
+            if (reader.in.readInt() != JOURNAL_MAGIC || !isReadable(reader.in.readShort())) {
+                throw new IOException("Not a rental journal: " + file);
+            }
+            long day = reader.in.readLong();
+            long validEnd = JOURNAL_HEADER_BYTES;
+            long lastSequence = 0;
+            byte[] payload;
+            while ((payload = reader.next()) != null) {
+                Decoder decoder = new Decoder(payload);
+                long sequence = decoder.getLong();
+                VehicleRental rental = decoder.rental();
+                if (sequence > snapshotSequence) {
+                    rentals.add(rental);
+                }
+                lastSequence = sequence;
+                validEnd = reader.offset;
+            }
+            return new long[] {validEnd, lastSequence, day};
+        }
+    }
+
+    /** Reads the snapshot into {@code rentals}. Returns its sequence number and day, zero and no day without one. */
+    private static long[] readSnapshot(Path file, List<VehicleRental> rentals) throws IOException {
+        if (!Files.exists(file)) {
+            return new long[] {0, NO_DAY};
+        }
+        try (RecordReader reader = new RecordReader(Files.newInputStream(file))) {
+            if (reader.in.readInt() != SNAPSHOT_MAGIC || !isReadable(reader.in.readShort())) {
+                throw new IOException("Not a rental snapshot: " + file);
+            }
+            long sequence = reader.in.readLong();
+            long day = reader.in.readLong();
+            int count = reader.in.readInt();
+            for (int i = 0; i < count; i++) {
+                byte[] payload = reader.next();
+                if (payload == null) {
+                    throw new IOException("Corrupt rental snapshot: " + file);
+                }
+                rentals.add(new Decoder(payload).rental());
+            }
+            return new long[] {sequence, day};
+        } catch (EOFException e) {
+            throw new IOException("Corrupt rental snapshot: " + file, e);
+        }
+    }
+
+    private static void writeSnapshot(Path file, long sequence, long day, List<VehicleRental> rentals)
+            throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            RecordBuffer buffer = new RecordBuffer();
+            buffer.putInt(SNAPSHOT_MAGIC);
+            buffer.putShort(FORMAT_VERSION);
+            buffer.putLong(sequence);
+            buffer.putLong(day);
+            buffer.putInt(rentals.size());
+            for (VehicleRental rental : rentals) {
+                int start = buffer.beginRecord();
+                encode(buffer, rental);
+                buffer.endRecord(start);
+                if (buffer.size >= SNAPSHOT_FLUSH_BYTES) {
+                    buffer.writeTo(out);
+                }
+            }
+            buffer.writeTo(out);
+            out.force(true);
+        }
+    }
+
+    private static void encode(RecordBuffer buffer, VehicleRental rental) {
+        buffer.putByte((byte) rental.vehicleType().ordinal());
+        buffer.putByte((byte) (rental.motorwayVignette() ? 1 : 0));
+        buffer.putVarLong(rental.gubristTunnelPassages());
+        buffer.putDecimal(rental.kilometersDriven());
+        buffer.putDecimal(rental.energyConsumed());
+        buffer.putDecimal(rental.cityKilometers());
+        buffer.putVarLong(rental.gubristPassageTimes().size());
+        for (LocalDateTime time : rental.gubristPassageTimes()) {
+            buffer.putDateTime(time);
+        }
+        buffer.putVarLong(rental.citySegments().size());
+        for (CitySegment segment : rental.citySegments()) {
+            buffer.putDateTime(segment.start());
+            buffer.putDecimal(segment.kilometers());
+        }
+    }
+
+    /** Journal counters; {@code recoveryNanos} is the time {@link #open} took to replay. */
+    public record JournalStats(long appends, long fsyncs, long bytesWritten, long checkpoints, long recoveredRentals,
+                               long recoveryNanos) {
+
+        public double appendsPerFsync() {
+            return fsyncs == 0 ? 0.0 : (double) appends / fsyncs;
+        }
+    }
+
+    /** Growable byte buffer that frames records as {@code [length][payload][crc32c]}. */
+    private static final class RecordBuffer {
+
+        private byte[] bytes = new byte[1 << 12];
+        private int size;
+
+        int beginRecord() {
+            putInt(0);
+            return size;
+        }
+
+        void endRecord(int payloadStart) {
+            int length = size - payloadStart;
+            writeInt(payloadStart - Integer.BYTES, length);
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, payloadStart, length);
+            putInt((int) crc.getValue());
+        }
+
+        void putByte(byte value) {
+            ensure(1);
+            bytes[size++] = value;
+        }
+
+        void putShort(short value) {
+            putByte((byte) (value >>> 8));
+            putByte((byte) value);
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            writeInt(size, value);
+            size += Integer.BYTES;
+        }
+
+        void putLong(long value) {
+            putInt((int) (value >>> 32));
+            putInt((int) value);
+        }
+
+        void putVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                putByte((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            putByte((byte) value);
+        }
+
+        /** Zig-zag epoch second in UTC, then the nanosecond of the second. */
+        void putDateTime(LocalDateTime value) {
+            long seconds = value.toEpochSecond(ZoneOffset.UTC);
+            putVarLong((seconds << 1) ^ (seconds >> 63));
+            putVarLong(value.getNano());
+        }
+
+        /** Zig-zag scale, then either a zero marker and a zig-zag unscaled long, or the unscaled two's complement bytes. */
+        void putDecimal(BigDecimal value) {
+            int scale = value.scale();
+            putVarLong(((scale << 1) ^ (scale >> 31)) & 0xFFFFFFFFL);
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() < Long.SIZE) {
+                long compact = unscaled.longValue();
+                putByte((byte) 0);
+                putVarLong((compact << 1) ^ (compact >> 63));
+            } else {
+                byte[] magnitude = unscaled.toByteArray();
+                putVarLong(magnitude.length);
+                ensure(magnitude.length);
+                System.arraycopy(magnitude, 0, bytes, size, magnitude.length);
+                size += magnitude.length;
+            }
+        }
+
+        void writeTo(FileChannel out) throws IOException {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, size);
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            clear();
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        private void writeInt(int at, int value) {
+            bytes[at] = (byte) (value >>> 24);
+            bytes[at + 1] = (byte) (value >>> 16);
+            bytes[at + 2] = (byte) (value >>> 8);
+            bytes[at + 3] = (byte) value;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+    }
+
+    /** Reads framed records, returning {@code null} at a clean end of file or at the first torn or corrupt record. */
+    private static final class RecordReader implements Closeable {
+
+        private final DataInputStream in;
+        private long offset;
+
+        RecordReader(InputStream stream) {
+            this.in = new DataInputStream(new BufferedInputStream(stream, 1 << 16) {
+                @Override
+                public synchronized int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        offset++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public synchronized int read(byte[] target, int off, int len) throws IOException {
+                    int n = super.read(target, off, len);
+                    if (n > 0) {
+                        offset += n;
+                    }
+                    return n;
+                }
+            });
+        }
+
+        byte[] next() throws IOException {
+            try {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_RECORD_BYTES) {
+                    return null;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                int checksum = in.readInt();
+                CRC32C crc = new CRC32C();
+                crc.update(payload);
+                return (int) crc.getValue() == checksum ? payload : null;
+            } catch (EOFException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static final class Decoder {
+
+        private final byte[] bytes;
+        private int position;
+
+        Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        VehicleRental rental() throws IOException {
+            int type = getByte();
+            if (type < 0 || type >= TYPES.length) {
+                throw new IOException("Unknown vehicle type ordinal in journal: " + type);
+            }
+            boolean vignette = getByte() != 0;
+            int passages = (int) getVarLong();
+            BigDecimal kilometers = getDecimal();
+            BigDecimal energy = getDecimal();
+            BigDecimal cityKilometers = getDecimal();
+            if (position == bytes.length) {
+                return new VehicleRental(TYPES[type], kilometers, energy, vignette, passages, cityKilometers);
+            }
+            List<LocalDateTime> passageTimes = new ArrayList<>();
+            for (long i = getVarLong(); i > 0; i--) {
+                passageTimes.add(getDateTime());
+            }
+            List<CitySegment> citySegments = new ArrayList<>();
+            for (long i = getVarLong(); i > 0; i--) {
+                citySegments.add(new CitySegment(getDateTime(), getDecimal()));
+            }
+            return new VehicleRental(TYPES[type], kilometers, energy, vignette, passages, cityKilometers,
+                    passageTimes, citySegments);
+        }
+
+        long getLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                value = (value << 8) | (bytes[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        private int getByte() {
+            return bytes[position++];
+        }
+
+        private long getVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        private LocalDateTime getDateTime() {
+            long zigZag = getVarLong();
+            return LocalDateTime.ofEpochSecond((zigZag >>> 1) ^ -(zigZag & 1), (int) getVarLong(), ZoneOffset.UTC);
+        }
+
+        private BigDecimal getDecimal() {
+            long zigZagScale = getVarLong();
+            int scale = (int) ((zigZagScale >>> 1) ^ -(zigZagScale & 1));
+            int length = (int) getVarLong();
+            if (length == 0) {
+                long zigZag = getVarLong();
+                return BigDecimal.valueOf((zigZag >>> 1) ^ -(zigZag & 1), scale);
+            }
+            BigInteger unscaled = new BigInteger(bytes, position, length);
+            position += length;
+            return new BigDecimal(unscaled, scale);
+        }
+    }
+}
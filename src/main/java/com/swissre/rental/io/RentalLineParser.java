@@ -0,0 +1,226 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.RentalViolation;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses one rental line of the form
+ * {@code vehicleType,kilometers,energy,vignette,gubristPassages,cityKilometers} in place from a
+ * byte array, shared by the CSV importer and the ingestion server.
+ *
+ * <p>The vehicle type is a {@link VehicleType} name in any case and the vignette is
+ * {@code true/false}, {@code yes/no} or {@code y/n}. Decimals are assembled from the bytes into
+ * an unscaled {@code long} and a scale, so no intermediate {@code String} is built per field.
+ * Numbers with more than {@value #MAX_INTEGER_DIGITS} integer digits are rejected, which keeps
+ * every amount priced from a line well inside the daily totals. A parser keeps per-line scratch
+ * state and must not be shared between threads.</p>
+ */
+final class RentalLineParser {
+
+    static final int COLUMNS = 6;
+
+    private static final String[] COLUMN_NAMES = {
+            "vehicleType", "kilometers", "energy", "vignette", "gubristPassages", "cityKilometers"
+    };
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final byte[][] TYPE_NAMES = new byte[TYPES.length][];
+    private static final int MAX_COMPACT_DIGITS = 18;
+    static final int MAX_INTEGER_DIGITS = 9;
+
+    static {
+        for (VehicleType type : TYPES) {
+            TYPE_NAMES[type.ordinal()] = type.name().toLowerCase().getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private final int[] fieldStart = new int[COLUMNS];
+    private final int[] fieldEnd = new int[COLUMNS];
+    private String error;
+
+    /** Returns the rental in {@code line[from, to)}, or {@code null} with the reason in {@link #error()}. */
+    VehicleRental parse(byte[] line, int from, int to) {
+        int column = 0;
+        int fieldFrom = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || line[i] == ',') {
+                if (column == COLUMNS) {
+                    return fail("Expected " + COLUMNS + " columns but found more");
+                }
+                fieldStart[column] = skipBlanks(line, fieldFrom, i);
+                fieldEnd[column] = trimBlanks(line, fieldStart[column], i);
+                column++;
+                fieldFrom = i + 1;
+            }
+        }
+        if (column != COLUMNS) {
+            return fail("Expected " + COLUMNS + " columns but found " + column);
+        }
+
+        VehicleType type = parseType(line, fieldStart[0], fieldEnd[0]);
+        if (type == null) {
+            return fail("Unknown vehicle type in column 'vehicleType'");
+        }
+        BigDecimal kilometers = parseDecimal(line, 1);
+        BigDecimal energy = kilometers == null ? null : parseDecimal(line, 2);
+        if (energy == null) {
+            return null;
+        }
+        int vignette = parseBoolean(line, fieldStart[3], fieldEnd[3]);
+        if (vignette < 0) {
+            return fail("Invalid yes/no value in column 'vignette'");
+        }
+        int passages = parseCount(line, fieldStart[4], fieldEnd[4]);
+        if (passages < 0) {
+            return fail("Invalid count in column 'gubristPassages'");
+        }
+        BigDecimal cityKilometers = parseDecimal(line, 5);
+        if (cityKilometers == null) {
+            return null;
+        }
+
+        int violations = VehicleRental.violations(type, kilometers, energy, passages, cityKilometers);
+        if (violations != 0) {
+            return fail(RentalViolation.first(violations).message());
+        }
+        return new VehicleRental(type, kilometers, energy, vignette == 1, passages, cityKilometers);
+    }
+
+    /** Why the last call to {@link #parse} returned {@code null}. */
+    String error() {
+        return error;
+    }
+
+    private BigDecimal parseDecimal(byte[] line, int column) {
+        int from = fieldStart[column];
+        int to = fieldEnd[column];
+        if (from == to) {
+            return fail("Missing number in column '" + COLUMN_NAMES[column] + "'");
+        }
+        if (line[from] == '-') {
+            return fail("Negative number in column '" + COLUMN_NAMES[column] + "'");
+        }
+
+        long unscaled = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenPoint = false;
+        for (int i = from; i < to; i++) {
+            byte b = line[i];
+            if (b >= '0' && b <= '9') {
+                if (digits > 0 || b != '0') {
+                    digits++;
+                }
+                if (seenPoint) {
+                    scale++;
+                } else if (digits > MAX_INTEGER_DIGITS) {
+                    return fail("Number too large in column '" + COLUMN_NAMES[column] + "'");
+                }
+                if (digits <= MAX_COMPACT_DIGITS) {
+                    unscaled = unscaled * 10 + (b - '0');
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                return fail("Invalid number in column '" + COLUMN_NAMES[column] + "'");
+            }
+        }
+        if (seenPoint && scale == 0 && to - from == 1) {
+            return fail("Invalid number in column '" + COLUMN_NAMES[column] + "'");
+        }
+        if (digits > MAX_COMPACT_DIGITS) {
+            return new BigDecimal(new String(line, from, to - from, StandardCharsets.US_ASCII));
+        }
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    private <T> T fail(String message) {
+        error = message;
+        return null;
+    }
+
+    private static VehicleType parseType(byte[] line, int from, int to) {
+        for (VehicleType type : TYPES) {
+            byte[] name = TYPE_NAMES[type.ordinal()];
+            if (to - from == name.length && startsWithIgnoreCase(line, from, to, name)) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /** Returns 1 for yes, 0 for no, -1 for anything else. */
+    private static int parseBoolean(byte[] line, int from, int to) {
+        int length = to - from;
+        if (length == 0) {
+            return -1;
+        }
+        byte first = lower(line[from]);
+        if (first == 'y' || first == 't') {
+            return matches(line, from, to, "y", "yes", "true") ? 1 : -1;
+        }
+        if (first == 'n' || first == 'f') {
+            return matches(line, from, to, "n", "no", "false") ? 0 : -1;
+        }
+        return -1;
+    }
+
+    /** Returns the non-negative count, or -1 if the field is not a plain integer that fits in an int. */
+    private static int parseCount(byte[] line, int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = line[i];
+            if (b < '0' || b > '9') {
+                return -1;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean matches(byte[] line, int from, int to, String... candidates) {
+        for (String candidate : candidates) {
+            byte[] bytes = candidate.getBytes(StandardCharsets.US_ASCII);
+            if (to - from == bytes.length && startsWithIgnoreCase(line, from, to, bytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean startsWithIgnoreCase(byte[] line, int from, int to, byte[] lowerPrefix) {
+        if (to - from < lowerPrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerPrefix.length; i++) {
+            if (lower(line[from + i]) != lowerPrefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte lower(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b + ('a' - 'A')) : b;
+    }
+
+    static int skipBlanks(byte[] line, int from, int to) {
+        while (from < to && (line[from] == ' ' || line[from] == '\t')) {
+            from++;
+        }
+        return from;
+    }
+
+    static int trimBlanks(byte[] line, int from, int to) {
+        while (to > from && (line[to - 1] == ' ' || line[to - 1] == '\t')) {
+            to--;
+        }
+        return to;
+    }
+}
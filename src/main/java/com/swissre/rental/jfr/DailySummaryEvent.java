@@ -0,0 +1,27 @@
+package com.swissre.rental.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Flight Recorder event for calculating a daily summary. */
+@Name("com.swissre.rental.DailySummary")
+@Label("Daily Summary")
+@Description("Pricing all rentals of a day and totalling them")
+@Category({"Jeff's Car Rental", "Pricing"})
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public final class DailySummaryEvent extends Event {
+
+    @Label("Rentals")
+    public int rentalCount;
+
+    @Label("Tariff Version")
+    public String tariffVersion;
+}
@@ -0,0 +1,65 @@
+package com.swissre.rental.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+
+/**
+ * Starts a Flight Recorder recording from inside the application, with the JDK's {@code profile}
+ * settings plus the rental events, so CPU samples and allocations can be read next to the
+ * business activity they belong to.
+ *
+ * <p>The rental events are disabled by default and cost close to nothing until a recording enables
+ * them. Here they are enabled with the given threshold; a threshold of zero records every rental.
+ * The recording is written to the destination when it is closed, and also if the JVM exits
+ * first.</p>
+ */
+public final class FlightRecording implements Closeable {
+
+    public static final Duration DEFAULT_THRESHOLD = Duration.ZERO;
+
+    private final Recording recording;
+    private final Path destination;
+
+    private FlightRecording(Recording recording, Path destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    public static FlightRecording start(Path destination) throws IOException {
+        return start(destination, DEFAULT_THRESHOLD);
+    }
+
+    public static FlightRecording start(Path destination, Duration threshold) throws IOException {
+        Configuration profile;
+        try {
+            profile = Configuration.getConfiguration("profile");
+        } catch (ParseException e) {
+            throw new IOException("Could not read the JDK's profile settings", e);
+        }
+        Recording recording = new Recording(profile);
+        recording.setName("Jeff's Car Rental");
+        recording.enable(RentalPricedEvent.class).withThreshold(threshold);
+        recording.enable(DailySummaryEvent.class).withThreshold(threshold);
+        recording.enable(ReportRenderedEvent.class).withThreshold(threshold);
+        recording.setDestination(destination);
+        recording.setDumpOnExit(true);
+        recording.start();
+        return new FlightRecording(recording, destination);
+    }
+
+    public Path destination() {
+        return destination;
+    }
+
+    /** Stops the recording and writes it to the destination. */
+    @Override
+    public void close() {
+        recording.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.swissre.rental.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Flight Recorder event for pricing one rental. */
+@Name("com.swissre.rental.RentalPriced")
+@Label("Rental Priced")
+@Description("Pricing of a single rental by the cost calculator")
+@Category({"Jeff's Car Rental", "Pricing"})
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public final class RentalPricedEvent extends Event {
+
+    @Label("Vehicle Type")
+    public String vehicleType;
+
+    @Label("Subtotal (CHF)")
+    public double subtotal;
+
+    @Label("Tariff Version")
+    public String tariffVersion;
+}
@@ -0,0 +1,32 @@
+package com.swissre.rental.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** Flight Recorder event for rendering a receipt or summary report. */
+@Name("com.swissre.rental.ReportRendered")
+@Label("Report Rendered")
+@Description("Rendering of a customer receipt or a summary report, including writing it to a stream")
+@Category({"Jeff's Car Rental", "Reports"})
+@Enabled(false)
+@Threshold("1 ms")
+@StackTrace(false)
+public final class ReportRenderedEvent extends Event {
+
+    @Label("Report")
+    @Description("receipt, companySummary or plainSummary")
+    public String report;
+
+    @Label("Rentals")
+    public long rentalCount;
+
+    @Label("Output Characters")
+    @Description("Characters rendered, before any encoding to bytes")
+    public long outputChars;
+}
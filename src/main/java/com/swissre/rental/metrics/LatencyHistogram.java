@@ -0,0 +1,106 @@
+package com.swissre.rental.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram in nanoseconds with log-linear buckets, in the style of HdrHistogram.
+ *
+ * <p>Values below {@value #LINEAR_BUCKETS} ns are counted exactly. Above that every power of two
+ * is split into {@value #SUB_BUCKETS} equal buckets, so any recorded value is reported within
+ * about 3% across the whole {@code long} range in a fixed 15 KB of counters. Recording is a few
+ * atomic increments and never allocates; a snapshot reads the counters without stopping writers,
+ * so values recorded meanwhile may or may not be included.</p>
+ */
+public final class LatencyHistogram {
+
+    static final int LINEAR_BUCKETS = 64;
+    static final int SUB_BUCKET_BITS = 5;
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int FIRST_EXPONENT = Long.SIZE - 1 - Long.numberOfLeadingZeros(LINEAR_BUCKETS);
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - FIRST_EXPONENT) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    LatencyHistogram() {
+    }
+
+    /** Records one latency; negative values are recorded as zero. */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.getAndIncrement(bucket(value));
+        totalNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /** Records the time elapsed since {@code startNanos}, a {@link System#nanoTime()} reading. */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        long max = maxNanos.get();
+        return new Snapshot(count, totalNanos.sum(), max,
+                valueAt(copy, count, 0.50, max), valueAt(copy, count, 0.90, max),
+                valueAt(copy, count, 0.99, max), valueAt(copy, count, 0.999, max));
+    }
+
+    static int bucket(long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return LINEAR_BUCKETS + (exponent - FIRST_EXPONENT) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+    }
+
+    /** Largest value that falls into {@code bucket}. */
+    static long highestValue(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + FIRST_EXPONENT;
+        long subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        // For the last bucket the shift overflows to Long.MIN_VALUE, so this yields Long.MAX_VALUE.
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /** The value below which {@code quantile} of the recorded values fall, never above the maximum. */
+    private static long valueAt(long[] counts, long count, double quantile, long max) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    /** Point-in-time view of a histogram; all latencies in nanoseconds. */
+    public record Snapshot(long count, long totalNanos, long maxNanos, long p50Nanos, long p90Nanos,
+                           long p99Nanos, long p999Nanos) {
+
+        public long meanNanos() {
+            return count == 0 ? 0 : totalNanos / count;
+        }
+    }
+}
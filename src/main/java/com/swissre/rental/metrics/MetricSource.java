@@ -0,0 +1,14 @@
+package com.swissre.rental.metrics;
+
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Counters that a component keeps in its own layout, for example several values packed into one
+ * update, and that are only turned into named values when a snapshot is taken.
+ */
+@FunctionalInterface
+public interface MetricSource {
+
+    /** Reports every counter of this source by name; called once per snapshot. */
+    void collect(ObjLongConsumer<String> counters);
+}
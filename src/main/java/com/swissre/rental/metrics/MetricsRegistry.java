@@ -0,0 +1,49 @@
+package com.swissre.rental.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Named counters and latency histograms of one application, with a snapshot of all of them.
+ *
+ * <p>Instruments are created on first lookup and live as long as the registry. Components look
+ * theirs up once when they are constructed and keep the references, so recording never touches
+ * the registry's maps. Everything here is thread-safe.</p>
+ */
+public final class MetricsRegistry {
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, MetricSource> sources = new ConcurrentHashMap<>();
+
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, key -> new Counter());
+    }
+
+    public LatencyHistogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new LatencyHistogram());
+    }
+
+    /**
+     * Returns the source registered under {@code name}, creating it with {@code factory} on first
+     * lookup, so components sharing a registry also share the source. Its counters are listed with
+     * the registry's own counters.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends MetricSource> T source(String name, Supplier<T> factory) {
+        return (T) sources.computeIfAbsent(name, key -> factory.get());
+    }
+
+    /** Current values of every instrument, sorted by name. */
+    public MetricsSnapshot snapshot() {
+        Map<String, Long> counterValues = new TreeMap<>();
+        counters.forEach((name, counter) -> counterValues.put(name, counter.sum()));
+        sources.values().forEach(source -> source.collect(counterValues::put));
+        Map<String, LatencyHistogram.Snapshot> histogramValues = new TreeMap<>();
+        histograms.forEach((name, histogram) -> histogramValues.put(name, histogram.snapshot()));
+        return new MetricsSnapshot(counterValues, histogramValues);
+    }
+}
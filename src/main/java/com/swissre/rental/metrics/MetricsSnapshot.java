@@ -0,0 +1,44 @@
+package com.swissre.rental.metrics;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+
+/** Values of all instruments of a {@link MetricsRegistry} at one point in time, sorted by name. */
+public record MetricsSnapshot(Map<String, Long> counters, Map<String, LatencyHistogram.Snapshot> histograms) {
+
+    public MetricsSnapshot {
+        counters = Collections.unmodifiableMap(counters);
+        histograms = Collections.unmodifiableMap(histograms);
+    }
+
+    /** Renders the snapshot as a plain-text table for the console, latencies in microseconds. */
+    public String format() {
+        int width = 10;
+        for (String name : counters.keySet()) {
+            width = Math.max(width, name.length());
+        }
+        for (String name : histograms.keySet()) {
+            width = Math.max(width, name.length());
+        }
+
+        String name = "  %-" + width + "s";
+        StringBuilder sb = new StringBuilder("Counters\n");
+        for (Map.Entry<String, Long> counter : counters.entrySet()) {
+            sb.append(String.format(Locale.ROOT, name + " %12d%n", counter.getKey(), counter.getValue()));
+        }
+        sb.append(String.format(Locale.ROOT, "Latencies (us)%n" + name + " %10s %10s %10s %10s %10s %10s %10s%n",
+                "", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, LatencyHistogram.Snapshot> histogram : histograms.entrySet()) {
+            LatencyHistogram.Snapshot h = histogram.getValue();
+            sb.append(String.format(Locale.ROOT, name + " %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    histogram.getKey(), h.count(), micros(h.meanNanos()), micros(h.p50Nanos()), micros(h.p90Nanos()),
+                    micros(h.p99Nanos()), micros(h.p999Nanos()), micros(h.maxNanos())));
+        }
+        return sb.toString();
+    }
+
+    private static double micros(long nanos) {
+        return nanos / 1_000.0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+import java.util.function.Function;
+
+/** Individual charge components of a {@link CostBreakdown}, in receipt order. */
+public enum ChargeComponent {
+
+    DISTANCE(CostBreakdown::distanceCost),
+    ENERGY(CostBreakdown::energyCost),
+    VIGNETTE(CostBreakdown::vignetteCost),
+    GUBRIST(CostBreakdown::gubristCost),
+    CONGESTION(CostBreakdown::congestionCost),
+    ECO_BONUS(CostBreakdown::ecoBonus);
+
+    private final Function<CostBreakdown, BigDecimal> accessor;
+
+    ChargeComponent(Function<CostBreakdown, BigDecimal> accessor) {
+        this.accessor = accessor;
+    }
+
+    public BigDecimal amountOf(CostBreakdown breakdown) {
+        return accessor.apply(breakdown);
+    }
+}
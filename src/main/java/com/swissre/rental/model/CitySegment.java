@@ -0,0 +1,17 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/** Kilometers driven in the city zone, starting at {@code start}; priced at the congestion rate of that time. */
+public record CitySegment(LocalDateTime start, BigDecimal kilometers) {
+
+    public CitySegment {
+        Objects.requireNonNull(start, "Start must not be null");
+        Objects.requireNonNull(kilometers, "Kilometers must not be null");
+        if (kilometers.signum() < 0) {
+            throw new IllegalArgumentException("Kilometers must not be negative");
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.swissre.rental.model;
 
 import java.math.BigDecimal;
 
-/** Itemized cost result for a single rental, including all charge components and subtotal. */
+/**
+ * Itemized cost result for a single rental, including all charge components and subtotal,
+ * and the version of the {@link Tariff} it was priced with.
+ */
 public record CostBreakdown(
         VehicleRental rental,
         BigDecimal distanceCost,
@@ -11,6 +14,14 @@ public record CostBreakdown(
         BigDecimal gubristCost,
         BigDecimal congestionCost,
         BigDecimal ecoBonus,
-        BigDecimal subtotal
+        BigDecimal subtotal,
+        String tariffVersion
 ) {
+    /** Creates a breakdown priced with the {@link Tariff#DEFAULT default} tariff. */
+    public CostBreakdown(VehicleRental rental, BigDecimal distanceCost, BigDecimal energyCost,
+                         BigDecimal vignetteCost, BigDecimal gubristCost, BigDecimal congestionCost,
+                         BigDecimal ecoBonus, BigDecimal subtotal) {
+        this(rental, distanceCost, energyCost, vignetteCost, gubristCost, congestionCost, ecoBonus, subtotal,
+                Tariff.DEFAULT_VERSION);
+    }
 }
@@ -0,0 +1,28 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+
+/**
+ * Unchecked rental fields as read from a feed, before they are turned into a {@link VehicleRental}.
+ * Any field may be missing or out of range; {@link #violations()} says which.
+ */
+public record RentalInput(
+        VehicleType vehicleType,
+        BigDecimal kilometersDriven,
+        BigDecimal energyConsumed,
+        boolean motorwayVignette,
+        int gubristTunnelPassages,
+        BigDecimal cityKilometers
+) {
+    /** The violated invariants as {@link RentalViolation} bits, 0 if the input is a valid rental. */
+    public int violations() {
+        return VehicleRental.violations(vehicleType, kilometersDriven, energyConsumed, gubristTunnelPassages,
+                cityKilometers);
+    }
+
+    /** Builds the rental; throws like the {@link VehicleRental} constructor if {@link #violations()} is not 0. */
+    public VehicleRental toRental() {
+        return new VehicleRental(vehicleType, kilometersDriven, energyConsumed, motorwayVignette,
+                gubristTunnelPassages, cityKilometers);
+    }
+}
@@ -0,0 +1,68 @@
+package com.swissre.rental.model;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The invariants of a {@link VehicleRental}, each with one bit in a violation mask.
+ *
+ * <p>Constants are declared in the order the compact constructor checks them, so the lowest set
+ * bit of a mask is the violation the constructor would throw for.</p>
+ */
+public enum RentalViolation {
+
+    MISSING_VEHICLE_TYPE("Vehicle Type must not be null"),
+    MISSING_KILOMETERS("Kilometers Driven must not be null"),
+    MISSING_ENERGY("Energy Consumed must not be null"),
+    MISSING_CITY_KILOMETERS("City Kilometers must not be null"),
+    NEGATIVE_KILOMETERS("Kilometers Driven must not be negative"),
+    NEGATIVE_ENERGY("Energy Consumed must not be negative"),
+    NEGATIVE_CITY_KILOMETERS("City Kilometers must not be negative"),
+    CITY_KILOMETERS_EXCEED_TOTAL("City Kilometers must not exceed kilometersDriven"),
+    NEGATIVE_GUBRIST_PASSAGES("Gubrist Tunnel Passages must not be negative");
+
+    private static final RentalViolation[] VALUES = values();
+
+    private final String message;
+
+    RentalViolation(String message) {
+        this.message = message;
+    }
+
+    public String message() {
+        return message;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public boolean isSet(int violations) {
+        return (violations & bit()) != 0;
+    }
+
+    /** The violation the constructor reports first, i.e. the lowest bit of a non-zero mask. */
+    public static RentalViolation first(int violations) {
+        if (violations == 0) {
+            throw new IllegalArgumentException("Violations must not be empty");
+        }
+        return VALUES[Integer.numberOfTrailingZeros(violations)];
+    }
+
+    public static Set<RentalViolation> of(int violations) {
+        Set<RentalViolation> set = EnumSet.noneOf(RentalViolation.class);
+        for (RentalViolation violation : VALUES) {
+            if (violation.isSet(violations)) {
+                set.add(violation);
+            }
+        }
+        return set;
+    }
+
+    /** The exception the constructor throws for this violation: a null field is a {@link NullPointerException}. */
+    RuntimeException exception() {
+        return ordinal() <= MISSING_CITY_KILOMETERS.ordinal()
+                ? new NullPointerException(message)
+                : new IllegalArgumentException(message);
+    }
+}
@@ -0,0 +1,123 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Immutable, versioned snapshot of every rate used by the pricing engines.
+ *
+ * <p>{@link #DEFAULT} reproduces the built-in rates of {@link VehicleType} and the historical
+ * surcharge constants. Gubrist passages and city kilometers may additionally be priced by
+ * {@link TariffWindows time of day}; outside any window, and for rentals without times, the
+ * flat rates apply. Without windows, as in {@link #DEFAULT}, only the flat rates are used.
+ * Other versions are loaded from a file and published as a whole, so a calculation that
+ * captured a snapshot always prices with one consistent set of rates.</p>
+ */
+public record Tariff(
+        String version,
+        Map<VehicleType, BigDecimal> ratesPerKm,
+        Map<VehicleType, BigDecimal> energyRates,
+        BigDecimal vignetteCost,
+        BigDecimal gubristCostPerPassage,
+        int gubristMaxPaid,
+        BigDecimal congestionRatePerKm,
+        BigDecimal ecoBonusAmount,
+        BigDecimal ecoBonusMinKm,
+        BigDecimal ecoBonusMaxKwhPer100,
+        TariffWindows gubristWindows,
+        TariffWindows congestionWindows
+) {
+    public static final String DEFAULT_VERSION = "default";
+
+    public static final Tariff DEFAULT = new Tariff(
+            DEFAULT_VERSION,
+            ratesOf(VehicleType::ratePerKm),
+            ratesOf(VehicleType::energyRate),
+            new BigDecimal("9.00"),
+            new BigDecimal("2.50"),
+            2,
+            new BigDecimal("1.00"),
+            new BigDecimal("-10.00"),
+            new BigDecimal("80"),
+            new BigDecimal("22"));
+
+    public Tariff {
+        Objects.requireNonNull(version, "Version must not be null");
+        Objects.requireNonNull(ratesPerKm, "Rates Per Km must not be null");
+        Objects.requireNonNull(energyRates, "Energy Rates must not be null");
+        Objects.requireNonNull(vignetteCost, "Vignette Cost must not be null");
+        Objects.requireNonNull(gubristCostPerPassage, "Gubrist Cost Per Passage must not be null");
+        Objects.requireNonNull(congestionRatePerKm, "Congestion Rate Per Km must not be null");
+        Objects.requireNonNull(ecoBonusAmount, "Eco Bonus Amount must not be null");
+        Objects.requireNonNull(ecoBonusMinKm, "Eco Bonus Min Km must not be null");
+        Objects.requireNonNull(ecoBonusMaxKwhPer100, "Eco Bonus Max kWh Per 100 must not be null");
+        Objects.requireNonNull(gubristWindows, "Gubrist Windows must not be null");
+        Objects.requireNonNull(congestionWindows, "Congestion Windows must not be null");
+
+        if (version.isBlank()) {
+            throw new IllegalArgumentException("Version must not be blank");
+        }
+        for (VehicleType type : VehicleType.values()) {
+            requireRate(ratesPerKm.get(type), "Rate Per Km for " + type);
+            requireRate(energyRates.get(type), "Energy Rate for " + type);
+        }
+        requireRate(vignetteCost, "Vignette Cost");
+        requireRate(gubristCostPerPassage, "Gubrist Cost Per Passage");
+        requireRate(congestionRatePerKm, "Congestion Rate Per Km");
+        requireRate(ecoBonusMinKm, "Eco Bonus Min Km");
+        requireRate(ecoBonusMaxKwhPer100, "Eco Bonus Max kWh Per 100");
+        if (ecoBonusAmount.signum() > 0) {
+            throw new IllegalArgumentException("Eco Bonus Amount must not be positive");
+        }
+        if (gubristMaxPaid < 0) {
+            throw new IllegalArgumentException("Gubrist Max Paid must not be negative");
+        }
+
+        ratesPerKm = Collections.unmodifiableMap(new EnumMap<>(ratesPerKm));
+        energyRates = Collections.unmodifiableMap(new EnumMap<>(energyRates));
+    }
+
+    /** A tariff with flat Gubrist and congestion rates at all times of day. */
+    public Tariff(String version, Map<VehicleType, BigDecimal> ratesPerKm, Map<VehicleType, BigDecimal> energyRates,
+                  BigDecimal vignetteCost, BigDecimal gubristCostPerPassage, int gubristMaxPaid,
+                  BigDecimal congestionRatePerKm, BigDecimal ecoBonusAmount, BigDecimal ecoBonusMinKm,
+                  BigDecimal ecoBonusMaxKwhPer100) {
+        this(version, ratesPerKm, energyRates, vignetteCost, gubristCostPerPassage, gubristMaxPaid,
+                congestionRatePerKm, ecoBonusAmount, ecoBonusMinKm, ecoBonusMaxKwhPer100, TariffWindows.NONE,
+                TariffWindows.NONE);
+    }
+
+    /** Whether any time-of-day window is set, i.e. whether rental times can change a price. */
+    public boolean hasWindows() {
+        return !gubristWindows.isEmpty() || !congestionWindows.isEmpty();
+    }
+
+    public BigDecimal ratePerKm(VehicleType type) {
+        return ratesPerKm.get(type);
+    }
+
+    public BigDecimal energyRate(VehicleType type) {
+        return energyRates.get(type);
+    }
+
+    private static void requireRate(BigDecimal rate, String name) {
+        if (rate == null) {
+            throw new IllegalArgumentException(name + " must be set");
+        }
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException(name + " must not be negative");
+        }
+    }
+
+    private static Map<VehicleType, BigDecimal> ratesOf(Function<VehicleType, BigDecimal> rate) {
+        Map<VehicleType, BigDecimal> rates = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            rates.put(type, rate.apply(type));
+        }
+        return rates;
+    }
+}
@@ -0,0 +1,40 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.Objects;
+
+/**
+ * A rate that applies from {@code from} (inclusive) to {@code to} (exclusive) every day. A window
+ * whose end is not after its start runs past midnight, e.g. 22:00 to 06:00.
+ */
+public record TariffWindow(LocalTime from, LocalTime to, BigDecimal rate) {
+
+    public TariffWindow {
+        Objects.requireNonNull(from, "From must not be null");
+        Objects.requireNonNull(to, "To must not be null");
+        Objects.requireNonNull(rate, "Rate must not be null");
+        if (from.equals(to)) {
+            throw new IllegalArgumentException("Tariff window must not be empty: " + from + "-" + to);
+        }
+        if (rate.signum() < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+    }
+
+    /** Parses {@code HH:mm-HH:mm@rate}, the form used in tariff files. */
+    public static TariffWindow parse(String text) {
+        int dash = text.indexOf('-');
+        int at = text.indexOf('@');
+        if (dash < 0 || at < dash) {
+            throw new IllegalArgumentException("Tariff window must look like 07:00-09:00@4.00: " + text);
+        }
+        return new TariffWindow(LocalTime.parse(text.substring(0, dash).trim()),
+                LocalTime.parse(text.substring(dash + 1, at).trim()), new BigDecimal(text.substring(at + 1).trim()));
+    }
+
+    @Override
+    public String toString() {
+        return from + "-" + to + "@" + rate.toPlainString();
+    }
+}
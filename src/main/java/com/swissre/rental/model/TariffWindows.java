@@ -0,0 +1,122 @@
+package com.swissre.rental.model;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Time-of-day rates for one charge, compiled into an interval index.
+ *
+ * <p>The windows are cut into intervals covering the whole day, held as a sorted array of start
+ * seconds and the rate of each interval; {@code null} where no window applies. {@link #rateAt}
+ * binary-searches the starts, so a lookup takes O(log n) for n windows and allocates nothing.
+ * Windows must not overlap. {@link #NONE} has no windows and always yields the flat rate.</p>
+ */
+public final class TariffWindows {
+
+    public static final TariffWindows NONE = new TariffWindows(List.of());
+
+    private static final int SECONDS_PER_DAY = 24 * 60 * 60;
+
+    private final List<TariffWindow> windows;
+    private final int[] starts;
+    private final BigDecimal[] rates;
+
+    private TariffWindows(List<TariffWindow> windows) {
+        this.windows = List.copyOf(windows);
+
+        List<int[]> spans = new ArrayList<>();
+        List<BigDecimal> spanRates = new ArrayList<>();
+        for (TariffWindow window : this.windows) {
+            int from = window.from().toSecondOfDay();
+            int to = window.to().toSecondOfDay();
+            if (from < to) {
+                addSpan(spans, spanRates, from, to, window.rate());
+            } else {
+                addSpan(spans, spanRates, from, SECONDS_PER_DAY, window.rate());
+                if (to > 0) {
+                    addSpan(spans, spanRates, 0, to, window.rate());
+                }
+            }
+        }
+        Integer[] order = new Integer[spans.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(i -> spans.get(i)[0]));
+
+        int[] starts = new int[2 * order.length + 1];
+        BigDecimal[] rates = new BigDecimal[starts.length];
+        int count = 1;
+        int end = 0;
+        for (int i : order) {
+            int[] span = spans.get(i);
+            if (span[0] < end) {
+                throw new IllegalArgumentException("Tariff windows must not overlap: " + this.windows);
+            }
+            if (span[0] > end) {
+                starts[count++] = span[0];
+            }
+            rates[count - 1] = spanRates.get(i);
+            starts[count] = span[1];
+            end = span[1];
+            count++;
+        }
+        if (end == SECONDS_PER_DAY) {
+            count--;
+        }
+        this.starts = Arrays.copyOf(starts, count);
+        this.rates = Arrays.copyOf(rates, count);
+    }
+
+    public static TariffWindows of(List<TariffWindow> windows) {
+        return windows.isEmpty() ? NONE : new TariffWindows(windows);
+    }
+
+    /** Parses a comma-separated list of {@link TariffWindow#parse windows}; blank means none. */
+    public static TariffWindows parse(String text) {
+        List<TariffWindow> windows = new ArrayList<>();
+        for (String window : text.split(",")) {
+            if (!window.isBlank()) {
+                windows.add(TariffWindow.parse(window));
+            }
+        }
+        return of(windows);
+    }
+
+    public List<TariffWindow> windows() {
+        return windows;
+    }
+
+    public boolean isEmpty() {
+        return windows.isEmpty();
+    }
+
+    /** The rate of the window containing {@code time}, or {@code flatRate} outside all windows. */
+    public BigDecimal rateAt(LocalTime time, BigDecimal flatRate) {
+        int index = Arrays.binarySearch(starts, time.toSecondOfDay());
+        BigDecimal rate = rates[index >= 0 ? index : -index - 2];
+        return rate != null ? rate : flatRate;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof TariffWindows that && windows.equals(that.windows);
+    }
+
+    @Override
+    public int hashCode() {
+        return windows.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return windows.toString();
+    }
+
+    private static void addSpan(List<int[]> spans, List<BigDecimal> rates, int from, int to, BigDecimal rate) {
+        spans.add(new int[]{from, to});
+        rates.add(rate);
+    }
+}
@@ -1,37 +1,105 @@
 package com.swissre.rental.model;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 
-/** Immutable rental input data with validation of all invariants in the compact constructor. */
+/**
+ * Immutable rental input data with validation of all invariants in the compact constructor.
+ *
+ * <p>A rental may also record when it passed the Gubrist tunnel and when it drove its city
+ * kilometers, for tariffs with time-of-day windows. Passage times, if given, must number exactly
+ * {@code gubristTunnelPassages}; city segments, if given, must add up to {@code cityKilometers}.
+ * Both are kept in time order. Rentals without them are priced at the flat rates.</p>
+ */
 public record VehicleRental(
         VehicleType vehicleType,
         BigDecimal kilometersDriven,
         BigDecimal energyConsumed,
         boolean motorwayVignette,
         int gubristTunnelPassages,
-        BigDecimal cityKilometers
+        BigDecimal cityKilometers,
+        List<LocalDateTime> gubristPassageTimes,
+        List<CitySegment> citySegments
 ) {
     public VehicleRental {
-        Objects.requireNonNull(vehicleType, "Vehicle Type must not be null");
-        Objects.requireNonNull(kilometersDriven, "Kilometers Driven must not be null");
-        Objects.requireNonNull(energyConsumed, "Energy Consumed must not be null");
-        Objects.requireNonNull(cityKilometers, "City Kilometers must not be null");
+        int violations = violations(vehicleType, kilometersDriven, energyConsumed, gubristTunnelPassages,
+                cityKilometers);
+        if (violations != 0) {
+            throw RentalViolation.first(violations).exception();
+        }
+        gubristPassageTimes = inOrder(Objects.requireNonNull(gubristPassageTimes,
+                "Gubrist Passage Times must not be null"), Comparator.naturalOrder());
+        citySegments = inOrder(Objects.requireNonNull(citySegments, "City Segments must not be null"),
+                Comparator.comparing(CitySegment::start));
+        if (!gubristPassageTimes.isEmpty() && gubristPassageTimes.size() != gubristTunnelPassages) {
+            throw new IllegalArgumentException("Gubrist Passage Times must match Gubrist Tunnel Passages");
+        }
+        if (!citySegments.isEmpty() && citySegments.stream().map(CitySegment::kilometers)
+                .reduce(BigDecimal.ZERO, BigDecimal::add).compareTo(cityKilometers) != 0) {
+            throw new IllegalArgumentException("City Segments must add up to City Kilometers");
+        }
+    }
+
+    /** A rental without passage times or city segments. */
+    public VehicleRental(VehicleType vehicleType, BigDecimal kilometersDriven, BigDecimal energyConsumed,
+                         boolean motorwayVignette, int gubristTunnelPassages, BigDecimal cityKilometers) {
+        this(vehicleType, kilometersDriven, energyConsumed, motorwayVignette, gubristTunnelPassages, cityKilometers,
+                List.of(), List.of());
+    }
 
-        if (kilometersDriven.signum() < 0) {
-            throw new IllegalArgumentException("Kilometers Driven must not be negative");
+    /** Whether the rental records passage times or city segments. */
+    public boolean isTimed() {
+        return !gubristPassageTimes.isEmpty() || !citySegments.isEmpty();
+    }
+
+    /**
+     * Checks the rental invariants without throwing and returns every violated one as a
+     * {@link RentalViolation} bit, or 0 if a rental can be built from these fields. Checks that
+     * need a missing or negative field are skipped.
+     */
+    public static int violations(VehicleType vehicleType, BigDecimal kilometersDriven, BigDecimal energyConsumed,
+                                 int gubristTunnelPassages, BigDecimal cityKilometers) {
+        int violations = 0;
+        if (vehicleType == null) {
+            violations |= RentalViolation.MISSING_VEHICLE_TYPE.bit();
         }
-        if (energyConsumed.signum() < 0) {
-            throw new IllegalArgumentException("Energy Consumed must not be negative");
+        if (kilometersDriven == null) {
+            violations |= RentalViolation.MISSING_KILOMETERS.bit();
+        } else if (kilometersDriven.signum() < 0) {
+            violations |= RentalViolation.NEGATIVE_KILOMETERS.bit();
         }
-        if (cityKilometers.signum() < 0) {
-            throw new IllegalArgumentException("City Kilometers must not be negative");
+        if (energyConsumed == null) {
+            violations |= RentalViolation.MISSING_ENERGY.bit();
+        } else if (energyConsumed.signum() < 0) {
+            violations |= RentalViolation.NEGATIVE_ENERGY.bit();
         }
-        if (cityKilometers.compareTo(kilometersDriven) > 0) {
-            throw new IllegalArgumentException("City Kilometers must not exceed kilometersDriven");
+        if (cityKilometers == null) {
+            violations |= RentalViolation.MISSING_CITY_KILOMETERS.bit();
+        } else if (cityKilometers.signum() < 0) {
+            violations |= RentalViolation.NEGATIVE_CITY_KILOMETERS.bit();
+        } else if (kilometersDriven != null && kilometersDriven.signum() >= 0
+                && cityKilometers.compareTo(kilometersDriven) > 0) {
+            violations |= RentalViolation.CITY_KILOMETERS_EXCEED_TOTAL.bit();
         }
         if (gubristTunnelPassages < 0) {
-            throw new IllegalArgumentException("Gubrist Tunnel Passages must not be negative");
+            violations |= RentalViolation.NEGATIVE_GUBRIST_PASSAGES.bit();
+        }
+        return violations;
+    }
+
+    private static <T> List<T> inOrder(List<T> events, Comparator<? super T> order) {
+        List<T> copy = List.copyOf(events);
+        for (int i = 1; i < copy.size(); i++) {
+            if (order.compare(copy.get(i - 1), copy.get(i)) > 0) {
+                List<T> sorted = new ArrayList<>(copy);
+                sorted.sort(order);
+                return List.copyOf(sorted);
+            }
         }
+        return copy;
     }
 }
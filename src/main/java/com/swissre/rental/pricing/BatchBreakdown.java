@@ -0,0 +1,108 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Columnar pricing result for a {@link RentalBatch}, one {@code long} centime column per charge component.
+ *
+ * <p>Row {@code i} corresponds to row {@code i} of the source batch. Rows are only turned into
+ * {@link CostBreakdown} records on request.</p>
+ */
+public class BatchBreakdown {
+
+    private final RentalBatch batch;
+    private final String tariffVersion;
+    private final long[] distanceCentimes;
+    private final long[] energyCentimes;
+    private final long[] vignetteCentimes;
+    private final long[] gubristCentimes;
+    private final long[] congestionCentimes;
+    private final long[] ecoBonusCentimes;
+    private final long[] subtotalCentimes;
+    private final long grandTotalCentimes;
+
+    BatchBreakdown(RentalBatch batch, String tariffVersion, long[] distanceCentimes, long[] energyCentimes,
+                   long[] vignetteCentimes, long[] gubristCentimes, long[] congestionCentimes, long[] ecoBonusCentimes,
+                   long[] subtotalCentimes, long grandTotalCentimes) {
+        this.batch = batch;
+        this.tariffVersion = tariffVersion;
+        this.distanceCentimes = distanceCentimes;
+        this.energyCentimes = energyCentimes;
+        this.vignetteCentimes = vignetteCentimes;
+        this.gubristCentimes = gubristCentimes;
+        this.congestionCentimes = congestionCentimes;
+        this.ecoBonusCentimes = ecoBonusCentimes;
+        this.subtotalCentimes = subtotalCentimes;
+        this.grandTotalCentimes = grandTotalCentimes;
+    }
+
+    public int size() {
+        return subtotalCentimes.length;
+    }
+
+    public long distanceCentimes(int index) {
+        return distanceCentimes[index];
+    }
+
+    public long energyCentimes(int index) {
+        return energyCentimes[index];
+    }
+
+    public long vignetteCentimes(int index) {
+        return vignetteCentimes[index];
+    }
+
+    public long gubristCentimes(int index) {
+        return gubristCentimes[index];
+    }
+
+    public long congestionCentimes(int index) {
+        return congestionCentimes[index];
+    }
+
+    public long ecoBonusCentimes(int index) {
+        return ecoBonusCentimes[index];
+    }
+
+    public long subtotalCentimes(int index) {
+        return subtotalCentimes[index];
+    }
+
+    public String tariffVersion() {
+        return tariffVersion;
+    }
+
+    public long grandTotalCentimes() {
+        return grandTotalCentimes;
+    }
+
+    public BigDecimal grandTotal() {
+        return FixedPointCostCalculator.toAmount(grandTotalCentimes);
+    }
+
+    public CostBreakdown toCostBreakdown(int index) {
+        return new CostBreakdown(batch.rental(index),
+                FixedPointCostCalculator.toAmount(distanceCentimes[index]),
+                FixedPointCostCalculator.toAmount(energyCentimes[index]),
+                FixedPointCostCalculator.toAmount(vignetteCentimes[index]),
+                FixedPointCostCalculator.toAmount(gubristCentimes[index]),
+                FixedPointCostCalculator.toAmount(congestionCentimes[index]),
+                FixedPointCostCalculator.toAmount(ecoBonusCentimes[index]),
+                FixedPointCostCalculator.toAmount(subtotalCentimes[index]),
+                tariffVersion);
+    }
+
+    public DailySummary toDailySummary() {
+        List<CostBreakdown> breakdowns = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            breakdowns.add(toCostBreakdown(i));
+        }
+        return new DailySummary(Collections.unmodifiableList(breakdowns), grandTotal());
+    }
+}
@@ -0,0 +1,72 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.VehicleType;
+
+/**
+ * Batch pricing kernel for a columnar {@link RentalBatch}.
+ *
+ * <p>Prices the whole batch in one pass over the primitive columns and returns a matching
+ * {@link BatchBreakdown}. Rates are copied into per-ordinal lookup arrays, and the vignette and
+ * Gubrist charges are computed with arithmetic instead of per-rental branches. Results are
+ * identical to {@link FixedPointCostCalculator} and therefore to {@link CostCalculator}.</p>
+ */
+public class BatchCostCalculator {
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private final FixedPointCostCalculator calculator;
+    private final long[] distanceRates;
+    private final long[] energyRates;
+    private final long congestionRate;
+    private final long vignetteCentimes;
+
+    public BatchCostCalculator() {
+        this(new FixedPointCostCalculator());
+    }
+
+    public BatchCostCalculator(FixedPointCostCalculator calculator) {
+        this.calculator = calculator;
+        this.distanceRates = new long[TYPES.length];
+        this.energyRates = new long[TYPES.length];
+        for (VehicleType type : TYPES) {
+            distanceRates[type.ordinal()] = calculator.distanceRate(type);
+            energyRates[type.ordinal()] = calculator.energyRate(type);
+        }
+        this.congestionRate = calculator.congestionRate();
+        this.vignetteCentimes = calculator.vignetteCentimes(true);
+    }
+
+    public BatchBreakdown price(RentalBatch batch) {
+        int size = batch.size();
+        byte[] types = batch.typeOrdinals();
+        long[] km = batch.kilometersMilli();
+        long[] energy = batch.energyMilli();
+        byte[] vignettes = batch.vignetteFlags();
+        int[] passages = batch.gubristPassages();
+        long[] cityKm = batch.cityKilometersMilli();
+
+        long[] distance = new long[size];
+        long[] energyCost = new long[size];
+        long[] vignette = new long[size];
+        long[] gubrist = new long[size];
+        long[] congestion = new long[size];
+        long[] ecoBonus = new long[size];
+        long[] subtotal = new long[size];
+        long grandTotal = 0;
+
+        for (int i = 0; i < size; i++) {
+            int type = types[i];
+            distance[i] = FixedPointCostCalculator.roundRate(km[i] * distanceRates[type]);
+            energyCost[i] = FixedPointCostCalculator.roundRate(energy[i] * energyRates[type]);
+            vignette[i] = vignettes[i] * vignetteCentimes;
+            gubrist[i] = calculator.gubristCentimes(passages[i]);
+            congestion[i] = FixedPointCostCalculator.roundRate(cityKm[i] * congestionRate);
+            ecoBonus[i] = calculator.ecoBonusCentimes(TYPES[type], km[i], energy[i]);
+            subtotal[i] = distance[i] + energyCost[i] + vignette[i] + gubrist[i] + congestion[i] + ecoBonus[i];
+            grandTotal += subtotal[i];
+        }
+
+        return new BatchBreakdown(batch, calculator.tariff().version(), distance, energyCost, vignette, gubrist,
+                congestion, ecoBonus, subtotal, grandTotal);
+    }
+}
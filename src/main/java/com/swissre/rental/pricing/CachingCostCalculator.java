@@ -0,0 +1,192 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link CostCalculator} with a bounded, least-recently-used memoization cache in front of it.
+ *
+ * <p>Entries are keyed on the numerically normalized rental fields (so {@code 95} and
+ * {@code 95.0} km share an entry, as do Gubrist passage counts beyond the paid maximum) plus
+ * the identity of the {@link Tariff} in effect, so a newly published tariff never sees stale
+ * prices. Rentals with passage times or city segments bypass the cache when the tariff has
+ * time-of-day windows, since their price depends on those times. The cache is split into
+ * independently locked segments to keep contention low under parallel pricing. A hit returns a
+ * {@link CostBreakdown} that carries the caller's own rental and is counted in the pricing metrics
+ * like a freshly priced one. Hit, miss and eviction counts are available through
+ * {@link #stats()}.</p>
+ */
+public class CachingCostCalculator extends CostCalculator {
+
+    private static final int SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int maximumSize;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingCostCalculator(int maximumSize) {
+        this(new TariffRegistry(), maximumSize);
+    }
+
+    public CachingCostCalculator(TariffRegistry tariffs, int maximumSize) {
+        this(tariffs, new MetricsRegistry(), maximumSize);
+    }
+
+    public CachingCostCalculator(TariffRegistry tariffs, MetricsRegistry metrics, int maximumSize) {
+        super(tariffs, metrics);
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum Size must be positive");
+        }
+        this.maximumSize = maximumSize;
+        int segmentCount = Math.min(SEGMENTS, maximumSize);
+        int segmentSize = (maximumSize + segmentCount - 1) / segmentCount;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    @Override
+    CostBreakdown price(VehicleRental rental, Tariff tariff) {
+        if (tariff.hasWindows() && rental.isTimed()) {
+            return super.price(rental, tariff);
+        }
+        Key key = new Key(rental, tariff);
+        Segment segment = segments[Math.floorMod(key.hashCode, segments.length)];
+
+        CostBreakdown cached;
+        synchronized (segment) {
+            cached = segment.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached.rental() == rental ? cached : withRental(cached, rental);
+        }
+
+        misses.increment();
+        CostBreakdown breakdown = super.price(rental, tariff);
+        synchronized (segment) {
+            segment.put(key, breakdown);
+        }
+        return breakdown;
+    }
+
+    public CacheStats stats() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size, maximumSize);
+    }
+
+    public void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+    }
+
+    private static CostBreakdown withRental(CostBreakdown cached, VehicleRental rental) {
+        return new CostBreakdown(rental, cached.distanceCost(), cached.energyCost(), cached.vignetteCost(),
+                cached.gubristCost(), cached.congestionCost(), cached.ecoBonus(), cached.subtotal(),
+                cached.tariffVersion());
+    }
+
+    /** Point-in-time cache counters. */
+    public record CacheStats(long hits, long misses, long evictions, int size, int maximumSize) {
+
+        public long requests() {
+            return hits + misses;
+        }
+
+        public double hitRate() {
+            long requests = requests();
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    private final class Segment extends LinkedHashMap<Key, CostBreakdown> {
+
+        private final int capacity;
+
+        private Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, CostBreakdown> eldest) {
+            if (size() > capacity) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+
+    private static final class Key {
+
+        private final Tariff tariff;
+        private final VehicleType vehicleType;
+        private final BigDecimal kilometersDriven;
+        private final BigDecimal energyConsumed;
+        private final boolean motorwayVignette;
+        private final int gubristTunnelPassages;
+        private final BigDecimal cityKilometers;
+        private final int hashCode;
+
+        private Key(VehicleRental rental, Tariff tariff) {
+            this.tariff = tariff;
+            this.vehicleType = rental.vehicleType();
+            this.kilometersDriven = rental.kilometersDriven().stripTrailingZeros();
+            this.energyConsumed = rental.energyConsumed().stripTrailingZeros();
+            this.motorwayVignette = rental.motorwayVignette();
+            this.gubristTunnelPassages = Math.min(rental.gubristTunnelPassages(), tariff.gubristMaxPaid());
+            this.cityKilometers = rental.cityKilometers().stripTrailingZeros();
+
+            int hash = System.identityHashCode(tariff);
+            hash = 31 * hash + vehicleType.hashCode();
+            hash = 31 * hash + kilometersDriven.hashCode();
+            hash = 31 * hash + energyConsumed.hashCode();
+            hash = 31 * hash + Boolean.hashCode(motorwayVignette);
+            hash = 31 * hash + gubristTunnelPassages;
+            hash = 31 * hash + cityKilometers.hashCode();
+            this.hashCode = hash ^ (hash >>> 16);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return tariff == other.tariff
+                    && vehicleType == other.vehicleType
+                    && motorwayVignette == other.motorwayVignette
+                    && gubristTunnelPassages == other.gubristTunnelPassages
+                    && kilometersDriven.equals(other.kilometersDriven)
+                    && energyConsumed.equals(other.energyConsumed)
+                    && cityKilometers.equals(other.cityKilometers);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link ChargeRule}s compiled into flat arrays, one for every vehicle type and combination of
+ * present {@link ChargeRule.Input}s.
+ *
+ * <p>Pricing a rental reads its type and which inputs are present, picks the matching array and
+ * runs every rule in it without further checks. Rules for other vehicle types or needing an absent
+ * input are simply not in that array, so adding them costs nothing for the rentals they cannot
+ * charge. Compiled once per {@link CostCalculator}; immutable afterwards.</p>
+ */
+final class ChargePipeline {
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final int INPUT_COMBINATIONS = 1 << ChargeRule.Input.values().length;
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+
+    private final ChargeRule[][] rules = new ChargeRule[TYPES.length * INPUT_COMBINATIONS][];
+    private final int[][] components = new int[TYPES.length * INPUT_COMBINATIONS][];
+
+    ChargePipeline(List<? extends ChargeRule> chargeRules) {
+        for (VehicleType type : TYPES) {
+            for (int present = 0; present < INPUT_COMBINATIONS; present++) {
+                List<ChargeRule> applicable = new ArrayList<>();
+                for (ChargeRule rule : chargeRules) {
+                    if (rule.vehicleTypes().contains(type) && (mask(rule) & ~present) == 0) {
+                        applicable.add(rule);
+                    }
+                }
+                int slot = type.ordinal() * INPUT_COMBINATIONS + present;
+                rules[slot] = applicable.toArray(new ChargeRule[0]);
+                components[slot] = applicable.stream().mapToInt(rule -> rule.component().ordinal()).toArray();
+            }
+        }
+    }
+
+    /**
+     * Fills {@code amounts}, indexed by {@link ChargeComponent} ordinal, with the rental's charges.
+     * Components no rule charged are zero with two decimals.
+     */
+    void charge(VehicleRental rental, Tariff tariff, BigDecimal[] amounts) {
+        int slot = rental.vehicleType().ordinal() * INPUT_COMBINATIONS + present(rental);
+        ChargeRule[] pipeline = rules[slot];
+        int[] targets = components[slot];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = ZERO;
+        }
+        for (int i = 0; i < pipeline.length; i++) {
+            BigDecimal charge = pipeline[i].charge(rental, tariff);
+            int target = targets[i];
+            amounts[target] = amounts[target] == ZERO ? charge : amounts[target].add(charge);
+        }
+    }
+
+    /** Number of rules run for rentals of {@code type} with the given inputs present, for tests. */
+    int ruleCount(VehicleType type, int present) {
+        return rules[type.ordinal() * INPUT_COMBINATIONS + present].length;
+    }
+
+    static int present(VehicleRental rental) {
+        return (rental.kilometersDriven().signum() != 0 ? bit(ChargeRule.Input.KILOMETERS) : 0)
+                | (rental.energyConsumed().signum() != 0 ? bit(ChargeRule.Input.ENERGY) : 0)
+                | (rental.motorwayVignette() ? bit(ChargeRule.Input.MOTORWAY_VIGNETTE) : 0)
+                | (rental.gubristTunnelPassages() != 0 ? bit(ChargeRule.Input.GUBRIST_PASSAGES) : 0)
+                | (rental.cityKilometers().signum() != 0 ? bit(ChargeRule.Input.CITY_KILOMETERS) : 0);
+    }
+
+    static int bit(ChargeRule.Input input) {
+        return 1 << input.ordinal();
+    }
+
+    private static int mask(ChargeRule rule) {
+        int mask = 0;
+        for (ChargeRule.Input input : rule.requiredInputs()) {
+            mask |= bit(input);
+        }
+        return mask;
+    }
+}
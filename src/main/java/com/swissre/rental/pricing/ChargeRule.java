@@ -0,0 +1,49 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * One charge of a rental, added to a {@link ChargeComponent} of its {@link com.swissre.rental.model.CostBreakdown}.
+ *
+ * <p>A rule declares the vehicle types it charges and the inputs it needs. The {@link CostCalculator}
+ * compiles its rules once into a pipeline per vehicle type and set of present inputs, so a rule is
+ * only ever called for rentals it can charge: never for another vehicle type, and never when one of
+ * its {@link #requiredInputs()} is zero. Several rules may add to the same component.
+ * {@link StandardChargeRule} holds the rules of the published tariffs.</p>
+ */
+public interface ChargeRule {
+
+    /** Rental inputs a rule can depend on. An input is present when it is non-zero, or {@code true}. */
+    enum Input {
+        KILOMETERS,
+        ENERGY,
+        MOTORWAY_VIGNETTE,
+        GUBRIST_PASSAGES,
+        CITY_KILOMETERS
+    }
+
+    ChargeComponent component();
+
+    /** The vehicle types this rule charges; all of them unless overridden. */
+    default Set<VehicleType> vehicleTypes() {
+        return EnumSet.allOf(VehicleType.class);
+    }
+
+    /**
+     * The inputs that must all be present for this rule to charge anything. Rentals lacking one of
+     * them are not passed to {@link #charge}; their charge counts as zero.
+     */
+    default Set<Input> requiredInputs() {
+        return EnumSet.noneOf(Input.class);
+    }
+
+    /** The charge for {@code rental}, rounded to centimes; negative for a bonus. */
+    BigDecimal charge(VehicleRental rental, Tariff tariff);
+}
@@ -1,75 +1,152 @@
 package com.swissre.rental.pricing;
 
+import com.swissre.rental.jfr.DailySummaryEvent;
+import com.swissre.rental.jfr.RentalPricedEvent;
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.ChargeComponent;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.model.VehicleType;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Stateless pricing engine — calculates distance, energy, vignette, Gubrist toll, city congestion, and eco-bonus.
+ * Pricing engine — calculates distance, energy, vignette, Gubrist toll, city congestion, and eco-bonus.
+ *
+ * <p>Each charge is a {@link ChargeRule}; by default the {@link StandardChargeRule}s. The rules are
+ * compiled into flat per-vehicle-type pipelines when the calculator is created, so a rental only
+ * runs the rules that can charge it.</p>
+ *
+ * <p>Rates come from the {@link Tariff} currently published in the {@link TariffRegistry}. A daily
+ * summary captures the tariff once up front, so a tariff swapped in while it runs only affects
+ * later calculations.</p>
+ *
+ * <p>Calculations are recorded in a {@link MetricsRegistry}: every rental is counted per
+ * {@link VehicleType} and optional {@link ChargeComponent} (see {@link RentalMixCounters}), every
+ * daily summary is timed, and a random one in {@value #LATENCY_SAMPLE_RATE} calls of
+ * {@link #calculate(VehicleRental, Tariff)} is timed as well. Reading the clock twice costs about
+ * as much as the calculation itself, so timing every call would double its price.</p>
+ *
+ * <p>Each calculation and daily summary is also a Flight Recorder event ({@link RentalPricedEvent},
+ * {@link DailySummaryEvent}). The events are disabled until a recording enables them; until then
+ * the JIT reduces them to nothing.</p>
  */
 public class CostCalculator {
 
-    private static final BigDecimal VIGNETTE_COST = new BigDecimal("9.00");
-    private static final BigDecimal GUBRIST_COST_PER_PASSAGE = new BigDecimal("2.50");
-    private static final int GUBRIST_MAX_PAID = 2;
-    private static final BigDecimal CONGESTION_RATE_PER_KM = new BigDecimal("1.00");
-    private static final BigDecimal ECO_BONUS_AMOUNT = new BigDecimal("-10.00");
-    private static final BigDecimal ECO_BONUS_MIN_KM = new BigDecimal("80");
-    private static final BigDecimal ECO_BONUS_MAX_KWH_PER_100 = new BigDecimal("22");
-    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    public static final int SCALE = 2;
+    static final int ECO_BONUS_RATIO_SCALE = 10;
+    public static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
 
-    private static final int SCALE = 2;
-    private static final RoundingMode ROUNDING = RoundingMode.HALF_UP;
+    static final int LATENCY_SAMPLE_RATE = 16;
 
-    public CostBreakdown calculate(VehicleRental rental) {
-        BigDecimal distanceCost = rental.kilometersDriven().multiply(rental.vehicleType().ratePerKm()).setScale(SCALE, ROUNDING);
+    private static final int COMPONENTS = ChargeComponent.values().length;
+    private static final int DISTANCE = ChargeComponent.DISTANCE.ordinal();
+    private static final int ENERGY = ChargeComponent.ENERGY.ordinal();
+    private static final int VIGNETTE = ChargeComponent.VIGNETTE.ordinal();
+    private static final int GUBRIST = ChargeComponent.GUBRIST.ordinal();
+    private static final int CONGESTION = ChargeComponent.CONGESTION.ordinal();
+    private static final int ECO_BONUS = ChargeComponent.ECO_BONUS.ordinal();
 
-        BigDecimal energyCost = rental.energyConsumed().multiply(rental.vehicleType().energyRate()).setScale(SCALE, ROUNDING);
+    private final TariffRegistry tariffs;
+    private final LatencyHistogram calculateLatency;
+    private final LatencyHistogram summaryLatency;
+    private final RentalMixCounters rentalMix;
+    private final ChargePipeline pipeline;
 
-        BigDecimal vignetteCost = rental.motorwayVignette() ? VIGNETTE_COST : BigDecimal.ZERO.setScale(SCALE, ROUNDING);
+    public CostCalculator() {
+        this(new TariffRegistry());
+    }
 
-        int paidPassages = Math.min(rental.gubristTunnelPassages(), GUBRIST_MAX_PAID);
-        BigDecimal gubristCost = GUBRIST_COST_PER_PASSAGE.multiply(BigDecimal.valueOf(paidPassages)).setScale(SCALE, ROUNDING);
+    public CostCalculator(TariffRegistry tariffs) {
+        this(tariffs, new MetricsRegistry());
+    }
 
-        BigDecimal congestionCost = rental.cityKilometers().multiply(CONGESTION_RATE_PER_KM).setScale(SCALE, ROUNDING);
+    public CostCalculator(TariffRegistry tariffs, MetricsRegistry metrics) {
+        this(tariffs, metrics, List.of(StandardChargeRule.values()));
+    }
 
-        BigDecimal ecoBonus = calculateEcoBonus(rental);
+    /**
+     * Creates a calculator that charges {@code rules} instead of the {@link StandardChargeRule}s.
+     * The rules are compiled into a pipeline per vehicle type here, once.
+     */
+    public CostCalculator(TariffRegistry tariffs, MetricsRegistry metrics, List<? extends ChargeRule> rules) {
+        this.tariffs = tariffs;
+        this.pipeline = new ChargePipeline(rules);
+        this.calculateLatency = metrics.histogram("pricing.calculate");
+        this.summaryLatency = metrics.histogram("pricing.dailySummary");
+        this.rentalMix = metrics.source(RentalMixCounters.NAME, RentalMixCounters::new);
+    }
 
-        BigDecimal subtotal = distanceCost
-                .add(energyCost)
-                .add(vignetteCost)
-                .add(gubristCost)
-                .add(congestionCost)
-                .add(ecoBonus);
+    public Tariff currentTariff() {
+        return tariffs.current();
+    }
 
-        return new CostBreakdown(rental, distanceCost, energyCost, vignetteCost, gubristCost, congestionCost, ecoBonus, subtotal);
+    public CostBreakdown calculate(VehicleRental rental) {
+        return calculate(rental, tariffs.current());
     }
 
-    public DailySummary calculateDailySummary(List<VehicleRental> rentals) {
-        List<CostBreakdown> breakdowns = rentals.stream().map(this::calculate).toList();
+    public CostBreakdown calculate(VehicleRental rental, Tariff tariff) {
+        boolean timed = ThreadLocalRandom.current().nextInt(LATENCY_SAMPLE_RATE) == 0;
+        long start = timed ? System.nanoTime() : 0;
+        RentalPricedEvent event = new RentalPricedEvent();
+        event.begin();
+        CostBreakdown breakdown = price(rental, tariff);
+        rentalMix.record(breakdown);
+        if (timed) {
+            calculateLatency.recordSince(start);
+        }
+        if (event.shouldCommit()) {
+            event.vehicleType = rental.vehicleType().name();
+            event.subtotal = breakdown.subtotal().doubleValue();
+            event.tariffVersion = tariff.version();
+            event.commit();
+        }
+        return breakdown;
+    }
 
-        BigDecimal grandTotal = breakdowns.stream().map(CostBreakdown::subtotal).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(SCALE, ROUNDING);
+    /**
+     * Prices one rental; {@link #calculate(VehicleRental, Tariff)} records and traces the result.
+     * {@link CachingCostCalculator} overrides it, so cache hits are counted like any other rental.
+     */
+    CostBreakdown price(VehicleRental rental, Tariff tariff) {
+        BigDecimal[] amounts = new BigDecimal[COMPONENTS];
+        pipeline.charge(rental, tariff, amounts);
+
+        BigDecimal subtotal = amounts[DISTANCE]
+                .add(amounts[ENERGY])
+                .add(amounts[VIGNETTE])
+                .add(amounts[GUBRIST])
+                .add(amounts[CONGESTION])
+                .add(amounts[ECO_BONUS]);
+
+        return new CostBreakdown(rental, amounts[DISTANCE], amounts[ENERGY], amounts[VIGNETTE], amounts[GUBRIST],
+                amounts[CONGESTION], amounts[ECO_BONUS], subtotal, tariff.version());
+    }
 
-        return new DailySummary(breakdowns, grandTotal);
+    public DailySummary calculateDailySummary(List<VehicleRental> rentals) {
+        return calculateDailySummary(rentals, tariffs.current());
     }
 
-    private BigDecimal calculateEcoBonus(VehicleRental rental) {
-        if (rental.vehicleType() != VehicleType.E_VAN) {
-            return BigDecimal.ZERO.setScale(SCALE, ROUNDING);
-        }
-        if (rental.kilometersDriven().compareTo(ECO_BONUS_MIN_KM) <= 0) {
-            return BigDecimal.ZERO.setScale(SCALE, ROUNDING);
-        }
-        BigDecimal kwhPer100 = rental.energyConsumed().multiply(HUNDRED).divide(rental.kilometersDriven(), 10, ROUNDING);
+    public DailySummary calculateDailySummary(List<VehicleRental> rentals, Tariff tariff) {
+        long start = System.nanoTime();
+        DailySummaryEvent event = new DailySummaryEvent();
+        event.begin();
+        List<CostBreakdown> breakdowns = rentals.stream().map(rental -> calculate(rental, tariff)).toList();
 
-        if (kwhPer100.compareTo(ECO_BONUS_MAX_KWH_PER_100) >= 0) {
-            return BigDecimal.ZERO.setScale(SCALE, ROUNDING);
+        BigDecimal grandTotal = breakdowns.stream().map(CostBreakdown::subtotal).reduce(BigDecimal.ZERO, BigDecimal::add).setScale(SCALE, ROUNDING);
+
+        summaryLatency.recordSince(start);
+        if (event.shouldCommit()) {
+            event.rentalCount = breakdowns.size();
+            event.tariffVersion = tariff.version();
+            event.commit();
         }
-        return ECO_BONUS_AMOUNT;
+        return new DailySummary(breakdowns, grandTotal);
     }
 }
@@ -0,0 +1,288 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Allocation-free pricing engine working on {@code long} centimes and milli-units.
+ *
+ * <p>Reproduces {@link CostCalculator} exactly, including its HALF_UP rounding: kilometers,
+ * energy and city kilometers are held in thousandths, rates in ten-thousandths of a franc,
+ * and every charge component in centimes. A {@link CostBreakdown} is only built when the
+ * caller asks for one. Rentals whose inputs do not fit the fixed-point domain (more than
+ * three decimals, or more than {@value #MAX_MILLI} milli-units) are delegated to the
+ * {@link CostCalculator} so results stay identical for every valid rental. So are rentals with
+ * passage times or city segments when the tariff has time-of-day windows.</p>
+ *
+ * <p>An instance is compiled for one {@link Tariff}; create a new one when a new version is
+ * published.</p>
+ */
+public class FixedPointCostCalculator {
+
+    /** Returned by {@link #toMilli(BigDecimal)} for values outside the fixed-point domain. */
+    public static final long NOT_REPRESENTABLE = -1L;
+
+    /** Largest supported quantity, in milli-units (one billion km or kWh). */
+    public static final long MAX_MILLI = 1_000_000_000_000L;
+
+    static final int MILLI_SCALE = 3;
+    static final int RATE_SCALE = 4;
+
+    private static final long RATE_TO_CENTIMES = 100_000L;
+    private static final long RATE_TO_CENTIMES_HALF = RATE_TO_CENTIMES / 2;
+    private static final long ECO_RATIO_FACTOR = 10_000_000_000_000L;
+    private static final long NOT_REPRESENTABLE_AMOUNT = Long.MIN_VALUE;
+    private static final long MAX_RATE = Long.MAX_VALUE / MAX_MILLI;
+
+    private final Tariff tariff;
+    private final CostCalculator fallback;
+    private final boolean windows;
+    private final long[] distanceRates;
+    private final long[] energyRates;
+    private final long vignetteCentimes;
+    private final long gubristRate;
+    private final int gubristMaxPaid;
+    private final long congestionRate;
+    private final long ecoBonusCentimes;
+    private final long ecoBonusMinKmMilli;
+    private final long ecoBonusRatioThreshold;
+
+    public FixedPointCostCalculator() {
+        this(Tariff.DEFAULT);
+    }
+
+    /**
+     * Compiles the given tariff into scaled longs.
+     *
+     * @throws IllegalArgumentException if a rate has more than four decimals, a threshold does not
+     *                                  fit the fixed-point scales, or a rate is too large
+     */
+    public FixedPointCostCalculator(Tariff tariff) {
+        this.tariff = tariff;
+        this.fallback = new CostCalculator(new TariffRegistry(tariff));
+        this.windows = tariff.hasWindows();
+
+        VehicleType[] types = VehicleType.values();
+        this.distanceRates = new long[types.length];
+        this.energyRates = new long[types.length];
+        for (VehicleType type : types) {
+            distanceRates[type.ordinal()] = rate(tariff.ratePerKm(type), "Rate Per Km");
+            energyRates[type.ordinal()] = rate(tariff.energyRate(type), "Energy Rate");
+        }
+
+        this.vignetteCentimes = centimes(tariff.vignetteCost());
+        this.gubristRate = rate(tariff.gubristCostPerPassage(), "Gubrist Cost Per Passage");
+        this.gubristMaxPaid = tariff.gubristMaxPaid();
+        if (gubristRate > Long.MAX_VALUE / 1_000L / Math.max(1, gubristMaxPaid)) {
+            throw new IllegalArgumentException("Gubrist Cost Per Passage is too large for fixed-point pricing");
+        }
+        this.congestionRate = rate(tariff.congestionRatePerKm(), "Congestion Rate Per Km");
+        this.ecoBonusCentimes = centimes(tariff.ecoBonusAmount());
+        this.ecoBonusMinKmMilli = scaled(tariff.ecoBonusMinKm(), MILLI_SCALE, "Eco Bonus Min Km");
+        // kWh/100km is rounded HALF_UP to ECO_BONUS_RATIO_SCALE digits before the "< max" check,
+        // so a ratio qualifies only if it is at least half a unit in the last place below the max.
+        this.ecoBonusRatioThreshold = scaled(tariff.ecoBonusMaxKwhPer100(), CostCalculator.ECO_BONUS_RATIO_SCALE + 1,
+                "Eco Bonus Max kWh Per 100") - 5;
+    }
+
+    public Tariff tariff() {
+        return tariff;
+    }
+
+    public CostBreakdown calculate(VehicleRental rental) {
+        long km = toMilli(rental.kilometersDriven());
+        long energy = toMilli(rental.energyConsumed());
+        long cityKm = toMilli(rental.cityKilometers());
+        if (km == NOT_REPRESENTABLE || energy == NOT_REPRESENTABLE || cityKm == NOT_REPRESENTABLE
+                || (windows && rental.isTimed())) {
+            return fallback.calculate(rental, tariff);
+        }
+
+        VehicleType type = rental.vehicleType();
+        long distanceCost = distanceCentimes(type, km);
+        long energyCost = energyCentimes(type, energy);
+        long vignetteCost = vignetteCentimes(rental.motorwayVignette());
+        long gubristCost = gubristCentimes(rental.gubristTunnelPassages());
+        long congestionCost = congestionCentimes(cityKm);
+        long ecoBonus = ecoBonusCentimes(type, km, energy);
+        long subtotal = distanceCost + energyCost + vignetteCost + gubristCost + congestionCost + ecoBonus;
+
+        return new CostBreakdown(rental, toAmount(distanceCost), toAmount(energyCost), toAmount(vignetteCost),
+                toAmount(gubristCost), toAmount(congestionCost), toAmount(ecoBonus), toAmount(subtotal), tariff.version());
+    }
+
+    /**
+     * Returns the rental subtotal in centimes without building a {@link CostBreakdown}.
+     *
+     * @throws ArithmeticException if a delegated rental's subtotal does not fit in a {@code long}
+     */
+    public long subtotalCentimes(VehicleRental rental) {
+        long km = toMilli(rental.kilometersDriven());
+        long energy = toMilli(rental.energyConsumed());
+        long cityKm = toMilli(rental.cityKilometers());
+        if (km == NOT_REPRESENTABLE || energy == NOT_REPRESENTABLE || cityKm == NOT_REPRESENTABLE
+                || (windows && rental.isTimed())) {
+            return fallback.calculate(rental, tariff).subtotal().movePointRight(CostCalculator.SCALE).longValueExact();
+        }
+        return subtotalCentimes(rental.vehicleType(), km, energy, rental.motorwayVignette(),
+                rental.gubristTunnelPassages(), cityKm);
+    }
+
+    public DailySummary calculateDailySummary(List<VehicleRental> rentals) {
+        List<CostBreakdown> breakdowns = rentals.stream().map(this::calculate).toList();
+
+        long grandTotal = 0;
+        boolean exact = true;
+        for (int i = 0; i < breakdowns.size() && exact; i++) {
+            long subtotal = toCentimes(breakdowns.get(i).subtotal());
+            long sum = grandTotal + subtotal;
+            exact = subtotal != NOT_REPRESENTABLE_AMOUNT && ((grandTotal ^ sum) & (subtotal ^ sum)) >= 0;
+            grandTotal = sum;
+        }
+
+        BigDecimal total = exact
+                ? toAmount(grandTotal)
+                : breakdowns.stream().map(CostBreakdown::subtotal).reduce(BigDecimal.ZERO, BigDecimal::add)
+                        .setScale(CostCalculator.SCALE);
+        return new DailySummary(breakdowns, total);
+    }
+
+    /** Sums the subtotals of all rentals in centimes without building any {@link CostBreakdown}. */
+    public long grandTotalCentimes(List<VehicleRental> rentals) {
+        long total = 0;
+        for (VehicleRental rental : rentals) {
+            total = Math.addExact(total, subtotalCentimes(rental));
+        }
+        return total;
+    }
+
+    public long subtotalCentimes(VehicleType type, long kmMilli, long energyMilli, boolean motorwayVignette,
+                                 int gubristTunnelPassages, long cityKmMilli) {
+        return distanceCentimes(type, kmMilli)
+                + energyCentimes(type, energyMilli)
+                + vignetteCentimes(motorwayVignette)
+                + gubristCentimes(gubristTunnelPassages)
+                + congestionCentimes(cityKmMilli)
+                + ecoBonusCentimes(type, kmMilli, energyMilli);
+    }
+
+    public long distanceCentimes(VehicleType type, long kmMilli) {
+        return roundRate(kmMilli * distanceRates[type.ordinal()]);
+    }
+
+    public long energyCentimes(VehicleType type, long energyMilli) {
+        return roundRate(energyMilli * energyRates[type.ordinal()]);
+    }
+
+    public long vignetteCentimes(boolean motorwayVignette) {
+        return motorwayVignette ? vignetteCentimes : 0L;
+    }
+
+    public long gubristCentimes(int gubristTunnelPassages) {
+        return roundRate(Math.min(gubristTunnelPassages, gubristMaxPaid) * 1_000L * gubristRate);
+    }
+
+    public long congestionCentimes(long cityKmMilli) {
+        return roundRate(cityKmMilli * congestionRate);
+    }
+
+    public long ecoBonusCentimes(VehicleType type, long kmMilli, long energyMilli) {
+        if (type != VehicleType.E_VAN || kmMilli <= ecoBonusMinKmMilli) {
+            return 0L;
+        }
+        // energy * 100 / km < threshold, cross-multiplied in 128 bits to stay exact
+        return lessThan(energyMilli, ECO_RATIO_FACTOR, ecoBonusRatioThreshold, kmMilli) ? ecoBonusCentimes : 0L;
+    }
+
+    /**
+     * Converts a non-negative quantity to milli-units.
+     *
+     * @return the value in thousandths, or {@link #NOT_REPRESENTABLE} if it has more than three
+     *         significant decimals or exceeds {@link #MAX_MILLI}
+     */
+    public static long toMilli(BigDecimal value) {
+        if (value.signum() == 0) {
+            return 0L;
+        }
+        if (value.signum() < 0) {
+            return NOT_REPRESENTABLE;
+        }
+        BigDecimal milli = value.movePointRight(MILLI_SCALE);
+        if (milli.scale() > 0) {
+            milli = milli.stripTrailingZeros();
+            if (milli.scale() > 0) {
+                return NOT_REPRESENTABLE;
+            }
+        }
+        if (milli.precision() - milli.scale() > 13) {
+            return NOT_REPRESENTABLE;
+        }
+        long result = milli.longValue();
+        return result > MAX_MILLI ? NOT_REPRESENTABLE : result;
+    }
+
+    /** Converts centimes to a CHF amount with the same scale {@link CostCalculator} produces. */
+    public static BigDecimal toAmount(long centimes) {
+        return BigDecimal.valueOf(centimes, CostCalculator.SCALE);
+    }
+
+    private static long toCentimes(BigDecimal amount) {
+        if (amount.scale() != CostCalculator.SCALE || amount.precision() > 18) {
+            return NOT_REPRESENTABLE_AMOUNT;
+        }
+        return amount.unscaledValue().longValue();
+    }
+
+    long distanceRate(VehicleType type) {
+        return distanceRates[type.ordinal()];
+    }
+
+    long energyRate(VehicleType type) {
+        return energyRates[type.ordinal()];
+    }
+
+    long congestionRate() {
+        return congestionRate;
+    }
+
+    static long roundRate(long product) {
+        return (product + RATE_TO_CENTIMES_HALF) / RATE_TO_CENTIMES;
+    }
+
+    private static long centimes(BigDecimal amount) {
+        return amount.setScale(CostCalculator.SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static long rate(BigDecimal value, String name) {
+        long rate = scaled(value, RATE_SCALE, name);
+        if (rate > MAX_RATE) {
+            throw new IllegalArgumentException(name + " is too large for fixed-point pricing");
+        }
+        return rate;
+    }
+
+    private static long scaled(BigDecimal value, int scale, String name) {
+        try {
+            return value.setScale(scale).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " does not fit " + scale + " fixed-point decimals: " + value, e);
+        }
+    }
+
+    /** Compares {@code a * b < c * d} for non-negative operands using full 128-bit products. */
+    private static boolean lessThan(long a, long b, long c, long d) {
+        long leftHigh = Math.multiplyHigh(a, b);
+        long rightHigh = Math.multiplyHigh(c, d);
+        if (leftHigh != rightHigh) {
+            return leftHigh < rightHigh;
+        }
+        return Long.compareUnsigned(a * b, c * d) < 0;
+    }
+}
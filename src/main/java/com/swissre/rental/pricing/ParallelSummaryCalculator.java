@@ -0,0 +1,108 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join variant of {@link CostCalculator#calculateDailySummary(List)} for very large rental days.
+ *
+ * <p>Splits the rental list into chunks of at most {@code chunkSize} rentals on the supplied
+ * {@link ForkJoinPool}. Each chunk writes its breakdowns into the slots matching the input
+ * positions and returns its partial total, so the breakdown order and the grand total are
+ * identical to the sequential path. The tariff is captured once per summary, like the
+ * sequential path does.</p>
+ *
+ * <p>A {@link RevenueRollup} can be passed to record the breakdowns as they are priced. Each chunk
+ * records its breakdowns in one batch, concurrently with the other chunks and without serializing
+ * on a shared total.</p>
+ */
+public class ParallelSummaryCalculator {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4_096;
+
+    private final CostCalculator calculator;
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+
+    public ParallelSummaryCalculator(CostCalculator calculator) {
+        this(calculator, ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+    }
+
+    public ParallelSummaryCalculator(CostCalculator calculator, ForkJoinPool pool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk Size must be positive");
+        }
+        this.calculator = calculator;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+    }
+
+    public DailySummary calculateDailySummary(List<VehicleRental> rentals) {
+        return calculateDailySummary(rentals, null);
+    }
+
+    /** Prices the rentals like {@link #calculateDailySummary(List)} and records each breakdown in {@code rollup}. */
+    public DailySummary calculateDailySummary(List<VehicleRental> rentals, RevenueRollup rollup) {
+        List<VehicleRental> source = rentals instanceof RandomAccess ? rentals : new ArrayList<>(rentals);
+        CostBreakdown[] breakdowns = new CostBreakdown[source.size()];
+        Tariff tariff = calculator.currentTariff();
+        BigDecimal grandTotal = pool.invoke(new ChunkTask(source, tariff, rollup, breakdowns, 0, source.size()));
+
+        return new DailySummary(Collections.unmodifiableList(Arrays.asList(breakdowns)),
+                grandTotal.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING));
+    }
+
+    private final class ChunkTask extends RecursiveTask<BigDecimal> {
+
+        private final List<VehicleRental> rentals;
+        private final Tariff tariff;
+        private final RevenueRollup rollup;
+        private final CostBreakdown[] breakdowns;
+        private final int from;
+        private final int to;
+
+        private ChunkTask(List<VehicleRental> rentals, Tariff tariff, RevenueRollup rollup, CostBreakdown[] breakdowns,
+                          int from, int to) {
+            this.rentals = rentals;
+            this.tariff = tariff;
+            this.rollup = rollup;
+            this.breakdowns = breakdowns;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected BigDecimal compute() {
+            if (to - from <= chunkSize) {
+                BigDecimal total = BigDecimal.ZERO;
+                for (int i = from; i < to; i++) {
+                    CostBreakdown breakdown = calculator.calculate(rentals.get(i), tariff);
+                    breakdowns[i] = breakdown;
+                    total = total.add(breakdown.subtotal());
+                }
+                if (rollup != null) {
+                    rollup.recordAll(Arrays.asList(breakdowns).subList(from, to));
+                }
+                return total;
+            }
+
+            int middle = (from + to) >>> 1;
+            ChunkTask left = new ChunkTask(rentals, tariff, rollup, breakdowns, from, middle);
+            ChunkTask right = new ChunkTask(rentals, tariff, rollup, breakdowns, middle, to);
+            left.fork();
+            BigDecimal rightTotal = right.compute();
+            return left.join().add(rightTotal);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Struct-of-arrays rental batch with one primitive column per {@link VehicleRental} field.
+ *
+ * <p>Kilometers, energy and city kilometers are stored in milli-units, the vehicle type as its
+ * ordinal and the vignette as a 0/1 flag, so bulk pricing walks contiguous arrays instead of
+ * chasing {@link BigDecimal} pointers. Columns grow on demand; the same invariants as the
+ * {@link VehicleRental} compact constructor are enforced on every append.</p>
+ */
+public class RentalBatch {
+
+    private static final int DEFAULT_CAPACITY = 1_024;
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private byte[] typeOrdinals;
+    private long[] kilometersMilli;
+    private long[] energyMilli;
+    private byte[] vignetteFlags;
+    private int[] gubristPassages;
+    private long[] cityKilometersMilli;
+    private int size;
+
+    public RentalBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RentalBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.typeOrdinals = new byte[capacity];
+        this.kilometersMilli = new long[capacity];
+        this.energyMilli = new long[capacity];
+        this.vignetteFlags = new byte[capacity];
+        this.gubristPassages = new int[capacity];
+        this.cityKilometersMilli = new long[capacity];
+    }
+
+    public static RentalBatch of(List<VehicleRental> rentals) {
+        RentalBatch batch = new RentalBatch(rentals.size());
+        for (VehicleRental rental : rentals) {
+            batch.add(rental);
+        }
+        return batch;
+    }
+
+    /**
+     * Appends a rental.
+     *
+     * @throws IllegalArgumentException if a quantity has more than three decimals or exceeds
+     *                                  {@link FixedPointCostCalculator#MAX_MILLI} milli-units, or
+     *                                  the rental has passage times or city segments
+     */
+    public void add(VehicleRental rental) {
+        if (rental.isTimed()) {
+            throw new IllegalArgumentException("Rentals with passage times or city segments cannot be batched");
+        }
+        add(rental.vehicleType(),
+                milli(rental.kilometersDriven(), "Kilometers Driven"),
+                milli(rental.energyConsumed(), "Energy Consumed"),
+                rental.motorwayVignette(),
+                rental.gubristTunnelPassages(),
+                milli(rental.cityKilometers(), "City Kilometers"));
+    }
+
+    public void add(VehicleType vehicleType, long kilometersMilli, long energyMilli, boolean motorwayVignette,
+                    int gubristTunnelPassages, long cityKilometersMilli) {
+        if (vehicleType == null) {
+            throw new NullPointerException("Vehicle Type must not be null");
+        }
+        if (kilometersMilli < 0 || kilometersMilli > FixedPointCostCalculator.MAX_MILLI) {
+            throw new IllegalArgumentException("Kilometers Driven must be between 0 and the fixed-point maximum");
+        }
+        if (energyMilli < 0 || energyMilli > FixedPointCostCalculator.MAX_MILLI) {
+            throw new IllegalArgumentException("Energy Consumed must be between 0 and the fixed-point maximum");
+        }
+        if (cityKilometersMilli < 0) {
+            throw new IllegalArgumentException("City Kilometers must not be negative");
+        }
+        if (cityKilometersMilli > kilometersMilli) {
+            throw new IllegalArgumentException("City Kilometers must not exceed kilometersDriven");
+        }
+        if (gubristTunnelPassages < 0) {
+            throw new IllegalArgumentException("Gubrist Tunnel Passages must not be negative");
+        }
+
+        ensureCapacity(size + 1);
+        typeOrdinals[size] = (byte) vehicleType.ordinal();
+        this.kilometersMilli[size] = kilometersMilli;
+        this.energyMilli[size] = energyMilli;
+        vignetteFlags[size] = (byte) (motorwayVignette ? 1 : 0);
+        gubristPassages[size] = gubristTunnelPassages;
+        this.cityKilometersMilli[size] = cityKilometersMilli;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public VehicleType vehicleType(int index) {
+        return TYPES[typeOrdinals[checkIndex(index)]];
+    }
+
+    /** Rebuilds the rental at {@code index}; quantities come back with trailing zeros stripped. */
+    public VehicleRental rental(int index) {
+        checkIndex(index);
+        return new VehicleRental(TYPES[typeOrdinals[index]],
+                fromMilli(kilometersMilli[index]),
+                fromMilli(energyMilli[index]),
+                vignetteFlags[index] != 0,
+                gubristPassages[index],
+                fromMilli(cityKilometersMilli[index]));
+    }
+
+    byte[] typeOrdinals() {
+        return typeOrdinals;
+    }
+
+    long[] kilometersMilli() {
+        return kilometersMilli;
+    }
+
+    long[] energyMilli() {
+        return energyMilli;
+    }
+
+    byte[] vignetteFlags() {
+        return vignetteFlags;
+    }
+
+    int[] gubristPassages() {
+        return gubristPassages;
+    }
+
+    long[] cityKilometersMilli() {
+        return cityKilometersMilli;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= typeOrdinals.length) {
+            return;
+        }
+        int capacity = Math.max(required, typeOrdinals.length + (typeOrdinals.length >> 1));
+        typeOrdinals = Arrays.copyOf(typeOrdinals, capacity);
+        kilometersMilli = Arrays.copyOf(kilometersMilli, capacity);
+        energyMilli = Arrays.copyOf(energyMilli, capacity);
+        vignetteFlags = Arrays.copyOf(vignetteFlags, capacity);
+        gubristPassages = Arrays.copyOf(gubristPassages, capacity);
+        cityKilometersMilli = Arrays.copyOf(cityKilometersMilli, capacity);
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index;
+    }
+
+    private static long milli(BigDecimal value, String field) {
+        long milli = FixedPointCostCalculator.toMilli(value);
+        if (milli == FixedPointCostCalculator.NOT_REPRESENTABLE) {
+            throw new IllegalArgumentException(field + " must have at most three decimals and fit the fixed-point range");
+        }
+        return milli;
+    }
+
+    static BigDecimal fromMilli(long milli) {
+        BigDecimal value = BigDecimal.valueOf(milli, FixedPointCostCalculator.MILLI_SCALE).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+}
@@ -0,0 +1,66 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.metrics.MetricSource;
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleType;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Rentals priced per {@link VehicleType} and per optional {@link ChargeComponent}, recorded with a
+ * single striped increment per rental.
+ *
+ * <p>Each rental increments one cell for its vehicle type and the set of optional charges it
+ * incurred. The per-type and per-component counts are summed from the cells when a snapshot is
+ * taken, as {@code pricing.rentals.<TYPE>} and {@code pricing.charged.<COMPONENT>}. Distance and
+ * energy are charged on every rental, so their count is the rental count.</p>
+ */
+final class RentalMixCounters implements MetricSource {
+
+    static final String NAME = "pricing.rentalMix";
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final ChargeComponent[] OPTIONAL = {
+            ChargeComponent.VIGNETTE, ChargeComponent.GUBRIST, ChargeComponent.CONGESTION, ChargeComponent.ECO_BONUS
+    };
+    private static final int COMBINATIONS = 1 << OPTIONAL.length;
+
+    private final LongAdder[] cells = new LongAdder[TYPES.length * COMBINATIONS];
+
+    RentalMixCounters() {
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new LongAdder();
+        }
+    }
+
+    void record(CostBreakdown breakdown) {
+        int charges = (breakdown.vignetteCost().signum() != 0 ? 1 : 0)
+                | (breakdown.gubristCost().signum() != 0 ? 2 : 0)
+                | (breakdown.congestionCost().signum() != 0 ? 4 : 0)
+                | (breakdown.ecoBonus().signum() != 0 ? 8 : 0);
+        cells[breakdown.rental().vehicleType().ordinal() * COMBINATIONS + charges].increment();
+    }
+
+    @Override
+    public void collect(ObjLongConsumer<String> counters) {
+        long[] perComponent = new long[OPTIONAL.length];
+        for (VehicleType type : TYPES) {
+            long rentals = 0;
+            for (int charges = 0; charges < COMBINATIONS; charges++) {
+                long count = cells[type.ordinal() * COMBINATIONS + charges].sum();
+                rentals += count;
+                for (int bit = 0; bit < OPTIONAL.length; bit++) {
+                    if ((charges & 1 << bit) != 0) {
+                        perComponent[bit] += count;
+                    }
+                }
+            }
+            counters.accept("pricing.rentals." + type.name(), rentals);
+        }
+        for (int bit = 0; bit < OPTIONAL.length; bit++) {
+            counters.accept("pricing.charged." + OPTIONAL[bit].name(), perComponent[bit]);
+        }
+    }
+}
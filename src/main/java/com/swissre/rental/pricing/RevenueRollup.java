@@ -0,0 +1,217 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revenue per {@link VehicleType} and {@link ChargeComponent}, updated as each rental is priced.
+ *
+ * <p>Amounts are kept in centimes in {@link LongAdder}s, one per vehicle type and component plus a
+ * rental count and a subtotal per type, so any number of threads can record at once without
+ * contending on a shared total. Batches are totalled locally and added once per cell. A
+ * {@link #snapshot()} sums a fixed number of cells, however many rentals were recorded. Centime
+ * sums are exact, so the snapshot's {@link Snapshot#grandTotal()} equals the grand total of
+ * {@link CostCalculator#calculateDailySummary(java.util.List)} for the same breakdowns.</p>
+ *
+ * <p>A snapshot taken while rentals are being recorded may include part of a rental; it is exact
+ * once recording has stopped.</p>
+ */
+public final class RevenueRollup {
+
+    private static final VehicleType[] TYPES = VehicleType.values();
+    private static final ChargeComponent[] COMPONENTS = ChargeComponent.values();
+    private static final int SCALE = CostCalculator.SCALE;
+    private static final BigDecimal MAX_CENTIMES = BigDecimal.valueOf(Long.MAX_VALUE);
+
+    private final LongAdder[] rentals = new LongAdder[TYPES.length];
+    private final LongAdder[] subtotals = new LongAdder[TYPES.length];
+    private final LongAdder[] components = new LongAdder[TYPES.length * COMPONENTS.length];
+
+    public RevenueRollup() {
+        for (int type = 0; type < TYPES.length; type++) {
+            rentals[type] = new LongAdder();
+            subtotals[type] = new LongAdder();
+        }
+        for (int i = 0; i < components.length; i++) {
+            components[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Adds a priced rental. Amounts must be whole centimes, as every calculator produces, and fit in a
+     * {@code long} of centimes; anything else is rejected with an {@link IllegalArgumentException}
+     * before the rollup is touched. {@link #canRecord(CostBreakdown)} checks this up front.
+     */
+    public void record(CostBreakdown breakdown) {
+        add(breakdown, 1);
+    }
+
+    /** Takes back a rental recorded earlier, e.g. one that was corrected or removed. */
+    public void retract(CostBreakdown breakdown) {
+        add(breakdown, -1);
+    }
+
+    /**
+     * Adds a batch of priced rentals. The batch is totalled locally first and each cell is updated
+     * once, which is several times cheaper per rental than {@link #record(CostBreakdown)}. If any
+     * amount is rejected, none of the batch is recorded.
+     */
+    public void recordAll(Collection<CostBreakdown> breakdowns) {
+        long[] rentalCounts = new long[TYPES.length];
+        long[] subtotalCentimes = new long[TYPES.length];
+        long[] componentCentimes = new long[components.length];
+        for (CostBreakdown breakdown : breakdowns) {
+            int type = breakdown.rental().vehicleType().ordinal();
+            int cell = type * COMPONENTS.length;
+            rentalCounts[type]++;
+            subtotalCentimes[type] += centimes(breakdown.subtotal());
+            componentCentimes[cell + ChargeComponent.DISTANCE.ordinal()] += centimes(breakdown.distanceCost());
+            componentCentimes[cell + ChargeComponent.ENERGY.ordinal()] += centimes(breakdown.energyCost());
+            componentCentimes[cell + ChargeComponent.VIGNETTE.ordinal()] += centimes(breakdown.vignetteCost());
+            componentCentimes[cell + ChargeComponent.GUBRIST.ordinal()] += centimes(breakdown.gubristCost());
+            componentCentimes[cell + ChargeComponent.CONGESTION.ordinal()] += centimes(breakdown.congestionCost());
+            componentCentimes[cell + ChargeComponent.ECO_BONUS.ordinal()] += centimes(breakdown.ecoBonus());
+        }
+        for (int type = 0; type < TYPES.length; type++) {
+            addIfCharged(rentals[type], rentalCounts[type]);
+            addIfCharged(subtotals[type], subtotalCentimes[type]);
+        }
+        for (int i = 0; i < components.length; i++) {
+            addIfCharged(components[i], componentCentimes[i]);
+        }
+    }
+
+    private void add(CostBreakdown breakdown, int sign) {
+        long distance = sign * centimes(breakdown.distanceCost());
+        long energy = sign * centimes(breakdown.energyCost());
+        long vignette = sign * centimes(breakdown.vignetteCost());
+        long gubrist = sign * centimes(breakdown.gubristCost());
+        long congestion = sign * centimes(breakdown.congestionCost());
+        long ecoBonus = sign * centimes(breakdown.ecoBonus());
+        long subtotal = sign * centimes(breakdown.subtotal());
+
+        int type = breakdown.rental().vehicleType().ordinal();
+        int cell = type * COMPONENTS.length;
+        rentals[type].add(sign);
+        subtotals[type].add(subtotal);
+        components[cell + ChargeComponent.DISTANCE.ordinal()].add(distance);
+        components[cell + ChargeComponent.ENERGY.ordinal()].add(energy);
+        addIfCharged(components[cell + ChargeComponent.VIGNETTE.ordinal()], vignette);
+        addIfCharged(components[cell + ChargeComponent.GUBRIST.ordinal()], gubrist);
+        addIfCharged(components[cell + ChargeComponent.CONGESTION.ordinal()], congestion);
+        addIfCharged(components[cell + ChargeComponent.ECO_BONUS.ordinal()], ecoBonus);
+    }
+
+    public Snapshot snapshot() {
+        long[] rentalCounts = new long[TYPES.length];
+        long[] subtotalCentimes = new long[TYPES.length];
+        long[] componentCentimes = new long[components.length];
+        for (int type = 0; type < TYPES.length; type++) {
+            rentalCounts[type] = rentals[type].sum();
+            subtotalCentimes[type] = subtotals[type].sum();
+        }
+        for (int i = 0; i < components.length; i++) {
+            componentCentimes[i] = components[i].sum();
+        }
+        return new Snapshot(rentalCounts, subtotalCentimes, componentCentimes);
+    }
+
+    /** Optional charges are zero on most rentals; skipping them keeps their cells untouched. */
+    private static void addIfCharged(LongAdder cell, long centimes) {
+        if (centimes != 0) {
+            cell.add(centimes);
+        }
+    }
+
+    /** Whether every amount of {@code breakdown} is whole centimes within the range the rollup can hold. */
+    public static boolean canRecord(CostBreakdown breakdown) {
+        return fits(breakdown.distanceCost()) && fits(breakdown.energyCost()) && fits(breakdown.vignetteCost())
+                && fits(breakdown.gubristCost()) && fits(breakdown.congestionCost()) && fits(breakdown.ecoBonus())
+                && fits(breakdown.subtotal());
+    }
+
+    private static boolean fits(BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return true;
+        }
+        BigDecimal centimes = amount.movePointRight(SCALE);
+        return centimes.stripTrailingZeros().scale() <= 0 && centimes.abs().compareTo(MAX_CENTIMES) <= 0;
+    }
+
+    private static long centimes(BigDecimal amount) {
+        if (amount.signum() == 0) {
+            return 0L;
+        }
+        BigDecimal scaled;
+        try {
+            scaled = amount.scale() == SCALE ? amount : amount.setScale(SCALE);
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " is not a whole number of centimes", e);
+        }
+        try {
+            return scaled.unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("Amount " + amount + " overflows the rollup's centime totals", e);
+        }
+    }
+
+    private static BigDecimal amount(long centimes) {
+        return BigDecimal.valueOf(centimes, SCALE);
+    }
+
+    /** Immutable rollup totals at one point in time. All amounts have two decimals. */
+    public static final class Snapshot {
+
+        private final long[] rentalCounts;
+        private final long[] subtotalCentimes;
+        private final long[] componentCentimes;
+
+        private Snapshot(long[] rentalCounts, long[] subtotalCentimes, long[] componentCentimes) {
+            this.rentalCounts = rentalCounts;
+            this.subtotalCentimes = subtotalCentimes;
+            this.componentCentimes = componentCentimes;
+        }
+
+        public long rentalCount() {
+            long count = 0;
+            for (long rentals : rentalCounts) {
+                count += rentals;
+            }
+            return count;
+        }
+
+        public long rentalCount(VehicleType type) {
+            return rentalCounts[type.ordinal()];
+        }
+
+        /** Sum of all subtotals, equal to the daily summary's grand total. */
+        public BigDecimal grandTotal() {
+            long total = 0;
+            for (long subtotal : subtotalCentimes) {
+                total += subtotal;
+            }
+            return amount(total);
+        }
+
+        public BigDecimal revenue(VehicleType type) {
+            return amount(subtotalCentimes[type.ordinal()]);
+        }
+
+        public BigDecimal total(ChargeComponent component) {
+            long total = 0;
+            for (int type = 0; type < TYPES.length; type++) {
+                total += componentCentimes[type * COMPONENTS.length + component.ordinal()];
+            }
+            return amount(total);
+        }
+
+        public BigDecimal total(VehicleType type, ChargeComponent component) {
+            return amount(componentCentimes[type.ordinal() * COMPONENTS.length + component.ordinal()]);
+        }
+    }
+}
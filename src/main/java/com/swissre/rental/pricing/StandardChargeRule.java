@@ -0,0 +1,129 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/** The charges of the published tariffs, one per {@link ChargeComponent}. */
+public enum StandardChargeRule implements ChargeRule {
+
+    /** Kilometers times the vehicle type's rate per km. */
+    DISTANCE(ChargeComponent.DISTANCE, EnumSet.allOf(VehicleType.class), EnumSet.of(Input.KILOMETERS)),
+
+    /** Fuel liters or kWh times the vehicle type's energy rate. */
+    ENERGY(ChargeComponent.ENERGY, EnumSet.allOf(VehicleType.class), EnumSet.of(Input.ENERGY)),
+
+    /** Flat motorway vignette fee. */
+    VIGNETTE(ChargeComponent.VIGNETTE, EnumSet.allOf(VehicleType.class), EnumSet.of(Input.MOTORWAY_VIGNETTE)),
+
+    /**
+     * Toll per Gubrist tunnel passage, up to the tariff's maximum of paid passages; at the
+     * time-of-day rate of each passage when both its times and Gubrist windows are known.
+     */
+    GUBRIST(ChargeComponent.GUBRIST, EnumSet.allOf(VehicleType.class), EnumSet.of(Input.GUBRIST_PASSAGES)),
+
+    /**
+     * City kilometers times the congestion rate; per city segment at the time-of-day rate of its
+     * start when both the segments and congestion windows are known.
+     */
+    CONGESTION(ChargeComponent.CONGESTION, EnumSet.allOf(VehicleType.class), EnumSet.of(Input.CITY_KILOMETERS)),
+
+    /** Bonus for an E-Van driven further than the minimum below the maximum consumption per 100 km. */
+    ECO_BONUS(ChargeComponent.ECO_BONUS, EnumSet.of(VehicleType.E_VAN), EnumSet.of(Input.KILOMETERS));
+
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal ZERO = BigDecimal.ZERO.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+
+    private final ChargeComponent component;
+    private final Set<VehicleType> vehicleTypes;
+    private final Set<Input> requiredInputs;
+
+    StandardChargeRule(ChargeComponent component, Set<VehicleType> vehicleTypes, Set<Input> requiredInputs) {
+        this.component = component;
+        this.vehicleTypes = vehicleTypes;
+        this.requiredInputs = requiredInputs;
+    }
+
+    @Override
+    public ChargeComponent component() {
+        return component;
+    }
+
+    @Override
+    public Set<VehicleType> vehicleTypes() {
+        return EnumSet.copyOf(vehicleTypes);
+    }
+
+    @Override
+    public Set<Input> requiredInputs() {
+        return EnumSet.copyOf(requiredInputs);
+    }
+
+    /**
+     * Computes the charge in one method for all constants rather than a body per constant, so the
+     * pipeline's call site sees a single receiver class for the standard rules.
+     */
+    @Override
+    public BigDecimal charge(VehicleRental rental, Tariff tariff) {
+        return switch (this) {
+            case DISTANCE -> round(rental.kilometersDriven().multiply(tariff.ratePerKm(rental.vehicleType())));
+            case ENERGY -> round(rental.energyConsumed().multiply(tariff.energyRate(rental.vehicleType())));
+            case VIGNETTE -> round(tariff.vignetteCost());
+            case GUBRIST -> rental.gubristPassageTimes().isEmpty() || tariff.gubristWindows().isEmpty()
+                    ? round(tariff.gubristCostPerPassage()
+                            .multiply(BigDecimal.valueOf(Math.min(rental.gubristTunnelPassages(), tariff.gubristMaxPaid()))))
+                    : timedGubrist(rental, tariff);
+            case CONGESTION -> rental.citySegments().isEmpty() || tariff.congestionWindows().isEmpty()
+                    ? round(rental.cityKilometers().multiply(tariff.congestionRatePerKm()))
+                    : timedCongestion(rental, tariff);
+            case ECO_BONUS -> ecoBonus(rental, tariff);
+        };
+    }
+
+    /** The first passages up to the maximum paid, each at the rate of its time of day. */
+    private static BigDecimal timedGubrist(VehicleRental rental, Tariff tariff) {
+        List<LocalDateTime> times = rental.gubristPassageTimes();
+        TariffWindows windows = tariff.gubristWindows();
+        BigDecimal flatRate = tariff.gubristCostPerPassage();
+        BigDecimal cost = BigDecimal.ZERO;
+        for (int i = 0, paid = Math.min(times.size(), tariff.gubristMaxPaid()); i < paid; i++) {
+            cost = cost.add(windows.rateAt(times.get(i).toLocalTime(), flatRate));
+        }
+        return round(cost);
+    }
+
+    /** Every city segment at the rate of its start time, rounded once for the whole rental. */
+    private static BigDecimal timedCongestion(VehicleRental rental, Tariff tariff) {
+        List<CitySegment> segments = rental.citySegments();
+        TariffWindows windows = tariff.congestionWindows();
+        BigDecimal flatRate = tariff.congestionRatePerKm();
+        BigDecimal cost = BigDecimal.ZERO;
+        for (int i = 0; i < segments.size(); i++) {
+            CitySegment segment = segments.get(i);
+            cost = cost.add(segment.kilometers().multiply(windows.rateAt(segment.start().toLocalTime(), flatRate)));
+        }
+        return round(cost);
+    }
+
+    private static BigDecimal ecoBonus(VehicleRental rental, Tariff tariff) {
+        if (rental.kilometersDriven().compareTo(tariff.ecoBonusMinKm()) <= 0) {
+            return ZERO;
+        }
+        BigDecimal kwhPer100 = rental.energyConsumed().multiply(HUNDRED)
+                .divide(rental.kilometersDriven(), CostCalculator.ECO_BONUS_RATIO_SCALE, CostCalculator.ROUNDING);
+        return kwhPer100.compareTo(tariff.ecoBonusMaxKwhPer100()) < 0 ? round(tariff.ecoBonusAmount()) : ZERO;
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+    }
+}
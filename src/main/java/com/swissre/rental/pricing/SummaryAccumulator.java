@@ -0,0 +1,106 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Incremental, constant-memory alternative to {@link CostCalculator#calculateDailySummary(java.util.List)}.
+ *
+ * <p>Rentals are fed one at a time, e.g. from an iterator over a file, and only running totals
+ * per {@link ChargeComponent} and per {@link VehicleType} are kept. Each {@link CostBreakdown}
+ * is forwarded to an optional sink instead of being retained, so days larger than the heap can
+ * be totalled. All rentals are priced with the tariff that was current when the accumulator
+ * was created. Not thread-safe; use one accumulator per feeding thread.</p>
+ */
+public class SummaryAccumulator {
+
+    private static final ChargeComponent[] COMPONENTS = ChargeComponent.values();
+
+    private final CostCalculator calculator;
+    private final Tariff tariff;
+    private final Consumer<CostBreakdown> sink;
+    private final long[] countsByType;
+    private final BigDecimal[] totalsByType;
+    private final BigDecimal[] totalsByComponent;
+    private long rentalCount;
+    private BigDecimal grandTotal;
+
+    public SummaryAccumulator(CostCalculator calculator) {
+        this(calculator, breakdown -> {
+        });
+    }
+
+    public SummaryAccumulator(CostCalculator calculator, Consumer<CostBreakdown> sink) {
+        this.calculator = calculator;
+        this.tariff = calculator.currentTariff();
+        this.sink = sink;
+        this.countsByType = new long[VehicleType.values().length];
+        this.totalsByType = new BigDecimal[VehicleType.values().length];
+        this.totalsByComponent = new BigDecimal[COMPONENTS.length];
+        Arrays.fill(totalsByType, BigDecimal.ZERO);
+        Arrays.fill(totalsByComponent, BigDecimal.ZERO);
+        this.grandTotal = BigDecimal.ZERO;
+    }
+
+    public CostBreakdown add(VehicleRental rental) {
+        CostBreakdown breakdown = calculator.calculate(rental, tariff);
+        accept(breakdown);
+        sink.accept(breakdown);
+        return breakdown;
+    }
+
+    public void addAll(Iterator<VehicleRental> rentals) {
+        while (rentals.hasNext()) {
+            add(rentals.next());
+        }
+    }
+
+    public void addAll(Iterable<VehicleRental> rentals) {
+        addAll(rentals.iterator());
+    }
+
+    public Tariff tariff() {
+        return tariff;
+    }
+
+    public long rentalCount() {
+        return rentalCount;
+    }
+
+    public long rentalCount(VehicleType type) {
+        return countsByType[type.ordinal()];
+    }
+
+    /** Returns the grand total with the same scale as {@link CostCalculator#calculateDailySummary(java.util.List)}. */
+    public BigDecimal grandTotal() {
+        return grandTotal.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+    }
+
+    public BigDecimal total(VehicleType type) {
+        return totalsByType[type.ordinal()].setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+    }
+
+    public BigDecimal total(ChargeComponent component) {
+        return totalsByComponent[component.ordinal()].setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+    }
+
+    private void accept(CostBreakdown breakdown) {
+        int type = breakdown.rental().vehicleType().ordinal();
+        rentalCount++;
+        countsByType[type]++;
+        totalsByType[type] = totalsByType[type].add(breakdown.subtotal());
+        for (ChargeComponent component : COMPONENTS) {
+            int index = component.ordinal();
+            totalsByComponent[index] = totalsByComponent[index].add(component.amountOf(breakdown));
+        }
+        grandTotal = grandTotal.add(breakdown.subtotal());
+    }
+}
@@ -0,0 +1,114 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleType;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reads a {@link Tariff} from a properties file.
+ *
+ * <p>Expected keys, mandatory unless noted:</p>
+ * <pre>
+ * version=2026-03
+ * COMPACT_VAN.ratePerKm=0.82
+ * COMPACT_VAN.energyRate=1.95
+ * (one ratePerKm/energyRate pair per {@link VehicleType})
+ * vignette.cost=9.00
+ * gubrist.costPerPassage=2.50
+ * gubrist.maxPaid=2
+ * congestion.ratePerKm=1.00
+ * ecoBonus.amount=-10.00
+ * ecoBonus.minKm=80
+ * ecoBonus.maxKwhPer100=22
+ * gubrist.windows=07:00-09:00@4.00,16:30-18:30@4.00    (optional)
+ * congestion.windows=07:00-09:00@2.00,22:00-06:00@0.50 (optional)
+ * </pre>
+ *
+ * <p>Windows are comma-separated {@code from-to@rate} time-of-day ranges; the flat rate applies
+ * outside them.</p>
+ */
+public final class TariffLoader {
+
+    private TariffLoader() {}
+
+    public static Tariff load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    public static Tariff load(Reader reader) throws IOException {
+        Properties properties = new Properties();
+        properties.load(reader);
+        return parse(properties);
+    }
+
+    static Tariff parse(Properties properties) {
+        Map<VehicleType, BigDecimal> ratesPerKm = new EnumMap<>(VehicleType.class);
+        Map<VehicleType, BigDecimal> energyRates = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            ratesPerKm.put(type, decimal(properties, type.name() + ".ratePerKm"));
+            energyRates.put(type, decimal(properties, type.name() + ".energyRate"));
+        }
+
+        return new Tariff(
+                required(properties, "version"),
+                ratesPerKm,
+                energyRates,
+                decimal(properties, "vignette.cost"),
+                decimal(properties, "gubrist.costPerPassage"),
+                integer(properties, "gubrist.maxPaid"),
+                decimal(properties, "congestion.ratePerKm"),
+                decimal(properties, "ecoBonus.amount"),
+                decimal(properties, "ecoBonus.minKm"),
+                decimal(properties, "ecoBonus.maxKwhPer100"),
+                windows(properties, "gubrist.windows"),
+                windows(properties, "congestion.windows"));
+    }
+
+    private static String required(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing tariff key: " + key);
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal decimal(Properties properties, String key) {
+        String value = required(properties, key);
+        try {
+            return new BigDecimal(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number for tariff key " + key + ": " + value, e);
+        }
+    }
+
+    private static TariffWindows windows(Properties properties, String key) {
+        String value = properties.getProperty(key, "");
+        try {
+            return TariffWindows.parse(value);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid windows for tariff key " + key + ": " + value, e);
+        }
+    }
+
+    private static int integer(Properties properties, String key) {
+        String value = required(properties, key);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid integer for tariff key " + key + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.Tariff;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Publishes the tariff in effect through a single volatile reference.
+ *
+ * <p>Pricing threads read {@link #current()} without locking; {@link #publish(Tariff)} replaces
+ * the whole snapshot atomically, so readers see either the old or the new version and never a
+ * mix of both.</p>
+ */
+public class TariffRegistry {
+
+    private volatile Tariff current;
+
+    public TariffRegistry() {
+        this(Tariff.DEFAULT);
+    }
+
+    public TariffRegistry(Tariff initial) {
+        this.current = Objects.requireNonNull(initial, "Tariff must not be null");
+    }
+
+    public Tariff current() {
+        return current;
+    }
+
+    public void publish(Tariff tariff) {
+        current = Objects.requireNonNull(tariff, "Tariff must not be null");
+    }
+
+    /** Loads a tariff file with {@link TariffLoader} and publishes it. */
+    public Tariff load(Path file) throws IOException {
+        Tariff tariff = TariffLoader.load(file);
+        publish(tariff);
+        return tariff;
+    }
+}
@@ -1,13 +1,24 @@
 package com.swissre.rental.report;
 
+import com.swissre.rental.jfr.ReportRenderedEvent;
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsRegistry;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.DailySummary;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 
 /**
@@ -16,135 +27,223 @@ import java.util.List;
  * <p>Lists every rental with a vehicle header, itemized charges, and subtotal,
  * followed by the grand total. Accepts {@link LocalDate} in the constructor
  * so tests can pin the date for deterministic output.</p>
+ *
+ * <p>Besides returning the report as a {@code String}, it can stream it row by row to an
+ * {@link Appendable} or a {@link WritableByteChannel}, from either a {@link DailySummary}
+ * or an iterator of {@link CostBreakdown}s. Rendering times, including the time spent writing
+ * to a streaming target, are recorded in a {@link MetricsRegistry} and as {@link ReportRenderedEvent}s.</p>
  */
 public class CompanySummaryFormatter {
 
     private static final int WIDTH = 118;
-    private static final String BORDER = "+" + "-".repeat(WIDTH) + "+";
-    private static final String DOUBLE_BORDER = "+" + "=".repeat(WIDTH) + "+";
-    private static final String SEPARATOR = "|" + "-".repeat(WIDTH) + "|";
+    private static final int CHARGE_INDENT = 2;
+    private static final String SUBTOTAL_RULE = "---------------";
+    private static final String SUBTOTAL_SEPARATOR =
+            "| " + " ".repeat(WIDTH - 2 - SUBTOTAL_RULE.length() - 1) + SUBTOTAL_RULE + "  |";
+    private static final String VEHICLE_COUNT_LABEL = "Total vehicles: ";
+    private static final FixedWidthLineWriter LINES = new FixedWidthLineWriter(WIDTH);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int LINE_CAPACITY = WIDTH + 3;
+    private static final int BLOCK_CAPACITY = 12 * LINE_CAPACITY;
+    private static final int FIXED_LINES = 9;
+    private static final int TYPICAL_LINES_PER_RENTAL = 8;
 
-    private final LocalDate date;
+    private final String dateText;
+    private final LatencyHistogram latency;
 
     public CompanySummaryFormatter() {
         this(LocalDate.now());
     }
 
     public CompanySummaryFormatter(LocalDate date) {
-        this.date = date;
+        this(date, new MetricsRegistry());
+    }
+
+    /** Records the time to render each summary as {@code report.companySummary} in {@code metrics}. */
+    public CompanySummaryFormatter(LocalDate date, MetricsRegistry metrics) {
+        this.dateText = dateText(date);
+        this.latency = metrics.histogram("report.companySummary");
     }
 
     public String formatSummary(DailySummary summary) {
-        StringBuilder sb = new StringBuilder();
+        return formatSummary(dateText, summary);
+    }
+
+    /** Formats the summary of the day {@code date} instead of the formatter's date, e.g. for a closed day. */
+    public String formatSummary(LocalDate date, DailySummary summary) {
+        return formatSummary(dateText(date), summary);
+    }
+
+    private String formatSummary(String dateText, DailySummary summary) {
+        long estimate = (FIXED_LINES + (long) TYPICAL_LINES_PER_RENTAL * summary.breakdowns().size()) * LINE_CAPACITY;
+        StringBuilder sb = new StringBuilder((int) Math.min(estimate, Integer.MAX_VALUE / 2));
+        try {
+            writeSummary(dateText, summary, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Streams the summary to {@code out} (any {@link Appendable}, e.g. a {@link java.io.Writer}),
+     * one rental at a time. The output is identical to {@link #formatSummary(DailySummary)}.
+     */
+    public void writeSummary(DailySummary summary, Appendable out) throws IOException {
+        writeSummary(dateText, summary, out);
+    }
+
+    /** Streams the summary of the day {@code date} to {@code out} instead of the formatter's date. */
+    public void writeSummary(LocalDate date, DailySummary summary, Appendable out) throws IOException {
+        writeSummary(dateText(date), summary, out);
+    }
+
+    private void writeSummary(String dateText, DailySummary summary, Appendable out) throws IOException {
         List<CostBreakdown> breakdowns = summary.breakdowns();
+        write(dateText, breakdowns.size(), breakdowns.iterator(), summary.grandTotal(), out);
+    }
 
-        sb.append(BORDER).append("\n");
-        sb.append(centerLine("JEFF'S CAR RENTAL")).append("\n");
-        sb.append(centerLine("Company Daily Summary")).append("\n");
-        sb.append(DOUBLE_BORDER).append("\n");
+    /**
+     * Streams a summary of {@code vehicleCount} rentals taken from {@code breakdowns}, without
+     * holding them in memory. The grand total is the sum of the subtotals, as in a
+     * {@link DailySummary}. Throws {@link IllegalArgumentException} after rendering if the
+     * iterator did not yield exactly {@code vehicleCount} breakdowns.
+     */
+    public void writeSummary(long vehicleCount, Iterator<CostBreakdown> breakdowns, Appendable out) throws IOException {
+        write(dateText, vehicleCount, breakdowns, null, out);
+    }
 
-        String dateStr = "Date: " + date.format(DATE_FORMAT);
-        String vehicleCount = "Total vehicles: " + breakdowns.size();
-        sb.append(twoColumnLine(dateStr, vehicleCount)).append("\n");
+    /** Streams the summary as UTF-8 to {@code channel}, which is left open. */
+    public void writeSummary(DailySummary summary, WritableByteChannel channel) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeSummary(summary, writer);
+        writer.flush();
+    }
 
-        sb.append(DOUBLE_BORDER).append("\n");
+    /** Streams a summary of {@code vehicleCount} rentals as UTF-8 to {@code channel}, which is left open. */
+    public void writeSummary(long vehicleCount, Iterator<CostBreakdown> breakdowns, WritableByteChannel channel)
+            throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writeSummary(vehicleCount, breakdowns, writer);
+        writer.flush();
+    }
 
-        for (int i = 0; i < breakdowns.size(); i++) {
-            CostBreakdown breakdown = breakdowns.get(i);
-            sb.append(emptyLine()).append("\n");
-            sb.append(vehicleHeaderLine(i + 1, breakdown)).append("\n");
-            sb.append(SEPARATOR).append("\n");
+    /**
+     * Renders into a reusable block buffer that is handed to {@code out} once per rental, so memory
+     * stays constant however many rentals there are. A {@code null} grand total is summed on the fly.
+     */
+    private void write(String dateText, long vehicleCount, Iterator<CostBreakdown> breakdowns, BigDecimal grandTotal,
+                       Appendable out) throws IOException {
+        long start = System.nanoTime();
+        ReportRenderedEvent event = new ReportRenderedEvent();
+        event.begin();
+        long written = 0;
+        StringBuilder sb = new StringBuilder(BLOCK_CAPACITY);
+
+        LINES.border(sb).append("\n");
+        LINES.centerLine(sb, "JEFF'S CAR RENTAL").append("\n");
+        LINES.centerLine(sb, "Company Daily Summary").append("\n");
+        LINES.doubleBorder(sb).append("\n");
+
+        int line = LINES.beginLine(sb);
+        sb.append(dateText);
+        LINES.appendSpaces(sb, LINES.twoColumnGap(dateText, VEHICLE_COUNT_LABEL.length() + Long.toString(vehicleCount).length()));
+        sb.append(VEHICLE_COUNT_LABEL).append(vehicleCount);
+        LINES.endLine(sb, line).append("\n");
+
+        LINES.doubleBorder(sb).append("\n");
+        written += flush(sb, out);
+
+        BigDecimal runningTotal = BigDecimal.ZERO;
+        long index = 0;
+        while (breakdowns.hasNext()) {
+            CostBreakdown breakdown = breakdowns.next();
+            index++;
+            LINES.emptyLine(sb).append("\n");
+            appendVehicleHeader(sb, index, breakdown);
+            LINES.separator(sb).append("\n");
             appendCharges(sb, breakdown);
-            sb.append(subtotalSeparatorLine()).append("\n");
-            sb.append(chargeLine("Subtotal", breakdown.subtotal())).append("\n");
+            sb.append(SUBTOTAL_SEPARATOR).append("\n");
+            LINES.chargeLine(sb, CHARGE_INDENT, "Subtotal", breakdown.subtotal()).append("\n");
+            written += flush(sb, out);
+            if (grandTotal == null) {
+                runningTotal = runningTotal.add(breakdown.subtotal());
+            }
+        }
+        if (grandTotal == null) {
+            grandTotal = runningTotal.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
         }
 
-        sb.append(DOUBLE_BORDER).append("\n");
-        sb.append(chargeLine("GRAND TOTAL (Company Revenue)", summary.grandTotal())).append("\n");
-        sb.append(BORDER);
+        LINES.doubleBorder(sb).append("\n");
+        LINES.chargeLine(sb, CHARGE_INDENT, "GRAND TOTAL (Company Revenue)", grandTotal).append("\n");
+        LINES.border(sb);
+        written += flush(sb, out);
+        latency.recordSince(start);
+        if (event.shouldCommit()) {
+            event.report = "companySummary";
+            event.rentalCount = index;
+            event.outputChars = written;
+            event.commit();
+        }
 
-        return sb.toString();
+        if (index != vehicleCount) {
+            throw new IllegalArgumentException(
+                    "Vehicle Count " + vehicleCount + " does not match the " + index + " breakdowns rendered");
+        }
+    }
+
+    private static String dateText(LocalDate date) {
+        return "Date: " + date.format(DATE_FORMAT);
+    }
+
+    /** Hands the buffered text to {@code out}, empties the buffer and returns the number of characters written. */
+    private static int flush(StringBuilder sb, Appendable out) throws IOException {
+        int length = sb.length();
+        out.append(sb);
+        sb.setLength(0);
+        return length;
     }
 
     private void appendCharges(StringBuilder sb, CostBreakdown breakdown) {
         VehicleType type = breakdown.rental().vehicleType();
         String energyLabel = type == VehicleType.E_VAN ? "Electricity" : "Fuel";
 
-        sb.append(chargeLine("Distance charge", breakdown.distanceCost())).append("\n");
-        sb.append(chargeLine(energyLabel, breakdown.energyCost())).append("\n");
+        LINES.chargeLine(sb, CHARGE_INDENT, "Distance charge", breakdown.distanceCost()).append("\n");
+        LINES.chargeLine(sb, CHARGE_INDENT, energyLabel, breakdown.energyCost()).append("\n");
 
         if (breakdown.vignetteCost().signum() > 0) {
-            sb.append(chargeLine("Motorway vignette", breakdown.vignetteCost())).append("\n");
+            LINES.chargeLine(sb, CHARGE_INDENT, "Motorway vignette", breakdown.vignetteCost()).append("\n");
         }
         if (breakdown.gubristCost().signum() > 0) {
-            sb.append(chargeLine("Gubrist toll", breakdown.gubristCost())).append("\n");
+            LINES.chargeLine(sb, CHARGE_INDENT, "Gubrist toll", breakdown.gubristCost()).append("\n");
         }
         if (breakdown.congestionCost().signum() > 0) {
-            sb.append(chargeLine("City congestion", breakdown.congestionCost())).append("\n");
+            LINES.chargeLine(sb, CHARGE_INDENT, "City congestion", breakdown.congestionCost()).append("\n");
         }
         if (breakdown.ecoBonus().signum() != 0) {
-            sb.append(chargeLine("Eco-bonus", breakdown.ecoBonus())).append("\n");
+            LINES.chargeLine(sb, CHARGE_INDENT, "Eco-bonus", breakdown.ecoBonus()).append("\n");
         }
     }
 
-    private String vehicleHeaderLine(int index, CostBreakdown breakdown) {
+    private void appendVehicleHeader(StringBuilder sb, long index, CostBreakdown breakdown) {
         VehicleRental rental = breakdown.rental();
         VehicleType type = rental.vehicleType();
 
-        StringBuilder desc = new StringBuilder();
-        desc.append("#").append(index).append("  ").append(type.displayName());
-        desc.append(" | ").append(stripTrailingZeros(rental.kilometersDriven())).append(" km");
-        desc.append(" | ").append(stripTrailingZeros(rental.energyConsumed())).append(" ").append(type.energyUnit());
+        int line = LINES.beginLine(sb);
+        sb.append("#").append(index).append("  ").append(type.displayName());
+        FixedWidthLineWriter.appendStripped(sb.append(" | "), rental.kilometersDriven()).append(" km");
+        FixedWidthLineWriter.appendStripped(sb.append(" | "), rental.energyConsumed()).append(" ").append(type.energyUnit());
 
         if (rental.motorwayVignette()) {
-            desc.append(" | Vignette");
+            sb.append(" | Vignette");
         }
         if (rental.gubristTunnelPassages() > 0) {
-            desc.append(" | Gubrist x").append(rental.gubristTunnelPassages());
+            sb.append(" | Gubrist x").append(rental.gubristTunnelPassages());
         }
         if (rental.cityKilometers().signum() > 0) {
-            desc.append(" | City ").append(stripTrailingZeros(rental.cityKilometers())).append(" km");
+            FixedWidthLineWriter.appendStripped(sb.append(" | City "), rental.cityKilometers()).append(" km");
         }
 
-        return leftLine(desc.toString());
-    }
-
-    private String centerLine(String text) {
-        int padding = (WIDTH - text.length()) / 2;
-        String padded = " ".repeat(Math.max(0, padding)) + text;
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", padded) + " |";
-    }
-
-    private String leftLine(String text) {
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", text) + " |";
-    }
-
-    private String emptyLine() {
-        return "| " + " ".repeat(WIDTH - 2) + " |";
-    }
-
-    private String twoColumnLine(String left, String right) {
-        int space = WIDTH - 2 - left.length() - right.length();
-        String line = left + " ".repeat(Math.max(1, space)) + right;
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", line) + " |";
-    }
-
-    private String chargeLine(String label, BigDecimal amount) {
-        String amountStr = String.format("CHF %12s", amount.toPlainString());
-        String indentedLabel = "  " + label;
-        int space = WIDTH - 2 - indentedLabel.length() - amountStr.length();
-        String line = indentedLabel + " ".repeat(Math.max(1, space)) + amountStr;
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", line) + " |";
-    }
-
-    private String subtotalSeparatorLine() {
-        String sep = "---------------";
-        int padLeft = WIDTH - 2 - sep.length() - 1;
-        return "| " + " ".repeat(padLeft) + sep + "  |";
-    }
-
-    private String stripTrailingZeros(BigDecimal value) {
-        return value.stripTrailingZeros().toPlainString();
+        LINES.endLine(sb, line).append("\n");
     }
 }
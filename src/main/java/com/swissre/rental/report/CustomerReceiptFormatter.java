@@ -1,10 +1,12 @@
 package com.swissre.rental.report;
 
+import com.swissre.rental.jfr.ReportRenderedEvent;
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsRegistry;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.model.VehicleType;
 
-import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
@@ -14,93 +16,121 @@ import java.time.format.DateTimeFormatter;
  * <p>Renders vehicle details, conditionally visible charge lines (vignette, Gubrist,
  * congestion, eco-bonus), and the total. Accepts {@link LocalDate} in the constructor
  * so tests can pin the date for deterministic output.</p>
+ *
+ * <p>Rendering times are recorded in a {@link MetricsRegistry} and as {@link ReportRenderedEvent}s.</p>
  */
 public class CustomerReceiptFormatter {
 
     private static final int WIDTH = 50;
-    private static final String BORDER = "+" + "-".repeat(WIDTH) + "+";
-    private static final String DOUBLE_BORDER = "+" + "=".repeat(WIDTH) + "+";
+    private static final FixedWidthLineWriter LINES = new FixedWidthLineWriter(WIDTH);
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final int MAX_RECEIPT_LINES = 24;
+    private static final int RECEIPT_CAPACITY = MAX_RECEIPT_LINES * (WIDTH + 3);
 
-    private final LocalDate date;
+    private final String dateText;
+    private final LatencyHistogram latency;
 
     public CustomerReceiptFormatter() {
         this(LocalDate.now());
     }
 
     public CustomerReceiptFormatter(LocalDate date) {
-        this.date = date;
+        this(date, new MetricsRegistry());
+    }
+
+    /** Records the time to render each receipt as {@code report.receipt} in {@code metrics}. */
+    public CustomerReceiptFormatter(LocalDate date, MetricsRegistry metrics) {
+        this.dateText = dateText(date);
+        this.latency = metrics.histogram("report.receipt");
     }
 
     public String formatReceipt(CostBreakdown breakdown) {
-        StringBuilder sb = new StringBuilder();
+        return formatReceipt(dateText, breakdown);
+    }
+
+    /** Formats the receipt dated {@code date} instead of the formatter's date, e.g. the day the rental belongs to. */
+    public String formatReceipt(LocalDate date, CostBreakdown breakdown) {
+        return formatReceipt(dateText(date), breakdown);
+    }
+
+    private String formatReceipt(String dateText, CostBreakdown breakdown) {
+        long start = System.nanoTime();
+        ReportRenderedEvent event = new ReportRenderedEvent();
+        event.begin();
+        StringBuilder sb = new StringBuilder(RECEIPT_CAPACITY);
         VehicleRental rental = breakdown.rental();
         VehicleType type = rental.vehicleType();
 
-        sb.append(BORDER).append("\n");
-        sb.append(centerLine("JEFF'S CAR RENTAL")).append("\n");
-        sb.append(centerLine("Customer Receipt")).append("\n");
-        sb.append(DOUBLE_BORDER).append("\n");
+        LINES.border(sb).append("\n");
+        LINES.centerLine(sb, "JEFF'S CAR RENTAL").append("\n");
+        LINES.centerLine(sb, "Customer Receipt").append("\n");
+        LINES.doubleBorder(sb).append("\n");
+
+        LINES.leftLine(sb, dateText).append("\n");
+        LINES.emptyLine(sb).append("\n");
+
+        int line = LINES.beginLine(sb);
+        sb.append("Vehicle:    ").append(type.displayName());
+        LINES.endLine(sb, line).append("\n");
+
+        line = LINES.beginLine(sb);
+        FixedWidthLineWriter.appendStripped(sb.append("Distance:   "), rental.kilometersDriven()).append(" km");
+        LINES.endLine(sb, line).append("\n");
+
+        line = LINES.beginLine(sb);
+        FixedWidthLineWriter.appendStripped(sb.append("City km:    "), rental.cityKilometers()).append(" km");
+        LINES.endLine(sb, line).append("\n");
+
+        line = LINES.beginLine(sb);
+        FixedWidthLineWriter.appendStripped(sb.append("Energy:     "), rental.energyConsumed())
+                .append(" ").append(type.energyUnit());
+        LINES.endLine(sb, line).append("\n");
 
-        sb.append(leftLine("Date: " + date.format(DATE_FORMAT))).append("\n");
-        sb.append(emptyLine()).append("\n");
-        sb.append(leftLine("Vehicle:    " + type.displayName())).append("\n");
-        sb.append(leftLine("Distance:   " + stripTrailingZeros(rental.kilometersDriven()) + " km")).append("\n");
-        sb.append(leftLine("City km:    " + stripTrailingZeros(rental.cityKilometers()) + " km")).append("\n");
-        sb.append(leftLine("Energy:     " + stripTrailingZeros(rental.energyConsumed()) + " " + type.energyUnit())).append("\n");
-        sb.append(leftLine("Vignette:   " + (rental.motorwayVignette() ? "Yes" : "No"))).append("\n");
-        sb.append(leftLine("Gubrist:    " + rental.gubristTunnelPassages() + " passages")).append("\n");
+        line = LINES.beginLine(sb);
+        sb.append("Vignette:   ").append(rental.motorwayVignette() ? "Yes" : "No");
+        LINES.endLine(sb, line).append("\n");
 
-        sb.append(DOUBLE_BORDER).append("\n");
-        sb.append(centerLine("CHARGES")).append("\n");
-        sb.append(DOUBLE_BORDER).append("\n");
+        line = LINES.beginLine(sb);
+        sb.append("Gubrist:    ").append(rental.gubristTunnelPassages()).append(" passages");
+        LINES.endLine(sb, line).append("\n");
+
+        LINES.doubleBorder(sb).append("\n");
+        LINES.centerLine(sb, "CHARGES").append("\n");
+        LINES.doubleBorder(sb).append("\n");
 
         String energyLabel = type == VehicleType.E_VAN ? "Electricity" : "Fuel";
-        sb.append(chargeLine("Distance charge", breakdown.distanceCost())).append("\n");
-        sb.append(chargeLine(energyLabel, breakdown.energyCost())).append("\n");
+        LINES.chargeLine(sb, 0, "Distance charge", breakdown.distanceCost()).append("\n");
+        LINES.chargeLine(sb, 0, energyLabel, breakdown.energyCost()).append("\n");
 
         if (breakdown.vignetteCost().signum() > 0) {
-            sb.append(chargeLine("Motorway vignette", breakdown.vignetteCost())).append("\n");
+            LINES.chargeLine(sb, 0, "Motorway vignette", breakdown.vignetteCost()).append("\n");
         }
         if (breakdown.gubristCost().signum() > 0) {
-            sb.append(chargeLine("Gubrist toll", breakdown.gubristCost())).append("\n");
+            LINES.chargeLine(sb, 0, "Gubrist toll", breakdown.gubristCost()).append("\n");
         }
         if (breakdown.congestionCost().signum() > 0) {
-            sb.append(chargeLine("Zurich Congestion Fee", breakdown.congestionCost())).append("\n");
+            LINES.chargeLine(sb, 0, "Zurich Congestion Fee", breakdown.congestionCost()).append("\n");
         }
         if (breakdown.ecoBonus().signum() != 0) {
-            sb.append(chargeLine("Eco-bonus", breakdown.ecoBonus())).append("\n");
+            LINES.chargeLine(sb, 0, "Eco-bonus", breakdown.ecoBonus()).append("\n");
         }
 
-        sb.append(DOUBLE_BORDER).append("\n");
-        sb.append(chargeLine("TOTAL", breakdown.subtotal())).append("\n");
-        sb.append(BORDER);
-
-        return sb.toString();
-    }
-
-    private String centerLine(String text) {
-        int padding = (WIDTH - text.length()) / 2;
-        String padded = " ".repeat(Math.max(0, padding)) + text;
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", padded) + " |";
-    }
-
-    private String leftLine(String text) {
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", text) + " |";
-    }
-
-    private String emptyLine() {
-        return "| " + " ".repeat(WIDTH - 2) + " |";
-    }
-
-    private String chargeLine(String label, BigDecimal amount) {
-        String amountStr = String.format("CHF %12s", amount.toPlainString());
-        int space = WIDTH - 2 - label.length() - amountStr.length();
-        String line = label + " ".repeat(Math.max(1, space)) + amountStr;
-        return "| " + String.format("%-" + (WIDTH - 2) + "s", line) + " |";
+        LINES.doubleBorder(sb).append("\n");
+        LINES.chargeLine(sb, 0, "TOTAL", breakdown.subtotal()).append("\n");
+        LINES.border(sb);
+
+        String receipt = sb.toString();
+        latency.recordSince(start);
+        if (event.shouldCommit()) {
+            event.report = "receipt";
+            event.rentalCount = 1;
+            event.outputChars = receipt.length();
+            event.commit();
+        }
+        return receipt;
     }
 
-    private String stripTrailingZeros(BigDecimal value) {
-        return value.stripTrailingZeros().toPlainString();
+    private static String dateText(LocalDate date) {
+        return "Date: " + date.format(DATE_FORMAT);
     }
 }
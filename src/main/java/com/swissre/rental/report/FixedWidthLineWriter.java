@@ -0,0 +1,210 @@
+package com.swissre.rental.report;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Renders the {@code | ... |} framed lines shared by the report formatters straight into a
+ * caller-supplied {@link StringBuilder}.
+ *
+ * <p>Borders and the blank line are built once per width, padding comes from a pre-filled
+ * space table, and amounts are written digit by digit instead of through
+ * {@code String.format} and {@link BigDecimal#toPlainString()}. Output is identical to
+ * formatting with {@code "%-" + (width - 2) + "s"} and {@code "CHF %12s"}. Instances hold no
+ * mutable state and can be shared between threads.</p>
+ */
+final class FixedWidthLineWriter {
+
+    private static final int AMOUNT_WIDTH = 12;
+    private static final String CURRENCY = "CHF ";
+    private static final int MAX_COMPACT_SCALE = 18;
+    private static final long[] POWERS_OF_TEN = new long[MAX_COMPACT_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final int width;
+    private final char[] spaces;
+    private final String border;
+    private final String doubleBorder;
+    private final String separator;
+    private final String emptyLine;
+
+    FixedWidthLineWriter(int width) {
+        this.width = width;
+        this.spaces = new char[width];
+        Arrays.fill(spaces, ' ');
+        this.border = "+" + "-".repeat(width) + "+";
+        this.doubleBorder = "+" + "=".repeat(width) + "+";
+        this.separator = "|" + "-".repeat(width) + "|";
+        this.emptyLine = "| " + " ".repeat(width - 2) + " |";
+    }
+
+    StringBuilder border(StringBuilder sb) {
+        return sb.append(border);
+    }
+
+    StringBuilder doubleBorder(StringBuilder sb) {
+        return sb.append(doubleBorder);
+    }
+
+    StringBuilder separator(StringBuilder sb) {
+        return sb.append(separator);
+    }
+
+    StringBuilder emptyLine(StringBuilder sb) {
+        return sb.append(emptyLine);
+    }
+
+    /** Starts a framed line; the content is appended by the caller and the line closed with {@link #endLine}. */
+    int beginLine(StringBuilder sb) {
+        sb.append("| ");
+        return sb.length();
+    }
+
+    /** Pads the content started at {@code contentStart} to the inner width and closes the frame. */
+    StringBuilder endLine(StringBuilder sb, int contentStart) {
+        appendSpaces(sb, width - 2 - (sb.length() - contentStart));
+        return sb.append(" |");
+    }
+
+    StringBuilder leftLine(StringBuilder sb, String text) {
+        int start = beginLine(sb);
+        sb.append(text);
+        return endLine(sb, start);
+    }
+
+    StringBuilder centerLine(StringBuilder sb, String text) {
+        int start = beginLine(sb);
+        appendSpaces(sb, (width - text.length()) / 2);
+        sb.append(text);
+        return endLine(sb, start);
+    }
+
+    /** {@code left} and a right column of {@code rightLength} chars, which the caller appends afterwards. */
+    int twoColumnGap(String left, int rightLength) {
+        return Math.max(1, width - 2 - left.length() - rightLength);
+    }
+
+    /**
+     * A label followed by a right-aligned {@code CHF} amount, optionally indented, separated by at least
+     * one space.
+     */
+    StringBuilder chargeLine(StringBuilder sb, int indent, String label, BigDecimal amount) {
+        int start = beginLine(sb);
+        appendSpaces(sb, indent);
+        sb.append(label);
+        long unscaled = compactUnscaled(amount);
+        int amountLength = plainLength(amount, unscaled);
+        int amountWidth = CURRENCY.length() + Math.max(AMOUNT_WIDTH, amountLength);
+        appendSpaces(sb, Math.max(1, width - 2 - indent - label.length() - amountWidth));
+        sb.append(CURRENCY);
+        appendSpaces(sb, AMOUNT_WIDTH - amountLength);
+        appendPlain(sb, amount, unscaled, false);
+        return endLine(sb, start);
+    }
+
+    /** Appends {@code count} spaces; a non-positive count appends nothing. */
+    void appendSpaces(StringBuilder sb, int count) {
+        while (count > 0) {
+            int chunk = Math.min(count, spaces.length);
+            sb.append(spaces, 0, chunk);
+            count -= chunk;
+        }
+    }
+
+    /** Appends {@code value.toPlainString()} without creating the intermediate string. */
+    static StringBuilder appendPlain(StringBuilder sb, BigDecimal value) {
+        return appendPlain(sb, value, compactUnscaled(value), false);
+    }
+
+    /** Appends {@code value.stripTrailingZeros().toPlainString()} without creating intermediate objects. */
+    static StringBuilder appendStripped(StringBuilder sb, BigDecimal value) {
+        return appendPlain(sb, value, compactUnscaled(value), true);
+    }
+
+    /** Length of {@code value.toPlainString()}. */
+    static int plainLength(BigDecimal value) {
+        return plainLength(value, compactUnscaled(value));
+    }
+
+    /** Takes {@code value}'s {@link #compactUnscaled}, so a caller that also appends the value reads it once. */
+    private static int plainLength(BigDecimal value, long unscaled) {
+        int scale = value.scale();
+        if (unscaled == Long.MIN_VALUE) {
+            return value.toPlainString().length();
+        }
+        long magnitude = Math.abs(unscaled);
+        int sign = unscaled < 0 ? 1 : 0;
+        if (scale <= 0) {
+            return sign + digits(magnitude) + (magnitude == 0 ? 0 : -scale);
+        }
+        return sign + digits(magnitude / POWERS_OF_TEN[scale]) + 1 + scale;
+    }
+
+    private static StringBuilder appendPlain(StringBuilder sb, BigDecimal value, long unscaled,
+                                             boolean stripTrailingZeros) {
+        int scale = value.scale();
+        if (unscaled == Long.MIN_VALUE) {
+            BigDecimal plain = stripTrailingZeros ? value.stripTrailingZeros() : value;
+            return sb.append(plain.toPlainString());
+        }
+        if (stripTrailingZeros) {
+            if (unscaled == 0) {
+                return sb.append('0');
+            }
+            while (scale > 0 && unscaled % 10 == 0) {
+                unscaled /= 10;
+                scale--;
+            }
+        }
+
+        long magnitude = Math.abs(unscaled);
+        if (unscaled < 0) {
+            sb.append('-');
+        }
+        if (scale <= 0) {
+            sb.append(magnitude);
+            if (magnitude != 0) {
+                for (int i = scale; i < 0; i++) {
+                    sb.append('0');
+                }
+            }
+            return sb;
+        }
+        long power = POWERS_OF_TEN[scale];
+        long fraction = magnitude % power;
+        sb.append(magnitude / power).append('.');
+        for (int i = digits(fraction); i < scale; i++) {
+            sb.append('0');
+        }
+        return sb.append(fraction);
+    }
+
+    /**
+     * The unscaled value if it fits a {@code long} with a scale this class can render directly, otherwise
+     * {@link Long#MIN_VALUE} as a marker to fall back to {@link BigDecimal#toPlainString()}.
+     */
+    private static long compactUnscaled(BigDecimal value) {
+        int scale = value.scale();
+        if (scale > MAX_COMPACT_SCALE || scale < -MAX_COMPACT_SCALE) {
+            return Long.MIN_VALUE;
+        }
+        BigInteger unscaled = value.unscaledValue();
+        return unscaled.bitLength() < Long.SIZE ? unscaled.longValue() : Long.MIN_VALUE;
+    }
+
+    private static int digits(long magnitude) {
+        int digits = 1;
+        while (magnitude >= 10) {
+            magnitude /= 10;
+            digits++;
+        }
+        return digits;
+    }
+}
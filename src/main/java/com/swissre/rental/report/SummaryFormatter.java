@@ -1,12 +1,13 @@
 package com.swissre.rental.report;
 
+import com.swissre.rental.jfr.ReportRenderedEvent;
+import com.swissre.rental.metrics.LatencyHistogram;
+import com.swissre.rental.metrics.MetricsRegistry;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.DailySummary;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.model.VehicleType;
 
-import java.math.BigDecimal;
-
 /**
  * Compact plain-text summary formatter for a {@link DailySummary}.
  *
@@ -15,7 +16,21 @@ import java.math.BigDecimal;
  */
 public class SummaryFormatter {
 
+    private final LatencyHistogram latency;
+
+    public SummaryFormatter() {
+        this(new MetricsRegistry());
+    }
+
+    /** Records the time to render each summary as {@code report.plainSummary} in {@code metrics}. */
+    public SummaryFormatter(MetricsRegistry metrics) {
+        this.latency = metrics.histogram("report.plainSummary");
+    }
+
     public String format(DailySummary summary) {
+        long start = System.nanoTime();
+        ReportRenderedEvent event = new ReportRenderedEvent();
+        event.begin();
         StringBuilder sb = new StringBuilder();
 
         for (int i = 0; i < summary.breakdowns().size(); i++) {
@@ -28,18 +43,26 @@ public class SummaryFormatter {
         if (!summary.breakdowns().isEmpty()) {
             sb.append("\n");
         }
-        sb.append("Grand Total: CHF ").append(summary.grandTotal().toPlainString());
+        FixedWidthLineWriter.appendPlain(sb.append("Grand Total: CHF "), summary.grandTotal());
 
-        return sb.toString();
+        String text = sb.toString();
+        latency.recordSince(start);
+        if (event.shouldCommit()) {
+            event.report = "plainSummary";
+            event.rentalCount = summary.breakdowns().size();
+            event.outputChars = text.length();
+            event.commit();
+        }
+        return text;
     }
 
     private void formatBreakdown(StringBuilder sb, CostBreakdown breakdown) {
         VehicleRental rental = breakdown.rental();
         VehicleType type = rental.vehicleType();
 
-        sb.append(type.displayName())
-                .append(", ").append(stripTrailingZeros(rental.kilometersDriven())).append(" km")
-                .append(", ").append(stripTrailingZeros(rental.energyConsumed())).append(" ").append(type.energyUnit());
+        sb.append(type.displayName());
+        FixedWidthLineWriter.appendStripped(sb.append(", "), rental.kilometersDriven()).append(" km");
+        FixedWidthLineWriter.appendStripped(sb.append(", "), rental.energyConsumed()).append(" ").append(type.energyUnit());
         if (rental.motorwayVignette()) {
             sb.append(", Vignette");
         }
@@ -47,33 +70,28 @@ public class SummaryFormatter {
             sb.append(", Gubrist x").append(rental.gubristTunnelPassages());
         }
         if (rental.cityKilometers().signum() > 0) {
-            sb.append(", City ").append(stripTrailingZeros(rental.cityKilometers())).append(" km");
+            FixedWidthLineWriter.appendStripped(sb.append(", City "), rental.cityKilometers()).append(" km");
         }
         sb.append(":\n");
 
         String energyLabel = type == VehicleType.E_VAN ? "Electricity" : "Fuel";
-        sb.append("  Distance: ").append(breakdown.distanceCost().toPlainString());
-        sb.append(" | ").append(energyLabel).append(": ").append(breakdown.energyCost().toPlainString());
+        FixedWidthLineWriter.appendPlain(sb.append("  Distance: "), breakdown.distanceCost());
+        FixedWidthLineWriter.appendPlain(sb.append(" | ").append(energyLabel).append(": "), breakdown.energyCost());
 
         if (breakdown.vignetteCost().signum() > 0) {
-            sb.append(" | Vignette: ").append(breakdown.vignetteCost().toPlainString());
+            FixedWidthLineWriter.appendPlain(sb.append(" | Vignette: "), breakdown.vignetteCost());
         }
         if (breakdown.gubristCost().signum() > 0) {
-            sb.append(" | Gubrist: ").append(breakdown.gubristCost().toPlainString());
+            FixedWidthLineWriter.appendPlain(sb.append(" | Gubrist: "), breakdown.gubristCost());
         }
         if (breakdown.congestionCost().signum() > 0) {
-            sb.append(" | City: ").append(breakdown.congestionCost().toPlainString());
+            FixedWidthLineWriter.appendPlain(sb.append(" | City: "), breakdown.congestionCost());
         }
         if (breakdown.ecoBonus().signum() != 0) {
-            sb.append(" | Eco-bonus: ").append(breakdown.ecoBonus().toPlainString());
+            FixedWidthLineWriter.appendPlain(sb.append(" | Eco-bonus: "), breakdown.ecoBonus());
         }
         sb.append("\n");
 
-        sb.append("  Subtotal: CHF ").append(breakdown.subtotal().toPlainString()).append("\n");
-    }
-
-    private String stripTrailingZeros(BigDecimal value) {
-        BigDecimal stripped = value.stripTrailingZeros();
-        return stripped.toPlainString();
+        FixedWidthLineWriter.appendPlain(sb.append("  Subtotal: CHF "), breakdown.subtotal()).append("\n");
     }
 }
@@ -0,0 +1,299 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Append-only rental store kept in memory-mapped segment files, for histories larger than the heap.
+ *
+ * <p>Each segment file has a small header and a fixed number of 24-byte slots holding one rental
+ * each in the layout of {@link PackedRentalStore}. Files are created at full size and mapped
+ * whole, so appending writes three {@code long}s into mapped memory and bumps the segment's
+ * rental count, and scans read the slots in order. The operating system's page cache does the
+ * caching: rentals never live on the heap, and {@link #open} only maps the files and reads their
+ * counts, so reopening a store takes the same time however many rentals it holds.</p>
+ *
+ * <p>A new segment is prepared under a temporary name and renamed into place once its header is
+ * on disk, so a crash while adding one never leaves a segment without a header behind.</p>
+ *
+ * <p>Appends reach the files when the operating system writes the pages back; {@link #force()}
+ * makes them durable, as {@link #close()} does. A store is not thread-safe.</p>
+ */
+public final class MappedRentalStore implements Closeable {
+
+    public static final int DEFAULT_SLOTS_PER_SEGMENT = 1 << 22;
+
+    static final String SEGMENT_PREFIX = "rentals-";
+    static final String SEGMENT_SUFFIX = ".seg";
+    /** Segment names are zero-padded to six digits and grow longer past that, so shorter names come first. */
+    static final Comparator<Path> SEGMENT_ORDER = Comparator.comparingInt((Path file) -> file.getFileName().toString().length())
+            .thenComparing(Comparator.naturalOrder());
+
+    private static final int MAGIC = 0x4A43524D;
+    private static final int FORMAT_VERSION = 1;
+    private static final int VERSION_OFFSET = 4;
+    private static final int SLOTS_OFFSET = 8;
+    private static final int COUNT_OFFSET = 16;
+    private static final int HEADER_BYTES = 32;
+    private static final int WORDS = PackedRental.WORDS;
+    private static final int SLOT_BYTES = WORDS * Long.BYTES;
+    private static final int MAX_SLOTS_PER_SEGMENT = (Integer.MAX_VALUE - HEADER_BYTES) / SLOT_BYTES;
+
+    private final Path directory;
+    private final int slotsPerSegment;
+    private final List<MappedByteBuffer> segments;
+    private int tailCount;
+    private int firstUnforced;
+    private long size;
+    private boolean closed;
+
+    private MappedRentalStore(Path directory, int slotsPerSegment, List<MappedByteBuffer> segments, int tailCount) {
+        this.directory = directory;
+        this.slotsPerSegment = slotsPerSegment;
+        this.segments = segments;
+        this.tailCount = tailCount;
+        this.firstUnforced = Math.max(0, segments.size() - 1);
+        this.size = segments.isEmpty() ? 0 : (long) (segments.size() - 1) * slotsPerSegment + tailCount;
+    }
+
+    public static MappedRentalStore open(Path directory) throws IOException {
+        return open(directory, DEFAULT_SLOTS_PER_SEGMENT);
+    }
+
+    /**
+     * Opens the store in {@code directory}, creating it if needed, and maps its segments. An
+     * existing store keeps the segment size it was created with.
+     */
+    public static MappedRentalStore open(Path directory, int slotsPerSegment) throws IOException {
+        if (slotsPerSegment < 1 || slotsPerSegment > MAX_SLOTS_PER_SEGMENT) {
+            throw new IllegalArgumentException("Slots Per Segment must be between 1 and " + MAX_SLOTS_PER_SEGMENT);
+        }
+        Files.createDirectories(directory);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(MappedRentalStore::isSegment).sorted(SEGMENT_ORDER).toList();
+        }
+
+        List<MappedByteBuffer> segments = new ArrayList<>(files.size());
+        int slots = slotsPerSegment;
+        int tailCount = 0;
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            if (!file.getFileName().toString().equals(segmentName(i))) {
+                throw new IOException("Missing rental segment " + directory.resolve(segmentName(i)));
+            }
+            MappedByteBuffer segment = map(file, Files.size(file));
+            if (segment.capacity() < HEADER_BYTES || segment.getInt(0) != MAGIC) {
+                throw new IOException("Not a rental segment: " + file);
+            }
+            if (segment.getInt(VERSION_OFFSET) != FORMAT_VERSION) {
+                throw new IOException("Unsupported rental segment version " + segment.getInt(VERSION_OFFSET) + ": " + file);
+            }
+            int fileSlots = segment.getInt(SLOTS_OFFSET);
+            long count = segment.getLong(COUNT_OFFSET);
+            if (i == 0) {
+                slots = fileSlots;
+            }
+            if (fileSlots != slots || segment.capacity() != segmentBytes(slots) || count < 0 || count > slots
+                    || (i < files.size() - 1 && count != slots)) {
+                throw new IOException("Corrupt rental segment: " + file);
+            }
+            segments.add(segment);
+            tailCount = (int) count;
+        }
+        return new MappedRentalStore(directory, slots, segments, tailCount);
+    }
+
+    /**
+     * Appends a rental.
+     *
+     * @throws IllegalArgumentException if a quantity has more than three decimals or exceeds
+     *                                  {@link FixedPointCostCalculator#MAX_MILLI} milli-units, or
+     *                                  the passages exceed {@link PackedRentalStore#MAX_GUBRIST_PASSAGES},
+     *                                  or the rental has passage times or city segments
+     */
+    public void append(VehicleRental rental) throws IOException {
+        PackedRental.requireUntimed(rental);
+        append(rental.vehicleType(),
+                PackedRental.milli(rental.kilometersDriven(), "Kilometers Driven"),
+                PackedRental.milli(rental.energyConsumed(), "Energy Consumed"),
+                rental.motorwayVignette(),
+                rental.gubristTunnelPassages(),
+                PackedRental.milli(rental.cityKilometers(), "City Kilometers"));
+    }
+
+    public void append(VehicleType vehicleType, long kilometersMilli, long energyMilli, boolean motorwayVignette,
+                       int gubristTunnelPassages, long cityKilometersMilli) throws IOException {
+        checkOpen();
+        PackedRental.check(vehicleType, kilometersMilli, energyMilli, gubristTunnelPassages, cityKilometersMilli);
+        if (segments.isEmpty() || tailCount == slotsPerSegment) {
+            addSegment();
+        }
+        MappedByteBuffer tail = segments.get(segments.size() - 1);
+        int offset = HEADER_BYTES + tailCount * SLOT_BYTES;
+        tail.putLong(offset, PackedRental.first(vehicleType, kilometersMilli, motorwayVignette));
+        tail.putLong(offset + Long.BYTES, PackedRental.second(energyMilli, gubristTunnelPassages));
+        tail.putLong(offset + 2 * Long.BYTES, cityKilometersMilli);
+        tailCount++;
+        tail.putLong(COUNT_OFFSET, tailCount);
+        size++;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /** Rebuilds the rental at {@code index}; quantities come back with trailing zeros stripped. */
+    public VehicleRental rental(long index) {
+        checkOpen();
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        MappedByteBuffer segment = segments.get((int) (index / slotsPerSegment));
+        int offset = HEADER_BYTES + (int) (index % slotsPerSegment) * SLOT_BYTES;
+        return PackedRental.rental(segment.getLong(offset), segment.getLong(offset + Long.BYTES),
+                segment.getLong(offset + 2 * Long.BYTES));
+    }
+
+    /** Passes every rental to {@code action} in append order, e.g. to price it with a {@code CostCalculator}. */
+    public void forEach(Consumer<? super VehicleRental> action) {
+        checkOpen();
+        for (int s = 0; s < segments.size(); s++) {
+            MappedByteBuffer segment = segments.get(s);
+            int end = HEADER_BYTES + count(s) * SLOT_BYTES;
+            for (int offset = HEADER_BYTES; offset < end; offset += SLOT_BYTES) {
+                action.accept(PackedRental.rental(segment.getLong(offset), segment.getLong(offset + Long.BYTES),
+                        segment.getLong(offset + 2 * Long.BYTES)));
+            }
+        }
+    }
+
+    /** Sums the subtotals of all rentals in centimes, reading the slots without building any rental. */
+    public long grandTotalCentimes(FixedPointCostCalculator calculator) {
+        checkOpen();
+        long total = 0;
+        for (int s = 0; s < segments.size(); s++) {
+            MappedByteBuffer segment = segments.get(s);
+            int end = HEADER_BYTES + count(s) * SLOT_BYTES;
+            for (int offset = HEADER_BYTES; offset < end; offset += SLOT_BYTES) {
+                total = Math.addExact(total, PackedRental.subtotalCentimes(calculator, segment.getLong(offset),
+                        segment.getLong(offset + Long.BYTES), segment.getLong(offset + 2 * Long.BYTES)));
+            }
+        }
+        return total;
+    }
+
+    public BigDecimal grandTotal(FixedPointCostCalculator calculator) {
+        return FixedPointCostCalculator.toAmount(grandTotalCentimes(calculator));
+    }
+
+    /** Writes every segment changed since the last call to disk. */
+    public void force() {
+        checkOpen();
+        for (int s = firstUnforced; s < segments.size(); s++) {
+            segments.get(s).force();
+        }
+        firstUnforced = Math.max(0, segments.size() - 1);
+    }
+
+    /**
+     * Forces the appended rentals to disk and releases the store. The mappings themselves are
+     * released by the garbage collector.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            force();
+            segments.clear();
+            closed = true;
+        }
+    }
+
+    private int count(int segment) {
+        return segment < segments.size() - 1 ? slotsPerSegment : tailCount;
+    }
+
+    private void addSegment() throws IOException {
+        if (segments.size() == Integer.MAX_VALUE / slotsPerSegment) {
+            throw new IllegalStateException("Mapped rental store is full at " + size + " rentals");
+        }
+        Path file = directory.resolve(segmentName(segments.size()));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(0, MAGIC).putInt(VERSION_OFFSET, FORMAT_VERSION).putInt(SLOTS_OFFSET, slotsPerSegment)
+                .putLong(COUNT_OFFSET, 0);
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            // Writing the last byte sets the full size without filling the slots.
+            channel.write(ByteBuffer.allocate(1), segmentBytes(slotsPerSegment) - 1);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+        segments.add(map(file, segmentBytes(slotsPerSegment)));
+        tailCount = 0;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Mapped rental store is closed");
+        }
+    }
+
+    private static MappedByteBuffer map(Path file, long bytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+    }
+
+    /** Makes a rename durable; Windows cannot open a directory as a channel and needs no help here. */
+    private static void forceDirectory(Path directory) throws IOException {
+        if (System.getProperty("os.name").startsWith("Windows")) {
+            return;
+        }
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        }
+    }
+
+    private static long segmentBytes(int slots) {
+        return HEADER_BYTES + (long) slots * SLOT_BYTES;
+    }
+
+    private static String segmentName(int index) {
+        return String.format("%s%06d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX);
+    }
+
+    private static boolean isSegment(Path file) {
+        String name = file.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+}
@@ -0,0 +1,113 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+
+import java.math.BigDecimal;
+
+/**
+ * The three-word layout of a packed rental, shared by {@link PackedRentalStore} on the heap and
+ * {@link MappedRentalStore} in files.
+ *
+ * <p>Kilometers, energy and city kilometers are milli-units of at most 40 bits. The first word
+ * also holds the vehicle type ordinal and the vignette flag, the second the Gubrist passages.</p>
+ */
+final class PackedRental {
+
+    static final int WORDS = 3;
+    static final int MAX_GUBRIST_PASSAGES = (1 << 24) - 1;
+
+    private static final int QUANTITY_BITS = 40;
+    private static final long QUANTITY_MASK = (1L << QUANTITY_BITS) - 1;
+    private static final int TYPE_SHIFT = QUANTITY_BITS;
+    private static final long TYPE_MASK = 0x7;
+    private static final long VIGNETTE_FLAG = 1L << (TYPE_SHIFT + 3);
+    private static final int PASSAGES_SHIFT = QUANTITY_BITS;
+    private static final int MILLI_SCALE = 3;
+    private static final VehicleType[] TYPES = VehicleType.values();
+
+    private PackedRental() {
+    }
+
+    /** Checks the fields like {@link VehicleRental} does, plus the limits of the layout. */
+    static void check(VehicleType vehicleType, long kilometersMilli, long energyMilli, int gubristTunnelPassages,
+                      long cityKilometersMilli) {
+        if (vehicleType == null) {
+            throw new NullPointerException("Vehicle Type must not be null");
+        }
+        if (kilometersMilli < 0 || kilometersMilli > FixedPointCostCalculator.MAX_MILLI) {
+            throw new IllegalArgumentException("Kilometers Driven must be between 0 and the fixed-point maximum");
+        }
+        if (energyMilli < 0 || energyMilli > FixedPointCostCalculator.MAX_MILLI) {
+            throw new IllegalArgumentException("Energy Consumed must be between 0 and the fixed-point maximum");
+        }
+        if (cityKilometersMilli < 0) {
+            throw new IllegalArgumentException("City Kilometers must not be negative");
+        }
+        if (cityKilometersMilli > kilometersMilli) {
+            throw new IllegalArgumentException("City Kilometers must not exceed kilometersDriven");
+        }
+        if (gubristTunnelPassages < 0 || gubristTunnelPassages > MAX_GUBRIST_PASSAGES) {
+            throw new IllegalArgumentException("Gubrist Tunnel Passages must be between 0 and " + MAX_GUBRIST_PASSAGES);
+        }
+    }
+
+    static long first(VehicleType vehicleType, long kilometersMilli, boolean motorwayVignette) {
+        return kilometersMilli | (long) vehicleType.ordinal() << TYPE_SHIFT | (motorwayVignette ? VIGNETTE_FLAG : 0L);
+    }
+
+    static long second(long energyMilli, int gubristTunnelPassages) {
+        return energyMilli | (long) gubristTunnelPassages << PASSAGES_SHIFT;
+    }
+
+    static VehicleType vehicleType(long first) {
+        return TYPES[(int) (first >>> TYPE_SHIFT & TYPE_MASK)];
+    }
+
+    static long kilometersMilli(long first) {
+        return first & QUANTITY_MASK;
+    }
+
+    static boolean motorwayVignette(long first) {
+        return (first & VIGNETTE_FLAG) != 0;
+    }
+
+    static long energyMilli(long second) {
+        return second & QUANTITY_MASK;
+    }
+
+    static int gubristTunnelPassages(long second) {
+        return (int) (second >>> PASSAGES_SHIFT);
+    }
+
+    static long subtotalCentimes(FixedPointCostCalculator calculator, long first, long second, long third) {
+        return calculator.subtotalCentimes(vehicleType(first), kilometersMilli(first), energyMilli(second),
+                motorwayVignette(first), gubristTunnelPassages(second), third);
+    }
+
+    static VehicleRental rental(long first, long second, long third) {
+        return new VehicleRental(vehicleType(first), fromMilli(kilometersMilli(first)), fromMilli(energyMilli(second)),
+                motorwayVignette(first), gubristTunnelPassages(second), fromMilli(third));
+    }
+
+    /** Rejects rentals with passage times or city segments, which the layout cannot hold. */
+    static void requireUntimed(VehicleRental rental) {
+        if (rental.isTimed()) {
+            throw new IllegalArgumentException("Rentals with passage times or city segments cannot be packed");
+        }
+    }
+
+    static long milli(BigDecimal value, String field) {
+        long milli = FixedPointCostCalculator.toMilli(value);
+        if (milli == FixedPointCostCalculator.NOT_REPRESENTABLE) {
+            throw new IllegalArgumentException(field + " must have at most three decimals and fit the fixed-point range");
+        }
+        return milli;
+    }
+
+    static BigDecimal fromMilli(long milli) {
+        BigDecimal value = BigDecimal.valueOf(milli, MILLI_SCALE).stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+}
@@ -0,0 +1,218 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Rentals packed into three {@code long}s each, for holding many millions in little memory.
+ *
+ * <p>Kilometers, energy and city kilometers are kept in milli-units, which take at most 40 bits
+ * for quantities up to {@link FixedPointCostCalculator#MAX_MILLI}. The spare high bits hold the
+ * vehicle type ordinal and vignette flag next to the kilometers, and the Gubrist passages next to
+ * the energy; {@link MappedRentalStore} uses the same layout in files. All words live in one
+ * growable {@code long[]}, so a rental takes 24 bytes instead of a record and three
+ * {@link BigDecimal}s, and walking the store reads memory in order.</p>
+ *
+ * <p>{@link #view()} returns a flyweight that reads like a {@link VehicleRental} at any index
+ * without allocating one. A store is not thread-safe.</p>
+ */
+public final class PackedRentalStore {
+
+    /** Largest Gubrist passage count that fits the packed layout. */
+    public static final int MAX_GUBRIST_PASSAGES = PackedRental.MAX_GUBRIST_PASSAGES;
+
+    private static final int DEFAULT_CAPACITY = 1_024;
+    private static final int WORDS = PackedRental.WORDS;
+
+    private long[] words;
+    private int size;
+
+    public PackedRentalStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public PackedRentalStore(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Initial Capacity must not be negative");
+        }
+        this.words = new long[Math.max(1, initialCapacity) * WORDS];
+    }
+
+    /**
+     * Appends a rental.
+     *
+     * @throws IllegalArgumentException if a quantity has more than three decimals or exceeds
+     *                                  {@link FixedPointCostCalculator#MAX_MILLI} milli-units, or
+     *                                  the passages exceed {@link #MAX_GUBRIST_PASSAGES}, or
+     *                                  the rental has passage times or city segments
+     */
+    public void add(VehicleRental rental) {
+        PackedRental.requireUntimed(rental);
+        add(rental.vehicleType(),
+                PackedRental.milli(rental.kilometersDriven(), "Kilometers Driven"),
+                PackedRental.milli(rental.energyConsumed(), "Energy Consumed"),
+                rental.motorwayVignette(),
+                rental.gubristTunnelPassages(),
+                PackedRental.milli(rental.cityKilometers(), "City Kilometers"));
+    }
+
+    public void add(VehicleType vehicleType, long kilometersMilli, long energyMilli, boolean motorwayVignette,
+                    int gubristTunnelPassages, long cityKilometersMilli) {
+        PackedRental.check(vehicleType, kilometersMilli, energyMilli, gubristTunnelPassages, cityKilometersMilli);
+
+        int word = size * WORDS;
+        if (word + WORDS > words.length) {
+            grow();
+        }
+        words[word] = PackedRental.first(vehicleType, kilometersMilli, motorwayVignette);
+        words[word + 1] = PackedRental.second(energyMilli, gubristTunnelPassages);
+        words[word + 2] = cityKilometersMilli;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public VehicleType vehicleType(int index) {
+        return PackedRental.vehicleType(words[word(index)]);
+    }
+
+    public long kilometersMilli(int index) {
+        return PackedRental.kilometersMilli(words[word(index)]);
+    }
+
+    public long energyMilli(int index) {
+        return PackedRental.energyMilli(words[word(index) + 1]);
+    }
+
+    public boolean motorwayVignette(int index) {
+        return PackedRental.motorwayVignette(words[word(index)]);
+    }
+
+    public int gubristTunnelPassages(int index) {
+        return PackedRental.gubristTunnelPassages(words[word(index) + 1]);
+    }
+
+    public long cityKilometersMilli(int index) {
+        return words[word(index) + 2];
+    }
+
+    /** Rebuilds the rental at {@code index}; quantities come back with trailing zeros stripped. */
+    public VehicleRental rental(int index) {
+        int word = word(index);
+        return PackedRental.rental(words[word], words[word + 1], words[word + 2]);
+    }
+
+    /** A new flyweight over this store, positioned at the first rental. */
+    public View view() {
+        return new View();
+    }
+
+    /** Passes every rental to {@code action} through one flyweight, moved along the store. */
+    public void forEach(Consumer<? super View> action) {
+        View view = new View();
+        for (int index = 0; index < size; index++) {
+            action.accept(view.at(index));
+        }
+    }
+
+    /** Sums the subtotals of all rentals in centimes, reading the packed words directly. */
+    public long grandTotalCentimes(FixedPointCostCalculator calculator) {
+        long total = 0;
+        for (int word = 0, end = size * WORDS; word < end; word += WORDS) {
+            total = Math.addExact(total,
+                    PackedRental.subtotalCentimes(calculator, words[word], words[word + 1], words[word + 2]));
+        }
+        return total;
+    }
+
+    private int word(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return index * WORDS;
+    }
+
+    private void grow() {
+        int capacity = words.length / WORDS;
+        int newCapacity = capacity + (capacity >> 1) + 1;
+        if ((long) newCapacity * WORDS > Integer.MAX_VALUE - 8) {
+            newCapacity = (Integer.MAX_VALUE - 8) / WORDS;
+            if (newCapacity == capacity) {
+                throw new IllegalStateException("Packed rental store is full at " + size + " rentals");
+            }
+        }
+        words = Arrays.copyOf(words, newCapacity * WORDS);
+    }
+
+    /**
+     * Reads the rental at its current index with the accessors of {@link VehicleRental}. Quantities
+     * are also available in milli-units, which avoids building a {@link BigDecimal}. A view reads
+     * through to the store and can be moved with {@link #at(int)}, so one instance can walk millions
+     * of rentals.
+     */
+    public final class View {
+
+        private int index;
+
+        private View() {
+        }
+
+        /** Moves the view to {@code index} and returns it. */
+        public View at(int index) {
+            word(index);
+            this.index = index;
+            return this;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public VehicleType vehicleType() {
+            return PackedRentalStore.this.vehicleType(index);
+        }
+
+        public BigDecimal kilometersDriven() {
+            return PackedRental.fromMilli(kilometersMilli());
+        }
+
+        public BigDecimal energyConsumed() {
+            return PackedRental.fromMilli(energyMilli());
+        }
+
+        public boolean motorwayVignette() {
+            return PackedRentalStore.this.motorwayVignette(index);
+        }
+
+        public int gubristTunnelPassages() {
+            return PackedRentalStore.this.gubristTunnelPassages(index);
+        }
+
+        public BigDecimal cityKilometers() {
+            return PackedRental.fromMilli(cityKilometersMilli());
+        }
+
+        public long kilometersMilli() {
+            return PackedRentalStore.this.kilometersMilli(index);
+        }
+
+        public long energyMilli() {
+            return PackedRentalStore.this.energyMilli(index);
+        }
+
+        public long cityKilometersMilli() {
+            return PackedRentalStore.this.cityKilometersMilli(index);
+        }
+
+        public VehicleRental toRental() {
+            return rental(index);
+        }
+    }
+}
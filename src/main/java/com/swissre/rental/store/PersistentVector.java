@@ -0,0 +1,264 @@
+package com.swissre.rental.store;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list that is changed by creating new versions which share structure with the old one.
+ *
+ * <p>Elements live in a tree of 32-wide arrays, with the last, partly filled leaf kept apart as the
+ * tail. {@link #plus(Object)} usually copies only the tail, {@link #with(int, Object)} copies the
+ * path from the root to one leaf, and {@link #get(int)} walks that path, so all three are
+ * effectively constant time: a million elements need a tree only four levels deep.
+ * {@link #minus(int)} shares everything before the removed element and re-appends the elements
+ * after it a leaf at a time, so it is linear in their number: cheap near the end, where
+ * corrections usually happen, and about as costly as copying the list near the start.</p>
+ *
+ * <p>Every version is immutable and can be read from any thread once published, so holding a
+ * reference is an O(1) snapshot that later changes never disturb. The {@link java.util.List}
+ * mutators throw {@link UnsupportedOperationException}.</p>
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Object[] EMPTY_NODE = new Object[WIDTH];
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, BITS, EMPTY_NODE, new Object[0]);
+
+    private final int size;
+    private final int shift;
+    private final Object[] root;
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Object[] root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    public static <E> PersistentVector<E> copyOf(Iterable<? extends E> elements) {
+        PersistentVector<E> vector = empty();
+        return vector.plusAll(elements);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return (E) leafFor(index)[index & MASK];
+    }
+
+    /** Returns a vector with {@code element} appended. */
+    public PersistentVector<E> plus(E element) {
+        if (tail.length < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        return pushTail(new Object[] {element});
+    }
+
+    /** Returns a vector with all {@code elements} appended in iteration order, filling a leaf at a time. */
+    public PersistentVector<E> plusAll(Iterable<? extends E> elements) {
+        Object[] array = elements instanceof Collection<?> collection ? collection.toArray() : toArray(elements);
+        return append(array, 0, array.length);
+    }
+
+    /** Returns a vector with the element at {@code index} replaced by {@code element}. */
+    public PersistentVector<E> with(int index, E element) {
+        Objects.checkIndex(index, size);
+        int tailOffset = tailOffset();
+        if (index >= tailOffset) {
+            Object[] newTail = tail.clone();
+            newTail[index - tailOffset] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, replace(shift, root, index, element), tail);
+    }
+
+    /** Returns a vector without the element at {@code index}; the elements after it are re-appended. */
+    public PersistentVector<E> minus(int index) {
+        Objects.checkIndex(index, size);
+        Object[] later = new Object[size - index - 1];
+        int copied = 0;
+        for (int from = index + 1; from < size; from += copied) {
+            Object[] leaf = leafFor(from);
+            int offset = from & MASK;
+            copied = Math.min(leaf.length - offset, size - from);
+            System.arraycopy(leaf, offset, later, from - index - 1, copied);
+        }
+        return take(index).append(later, 0, later.length);
+    }
+
+    /** Returns a vector of the first {@code count} elements, sharing their leaves with this one. */
+    public PersistentVector<E> take(int count) {
+        Objects.checkIndex(count, size + 1);
+        if (count == size) {
+            return this;
+        }
+        if (count == 0) {
+            return empty();
+        }
+        int tailOffset = tailOffset();
+        if (count > tailOffset) {
+            return new PersistentVector<>(count, shift, root, Arrays.copyOf(tail, count - tailOffset));
+        }
+        int newTailOffset = ((count - 1) >>> BITS) << BITS;
+        Object[] newTail = Arrays.copyOf(leafFor(count - 1), count - newTailOffset);
+        if (newTailOffset == 0) {
+            return new PersistentVector<>(count, BITS, EMPTY_NODE, newTail);
+        }
+        Object[] newRoot = trim(shift, root, newTailOffset);
+        int newShift = shift;
+        while (newShift > BITS && newRoot[1] == null) {
+            newRoot = (Object[]) newRoot[0];
+            newShift -= BITS;
+        }
+        return new PersistentVector<>(count, newShift, newRoot, newTail);
+    }
+
+    /** Walks the elements leaf by leaf instead of descending the tree for each one. */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if ((index & MASK) == 0 || leaf == null) {
+                    leaf = leafFor(index);
+                }
+                return (E) leaf[index++ & MASK];
+            }
+        };
+    }
+
+    private int tailOffset() {
+        return size - tail.length;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) {
+            return tail;
+        }
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return node;
+    }
+
+    private PersistentVector<E> append(Object[] elements, int from, int to) {
+        PersistentVector<E> vector = this;
+        while (from < to) {
+            int room = WIDTH - vector.tail.length;
+            if (room == 0) {
+                int count = Math.min(WIDTH, to - from);
+                vector = vector.pushTail(Arrays.copyOfRange(elements, from, from + count));
+                from += count;
+            } else {
+                int count = Math.min(room, to - from);
+                Object[] newTail = Arrays.copyOf(vector.tail, vector.tail.length + count);
+                System.arraycopy(elements, from, newTail, vector.tail.length, count);
+                vector = new PersistentVector<>(vector.size + count, vector.shift, vector.root, newTail);
+                from += count;
+            }
+        }
+        return vector;
+    }
+
+    /** Moves the full tail into the tree and starts {@code newTail}, growing the tree a level if it is full. */
+    private PersistentVector<E> pushTail(Object[] newTail) {
+        Object[] newRoot;
+        int newShift = shift;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Object[WIDTH];
+            newRoot[0] = root;
+            newRoot[1] = newPath(shift, tail);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(shift, root, tail);
+        }
+        return new PersistentVector<>(size + newTail.length, newShift, newRoot, newTail);
+    }
+
+    private Object[] pushTail(int level, Object[] parent, Object[] tailNode) {
+        int child = ((size - 1) >>> level) & MASK;
+        Object[] copy = parent.clone();
+        if (level == BITS) {
+            copy[child] = tailNode;
+        } else {
+            Object[] existing = (Object[]) parent[child];
+            copy[child] = existing != null ? pushTail(level - BITS, existing, tailNode) : newPath(level - BITS, tailNode);
+        }
+        return copy;
+    }
+
+    private static Object[] toArray(Iterable<?> elements) {
+        List<Object> list = new ArrayList<>();
+        elements.forEach(list::add);
+        return list.toArray();
+    }
+
+    private static Object[] newPath(int level, Object[] node) {
+        if (level == 0) {
+            return node;
+        }
+        Object[] path = new Object[WIDTH];
+        path[0] = newPath(level - BITS, node);
+        return path;
+    }
+
+    private static Object[] replace(int level, Object[] node, int index, Object element) {
+        Object[] copy = node.clone();
+        if (level == 0) {
+            copy[index & MASK] = element;
+        } else {
+            int child = (index >>> level) & MASK;
+            copy[child] = replace(level - BITS, (Object[]) node[child], index, element);
+        }
+        return copy;
+    }
+
+    /** Copies of the nodes holding the first {@code keep} elements, a positive multiple of the width. */
+    private static Object[] trim(int level, Object[] node, int keep) {
+        if (level == 0) {
+            return node;
+        }
+        int last = (keep - 1) >>> level;
+        int remaining = keep - (last << level);
+        Object[] copy = new Object[WIDTH];
+        System.arraycopy(node, 0, copy, 0, last);
+        copy[last] = remaining == 1 << level ? node[last] : trim(level - BITS, (Object[]) node[last], remaining);
+        return copy;
+    }
+}
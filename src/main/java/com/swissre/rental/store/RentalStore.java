@@ -0,0 +1,261 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.RevenueRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.RandomAccess;
+
+/**
+ * Priced rentals partitioned by date: one open day that rentals are added to, and the sealed
+ * days before it.
+ *
+ * <p>{@link #seal(LocalDate)} closes the open day at day end. Its date, rental count, total and
+ * rollup are kept as a {@link SealedDay}, its breakdowns are let go, and a new, empty day is
+ * opened. Sealed days are held
+ * in date order next to running totals of revenue and rentals, so looking up a day is a binary
+ * search and the revenue of any date range is the difference of two running totals, however
+ * many days it spans. Nothing is ever re-priced.</p>
+ *
+ * <p>Every rental added also goes into the open day's {@link RevenueRollup}, so revenue per
+ * vehicle type and charge component can be read at any time without walking the breakdowns.
+ * A sealed day keeps its final rollup.</p>
+ *
+ * <p>The open day is an immutable {@link PersistentVector} of breakdowns and its running total,
+ * replaced as a whole on every change, so rentals can be corrected or removed and every read works
+ * on a snapshot taken in constant time. Writers are serialized on the store; readers never lock,
+ * so a long summary or report render sees a stable day while rentals keep arriving. Sealed days
+ * are published the same way, as an immutable history.</p>
+ */
+public final class RentalStore {
+
+    private static final BigDecimal NO_REVENUE =
+            BigDecimal.ZERO.setScale(CostCalculator.SCALE, CostCalculator.ROUNDING);
+
+    private volatile OpenDay open;
+    private volatile RevenueRollup openRollup = new RevenueRollup();
+    private volatile History history = History.EMPTY;
+
+    public RentalStore(LocalDate openDate) {
+        this.open = new OpenDay(openDate, PersistentVector.empty(), BigDecimal.ZERO);
+    }
+
+    public LocalDate openDate() {
+        return open.date();
+    }
+
+    /** Adds a priced rental to the open day. */
+    public synchronized void add(CostBreakdown breakdown) {
+        openRollup.record(breakdown);
+        OpenDay day = open;
+        open = new OpenDay(day.date(), day.breakdowns().plus(breakdown), day.total().add(breakdown.subtotal()));
+    }
+
+    /** Adds priced rentals to the open day, recording them in its rollup as one batch. */
+    public synchronized void addAll(List<CostBreakdown> breakdowns) {
+        openRollup.recordAll(breakdowns);
+        OpenDay day = open;
+        BigDecimal total = day.total();
+        for (CostBreakdown breakdown : breakdowns) {
+            total = total.add(breakdown.subtotal());
+        }
+        open = new OpenDay(day.date(), day.breakdowns().plusAll(breakdowns), total);
+    }
+
+    /** Replaces the open day's rental at {@code index}, e.g. to correct a wrong entry, and returns the old one. */
+    public synchronized CostBreakdown update(int index, CostBreakdown breakdown) {
+        if (!RevenueRollup.canRecord(breakdown)) {
+            throw new IllegalArgumentException("Breakdown amounts must fit the rollup's centime totals");
+        }
+        OpenDay day = open;
+        CostBreakdown old = day.breakdowns().get(index);
+        openRollup.retract(old);
+        openRollup.record(breakdown);
+        open = new OpenDay(day.date(), day.breakdowns().with(index, breakdown),
+                day.total().subtract(old.subtotal()).add(breakdown.subtotal()));
+        return old;
+    }
+
+    /** Removes the open day's rental at {@code index} and returns it. Later rentals move down by one. */
+    public synchronized CostBreakdown remove(int index) {
+        OpenDay day = open;
+        CostBreakdown old = day.breakdowns().get(index);
+        openRollup.retract(old);
+        open = new OpenDay(day.date(), day.breakdowns().minus(index), day.total().subtract(old.subtotal()));
+        return old;
+    }
+
+    /** The rentals of the open day, in the order they were added, as an immutable snapshot. */
+    public List<VehicleRental> openRentals() {
+        return new RentalView(open.breakdowns());
+    }
+
+    /**
+     * Returns the open day's summary from the running total, without re-pricing any rental. The
+     * summary is an immutable snapshot taken in constant time; rentals added or changed later do
+     * not show up in it.
+     */
+    public DailySummary openSummary() {
+        OpenDay day = open;
+        return new DailySummary(day.breakdowns(), day.total().setScale(CostCalculator.SCALE, CostCalculator.ROUNDING));
+    }
+
+    /**
+     * Revenue of the open day per vehicle type and charge component. While rentals are being
+     * changed it may be a rental ahead of or behind {@link #openSummary()}.
+     */
+    public RevenueRollup.Snapshot openRollup() {
+        return openRollup.snapshot();
+    }
+
+    /**
+     * Seals the open day and opens {@code nextDate}, which must come after it. Days in between
+     * stay empty. Returns the sealed day.
+     */
+    public synchronized SealedDay seal(LocalDate nextDate) {
+        OpenDay day = open;
+        if (!nextDate.isAfter(day.date())) {
+            throw new IllegalArgumentException("Next Date " + nextDate + " must be after the open day " + day.date());
+        }
+        SealedDay sealed = new SealedDay(day.date(), day.breakdowns().size(),
+                day.total().setScale(CostCalculator.SCALE, CostCalculator.ROUNDING), openRollup.snapshot());
+        history = history.append(sealed);
+        openRollup = new RevenueRollup();
+        open = new OpenDay(nextDate, PersistentVector.empty(), BigDecimal.ZERO);
+        return sealed;
+    }
+
+    public int sealedDayCount() {
+        return history.size;
+    }
+
+    /** Returns the sealed day for {@code date}, or empty if that day is open, in the future or had no partition. */
+    public Optional<SealedDay> sealedDay(LocalDate date) {
+        History days = history;
+        long epochDay = date.toEpochDay();
+        int index = days.firstIndexFrom(epochDay);
+        return index < days.size && days.epochDays[index] == epochDay ? Optional.of(days.days[index]) : Optional.empty();
+    }
+
+    /** The sealed days from {@code from} to {@code to}, both inclusive, in date order. */
+    public List<SealedDay> sealedDays(LocalDate from, LocalDate to) {
+        History days = history;
+        int first = days.firstIndexFrom(checkRange(from, to).toEpochDay());
+        int end = days.firstIndexFrom(to.toEpochDay() + 1);
+        return List.of(Arrays.copyOfRange(days.days, first, end));
+    }
+
+    /** Total revenue of the sealed days from {@code from} to {@code to}, both inclusive. */
+    public BigDecimal revenue(LocalDate from, LocalDate to) {
+        History days = history;
+        int first = days.firstIndexFrom(checkRange(from, to).toEpochDay());
+        int end = days.firstIndexFrom(to.toEpochDay() + 1);
+        return first == end ? NO_REVENUE : days.revenueBefore[end].subtract(days.revenueBefore[first]);
+    }
+
+    /** Number of rentals on the sealed days from {@code from} to {@code to}, both inclusive. */
+    public long rentalCount(LocalDate from, LocalDate to) {
+        History days = history;
+        int first = days.firstIndexFrom(checkRange(from, to).toEpochDay());
+        int end = days.firstIndexFrom(to.toEpochDay() + 1);
+        return days.rentalsBefore[end] - days.rentalsBefore[first];
+    }
+
+    private static LocalDate checkRange(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("From Date " + from + " must not be after To Date " + to);
+        }
+        return from;
+    }
+
+    private record OpenDay(LocalDate date, PersistentVector<CostBreakdown> breakdowns, BigDecimal total) {
+    }
+
+    /** The rentals of a snapshot of the open day, read through its breakdowns. */
+    private static final class RentalView extends AbstractList<VehicleRental> implements RandomAccess {
+
+        private final List<CostBreakdown> breakdowns;
+
+        private RentalView(List<CostBreakdown> breakdowns) {
+            this.breakdowns = breakdowns;
+        }
+
+        @Override
+        public VehicleRental get(int index) {
+            return breakdowns.get(index).rental();
+        }
+
+        @Override
+        public int size() {
+            return breakdowns.size();
+        }
+    }
+
+    /**
+     * Sealed days in date order with running totals: {@code revenueBefore[i]} is the revenue of
+     * days {@code 0..i-1}. A new history may share its arrays with the previous one, because
+     * entries are only ever written past the end of every published history.
+     */
+    private static final class History {
+
+        private static final History EMPTY = new History(new long[0], new SealedDay[0],
+                new BigDecimal[] {NO_REVENUE}, new long[1], 0);
+
+        private final long[] epochDays;
+        private final SealedDay[] days;
+        private final BigDecimal[] revenueBefore;
+        private final long[] rentalsBefore;
+        private final int size;
+
+        private History(long[] epochDays, SealedDay[] days, BigDecimal[] revenueBefore, long[] rentalsBefore,
+                        int size) {
+            this.epochDays = epochDays;
+            this.days = days;
+            this.revenueBefore = revenueBefore;
+            this.rentalsBefore = rentalsBefore;
+            this.size = size;
+        }
+
+        private History append(SealedDay day) {
+            long[] epochDays = this.epochDays;
+            SealedDay[] days = this.days;
+            BigDecimal[] revenueBefore = this.revenueBefore;
+            long[] rentalsBefore = this.rentalsBefore;
+            if (size == days.length) {
+                int capacity = Math.max(16, size * 2);
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                days = Arrays.copyOf(days, capacity);
+                revenueBefore = Arrays.copyOf(revenueBefore, capacity + 1);
+                rentalsBefore = Arrays.copyOf(rentalsBefore, capacity + 1);
+            }
+            epochDays[size] = day.date().toEpochDay();
+            days[size] = day;
+            revenueBefore[size + 1] = revenueBefore[size].add(day.revenue());
+            rentalsBefore[size + 1] = rentalsBefore[size] + day.rentalCount();
+            return new History(epochDays, days, revenueBefore, rentalsBefore, size + 1);
+        }
+
+        /** Index of the first sealed day on or after {@code epochDay}, or {@code size} if there is none. */
+        private int firstIndexFrom(long epochDay) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (epochDays[mid] < epochDay) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.pricing.RevenueRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A closed day of a {@link RentalStore}: its date, how many rentals were priced on it, their total
+ * and its revenue per vehicle type and charge component. The breakdowns themselves are dropped when
+ * the day is sealed, so a long-running store holds a few numbers per day rather than every rental.
+ */
+public record SealedDay(
+        LocalDate date,
+        int rentalCount,
+        BigDecimal revenue,
+        RevenueRollup.Snapshot rollup
+) {
+}
@@ -113,6 +113,11 @@ public class ConsoleUI {
         out.println(message);
     }
 
+    /** Output that large reports can be streamed to instead of being built as one {@code String} first. */
+    public Appendable output() {
+        return out;
+    }
+
     public void displayError(String message) {
         out.println("Error: " + message);
     }
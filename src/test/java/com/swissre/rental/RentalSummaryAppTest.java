@@ -0,0 +1,407 @@
+package com.swissre.rental;
+
+import com.swissre.rental.io.BulkReceiptJob;
+import com.swissre.rental.io.ImportResult;
+import com.swissre.rental.io.RentalJournal;
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.metrics.MetricsSnapshot;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.TariffRegistry;
+import com.swissre.rental.report.CompanySummaryFormatter;
+import com.swissre.rental.report.CustomerReceiptFormatter;
+import com.swissre.rental.store.SealedDay;
+import com.swissre.rental.ui.ConsoleUI;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalSummaryAppTest {
+
+    private static final String ADD_E_VAN = "1\n3\n95\n20\ny\n3\n0\n";
+    private static final String ADD_COMPACT_VAN = "1\n1\n40\n5\nn\n0\n0\n";
+    private static final String ADD_LARGE_VAN = "1\n2\n180\n15\nn\n0\n30\n";
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2026-02-13T12:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path tempDir;
+
+    private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    @Test
+    void runningTotalsMatchRecalculation() {
+        RentalSummaryApp app = app(ADD_E_VAN + ADD_COMPACT_VAN + ADD_LARGE_VAN + "0\n", new CostCalculator());
+        app.run();
+
+        DailySummary summary = app.currentSummary();
+        assertEquals(3, summary.breakdowns().size());
+        assertEquals(new BigDecimal("365.40"), summary.grandTotal());
+        assertTrue(app.verifyRunningTotals());
+    }
+
+    @Test
+    void emptyAppHasZeroSummary() {
+        RentalSummaryApp app = app("0\n", new CostCalculator());
+        app.run();
+
+        assertEquals(new BigDecimal("0.00"), app.currentSummary().grandTotal());
+        assertTrue(app.verifyRunningTotals());
+    }
+
+    @Test
+    void printingSummaryDoesNotRepriceRentals() {
+        AtomicInteger pricings = new AtomicInteger();
+        CostCalculator countingCalculator = new CostCalculator() {
+            @Override
+            public CostBreakdown calculate(VehicleRental rental, Tariff tariff) {
+                pricings.incrementAndGet();
+                return super.calculate(rental, tariff);
+            }
+        };
+        RentalSummaryApp app = app(ADD_E_VAN + ADD_COMPACT_VAN + "3\n3\n2\n1\n0\n", countingCalculator);
+        app.run();
+
+        assertEquals(2, pricings.get());
+        String printed = output.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Total vehicles: 2"));
+        assertTrue(printed.contains("117.15"));
+    }
+
+    @Test
+    void importedRentalsJoinRunningTotals() throws IOException {
+        Path file = tempDir.resolve("rentals.csv");
+        Files.writeString(file, """
+                vehicleType,kilometers,energy,vignette,gubristPassages,cityKilometers
+                E_VAN,95,20,y,3,0
+                COMPACT_VAN,40,5,n,0,0
+                COMPACT_VAN,oops,5,n,0,0
+                """);
+        RentalSummaryApp app = app(ADD_LARGE_VAN + "0\n", new CostCalculator());
+
+        ImportResult result = app.importRentals(file);
+        app.run();
+
+        assertEquals(2, result.rowsImported());
+        assertEquals(1, result.rowsRejected());
+        assertEquals(3, app.currentSummary().breakdowns().size());
+        assertEquals(new BigDecimal("365.40"), app.currentSummary().grandTotal());
+        assertTrue(app.verifyRunningTotals());
+        String printed = output.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Line 4: Invalid number in column 'kilometers'"));
+        assertTrue(printed.contains("Imported 2 rentals (1 rejected)"));
+        assertTrue(printed.contains("rows/s import + summary"));
+    }
+
+    @Test
+    void journaledRentalsSurviveRestart() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            app(ADD_E_VAN + ADD_COMPACT_VAN + "0\n", new CostCalculator(), journal).run();
+        }
+
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp restarted = app(ADD_LARGE_VAN + "0\n", new CostCalculator(), journal);
+            assertEquals(2, restarted.currentSummary().breakdowns().size());
+            restarted.run();
+
+            assertEquals(new BigDecimal("365.40"), restarted.currentSummary().grandTotal());
+            assertTrue(restarted.verifyRunningTotals());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(3, journal.recovered().size());
+        }
+    }
+
+    @Test
+    void startsOnJournalHoldingRentalTooLargeToRecord() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        VehicleRental huge = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("99999999999999999999999"),
+                BigDecimal.ZERO, false, 0, BigDecimal.ZERO);
+        VehicleRental compactVan = new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+                new BigDecimal("5"), false, 0, BigDecimal.ZERO);
+        // Journals written before amounts were checked up front may hold such a rental.
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            journal.appendAll(List.of(compactVan, huge));
+        }
+
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp restarted = app("0\n", new CostCalculator(), journal);
+
+            assertEquals(List.of(compactVan), restarted.store().openRentals());
+            assertTrue(restarted.verifyRunningTotals());
+        }
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("exceeds what the daily totals can hold"));
+    }
+
+    @Test
+    void rentalsTooLargeToRecordAreNeitherJournaledNorAdded() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        Path file = tempDir.resolve("rentals.csv");
+        Files.writeString(file, """
+                E_VAN,95,20,y,3,0
+                LARGE_VAN,99999999999999999999999,0,n,0,0
+                COMPACT_VAN,40,5,n,0,0
+                """);
+        CostCalculator calculator = new CostCalculator();
+        CostBreakdown huge = calculator.calculate(new VehicleRental(VehicleType.LARGE_VAN,
+                new BigDecimal("99999999999999999999999"), BigDecimal.ZERO, false, 0, BigDecimal.ZERO));
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp app = app("1\n2\n99999999999999999999999\n0\nn\n0\n0\n0\n", calculator, journal);
+
+            app.importRentals(file);
+            app.run();
+
+            assertEquals(2, app.store().openRentals().size());
+            assertThrows(IllegalArgumentException.class, () -> app.ingest(List.of(huge)));
+            assertThrows(IllegalArgumentException.class, () -> app.correctRental(0, huge.rental()));
+            assertEquals(2, app.store().openRentals().size());
+            assertTrue(app.verifyRunningTotals());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(2, journal.recovered().size());
+        }
+    }
+
+    @Test
+    void ingestedRentalsAreJournaledAndSummarized() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        CostCalculator calculator = new CostCalculator();
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp app = app("0\n", calculator, journal);
+            app.ingest(List.of(
+                    calculator.calculate(new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"),
+                            new BigDecimal("20"), true, 3, BigDecimal.ZERO)),
+                    calculator.calculate(new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+                            new BigDecimal("5"), false, 0, BigDecimal.ZERO))));
+
+            assertEquals(2, app.currentSummary().breakdowns().size());
+            assertTrue(app.verifyRunningTotals());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(2, journal.recovered().size());
+        }
+    }
+
+    @Test
+    void correctedAndRemovedRentalsSurviveRestart() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        CostCalculator calculator = new CostCalculator();
+        VehicleRental corrected = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("60"),
+                new BigDecimal("8"), false, 0, BigDecimal.ZERO);
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp app = app(ADD_E_VAN + ADD_COMPACT_VAN + ADD_LARGE_VAN + "0\n", calculator, journal);
+            app.run();
+            DailySummary before = app.currentSummary();
+
+            app.correctRental(0, corrected);
+            app.removeRental(1);
+
+            assertEquals(3, before.breakdowns().size());
+            assertEquals(List.of(corrected, before.breakdowns().get(2).rental()), app.store().openRentals());
+            assertTrue(app.verifyRunningTotals());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            RentalSummaryApp restarted = app("0\n", calculator, journal);
+            assertEquals(2, restarted.currentSummary().breakdowns().size());
+            assertEquals(corrected, restarted.store().openRentals().get(0));
+            assertTrue(restarted.verifyRunningTotals());
+        }
+    }
+
+    @Test
+    void sealsDayWhenClockPassesMidnight() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        CostCalculator calculator = new CostCalculator();
+        CostBreakdown eVan = calculator.calculate(new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"),
+                new BigDecimal("20"), true, 3, BigDecimal.ZERO));
+        CostBreakdown compactVan = calculator.calculate(new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+                new BigDecimal("5"), false, 0, BigDecimal.ZERO));
+        SettableClock clock = new SettableClock(Instant.parse("2026-02-13T23:59:00Z"));
+        LocalDate firstDay = LocalDate.of(2026, 2, 13);
+
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            Scanner scanner = new Scanner(new ByteArrayInputStream(new byte[0]));
+            ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+            RentalSummaryApp app = new RentalSummaryApp(ui, calculator, new CustomerReceiptFormatter(firstDay),
+                    new CompanySummaryFormatter(firstDay), journal, new MetricsRegistry(), clock);
+            app.ingest(List.of(eVan, compactVan));
+            clock.instant = Instant.parse("2026-02-14T00:01:00Z");
+            app.ingest(List.of(compactVan));
+
+            SealedDay closed = app.store().sealedDay(firstDay).orElseThrow();
+            assertEquals(2, closed.rentalCount());
+            assertEquals(eVan.subtotal().add(compactVan.subtotal()), closed.revenue());
+            assertEquals(closed.revenue(), app.store().revenue(firstDay.minusDays(30), firstDay));
+            assertEquals(LocalDate.of(2026, 2, 14), app.store().openDate());
+            assertEquals(1, app.currentSummary().breakdowns().size());
+            assertTrue(app.verifyRunningTotals());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(1, journal.recovered().size());
+        }
+        assertTrue(output.toString(StandardCharsets.UTF_8).contains("Closed 2026-02-13: 2 rentals, CHF "
+                + eVan.subtotal().add(compactVan.subtotal()).toPlainString()));
+    }
+
+    @Test
+    void restoresRecoveredDayAndSealsItAfterMidnight() throws IOException {
+        Path journalDir = tempDir.resolve("journal");
+        CostCalculator calculator = new CostCalculator();
+        CostBreakdown eVan = calculator.calculate(new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"),
+                new BigDecimal("20"), true, 3, BigDecimal.ZERO));
+        SettableClock clock = new SettableClock(Instant.parse("2026-02-13T23:59:00Z"));
+        LocalDate firstDay = LocalDate.of(2026, 2, 13);
+        LocalDate nextDay = firstDay.plusDays(1);
+
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            app(journal, clock).ingest(List.of(eVan, eVan));
+        }
+
+        clock.instant = Instant.parse("2026-02-14T08:00:00Z");
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(Optional.of(firstDay), journal.recoveredDay());
+            RentalSummaryApp restarted = app(journal, clock);
+            assertEquals(firstDay, restarted.store().openDate());
+            assertEquals(2, restarted.currentSummary().breakdowns().size());
+
+            restarted.ingest(List.of(eVan));
+
+            SealedDay closed = restarted.store().sealedDay(firstDay).orElseThrow();
+            assertEquals(2, closed.rentalCount());
+            assertEquals(eVan.subtotal().add(eVan.subtotal()), closed.revenue());
+            assertEquals(nextDay, restarted.store().openDate());
+            assertEquals(1, restarted.currentSummary().breakdowns().size());
+        }
+        try (RentalJournal journal = RentalJournal.open(journalDir)) {
+            assertEquals(Optional.of(nextDay), journal.recoveredDay());
+            assertEquals(1, journal.recovered().size());
+        }
+    }
+
+    @Test
+    void datesReceiptsAndSummariesWithTheOpenDay() {
+        SettableClock clock = new SettableClock(Instant.parse("2026-02-13T23:59:00Z"));
+        Scanner scanner = new Scanner(new ByteArrayInputStream(
+                (ADD_E_VAN + "2\n1\n4\n0\n").getBytes(StandardCharsets.UTF_8)));
+        ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+        LocalDate startDay = LocalDate.of(2026, 2, 13);
+        RentalSummaryApp app = new RentalSummaryApp(ui, new CostCalculator(), new CustomerReceiptFormatter(startDay),
+                new CompanySummaryFormatter(startDay), null, new MetricsRegistry(), clock);
+
+        clock.instant = Instant.parse("2026-02-14T00:01:00Z");
+        app.run();
+
+        String printed = output.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Date: 14/02/2026"));
+        assertTrue(!printed.contains("Date: 13/02/2026"));
+    }
+
+    @Test
+    void recordsMenuActionLatencies() {
+        Scanner scanner = new Scanner(new ByteArrayInputStream((ADD_E_VAN + "3\n0\n").getBytes(StandardCharsets.UTF_8)));
+        ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+        MetricsRegistry metrics = new MetricsRegistry();
+        LocalDate date = LocalDate.of(2026, 2, 13);
+        RentalSummaryApp app = new RentalSummaryApp(ui, new CostCalculator(new TariffRegistry(), metrics),
+                new CustomerReceiptFormatter(date, metrics), new CompanySummaryFormatter(date, metrics), null, metrics);
+
+        app.run();
+
+        MetricsSnapshot snapshot = app.metrics();
+        assertEquals(1, snapshot.histograms().get("ui.action.addRental").count());
+        assertEquals(1, snapshot.histograms().get("ui.action.companySummary").count());
+        assertEquals(1, snapshot.histograms().get("report.companySummary").count());
+        assertEquals(1L, (long) snapshot.counters().get("pricing.rentals.E_VAN"));
+        assertEquals(0, snapshot.histograms().get("report.receipt").count());
+    }
+
+    @Test
+    void writesReceiptFilePerRental() throws Exception {
+        RentalSummaryApp app = app(ADD_E_VAN + ADD_COMPACT_VAN + ADD_LARGE_VAN + "0\n", new CostCalculator());
+        app.run();
+        Path receipts = tempDir.resolve("receipts");
+
+        BulkReceiptJob.Result result = app.writeReceipts(receipts);
+
+        assertEquals(3, result.written());
+        CustomerReceiptFormatter formatter = new CustomerReceiptFormatter(LocalDate.of(2026, 2, 13));
+        assertEquals(formatter.formatReceipt(app.currentSummary().breakdowns().get(1)),
+                Files.readString(receipts.resolve("receipt-00000002.txt")));
+        String printed = output.toString(StandardCharsets.UTF_8);
+        assertTrue(printed.contains("Receipts written: 3 of 3"));
+        assertTrue(printed.contains("Wrote 3 receipts"));
+    }
+
+    private static final class SettableClock extends Clock {
+
+        private Instant instant;
+
+        private SettableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+    private RentalSummaryApp app(RentalJournal journal, Clock clock) {
+        Scanner scanner = new Scanner(new ByteArrayInputStream(new byte[0]));
+        ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+        LocalDate date = LocalDate.now(clock);
+        return new RentalSummaryApp(ui, new CostCalculator(), new CustomerReceiptFormatter(date),
+                new CompanySummaryFormatter(date), journal, new MetricsRegistry(), clock);
+    }
+
+    private RentalSummaryApp app(String input, CostCalculator calculator, RentalJournal journal) {
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+        LocalDate date = LocalDate.of(2026, 2, 13);
+        return new RentalSummaryApp(ui, calculator, new CustomerReceiptFormatter(date), new CompanySummaryFormatter(date),
+                journal, new MetricsRegistry(), CLOCK);
+    }
+
+    private RentalSummaryApp app(String input, CostCalculator calculator) {
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)));
+        ConsoleUI ui = new ConsoleUI(scanner, new PrintStream(output, true, StandardCharsets.UTF_8));
+        LocalDate date = LocalDate.of(2026, 2, 13);
+        return new RentalSummaryApp(ui, calculator, new CustomerReceiptFormatter(date), new CompanySummaryFormatter(date),
+                null, new MetricsRegistry(), CLOCK);
+    }
+}
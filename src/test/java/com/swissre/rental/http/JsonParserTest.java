@@ -0,0 +1,55 @@
+package com.swissre.rental.http;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonParserTest {
+
+    @Test
+    void parsesNestedValues() {
+        Object json = JsonParser.parse(" {\"a\": [1, -2.50, 3e2], \"b\": {\"c\": true, \"d\": null}, \"e\": \"x\\\"\\u00e9\\n\"} ");
+
+        Map<?, ?> object = (Map<?, ?>) json;
+        assertEquals(List.of(new BigDecimal("1"), new BigDecimal("-2.50"), new BigDecimal("3e2")), object.get("a"));
+        Map<?, ?> b = (Map<?, ?>) object.get("b");
+        assertEquals(Boolean.TRUE, b.get("c"));
+        assertTrue(b.containsKey("d"));
+        assertNull(b.get("d"));
+        assertEquals("x\"\u00e9\n", object.get("e"));
+    }
+
+    @Test
+    void parsesEmptyContainers() {
+        assertEquals(List.of(), JsonParser.parse("[]"));
+        assertEquals(Map.of(), JsonParser.parse("{ }"));
+    }
+
+    @Test
+    void rejectsMalformedInput() {
+        for (String input : new String[] {"", "{", "[1,]", "{\"a\":1,}", "01", "1.", "-", "tru", "\"open",
+                "[1] x", "{\"a\" 1}", "{a:1}", "\"\\q\"", "NaN"}) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> JsonParser.parse(input));
+            assertTrue(e.getMessage().startsWith("Invalid JSON at position"), e.getMessage());
+        }
+    }
+
+    @Test
+    void rejectsDuplicateMembers() {
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("{\"a\":1,\"a\":2}"));
+    }
+
+    @Test
+    void rejectsExcessiveNesting() {
+        String deep = "[".repeat(1000) + "]".repeat(1000);
+
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse(deep));
+    }
+}
@@ -0,0 +1,159 @@
+package com.swissre.rental.http;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.TariffRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingServerTest {
+
+    private static final String E_VAN = "{\"vehicleType\":\"E_VAN\",\"kilometersDriven\":95,\"energyConsumed\":20,"
+            + "\"motorwayVignette\":true,\"gubristTunnelPassages\":3,\"cityKilometers\":0}";
+    private static final String LARGE_VAN = "{\"vehicleType\":\"LARGE_VAN\",\"kilometersDriven\":180,"
+            + "\"energyConsumed\":15,\"cityKilometers\":30}";
+
+    private final CostCalculator calculator = new CostCalculator();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private PricingServer server;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        server = new PricingServer(calculator, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void quotesSingleRental() throws Exception {
+        HttpResponse<String> response = post("/quote", E_VAN);
+
+        assertEquals(200, response.statusCode());
+        assertEquals("application/json; charset=utf-8", response.headers().firstValue("Content-Type").orElseThrow());
+        CostBreakdown expected = calculator.calculate(new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"),
+                new BigDecimal("20"), true, 3, BigDecimal.ZERO));
+        Map<?, ?> json = (Map<?, ?>) JsonParser.parse(response.body());
+        assertEquals(expected.subtotal(), json.get("subtotal"));
+        assertEquals(expected.ecoBonus(), json.get("ecoBonus"));
+        assertEquals(expected.tariffVersion(), json.get("tariffVersion"));
+        assertEquals("E_VAN", ((Map<?, ?>) json.get("rental")).get("vehicleType"));
+    }
+
+    @Test
+    void quotesBatchInRequestOrder() throws Exception {
+        HttpResponse<String> response = post("/quotes", "[" + E_VAN + "," + LARGE_VAN + "]");
+
+        assertEquals(200, response.statusCode());
+        List<?> json = (List<?>) JsonParser.parse(response.body());
+        assertEquals(2, json.size());
+        assertEquals("E_VAN", ((Map<?, ?>) ((Map<?, ?>) json.get(0)).get("rental")).get("vehicleType"));
+        assertEquals("LARGE_VAN", ((Map<?, ?>) ((Map<?, ?>) json.get(1)).get("rental")).get("vehicleType"));
+    }
+
+    @Test
+    void quotesTimedRentalAndEchoesItsEvents() throws Exception {
+        HttpResponse<String> response = post("/quote", "{\"vehicleType\":\"LARGE_VAN\",\"kilometersDriven\":60,"
+                + "\"energyConsumed\":10,\"gubristPassageTimes\":[\"2026-10-18T17:10\",\"2026-10-18T07:45\"],"
+                + "\"citySegments\":[{\"start\":\"2026-10-18T08:00\",\"kilometers\":4.5}]}");
+
+        assertEquals(200, response.statusCode());
+        Map<?, ?> json = (Map<?, ?>) JsonParser.parse(response.body());
+        Map<?, ?> rental = (Map<?, ?>) json.get("rental");
+        assertEquals(new BigDecimal("2"), rental.get("gubristTunnelPassages"));
+        assertEquals(new BigDecimal("4.5"), rental.get("cityKilometers"));
+        assertEquals(List.of("2026-10-18T07:45", "2026-10-18T17:10"), rental.get("gubristPassageTimes"));
+        assertEquals(new BigDecimal("5.00"), json.get("gubristCost"));
+        assertEquals(400, post("/quote", "{\"vehicleType\":\"LARGE_VAN\",\"kilometersDriven\":60,"
+                + "\"energyConsumed\":10,\"gubristPassageTimes\":[\"07:45\"]}").statusCode());
+    }
+
+    @Test
+    void summarizesBatch() throws Exception {
+        HttpResponse<String> response = post("/summary", "[" + E_VAN + "," + LARGE_VAN + "]");
+
+        assertEquals(200, response.statusCode());
+        Map<?, ?> json = (Map<?, ?>) JsonParser.parse(response.body());
+        List<VehicleRental> rentals = JsonCodec.rentals(JsonParser.parse("[" + E_VAN + "," + LARGE_VAN + "]"));
+        assertEquals(new BigDecimal("2"), json.get("vehicleCount"));
+        assertEquals(calculator.calculateDailySummary(rentals).grandTotal(), json.get("grandTotal"));
+        assertEquals(2, ((List<?>) json.get("breakdowns")).size());
+    }
+
+    @Test
+    void rejectsInvalidRentalWithBadRequest() throws Exception {
+        HttpResponse<String> response = post("/quotes", "[" + E_VAN + ",{\"vehicleType\":\"BUS\"}]");
+
+        assertEquals(400, response.statusCode());
+        String error = (String) ((Map<?, ?>) JsonParser.parse(response.body())).get("error");
+        assertTrue(error.startsWith("rentals[1]: vehicleType"), error);
+    }
+
+    @Test
+    void rejectsMalformedJsonAndUnknownFields() throws Exception {
+        assertEquals(400, post("/quote", "{\"vehicleType\":").statusCode());
+        assertEquals(400, post("/quote", E_VAN.replace("}", ",\"discount\":5}")).statusCode());
+        assertEquals(400, post("/quote", E_VAN.replace("95", "-95")).statusCode());
+    }
+
+    @Test
+    void servesMetricsSnapshot() throws Exception {
+        server.stop(0);
+        MetricsRegistry metrics = new MetricsRegistry();
+        server = new PricingServer(new CostCalculator(new TariffRegistry(), metrics),
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), metrics);
+        server.start();
+        post("/quotes", "[" + E_VAN + "," + LARGE_VAN + "]");
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/metrics")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(200, response.statusCode());
+        Map<?, ?> json = (Map<?, ?>) JsonParser.parse(response.body());
+        assertEquals(new BigDecimal("1"), ((Map<?, ?>) json.get("counters")).get("pricing.rentals.E_VAN"));
+        assertEquals(new BigDecimal("1"), ((Map<?, ?>) json.get("counters")).get("pricing.charged.VIGNETTE"));
+        assertTrue(((Map<?, ?>) json.get("histograms")).containsKey("pricing.calculate"));
+        assertEquals(405, post("/metrics", "{}").statusCode());
+    }
+
+    @Test
+    void rejectsWrongMethodAndPath() throws Exception {
+        HttpResponse<String> get = client.send(HttpRequest.newBuilder(uri("/quote")).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(405, get.statusCode());
+        assertEquals(404, post("/quote/extra", E_VAN).statusCode());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.port() + path);
+    }
+}
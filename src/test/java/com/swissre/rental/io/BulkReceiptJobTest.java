@@ -0,0 +1,170 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.report.CustomerReceiptFormatter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BulkReceiptJobTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 2, 13);
+
+    @TempDir
+    Path dir;
+
+    private final CostCalculator calculator = new CostCalculator();
+    private final CustomerReceiptFormatter formatter = new CustomerReceiptFormatter(DATE);
+
+    @Test
+    void writesOneReceiptFilePerRental() throws Exception {
+        List<VehicleRental> rentals = rentals(500);
+        List<Long> progress = new ArrayList<>();
+
+        BulkReceiptJob.Result result = new BulkReceiptJob(calculator, formatter, 16, 100)
+                .run(rentals, dir, (written, failed) -> {
+                    synchronized (progress) {
+                        progress.add(written + failed);
+                    }
+                });
+
+        assertEquals(500, result.written());
+        assertEquals(0, result.failed());
+        assertTrue(result.errors().isEmpty());
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(500, files.count());
+        }
+        for (int i : new int[] {0, 1, 249, 499}) {
+            String expected = formatter.formatReceipt(calculator.calculate(rentals.get(i)));
+            assertEquals(expected, Files.readString(dir.resolve(BulkReceiptJob.fileName(i + 1))));
+        }
+        assertEquals(6, progress.size());
+        assertEquals(500L, (long) progress.get(progress.size() - 1));
+        assertTrue(result.receiptsPerSecond() > 0);
+    }
+
+    @Test
+    void neverExceedsConcurrencyLimit() throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        CustomerReceiptFormatter slowFormatter = new CustomerReceiptFormatter(DATE) {
+            @Override
+            public String formatReceipt(CostBreakdown breakdown) {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(2);
+                    return super.formatReceipt(breakdown);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        };
+
+        BulkReceiptJob.Result result = new BulkReceiptJob(calculator, slowFormatter, 4, 1_000)
+                .run(rentals(200), dir, BulkReceiptJob.ProgressListener.NONE);
+
+        assertEquals(200, result.written());
+        assertTrue(peak.get() <= 4);
+        assertTrue(peak.get() > 1);
+    }
+
+    @Test
+    void pullsRentalsLazily() throws Exception {
+        int total = 300;
+        AtomicLong pulled = new AtomicLong();
+        AtomicLong maxAhead = new AtomicLong();
+        AtomicLong finished = new AtomicLong();
+        Iterable<VehicleRental> generated = () -> new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return pulled.get() < total;
+            }
+
+            @Override
+            public VehicleRental next() {
+                maxAhead.accumulateAndGet(pulled.incrementAndGet() - finished.get(), Math::max);
+                return rental(VehicleType.COMPACT_VAN, pulled.get());
+            }
+        };
+
+        BulkReceiptJob.Result result = new BulkReceiptJob(calculator, formatter, 8, 1)
+                .run(generated, dir, (written, failed) -> finished.set(Math.max(finished.get(), written + failed)));
+
+        assertEquals(total, result.written());
+        assertTrue(maxAhead.get() <= 2 * 8);
+    }
+
+    @Test
+    void recordsFailedReceiptsAndContinues() throws Exception {
+        VehicleRental poison = rental(VehicleType.LARGE_VAN, 13);
+        CustomerReceiptFormatter failingFormatter = new CustomerReceiptFormatter(DATE) {
+            @Override
+            public String formatReceipt(CostBreakdown breakdown) {
+                if (breakdown.rental() == poison) {
+                    throw new IllegalStateException("printer on fire");
+                }
+                return super.formatReceipt(breakdown);
+            }
+        };
+        List<VehicleRental> rentals = new ArrayList<>(rentals(20));
+        rentals.set(12, poison);
+
+        BulkReceiptJob.Result result = new BulkReceiptJob(calculator, failingFormatter, 4, 10)
+                .run(rentals, dir, BulkReceiptJob.ProgressListener.NONE);
+
+        assertEquals(19, result.written());
+        assertEquals(1, result.failed());
+        assertEquals(List.of(new BulkReceiptJob.ReceiptError(13, "printer on fire")), result.errors());
+        assertTrue(Files.notExists(dir.resolve(BulkReceiptJob.fileName(13))));
+    }
+
+    @Test
+    void namesFilesByZeroPaddedReceiptNumber() {
+        assertEquals("receipt-00000001.txt", BulkReceiptJob.fileName(1));
+        assertEquals("receipt-01000000.txt", BulkReceiptJob.fileName(1_000_000));
+        assertEquals("receipt-123456789.txt", BulkReceiptJob.fileName(123_456_789));
+    }
+
+    @Test
+    void rejectsInvalidSettings() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new BulkReceiptJob(calculator, formatter, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BulkReceiptJob(calculator, formatter, 10, 0));
+        Path file = Files.writeString(dir.resolve("not-a-directory"), "x");
+        assertThrows(IOException.class, () -> new BulkReceiptJob(calculator, formatter)
+                .run(rentals(1), file, BulkReceiptJob.ProgressListener.NONE));
+    }
+
+    private List<VehicleRental> rentals(int count) {
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(rental(VehicleType.values()[i % 3], i));
+        }
+        return rentals;
+    }
+
+    private static VehicleRental rental(VehicleType type, long km) {
+        return new VehicleRental(type, BigDecimal.valueOf(km), new BigDecimal("5"), km % 2 == 0, (int) (km % 4),
+                BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,204 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalCsvImporterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void importsRowsWithHeaderCommentsAndBlankLines() throws IOException {
+        String csv = """
+                vehicleType,kilometers,energy,vignette,gubristPassages,cityKilometers
+                # morning shift
+                E_VAN,95,20,y,3,0
+
+                compact_van, 40.5 ,5.25,false,0,0.0
+                LARGE_VAN,180,15,NO,0,30\r
+                """;
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        ImportResult result = importString(new RentalCsvImporter(), csv, rentals::addAll);
+
+        assertEquals(3, result.rowsImported());
+        assertEquals(0, result.rowsRejected());
+        assertEquals(List.of(
+                rental(VehicleType.E_VAN, "95", "20", true, 3, "0"),
+                rental(VehicleType.COMPACT_VAN, "40.5", "5.25", false, 0, "0.0"),
+                rental(VehicleType.LARGE_VAN, "180", "15", false, 0, "30")
+        ), rentals);
+    }
+
+    @Test
+    void preservesDecimalScaleOfInput() throws IOException {
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        importString(new RentalCsvImporter(), "E_VAN,95.000,.5,n,0,1.\n", rentals::addAll);
+
+        VehicleRental rental = rentals.get(0);
+        assertEquals(new BigDecimal("95.000"), rental.kilometersDriven());
+        assertEquals(new BigDecimal("0.5"), rental.energyConsumed());
+        assertEquals(new BigDecimal("1"), rental.cityKilometers());
+    }
+
+    @Test
+    void parsesNumbersWiderThanALong() throws IOException {
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        importString(new RentalCsvImporter(), "E_VAN,123456789.0123456789012,0.0000000000000000001,n,0,0\n",
+                rentals::addAll);
+
+        assertEquals(new BigDecimal("123456789.0123456789012"), rentals.get(0).kilometersDriven());
+        assertEquals(new BigDecimal("0.0000000000000000001"), rentals.get(0).energyConsumed());
+    }
+
+    @Test
+    void rejectsNumbersWithTooManyIntegerDigits() throws IOException {
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        ImportResult result = importString(new RentalCsvImporter(),
+                "E_VAN,0001234567890,1,n,0,0\nE_VAN,000123456789.5,1,n,0,0\nE_VAN,1.0000000000000000001E+30,1,n,0,0\n",
+                rentals::addAll);
+
+        assertEquals(List.of(new BigDecimal("123456789.5")),
+                rentals.stream().map(VehicleRental::kilometersDriven).toList());
+        assertEquals(List.of(
+                new ImportError(1, "Number too large in column 'kilometers'"),
+                new ImportError(3, "Invalid number in column 'kilometers'")
+        ), result.errors());
+    }
+
+    @Test
+    void reportsBadRowsWithLineNumbersAndContinues() throws IOException {
+        String csv = """
+                E_VAN,95,20,y,3,0
+                TRUCK,10,1,n,0,0
+                E_VAN,abc,1,n,0,0
+                E_VAN,10,-1,n,0,0
+                E_VAN,10,1,maybe,0,0
+                E_VAN,10,1,n,x,0
+                E_VAN,10,1,n,0,20
+                E_VAN,10,1,n,0
+                E_VAN,10,1,n,0,0,0
+                E_VAN,,1,n,0,0
+                COMPACT_VAN,40,5,n,0,0
+                """;
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        ImportResult result = importString(new RentalCsvImporter(), csv, rentals::addAll);
+
+        assertEquals(2, result.rowsImported());
+        assertEquals(9, result.rowsRejected());
+        assertEquals(2, rentals.size());
+        assertEquals(List.of(
+                new ImportError(2, "Unknown vehicle type in column 'vehicleType'"),
+                new ImportError(3, "Invalid number in column 'kilometers'"),
+                new ImportError(4, "Negative number in column 'energy'"),
+                new ImportError(5, "Invalid yes/no value in column 'vignette'"),
+                new ImportError(6, "Invalid count in column 'gubristPassages'"),
+                new ImportError(7, "City Kilometers must not exceed kilometersDriven"),
+                new ImportError(8, "Expected 6 columns but found 5"),
+                new ImportError(9, "Expected 6 columns but found more"),
+                new ImportError(10, "Missing number in column 'kilometers'")
+        ), result.errors());
+        assertEquals("Line 2: Unknown vehicle type in column 'vehicleType'", result.errors().get(0).toString());
+    }
+
+    @Test
+    void limitsReportedErrorsButCountsAll() throws IOException {
+        ImportResult result = importString(new RentalCsvImporter(10, 2), "x\nx\nx\nE_VAN,1,1,n,0,0\n", batch -> { });
+
+        assertEquals(1, result.rowsImported());
+        assertEquals(3, result.rowsRejected());
+        assertEquals(2, result.errors().size());
+    }
+
+    @Test
+    void deliversRentalsInBatches() throws IOException {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 25; i++) {
+            csv.append("COMPACT_VAN,").append(i).append(",1,n,0,0\n");
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+
+        ImportResult result = importString(new RentalCsvImporter(10, 0), csv.toString(),
+                batch -> batchSizes.add(batch.size()));
+
+        assertEquals(List.of(10, 10, 5), batchSizes);
+        assertEquals(25, result.rowsImported());
+    }
+
+    @Test
+    void importsLargeFileAcrossBufferBoundaries() throws IOException {
+        Path file = tempDir.resolve("rentals.csv");
+        StringBuilder csv = new StringBuilder("vehicleType,kilometers,energy,vignette,gubristPassages,cityKilometers\n");
+        int rows = 20_000;
+        BigDecimal expectedKm = BigDecimal.ZERO;
+        for (int i = 0; i < rows; i++) {
+            BigDecimal km = BigDecimal.valueOf(i, 2);
+            expectedKm = expectedKm.add(km);
+            csv.append(VehicleType.values()[i % 3]).append(',').append(km.toPlainString()).append(",1.5,")
+                    .append(i % 2 == 0 ? "y" : "n").append(',').append(i % 4).append(",0\n");
+        }
+        Files.writeString(file, csv);
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        ImportResult result = new RentalCsvImporter().importFile(file, rentals::addAll);
+
+        assertEquals(rows, result.rowsImported());
+        assertEquals(rows, rentals.size());
+        assertEquals(expectedKm, rentals.stream().map(VehicleRental::kilometersDriven)
+                .reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(rental(VehicleType.values()[(rows - 1) % 3], "199.99", "1.5", false, 3, "0"),
+                rentals.get(rows - 1));
+        assertTrue(result.importRowsPerSecond() > 0);
+        assertTrue(result.totalRowsPerSecond() > 0);
+    }
+
+    @Test
+    void importsLinesLongerThanTheReadBuffer() throws IOException {
+        String padding = " ".repeat(100_000);
+        List<VehicleRental> rentals = new ArrayList<>();
+
+        ImportResult result = importString(new RentalCsvImporter(),
+                "E_VAN,95," + padding + "20,y,3,0\nE_VAN,10,1,n,0,0", rentals::addAll);
+
+        assertEquals(2, result.rowsImported());
+        assertEquals(new BigDecimal("20"), rentals.get(0).energyConsumed());
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new RentalCsvImporter(0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new RentalCsvImporter(10, -1));
+    }
+
+    private ImportResult importString(RentalCsvImporter importer, String csv,
+                                      Consumer<List<VehicleRental>> batches) throws IOException {
+        return importer.importStream(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), batches);
+    }
+
+    private VehicleRental rental(VehicleType type, String km, String energy, boolean vignette, int passages,
+                                 String cityKm) {
+        return new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy), vignette, passages,
+                new BigDecimal(cityKm));
+    }
+}
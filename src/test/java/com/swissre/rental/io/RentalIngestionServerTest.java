@@ -0,0 +1,215 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalIngestionServerTest {
+
+    private final CostCalculator calculator = new CostCalculator();
+    private final List<CostBreakdown> ingested = new ArrayList<>();
+    private RentalIngestionServer server;
+
+    @AfterEach
+    void stopServer() throws IOException {
+        if (server != null) {
+            server.close();
+        }
+    }
+
+    @Test
+    void answersEveryRentalInOrder() throws Exception {
+        start(RentalIngestionServer.DEFAULT_QUEUE_CAPACITY, this::collect);
+
+        List<String> answers = send("E_VAN,95,20,y,3,0\n\nBUS,1,1,n,0,0\r\nLARGE_VAN, 180, 15, no, 0, 30\n"
+                + "COMPACT_VAN,40,5,n,0,0");
+
+        BigDecimal eVan = subtotal(new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"), new BigDecimal("20"),
+                true, 3, BigDecimal.ZERO));
+        BigDecimal largeVan = subtotal(new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("180"),
+                new BigDecimal("15"), false, 0, new BigDecimal("30")));
+        BigDecimal compactVan = subtotal(new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+                new BigDecimal("5"), false, 0, BigDecimal.ZERO));
+        assertEquals(List.of("OK " + eVan.toPlainString(), "ERR Unknown vehicle type in column 'vehicleType'",
+                "OK " + largeVan.toPlainString(), "OK " + compactVan.toPlainString()), answers);
+        synchronized (ingested) {
+            assertEquals(3, ingested.size());
+        }
+        assertEquals(new RentalIngestionServer.Stats(1, 3, 1, 0), server.stats());
+    }
+
+    @Test
+    void ingestsFromManyConnectionsConcurrently() throws Exception {
+        start(RentalIngestionServer.DEFAULT_QUEUE_CAPACITY, this::collect);
+        int connections = 50;
+        int rentalsPerConnection = 400;
+        String lines = "COMPACT_VAN,40,5,n,0,0\n".repeat(rentalsPerConnection);
+
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < connections; i++) {
+                futures.add(executor.submit(() -> send(lines)));
+            }
+        }
+
+        for (Future<List<String>> future : futures) {
+            List<String> answers = future.get();
+            assertEquals(rentalsPerConnection, answers.size());
+            assertTrue(answers.stream().allMatch(answer -> answer.startsWith("OK ")));
+        }
+        synchronized (ingested) {
+            assertEquals(connections * rentalsPerConnection, ingested.size());
+        }
+        assertEquals(connections, server.stats().connections());
+    }
+
+    @Test
+    void stopsReadingWhileTheSinkFallsBehind() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        start(1, breakdowns -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            collect(breakdowns);
+        });
+
+        List<Future<List<String>>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 4; i++) {
+                futures.add(executor.submit(() -> send("E_VAN,95,20,y,3,0\n".repeat(500))));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (server.stats().backpressurePauses() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            assertTrue(server.stats().backpressurePauses() > 0);
+            release.countDown();
+        }
+
+        for (Future<List<String>> future : futures) {
+            assertEquals(500, future.get().size());
+        }
+        assertEquals(2000, server.stats().rentalsIngested());
+    }
+
+    @Test
+    void answersSinkFailuresWithErrors() throws Exception {
+        start(RentalIngestionServer.DEFAULT_QUEUE_CAPACITY, breakdowns -> {
+            throw new IOException("disk full");
+        });
+
+        assertEquals(List.of("ERR Ingestion failed: disk full"), send("E_VAN,95,20,y,3,0\n"));
+    }
+
+    @Test
+    void answersPricingFailuresAndKeepsIngesting() throws Exception {
+        CostCalculator failing = new CostCalculator() {
+            @Override
+            public CostBreakdown calculate(VehicleRental rental, Tariff tariff) {
+                if (rental.gubristTunnelPassages() == 13) {
+                    throw new ArithmeticException("Overflow");
+                }
+                return super.calculate(rental, tariff);
+            }
+        };
+        server = new RentalIngestionServer(failing, this::collect,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        server.start();
+
+        assertEquals(List.of("ERR Ingestion failed: Overflow", "ERR Ingestion failed: Overflow"),
+                send("E_VAN,95,20,y,13,0\nE_VAN,95,20,y,3,0\n"));
+        List<String> answers = send("LARGE_VAN,999999999.999999999999999999999,0,n,0,0\nLARGE_VAN,9999999999,0,n,0,0\n");
+
+        BigDecimal largest = subtotal(new VehicleRental(VehicleType.LARGE_VAN,
+                new BigDecimal("999999999.999999999999999999999"), BigDecimal.ZERO, false, 0, BigDecimal.ZERO));
+        assertEquals(List.of("OK " + largest.toPlainString(), "ERR Number too large in column 'kilometers'"), answers);
+        synchronized (ingested) {
+            assertEquals(1, ingested.size());
+        }
+    }
+
+    @Test
+    void closesConnectionAfterOverlongLine() throws Exception {
+        start(RentalIngestionServer.DEFAULT_QUEUE_CAPACITY, this::collect);
+
+        try (Socket socket = connect()) {
+            OutputStream out = socket.getOutputStream();
+            out.write("E_VAN,95,20,y,3,0\n".getBytes(StandardCharsets.US_ASCII));
+            out.write("x".repeat(RentalIngestionServer.MAX_LINE_LENGTH + 100).getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            BufferedReader in = reader(socket);
+
+            assertTrue(in.readLine().startsWith("OK "));
+            assertEquals("ERR Line exceeds " + RentalIngestionServer.MAX_LINE_LENGTH + " bytes", in.readLine());
+            assertNull(in.readLine());
+        }
+    }
+
+    private void start(int queueCapacity, RentalIngestionServer.Sink sink) throws IOException {
+        server = new RentalIngestionServer(calculator, sink,
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), queueCapacity);
+        server.start();
+    }
+
+    private void collect(List<CostBreakdown> breakdowns) {
+        synchronized (ingested) {
+            ingested.addAll(breakdowns);
+        }
+    }
+
+    private BigDecimal subtotal(VehicleRental rental) {
+        return calculator.calculate(rental).subtotal();
+    }
+
+    /** Sends {@code lines}, half-closes the socket and returns all answers until the server closes. */
+    private List<String> send(String lines) throws IOException {
+        try (Socket socket = connect()) {
+            socket.getOutputStream().write(lines.getBytes(StandardCharsets.US_ASCII));
+            socket.shutdownOutput();
+            BufferedReader in = reader(socket);
+            List<String> answers = new ArrayList<>();
+            String answer;
+            while ((answer = in.readLine()) != null) {
+                answers.add(answer);
+            }
+            return answers;
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.port());
+        socket.setSoTimeout(20_000);
+        return socket;
+    }
+
+    private static BufferedReader reader(Socket socket) throws IOException {
+        return new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,319 @@
+package com.swissre.rental.io;
+
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32C;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replaysAppendedRentalsAfterReopen() throws IOException {
+        List<VehicleRental> rentals = List.of(
+                rental(VehicleType.E_VAN, "95", "20", true, 3, "0"),
+                rental(VehicleType.COMPACT_VAN, "40.50", "5.125", false, 0, "0.0"),
+                rental(VehicleType.LARGE_VAN, "180", "15", false, 7, "30"),
+                rental(VehicleType.E_VAN, "123456789012345678901234.5", "1E+3", false, 0, "0"));
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertTrue(journal.recovered().isEmpty());
+            journal.append(rentals.get(0));
+            journal.appendAll(rentals.subList(1, rentals.size()));
+        }
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(rentals, journal.recovered());
+            assertEquals(new BigDecimal("40.50"), journal.recovered().get(1).kilometersDriven());
+            assertEquals(4, journal.stats().recoveredRentals());
+        }
+    }
+
+    @Test
+    void replaysPassageTimesAndCitySegments() throws IOException {
+        LocalDateTime morning = LocalDateTime.of(2026, 10, 18, 7, 45, 12, 500_000_000);
+        VehicleRental timed = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("180"), new BigDecimal("15"),
+                false, 2, new BigDecimal("12.5"), List.of(morning, LocalDateTime.of(1969, 12, 31, 23, 59)),
+                List.of(new CitySegment(morning, new BigDecimal("8")),
+                        new CitySegment(morning.plusHours(9), new BigDecimal("4.5"))));
+        List<VehicleRental> rentals = List.of(rentals(1).get(0), timed);
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.appendAll(rentals);
+        }
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(rentals, journal.recovered());
+            journal.checkpoint(rentals);
+        }
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(rentals, journal.recovered());
+            assertTrue(journal.recovered().get(1).isTimed());
+        }
+    }
+
+    @Test
+    void readsJournalsWrittenBeforeRentalsCarriedTimes() throws IOException {
+        // Version 2 journal holding E_VAN,95,20,y,3,0 as sequence 1.
+        ByteBuffer payload = ByteBuffer.allocate(21).putLong(1)
+                .put(new byte[] {2, 1, 3, 0, 0, (byte) 0xBE, 0x01, 0, 0, 40, 0, 0, 0});
+        CRC32C crc = new CRC32C();
+        crc.update(payload.array());
+        ByteBuffer file = ByteBuffer.allocate(14 + 4 + 21 + 4).putInt(0x4A43524A).putShort((short) 2)
+                .putLong(Long.MIN_VALUE).putInt(21).put(payload.array()).putInt((int) crc.getValue());
+        Files.write(dir.resolve(RentalJournal.JOURNAL_FILE), file.array());
+
+        VehicleRental eVan = rental(VehicleType.E_VAN, "95", "20", true, 3, "0");
+        VehicleRental later = rental(VehicleType.COMPACT_VAN, "40", "5", false, 0, "0");
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(List.of(eVan), journal.recovered());
+            journal.append(later);
+        }
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(List.of(eVan, later), journal.recovered());
+        }
+    }
+
+    @Test
+    void batchAppendUsesOneFsync() throws IOException {
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.appendAll(rentals(1_000));
+
+            RentalJournal.JournalStats stats = journal.stats();
+            assertEquals(1_000, stats.appends());
+            assertEquals(1, stats.fsyncs());
+            assertEquals(1_000.0, stats.appendsPerFsync(), 0.0);
+        }
+    }
+
+    @Test
+    void concurrentAppendsShareFsyncs() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        for (VehicleRental rental : rentals(perThread)) {
+                            journal.append(rental);
+                        }
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } finally {
+                executor.shutdown();
+            }
+
+            RentalJournal.JournalStats stats = journal.stats();
+            assertEquals(threads * perThread, stats.appends());
+            assertTrue(stats.fsyncs() <= stats.appends());
+        }
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(threads * perThread, journal.recovered().size());
+        }
+    }
+
+    @Test
+    void truncatesTornTailAndKeepsAppending() throws IOException {
+        List<VehicleRental> rentals = rentals(3);
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.appendAll(rentals);
+        }
+        Path file = dir.resolve(RentalJournal.JOURNAL_FILE);
+        long intactSize = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0, 0, 0, 20, 1, 2, 3}));
+        }
+
+        VehicleRental extra = rental(VehicleType.LARGE_VAN, "1", "1", false, 0, "0");
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(rentals, journal.recovered());
+            assertEquals(intactSize, Files.size(file));
+            journal.append(extra);
+        }
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            List<VehicleRental> expected = new ArrayList<>(rentals);
+            expected.add(extra);
+            assertEquals(expected, journal.recovered());
+        }
+    }
+
+    @Test
+    void stopsReplayAtCorruptRecord() throws IOException {
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.appendAll(rentals(3));
+        }
+        Path file = dir.resolve(RentalJournal.JOURNAL_FILE);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 6] ^= 0x55;
+        Files.write(file, bytes);
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(rentals(2), journal.recovered());
+        }
+    }
+
+    @Test
+    void checkpointEmptiesJournalAndPreservesState() throws IOException {
+        List<VehicleRental> state = new ArrayList<>(rentals(10));
+        try (RentalJournal journal = RentalJournal.open(dir, 10)) {
+            journal.appendAll(state);
+            assertTrue(journal.checkpointDue());
+
+            journal.checkpoint(state);
+
+            assertEquals(1, journal.stats().checkpoints());
+            assertTrue(!journal.checkpointDue());
+            VehicleRental after = rental(VehicleType.COMPACT_VAN, "77", "7", true, 1, "7");
+            journal.append(after);
+            state.add(after);
+        }
+        assertTrue(Files.size(dir.resolve(RentalJournal.JOURNAL_FILE)) < 100);
+
+        try (RentalJournal journal = RentalJournal.open(dir, 10)) {
+            assertEquals(state, journal.recovered());
+        }
+    }
+
+    @Test
+    void skipsJournalRecordsAlreadyInSnapshot() throws IOException {
+        List<VehicleRental> state = rentals(5);
+        Path file = dir.resolve(RentalJournal.JOURNAL_FILE);
+        byte[] journalBeforeCheckpoint;
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.appendAll(state);
+            journalBeforeCheckpoint = Files.readAllBytes(file);
+            journal.checkpoint(state);
+        }
+        // Simulates a crash after the snapshot was written but before the journal was emptied.
+        Files.write(file, journalBeforeCheckpoint);
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(state, journal.recovered());
+        }
+    }
+
+    @Test
+    void recoversDayRecordedByCheckpoint() throws IOException {
+        LocalDate day = LocalDate.of(2026, 2, 13);
+        List<VehicleRental> state = new ArrayList<>(rentals(3));
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertTrue(journal.recoveredDay().isEmpty());
+            journal.checkpoint(day, List.of());
+            journal.appendAll(state);
+        }
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(Optional.of(day), journal.recoveredDay());
+            assertEquals(state, journal.recovered());
+            journal.checkpoint(state);
+        }
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(Optional.of(day), journal.recoveredDay());
+            assertEquals(state, journal.recovered());
+        }
+    }
+
+    @Test
+    void recoversSnapshotDayWhenJournalHeaderWasNotRewritten() throws IOException {
+        LocalDate firstDay = LocalDate.of(2026, 2, 13);
+        Path file = dir.resolve(RentalJournal.JOURNAL_FILE);
+        byte[] journalBeforeCheckpoint;
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            journal.checkpoint(firstDay, List.of());
+            journal.appendAll(rentals(2));
+            journalBeforeCheckpoint = Files.readAllBytes(file);
+            journal.checkpoint(firstDay.plusDays(1), List.of());
+        }
+        // Simulates a crash after the next day's snapshot was written but before the journal was emptied.
+        Files.write(file, journalBeforeCheckpoint);
+
+        try (RentalJournal journal = RentalJournal.open(dir)) {
+            assertEquals(Optional.of(firstDay.plusDays(1)), journal.recoveredDay());
+            assertTrue(journal.recovered().isEmpty());
+        }
+    }
+
+    @Test
+    void failedWriteFailsTheJournalUntilReopened() throws IOException {
+        List<VehicleRental> durable = rentals(2);
+        RentalJournal journal = RentalJournal.open(dir);
+        journal.appendAll(durable);
+
+        // An interrupted write closes the channel and throws, like a failing disk would.
+        Thread.currentThread().interrupt();
+        IOException failure;
+        try {
+            failure = assertThrows(IOException.class, () -> journal.append(rentals(3).get(2)));
+        } finally {
+            Thread.interrupted();
+        }
+
+        IOException append = assertThrows(IOException.class, () -> journal.append(rentals(4).get(3)));
+        assertSame(failure, append.getCause());
+        assertSame(failure, assertThrows(IOException.class, () -> journal.appendAll(rentals(1))).getCause());
+        assertSame(failure, assertThrows(IOException.class, () -> journal.checkpoint(durable)).getCause());
+        assertSame(failure, assertThrows(IOException.class, journal::close).getCause());
+        assertEquals(durable.size() + 1, journal.stats().appends());
+        assertEquals(1, journal.stats().fsyncs());
+
+        try (RentalJournal reopened = RentalJournal.open(dir)) {
+            assertEquals(durable, reopened.recovered());
+        }
+    }
+
+    @Test
+    void rejectsForeignFiles() throws IOException {
+        Files.writeString(dir.resolve(RentalJournal.JOURNAL_FILE), "not a journal");
+
+        assertThrows(IOException.class, () -> RentalJournal.open(dir));
+        assertThrows(IllegalArgumentException.class, () -> RentalJournal.open(dir, 0));
+    }
+
+    private List<VehicleRental> rentals(int count) {
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(rental(VehicleType.values()[i % 3], i + ".5", "2.25", i % 2 == 0, i % 4, "0.5"));
+        }
+        return Collections.unmodifiableList(rentals);
+    }
+
+    private VehicleRental rental(VehicleType type, String km, String energy, boolean vignette, int passages,
+                                 String cityKm) {
+        return new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy), vignette, passages,
+                new BigDecimal(cityKm));
+    }
+}
@@ -0,0 +1,101 @@
+package com.swissre.rental.jfr;
+
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.report.CompanySummaryFormatter;
+import com.swissre.rental.report.CustomerReceiptFormatter;
+import jdk.jfr.EventType;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingTest {
+
+    private static final VehicleRental E_VAN = new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"),
+            new BigDecimal("20"), true, 3, BigDecimal.ZERO);
+    private static final VehicleRental COMPACT_VAN = new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+            new BigDecimal("5"), false, 0, BigDecimal.ZERO);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void eventsAreDisabledByDefault() {
+        assertFalse(EventType.getEventType(RentalPricedEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(DailySummaryEvent.class).isEnabled());
+        assertFalse(EventType.getEventType(ReportRenderedEvent.class).isEnabled());
+    }
+
+    @Test
+    void recordsPricingAndReportEvents() throws Exception {
+        Path file = tempDir.resolve("rental.jfr");
+        CostCalculator calculator = new CostCalculator();
+        LocalDate date = LocalDate.of(2026, 2, 13);
+        DailySummary summary;
+        String summaryText;
+        String receiptText;
+
+        try (FlightRecording recording = FlightRecording.start(file)) {
+            summary = calculator.calculateDailySummary(List.of(E_VAN, COMPACT_VAN));
+            summaryText = new CompanySummaryFormatter(date).formatSummary(summary);
+            receiptText = new CustomerReceiptFormatter(date).formatReceipt(summary.breakdowns().get(0));
+        }
+
+        assertTrue(Files.size(file) > 0);
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> priced = named(events, "com.swissre.rental.RentalPriced");
+        assertEquals(2, priced.size());
+        RecordedEvent eVan = priced.stream()
+                .filter(event -> event.getString("vehicleType").equals("E_VAN"))
+                .findFirst().orElseThrow();
+        assertEquals(summary.breakdowns().get(0).subtotal().doubleValue(), eVan.getDouble("subtotal"), 1e-9);
+        assertEquals(calculator.currentTariff().version(), eVan.getString("tariffVersion"));
+
+        List<RecordedEvent> summaries = named(events, "com.swissre.rental.DailySummary");
+        assertEquals(1, summaries.size());
+        assertEquals(2, summaries.get(0).getInt("rentalCount"));
+
+        List<RecordedEvent> reports = named(events, "com.swissre.rental.ReportRendered");
+        assertEquals(2, reports.size());
+        RecordedEvent companySummary = reports.stream()
+                .filter(event -> event.getString("report").equals("companySummary"))
+                .findFirst().orElseThrow();
+        assertEquals(2, companySummary.getLong("rentalCount"));
+        assertEquals(summaryText.length(), companySummary.getLong("outputChars"));
+        RecordedEvent receipt = reports.stream()
+                .filter(event -> event.getString("report").equals("receipt"))
+                .findFirst().orElseThrow();
+        assertEquals(receiptText.length(), receipt.getLong("outputChars"));
+    }
+
+    @Test
+    void thresholdDropsFastEvents() throws Exception {
+        Path file = tempDir.resolve("threshold.jfr");
+        CostCalculator calculator = new CostCalculator();
+
+        try (FlightRecording recording = FlightRecording.start(file, Duration.ofSeconds(10))) {
+            calculator.calculate(E_VAN);
+        }
+
+        assertTrue(named(RecordingFile.readAllEvents(file), "com.swissre.rental.RentalPriced").isEmpty());
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.swissre.rental.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 50; value++) {
+            histogram.record(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(50, snapshot.count());
+        assertEquals(25, snapshot.p50Nanos());
+        assertEquals(50, snapshot.p99Nanos());
+        assertEquals(50, snapshot.maxNanos());
+        assertEquals(25, snapshot.meanNanos());
+    }
+
+    @Test
+    void largeValuesStayWithinThreePercent() {
+        for (long value : new long[] {64, 100, 1_000, 12_345, 1_000_000, 987_654_321, Long.MAX_VALUE / 3}) {
+            int bucket = LatencyHistogram.bucket(value);
+            long highest = LatencyHistogram.highestValue(bucket);
+            assertTrue(highest >= value, "highest " + highest + " below " + value);
+            assertTrue(highest - value <= value / LatencyHistogram.SUB_BUCKETS, "bucket too wide for " + value);
+            assertEquals(bucket, LatencyHistogram.bucket(highest));
+        }
+    }
+
+    @Test
+    void bucketsCoverTheWholeRange() {
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.highestValue(LatencyHistogram.bucket(Long.MAX_VALUE)));
+        int previous = -1;
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 / 2 + 1) {
+            int bucket = LatencyHistogram.bucket(value);
+            assertTrue(bucket >= previous);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void percentilesFollowTheDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(5_000_000);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1_000, snapshot.p50Nanos(), 1_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(1_000, snapshot.p99Nanos(), 1_000 / LatencyHistogram.SUB_BUCKETS);
+        assertEquals(5_000_000, snapshot.p999Nanos());
+        assertEquals(5_000_000, snapshot.maxNanos());
+    }
+
+    @Test
+    void countsEveryConcurrentRecording() throws Exception {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            tasks.add(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            tasks.forEach(executor::execute);
+        }
+
+        assertEquals(80_000, histogram.snapshot().count());
+        assertEquals(9_999, histogram.snapshot().maxNanos());
+    }
+
+    @Test
+    void emptyHistogramReportsZeros() {
+        assertEquals(new LatencyHistogram.Snapshot(0, 0, 0, 0, 0, 0, 0), new LatencyHistogram().snapshot());
+    }
+}
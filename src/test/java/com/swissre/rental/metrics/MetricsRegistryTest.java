@@ -0,0 +1,55 @@
+package com.swissre.rental.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void returnsTheSameInstrumentForTheSameName() {
+        assertSame(registry.counter("a"), registry.counter("a"));
+        assertSame(registry.histogram("h"), registry.histogram("h"));
+    }
+
+    @Test
+    void snapshotIsSortedByName() {
+        registry.counter("b").add(2);
+        registry.counter("a").increment();
+        registry.histogram("z").record(1_500);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+
+        assertEquals(List.of("a", "b"), List.copyOf(snapshot.counters().keySet()));
+        assertEquals(1L, (long) snapshot.counters().get("a"));
+        assertEquals(2L, (long) snapshot.counters().get("b"));
+        assertEquals(1, snapshot.histograms().get("z").count());
+    }
+
+    @Test
+    void sourcesAreSharedAndCollectedWithCounters() {
+        MetricSource source = registry.source("mix", () -> counters -> counters.accept("mix.total", 7));
+
+        assertSame(source, registry.source("mix", () -> counters -> counters.accept("mix.other", 1)));
+        assertEquals(7L, (long) registry.snapshot().counters().get("mix.total"));
+        assertEquals(1, registry.snapshot().counters().size());
+    }
+
+    @Test
+    void formatsTableInMicroseconds() {
+        registry.counter("pricing.rentals.E_VAN").add(3);
+        registry.histogram("pricing.calculate").record(1_500);
+
+        String text = registry.snapshot().format();
+
+        assertTrue(text.contains("  pricing.rentals.E_VAN            3\n"), text);
+        assertTrue(text.contains("  pricing.calculate              1        1.5        1.5        1.5        1.5"
+                + "        1.5        1.5\n"), text);
+    }
+}
@@ -0,0 +1,59 @@
+package com.swissre.rental.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalValidatorTest {
+
+    private static final RentalInput VALID = new RentalInput(VehicleType.E_VAN, new BigDecimal("95"),
+            new BigDecimal("20"), true, 3, BigDecimal.ZERO);
+    private static final RentalInput CITY_TOO_FAR = new RentalInput(VehicleType.LARGE_VAN, new BigDecimal("40"),
+            BigDecimal.TEN, false, 0, new BigDecimal("50"));
+    private static final RentalInput BROKEN = new RentalInput(null, new BigDecimal("-1"),
+            null, false, -1, BigDecimal.ZERO);
+
+    @Test
+    void keepsOnlyValidRowsInOrder() {
+        RentalValidator.Result result = RentalValidator.validate(List.of(VALID, CITY_TOO_FAR, VALID, BROKEN));
+
+        assertEquals(4, result.rowCount());
+        assertEquals(2, result.rejectedCount());
+        assertEquals(List.of(VALID.toRental(), VALID.toRental()), result.rentals());
+        assertTrue(result.isValid(0));
+        assertFalse(result.isValid(1));
+        assertEquals(0, result.violations(2));
+    }
+
+    @Test
+    void masksMatchWhatTheConstructorWouldThrow() {
+        RentalValidator.Result result = RentalValidator.validate(List.of(CITY_TOO_FAR, BROKEN));
+
+        assertEquals(RentalViolation.CITY_KILOMETERS_EXCEED_TOTAL.bit(), result.violations(0));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, CITY_TOO_FAR::toRental);
+        assertEquals(result.messages(0).get(0), e.getMessage());
+
+        assertEquals(List.of(
+                "Vehicle Type must not be null",
+                "Energy Consumed must not be null",
+                "Kilometers Driven must not be negative",
+                "Gubrist Tunnel Passages must not be negative"), result.messages(1));
+        NullPointerException npe = assertThrows(NullPointerException.class, BROKEN::toRental);
+        assertEquals(RentalViolation.first(result.violations(1)).message(), npe.getMessage());
+    }
+
+    @Test
+    void emptyBatchHasNoRows() {
+        RentalValidator.Result result = RentalValidator.validate(List.of());
+
+        assertEquals(0, result.rowCount());
+        assertTrue(result.rentals().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> RentalViolation.first(0));
+    }
+}
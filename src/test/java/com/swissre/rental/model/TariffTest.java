@@ -0,0 +1,62 @@
+package com.swissre.rental.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffTest {
+
+    @Test
+    void defaultTariffUsesVehicleTypeRates() {
+        for (VehicleType type : VehicleType.values()) {
+            assertEquals(type.ratePerKm(), Tariff.DEFAULT.ratePerKm(type));
+            assertEquals(type.energyRate(), Tariff.DEFAULT.energyRate(type));
+        }
+        assertEquals(Tariff.DEFAULT_VERSION, Tariff.DEFAULT.version());
+        assertEquals(new BigDecimal("9.00"), Tariff.DEFAULT.vignetteCost());
+        assertEquals(new BigDecimal("2.50"), Tariff.DEFAULT.gubristCostPerPassage());
+        assertEquals(2, Tariff.DEFAULT.gubristMaxPaid());
+    }
+
+    @Test
+    void ratesAreDefensivelyCopied() {
+        Map<VehicleType, BigDecimal> rates = new EnumMap<>(Tariff.DEFAULT.ratesPerKm());
+        Tariff tariff = withRates("copy", rates);
+
+        rates.put(VehicleType.E_VAN, BigDecimal.TEN);
+
+        assertEquals(new BigDecimal("0.68"), tariff.ratePerKm(VehicleType.E_VAN));
+        assertThrows(UnsupportedOperationException.class, () -> tariff.ratesPerKm().put(VehicleType.E_VAN, BigDecimal.ONE));
+    }
+
+    @Test
+    void missingVehicleTypeRateThrows() {
+        Map<VehicleType, BigDecimal> rates = new EnumMap<>(Tariff.DEFAULT.ratesPerKm());
+        rates.remove(VehicleType.LARGE_VAN);
+        assertThrows(IllegalArgumentException.class, () -> withRates("missing", rates));
+    }
+
+    @Test
+    void blankVersionThrows() {
+        assertThrows(IllegalArgumentException.class, () -> withRates(" ", Tariff.DEFAULT.ratesPerKm()));
+    }
+
+    @Test
+    void breakdownWithoutVersionUsesDefault() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.ONE, BigDecimal.ONE, false, 0, BigDecimal.ZERO);
+        CostBreakdown breakdown = new CostBreakdown(rental, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO);
+        assertEquals(Tariff.DEFAULT_VERSION, breakdown.tariffVersion());
+    }
+
+    private static Tariff withRates(String version, Map<VehicleType, BigDecimal> rates) {
+        Tariff base = Tariff.DEFAULT;
+        return new Tariff(version, rates, base.energyRates(), base.vignetteCost(), base.gubristCostPerPassage(),
+                base.gubristMaxPaid(), base.congestionRatePerKm(), base.ecoBonusAmount(), base.ecoBonusMinKm(),
+                base.ecoBonusMaxKwhPer100());
+    }
+}
@@ -0,0 +1,87 @@
+package com.swissre.rental.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TariffWindowsTest {
+
+    private static final BigDecimal FLAT = new BigDecimal("1.00");
+
+    private final TariffWindows windows = TariffWindows.parse("07:00-09:00@2.00, 16:30-18:30@2.50, 22:00-06:00@0.50");
+
+    @Test
+    void looksUpRateOfContainingWindow() {
+        assertEquals(new BigDecimal("2.00"), windows.rateAt(LocalTime.of(7, 0), FLAT));
+        assertEquals(new BigDecimal("2.00"), windows.rateAt(LocalTime.of(8, 59, 59), FLAT));
+        assertEquals(new BigDecimal("2.50"), windows.rateAt(LocalTime.of(17, 0), FLAT));
+    }
+
+    @Test
+    void usesFlatRateOutsideWindows() {
+        assertEquals(FLAT, windows.rateAt(LocalTime.of(9, 0), FLAT));
+        assertEquals(FLAT, windows.rateAt(LocalTime.of(12, 0), FLAT));
+        assertEquals(FLAT, windows.rateAt(LocalTime.of(18, 30), FLAT));
+        assertEquals(FLAT, windows.rateAt(LocalTime.of(6, 0), FLAT));
+        assertEquals(FLAT, TariffWindows.NONE.rateAt(LocalTime.of(8, 0), FLAT));
+    }
+
+    @Test
+    void windowPastMidnightCoversBothEndsOfTheDay() {
+        assertEquals(new BigDecimal("0.50"), windows.rateAt(LocalTime.MIDNIGHT, FLAT));
+        assertEquals(new BigDecimal("0.50"), windows.rateAt(LocalTime.of(5, 59), FLAT));
+        assertEquals(new BigDecimal("0.50"), windows.rateAt(LocalTime.of(22, 0), FLAT));
+        assertEquals(new BigDecimal("0.50"), windows.rateAt(LocalTime.MAX, FLAT));
+    }
+
+    @Test
+    void adjacentWindowsAndWholeDayAreAllowed() {
+        TariffWindows adjacent = TariffWindows.parse("00:00-12:00@1.50,12:00-00:00@3.00");
+
+        assertEquals(new BigDecimal("1.50"), adjacent.rateAt(LocalTime.of(11, 59), FLAT));
+        assertEquals(new BigDecimal("3.00"), adjacent.rateAt(LocalTime.NOON, FLAT));
+        assertEquals(new BigDecimal("3.00"), adjacent.rateAt(LocalTime.MAX, FLAT));
+    }
+
+    @Test
+    void matchesLinearScanAtEverySecond() {
+        List<TariffWindow> list = windows.windows();
+        for (int second = 0; second < 24 * 60 * 60; second++) {
+            LocalTime time = LocalTime.ofSecondOfDay(second);
+            BigDecimal expected = FLAT;
+            for (TariffWindow window : list) {
+                boolean inside = window.from().isBefore(window.to())
+                        ? !time.isBefore(window.from()) && time.isBefore(window.to())
+                        : !time.isBefore(window.from()) || time.isBefore(window.to());
+                if (inside) {
+                    expected = window.rate();
+                }
+            }
+            assertEquals(expected, windows.rateAt(time, FLAT), time.toString());
+        }
+    }
+
+    @Test
+    void overlappingWindowsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> TariffWindows.parse("07:00-09:00@2.00,08:00-10:00@3.00"));
+        assertThrows(IllegalArgumentException.class, () -> TariffWindows.parse("22:00-06:00@0.50,05:00-07:00@1.00"));
+    }
+
+    @Test
+    void invalidWindowsThrow() {
+        assertThrows(IllegalArgumentException.class, () -> TariffWindow.parse("07:00@2.00"));
+        assertThrows(IllegalArgumentException.class, () -> TariffWindow.parse("07:00-07:00@2.00"));
+        assertThrows(IllegalArgumentException.class, () -> TariffWindow.parse("07:00-09:00@-1"));
+    }
+
+    @Test
+    void blankTextMeansNoWindows() {
+        assertSame(TariffWindows.NONE, TariffWindows.parse(""));
+        assertTrue(TariffWindows.NONE.isEmpty());
+        assertEquals(windows, TariffWindows.parse(windows.windows().toString().replaceAll("[\\[\\]]", "")));
+    }
+}
@@ -3,6 +3,8 @@ package com.swissre.rental.model;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -68,6 +70,19 @@ class VehicleRentalTest {
                         BigDecimal.ZERO, false, 0, BigDecimal.ZERO));
     }
 
+    @Test
+    void violationsReportsEveryBrokenInvariantWithoutThrowing() {
+        int violations = VehicleRental.violations(VehicleType.LARGE_VAN, new BigDecimal("40"),
+                null, -2, new BigDecimal("50"));
+
+        assertEquals(RentalViolation.MISSING_ENERGY.bit()
+                | RentalViolation.CITY_KILOMETERS_EXCEED_TOTAL.bit()
+                | RentalViolation.NEGATIVE_GUBRIST_PASSAGES.bit(), violations);
+        NullPointerException e = assertThrows(NullPointerException.class, () ->
+                new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("40"), null, false, -2, new BigDecimal("50")));
+        assertEquals(RentalViolation.first(violations).message(), e.getMessage());
+    }
+
     @Test
     void zeroKilometersIsValid() {
         assertDoesNotThrow(() ->
@@ -81,4 +96,44 @@ class VehicleRentalTest {
                 new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("30"),
                         BigDecimal.TEN, false, 0, new BigDecimal("30")));
     }
+
+    @Test
+    void untimedRentalHasNoEvents() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 2,
+                BigDecimal.ONE);
+
+        assertEquals(List.of(), rental.gubristPassageTimes());
+        assertEquals(List.of(), rental.citySegments());
+        assertFalse(rental.isTimed());
+    }
+
+    @Test
+    void timedEventsAreKeptInTimeOrder() {
+        LocalDateTime morning = LocalDateTime.of(2026, 10, 18, 7, 45);
+        LocalDateTime evening = LocalDateTime.of(2026, 10, 18, 17, 10);
+        VehicleRental rental = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("60"), BigDecimal.TEN, false,
+                2, new BigDecimal("12.5"), List.of(evening, morning),
+                List.of(new CitySegment(evening, new BigDecimal("4.5")), new CitySegment(morning, new BigDecimal("8"))));
+
+        assertEquals(List.of(morning, evening), rental.gubristPassageTimes());
+        assertEquals(morning, rental.citySegments().get(0).start());
+        assertTrue(rental.isTimed());
+    }
+
+    @Test
+    void passageTimesMustMatchPassages() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 18, 7, 45);
+        assertThrows(IllegalArgumentException.class, () ->
+                new VehicleRental(VehicleType.COMPACT_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 2, BigDecimal.ZERO,
+                        List.of(time), List.of()));
+    }
+
+    @Test
+    void citySegmentsMustAddUpToCityKilometers() {
+        LocalDateTime time = LocalDateTime.of(2026, 10, 18, 7, 45);
+        assertThrows(IllegalArgumentException.class, () ->
+                new VehicleRental(VehicleType.COMPACT_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 0, new BigDecimal("5"),
+                        List.of(), List.of(new CitySegment(time, new BigDecimal("4")))));
+        assertThrows(IllegalArgumentException.class, () -> new CitySegment(time, new BigDecimal("-1")));
+    }
 }
@@ -0,0 +1,94 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchCostCalculatorTest {
+
+    private final CostCalculator reference = new CostCalculator();
+    private final BatchCostCalculator calculator = new BatchCostCalculator();
+
+    @Test
+    void pdfExampleColumns() {
+        RentalBatch batch = RentalBatch.of(List.of(
+                new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"), new BigDecimal("20"), true, 3, BigDecimal.ZERO),
+                new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"), new BigDecimal("5"), false, 0, BigDecimal.ZERO),
+                new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("180"), new BigDecimal("15"), false, 0, new BigDecimal("30"))
+        ));
+
+        BatchBreakdown result = calculator.price(batch);
+
+        assertEquals(3, result.size());
+        assertEquals(6460, result.distanceCentimes(0));
+        assertEquals(600, result.energyCentimes(0));
+        assertEquals(900, result.vignetteCentimes(0));
+        assertEquals(500, result.gubristCentimes(0));
+        assertEquals(-1000, result.ecoBonusCentimes(0));
+        assertEquals(4255, result.subtotalCentimes(1));
+        assertEquals(3000, result.congestionCentimes(2));
+        assertEquals(new BigDecimal("365.40"), result.grandTotal());
+    }
+
+    @Test
+    void matchesReferenceForRandomBatch() {
+        List<VehicleRental> rentals = randomRentals(50_000);
+        BatchBreakdown result = calculator.price(RentalBatch.of(rentals));
+        DailySummary expected = reference.calculateDailySummary(rentals);
+
+        assertEquals(expected.grandTotal(), result.grandTotal());
+        for (int i = 0; i < rentals.size(); i++) {
+            CostBreakdown want = expected.breakdowns().get(i);
+            CostBreakdown got = result.toCostBreakdown(i);
+            assertEquals(want.distanceCost(), got.distanceCost());
+            assertEquals(want.energyCost(), got.energyCost());
+            assertEquals(want.vignetteCost(), got.vignetteCost());
+            assertEquals(want.gubristCost(), got.gubristCost());
+            assertEquals(want.congestionCost(), got.congestionCost());
+            assertEquals(want.ecoBonus(), got.ecoBonus());
+            assertEquals(want.subtotal(), got.subtotal());
+            assertEquals(0, want.rental().kilometersDriven().compareTo(got.rental().kilometersDriven()));
+        }
+    }
+
+    @Test
+    void toDailySummaryConvertsAllRows() {
+        List<VehicleRental> rentals = randomRentals(100);
+        DailySummary summary = calculator.price(RentalBatch.of(rentals)).toDailySummary();
+
+        assertEquals(100, summary.breakdowns().size());
+        assertEquals(reference.calculateDailySummary(rentals).grandTotal(), summary.grandTotal());
+    }
+
+    @Test
+    void emptyBatch() {
+        BatchBreakdown result = calculator.price(new RentalBatch());
+        assertEquals(0, result.size());
+        assertEquals(new BigDecimal("0.00"), result.grandTotal());
+        assertTrue(result.toDailySummary().breakdowns().isEmpty());
+    }
+
+    private static List<VehicleRental> randomRentals(int count) {
+        Random random = new Random(99L);
+        VehicleType[] types = VehicleType.values();
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal km = BigDecimal.valueOf(random.nextInt(400_000), random.nextInt(4));
+            rentals.add(new VehicleRental(types[random.nextInt(types.length)], km,
+                    BigDecimal.valueOf(random.nextInt(60_000), random.nextInt(4)), random.nextBoolean(),
+                    random.nextInt(5), km.divide(BigDecimal.TWO, 3, RoundingMode.DOWN)));
+        }
+        return rentals;
+    }
+}
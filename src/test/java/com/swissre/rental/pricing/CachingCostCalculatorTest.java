@@ -0,0 +1,183 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.metrics.MetricsSnapshot;
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CachingCostCalculatorTest {
+
+    private final CostCalculator reference = new CostCalculator();
+
+    @Test
+    void repeatedRentalIsServedFromCache() {
+        CachingCostCalculator calculator = new CachingCostCalculator(100);
+        VehicleRental rental = rental("95", "20", 3);
+
+        CostBreakdown first = calculator.calculate(rental);
+        CostBreakdown second = calculator.calculate(rental);
+
+        assertSame(first, second);
+        CachingCostCalculator.CacheStats stats = calculator.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.size());
+        assertEquals(0.5, stats.hitRate(), 0.0);
+    }
+
+    @Test
+    void cacheHitsAreRecordedInPricingMetrics() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        CachingCostCalculator calculator = new CachingCostCalculator(new TariffRegistry(), metrics, 100);
+        VehicleRental rental = rental("95", "20", 3);
+
+        for (int i = 0; i < 1_000; i++) {
+            calculator.calculate(rental);
+        }
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(999, calculator.stats().hits());
+        assertEquals(1_000L, (long) snapshot.counters().get("pricing.rentals.E_VAN"));
+        assertEquals(1_000L, (long) snapshot.counters().get("pricing.charged.VIGNETTE"));
+        assertEquals(1_000L, (long) snapshot.counters().get("pricing.charged.GUBRIST"));
+        assertTrue(snapshot.histograms().get("pricing.calculate").count() > 1);
+    }
+
+    @Test
+    void numericallyEqualRentalsShareEntryButKeepOwnRental() {
+        CachingCostCalculator calculator = new CachingCostCalculator(100);
+        calculator.calculate(rental("95", "20", 3));
+
+        VehicleRental rescaled = rental("95.000", "20.0", 7);
+        CostBreakdown breakdown = calculator.calculate(rescaled);
+
+        assertEquals(1, calculator.stats().hits());
+        assertSame(rescaled, breakdown.rental());
+        assertEquals(reference.calculate(rescaled), breakdown);
+    }
+
+    @Test
+    void newTariffDoesNotHitOldEntries() {
+        TariffRegistry registry = new TariffRegistry();
+        CachingCostCalculator calculator = new CachingCostCalculator(registry, 100);
+        VehicleRental rental = rental("95", "20", 3);
+        calculator.calculate(rental);
+
+        Tariff next = new Tariff("next", Tariff.DEFAULT.ratesPerKm(), Tariff.DEFAULT.energyRates(),
+                new BigDecimal("12.00"), Tariff.DEFAULT.gubristCostPerPassage(), 2,
+                Tariff.DEFAULT.congestionRatePerKm(), Tariff.DEFAULT.ecoBonusAmount(),
+                Tariff.DEFAULT.ecoBonusMinKm(), Tariff.DEFAULT.ecoBonusMaxKwhPer100());
+        registry.publish(next);
+        CostBreakdown breakdown = calculator.calculate(rental);
+
+        assertEquals("next", breakdown.tariffVersion());
+        assertEquals(new BigDecimal("12.00"), breakdown.vignetteCost());
+        assertEquals(0, calculator.stats().hits());
+    }
+
+    @Test
+    void timedRentalsInDifferentWindowsAreNotServedFromCache() {
+        Tariff base = Tariff.DEFAULT;
+        Tariff rushHour = new Tariff("rush-hour", base.ratesPerKm(), base.energyRates(), base.vignetteCost(),
+                base.gubristCostPerPassage(), base.gubristMaxPaid(), base.congestionRatePerKm(), base.ecoBonusAmount(),
+                base.ecoBonusMinKm(), base.ecoBonusMaxKwhPer100(), TariffWindows.parse("07:00-09:00@4.00"),
+                TariffWindows.parse("07:00-09:00@2.00"));
+        CachingCostCalculator calculator = new CachingCostCalculator(new TariffRegistry(rushHour), 100);
+        CostCalculator uncached = new CostCalculator(new TariffRegistry(rushHour));
+        VehicleRental morning = timedRental(LocalDateTime.of(2026, 10, 18, 8, 0));
+        VehicleRental noon = timedRental(LocalDateTime.of(2026, 10, 18, 12, 0));
+
+        CostBreakdown first = calculator.calculate(morning);
+        CostBreakdown second = calculator.calculate(noon);
+
+        assertEquals(uncached.calculate(morning), first);
+        assertEquals(uncached.calculate(noon), second);
+        assertEquals(new BigDecimal("4.00"), first.gubristCost());
+        assertEquals(new BigDecimal("2.50"), second.gubristCost());
+        assertEquals(new BigDecimal("8.00"), first.congestionCost());
+        assertEquals(new BigDecimal("4.00"), second.congestionCost());
+        assertEquals(0, calculator.stats().hits());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaximumSize() {
+        CachingCostCalculator calculator = new CachingCostCalculator(32);
+        for (int km = 0; km < 1_000; km++) {
+            calculator.calculate(rental(Integer.toString(km), "1", 0));
+        }
+
+        CachingCostCalculator.CacheStats stats = calculator.stats();
+        assertTrue(stats.size() <= 32);
+        assertEquals(1_000 - stats.size(), stats.evictions());
+    }
+
+    @Test
+    void dailySummaryMatchesUncachedCalculator() {
+        List<VehicleRental> rentals = repetitiveRentals(20_000);
+        CachingCostCalculator calculator = new CachingCostCalculator(1_000);
+
+        assertEquals(reference.calculateDailySummary(rentals), calculator.calculateDailySummary(rentals));
+        assertTrue(calculator.stats().hitRate() > 0.9);
+    }
+
+    @Test
+    void worksWithParallelSummary() {
+        List<VehicleRental> rentals = repetitiveRentals(20_000);
+        CachingCostCalculator calculator = new CachingCostCalculator(1_000);
+        ParallelSummaryCalculator parallel = new ParallelSummaryCalculator(calculator, ForkJoinPool.commonPool(), 256);
+
+        assertEquals(reference.calculateDailySummary(rentals), parallel.calculateDailySummary(rentals));
+        assertEquals(rentals.size(), calculator.stats().requests());
+    }
+
+    @Test
+    void clearEmptiesCache() {
+        CachingCostCalculator calculator = new CachingCostCalculator(10);
+        calculator.calculate(rental("95", "20", 3));
+        calculator.clear();
+        assertEquals(0, calculator.stats().size());
+    }
+
+    @Test
+    void rejectsNonPositiveSize() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingCostCalculator(0));
+    }
+
+    private static List<VehicleRental> repetitiveRentals(int count) {
+        Random random = new Random(3L);
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int route = random.nextInt(50);
+            rentals.add(new VehicleRental(VehicleType.values()[route % 3], BigDecimal.valueOf(40 + route * 5),
+                    BigDecimal.valueOf(5 + route % 7), route % 2 == 0, route % 4, BigDecimal.valueOf(route % 10)));
+        }
+        return rentals;
+    }
+
+    private static VehicleRental timedRental(LocalDateTime time) {
+        return new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("60"), BigDecimal.TEN, false, 1,
+                new BigDecimal("4"), List.of(time), List.of(new CitySegment(time, new BigDecimal("4"))));
+    }
+
+    private static VehicleRental rental(String km, String energy, int gubrist) {
+        return new VehicleRental(VehicleType.E_VAN, new BigDecimal(km), new BigDecimal(energy), true, gubrist,
+                BigDecimal.ZERO);
+    }
+}
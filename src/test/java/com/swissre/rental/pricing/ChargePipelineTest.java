@@ -0,0 +1,201 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChargePipelineTest {
+
+    private static final BigDecimal ZERO = new BigDecimal("0.00");
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    @Test
+    void standardRulesMatchFixedFormulasForRandomRentals() {
+        Random random = new Random(20261018L);
+        VehicleType[] types = VehicleType.values();
+
+        for (int i = 0; i < 100_000; i++) {
+            BigDecimal km = random.nextInt(8) == 0 ? BigDecimal.ZERO : randomQuantity(random);
+            BigDecimal energy = random.nextInt(8) == 0 ? BigDecimal.ZERO : randomQuantity(random);
+            BigDecimal cityKm = km.multiply(BigDecimal.valueOf(random.nextInt(101)))
+                    .divide(BigDecimal.valueOf(100), random.nextInt(5), RoundingMode.DOWN);
+            VehicleRental rental = new VehicleRental(types[random.nextInt(types.length)], km, energy,
+                    random.nextBoolean(), random.nextInt(6), cityKm);
+
+            assertEquals(reference(rental, Tariff.DEFAULT), calculator.calculate(rental), rental.toString());
+        }
+    }
+
+    @Test
+    void standardRulesMatchFixedFormulasAtEdges() {
+        for (VehicleType type : VehicleType.values()) {
+            for (String km : List.of("0", "0.000", "80", "80.001", "100")) {
+                for (String energy : List.of("0", "17.6", "22", "21.99")) {
+                    VehicleRental rental = new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy),
+                            true, 3, BigDecimal.ZERO);
+                    assertEquals(reference(rental, Tariff.DEFAULT), calculator.calculate(rental), rental.toString());
+                }
+            }
+        }
+    }
+
+    @Test
+    void componentsWithoutApplicableRuleAreZero() {
+        VehicleRental rental = rental(VehicleType.COMPACT_VAN, "0", "0", false, 0, "0");
+        CostBreakdown result = calculator.calculate(rental);
+
+        assertEquals(ZERO, result.distanceCost());
+        assertEquals(ZERO, result.energyCost());
+        assertEquals(ZERO, result.vignetteCost());
+        assertEquals(ZERO, result.gubristCost());
+        assertEquals(ZERO, result.congestionCost());
+        assertEquals(ZERO, result.ecoBonus());
+        assertEquals(ZERO, result.subtotal());
+    }
+
+    @Test
+    void customRuleAddsToItsComponentForItsVehicleTypes() {
+        List<ChargeRule> rules = new ArrayList<>(List.of(StandardChargeRule.values()));
+        rules.add(new FixedRule(ChargeComponent.DISTANCE, EnumSet.of(VehicleType.LARGE_VAN),
+                EnumSet.noneOf(ChargeRule.Input.class), "5.00"));
+        CostCalculator custom = new CostCalculator(new TariffRegistry(), new MetricsRegistry(), rules);
+
+        VehicleRental large = rental(VehicleType.LARGE_VAN, "180", "15", false, 0, "0");
+        VehicleRental compact = rental(VehicleType.COMPACT_VAN, "40", "5", false, 0, "0");
+
+        assertEquals(new BigDecimal("194.00"), custom.calculate(large).distanceCost());
+        assertEquals(calculator.calculate(large).subtotal().add(new BigDecimal("5.00")),
+                custom.calculate(large).subtotal());
+        assertEquals(calculator.calculate(compact), custom.calculate(compact));
+    }
+
+    @Test
+    void rulesAreOnlyCalledWhenTheirVehicleTypeAndInputsApply() {
+        FixedRule eVanCity = new FixedRule(ChargeComponent.CONGESTION, EnumSet.of(VehicleType.E_VAN),
+                EnumSet.of(ChargeRule.Input.CITY_KILOMETERS), "2.00");
+        FixedRule anyVignette = new FixedRule(ChargeComponent.VIGNETTE, EnumSet.allOf(VehicleType.class),
+                EnumSet.of(ChargeRule.Input.MOTORWAY_VIGNETTE), "1.00");
+        CostCalculator custom = new CostCalculator(new TariffRegistry(), new MetricsRegistry(),
+                List.of(eVanCity, anyVignette));
+
+        custom.calculate(rental(VehicleType.LARGE_VAN, "50", "5", true, 0, "20"));
+        custom.calculate(rental(VehicleType.E_VAN, "50", "5", false, 0, "0"));
+        assertEquals(0, eVanCity.calls);
+        assertEquals(1, anyVignette.calls);
+
+        CostBreakdown charged = custom.calculate(rental(VehicleType.E_VAN, "50", "5", true, 0, "20"));
+        assertEquals(1, eVanCity.calls);
+        assertEquals(2, anyVignette.calls);
+        assertEquals(new BigDecimal("2.00"), charged.congestionCost());
+        assertEquals(new BigDecimal("1.00"), charged.vignetteCost());
+        assertEquals(new BigDecimal("3.00"), charged.subtotal());
+    }
+
+    @Test
+    void pipelineHoldsOnlyApplicableRules() {
+        ChargePipeline pipeline = new ChargePipeline(List.of(StandardChargeRule.values()));
+        int all = (1 << ChargeRule.Input.values().length) - 1;
+        int kilometersOnly = ChargePipeline.bit(ChargeRule.Input.KILOMETERS);
+
+        assertEquals(0, pipeline.ruleCount(VehicleType.E_VAN, 0));
+        assertEquals(1, pipeline.ruleCount(VehicleType.COMPACT_VAN, kilometersOnly));
+        assertEquals(2, pipeline.ruleCount(VehicleType.E_VAN, kilometersOnly));
+        assertEquals(5, pipeline.ruleCount(VehicleType.LARGE_VAN, all));
+        assertEquals(6, pipeline.ruleCount(VehicleType.E_VAN, all));
+    }
+
+    /** The pricing formulas as they were before charges became rules. */
+    private static CostBreakdown reference(VehicleRental rental, Tariff tariff) {
+        VehicleType type = rental.vehicleType();
+        BigDecimal distance = round(rental.kilometersDriven().multiply(tariff.ratePerKm(type)));
+        BigDecimal energy = round(rental.energyConsumed().multiply(tariff.energyRate(type)));
+        BigDecimal vignette = rental.motorwayVignette() ? round(tariff.vignetteCost()) : ZERO;
+        int paidPassages = Math.min(rental.gubristTunnelPassages(), tariff.gubristMaxPaid());
+        BigDecimal gubrist = round(tariff.gubristCostPerPassage().multiply(BigDecimal.valueOf(paidPassages)));
+        BigDecimal congestion = round(rental.cityKilometers().multiply(tariff.congestionRatePerKm()));
+
+        BigDecimal ecoBonus = ZERO;
+        if (type == VehicleType.E_VAN && rental.kilometersDriven().compareTo(tariff.ecoBonusMinKm()) > 0) {
+            BigDecimal kwhPer100 = rental.energyConsumed().multiply(new BigDecimal("100"))
+                    .divide(rental.kilometersDriven(), 10, RoundingMode.HALF_UP);
+            if (kwhPer100.compareTo(tariff.ecoBonusMaxKwhPer100()) < 0) {
+                ecoBonus = round(tariff.ecoBonusAmount());
+            }
+        }
+
+        BigDecimal subtotal = distance.add(energy).add(vignette).add(gubrist).add(congestion).add(ecoBonus);
+        return new CostBreakdown(rental, distance, energy, vignette, gubrist, congestion, ecoBonus, subtotal,
+                tariff.version());
+    }
+
+    private static BigDecimal round(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal randomQuantity(Random random) {
+        long unscaled = switch (random.nextInt(3)) {
+            case 0 -> random.nextInt(1_000);
+            case 1 -> random.nextInt(100_000);
+            default -> random.nextInt(10_000_000);
+        };
+        return BigDecimal.valueOf(unscaled, random.nextInt(4));
+    }
+
+    private static VehicleRental rental(VehicleType type, String km, String energy,
+                                        boolean vignette, int gubrist, String cityKm) {
+        return new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy),
+                vignette, gubrist, new BigDecimal(cityKm));
+    }
+
+    private static final class FixedRule implements ChargeRule {
+
+        private final ChargeComponent component;
+        private final Set<VehicleType> vehicleTypes;
+        private final Set<Input> requiredInputs;
+        private final BigDecimal amount;
+        private int calls;
+
+        FixedRule(ChargeComponent component, Set<VehicleType> vehicleTypes, Set<Input> requiredInputs, String amount) {
+            this.component = component;
+            this.vehicleTypes = vehicleTypes;
+            this.requiredInputs = requiredInputs;
+            this.amount = new BigDecimal(amount);
+        }
+
+        @Override
+        public ChargeComponent component() {
+            return component;
+        }
+
+        @Override
+        public Set<VehicleType> vehicleTypes() {
+            return vehicleTypes;
+        }
+
+        @Override
+        public Set<Input> requiredInputs() {
+            return requiredInputs;
+        }
+
+        @Override
+        public BigDecimal charge(VehicleRental rental, Tariff tariff) {
+            calls++;
+            return amount;
+        }
+    }
+}
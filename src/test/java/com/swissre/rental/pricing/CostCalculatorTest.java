@@ -1,12 +1,18 @@
 package com.swissre.rental.pricing;
 
+import com.swissre.rental.metrics.MetricsRegistry;
+import com.swissre.rental.metrics.MetricsSnapshot;
+import com.swissre.rental.model.CitySegment;
 import com.swissre.rental.model.CostBreakdown;
 import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
 import com.swissre.rental.model.VehicleRental;
 import com.swissre.rental.model.VehicleType;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -267,9 +273,101 @@ class CostCalculatorTest {
         assertEquals(new BigDecimal("0.00"), result.ecoBonus());
     }
 
+    // --- Metrics ---
+
+    @Test
+    void recordsRentalsPerTypeAndCharge() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        CostCalculator metered = new CostCalculator(new TariffRegistry(), metrics);
+
+        metered.calculateDailySummary(List.of(
+                rental(VehicleType.E_VAN, "95", "20", true, 3, "0"),
+                rental(VehicleType.COMPACT_VAN, "40", "5", false, 0, "0")));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1L, (long) snapshot.counters().get("pricing.rentals.E_VAN"));
+        assertEquals(1L, (long) snapshot.counters().get("pricing.rentals.COMPACT_VAN"));
+        assertEquals(0L, (long) snapshot.counters().get("pricing.rentals.LARGE_VAN"));
+        assertEquals(1L, (long) snapshot.counters().get("pricing.charged.VIGNETTE"));
+        assertEquals(1L, (long) snapshot.counters().get("pricing.charged.GUBRIST"));
+        assertEquals(0L, (long) snapshot.counters().get("pricing.charged.CONGESTION"));
+        assertTrue(snapshot.histograms().get("pricing.calculate").count() <= 2);
+        assertEquals(1, snapshot.histograms().get("pricing.dailySummary").count());
+    }
+
+    @Test
+    void calculatorsSharingARegistryShareCounters() {
+        MetricsRegistry metrics = new MetricsRegistry();
+        CostCalculator first = new CostCalculator(new TariffRegistry(), metrics);
+        CostCalculator second = new CostCalculator(new TariffRegistry(), metrics);
+
+        first.calculate(rental(VehicleType.LARGE_VAN, "180", "15", false, 0, "30"));
+        second.calculate(rental(VehicleType.LARGE_VAN, "100", "10", false, 0, "0"));
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(2L, (long) snapshot.counters().get("pricing.rentals.LARGE_VAN"));
+        assertEquals(1L, (long) snapshot.counters().get("pricing.charged.CONGESTION"));
+    }
+
     private VehicleRental rental(VehicleType type, String km, String energy,
                                  boolean vignette, int gubrist, String cityKm) {
         return new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy),
                 vignette, gubrist, new BigDecimal(cityKm));
     }
+
+    // --- Time-of-day windows ---
+
+    @Test
+    void timedPassagesArePricedAtTheirWindowUpToMaxPaid() {
+        VehicleRental rental = timedRental(List.of(at(7, 30), at(12, 0), at(8, 15)), List.of());
+
+        // 07:30 and 08:15 are the first two passages, both at rush hour; 12:00 is not paid
+        assertEquals(new BigDecimal("8.00"), rushHourCalculator().calculate(rental).gubristCost());
+    }
+
+    @Test
+    void citySegmentsArePricedAtTheRateOfTheirStart() {
+        VehicleRental rental = timedRental(List.of(), List.of(
+                new CitySegment(at(7, 15), new BigDecimal("4")),
+                new CitySegment(at(12, 0), new BigDecimal("3.333")),
+                new CitySegment(at(23, 0), new BigDecimal("1"))));
+
+        // 4 x 2.00 + 3.333 x 1.00 + 1 x 0.50 = 11.833, rounded once
+        CostBreakdown result = rushHourCalculator().calculate(rental);
+        assertEquals(new BigDecimal("11.83"), result.congestionCost());
+        assertEquals(result.distanceCost().add(result.energyCost()).add(result.congestionCost()), result.subtotal());
+    }
+
+    @Test
+    void flatRatesApplyWithoutWindowsOrWithoutTimes() {
+        VehicleRental timed = timedRental(List.of(at(7, 30), at(8, 15)),
+                List.of(new CitySegment(at(7, 15), new BigDecimal("4")), new CitySegment(at(8, 0), new BigDecimal("1"))));
+        VehicleRental untimed = new VehicleRental(timed.vehicleType(), timed.kilometersDriven(),
+                timed.energyConsumed(), false, 2, timed.cityKilometers());
+
+        CostBreakdown flat = calculator.calculate(untimed);
+        assertEquals(new BigDecimal("5.00"), flat.gubristCost());
+        assertEquals(new BigDecimal("5.00"), flat.congestionCost());
+        assertEquals(flat.subtotal(), calculator.calculate(timed).subtotal());
+        assertEquals(flat.subtotal(), rushHourCalculator().calculate(untimed).subtotal());
+    }
+
+    private static CostCalculator rushHourCalculator() {
+        Tariff base = Tariff.DEFAULT;
+        Tariff rushHour = new Tariff("rush-hour", base.ratesPerKm(), base.energyRates(), base.vignetteCost(),
+                base.gubristCostPerPassage(), base.gubristMaxPaid(), base.congestionRatePerKm(), base.ecoBonusAmount(),
+                base.ecoBonusMinKm(), base.ecoBonusMaxKwhPer100(), TariffWindows.parse("07:00-09:00@4.00"),
+                TariffWindows.parse("07:00-09:00@2.00,22:00-06:00@0.50"));
+        return new CostCalculator(new TariffRegistry(rushHour));
+    }
+
+    private static VehicleRental timedRental(List<LocalDateTime> passages, List<CitySegment> segments) {
+        BigDecimal cityKm = segments.stream().map(CitySegment::kilometers).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("60"), BigDecimal.TEN, false, passages.size(),
+                cityKm, passages, segments);
+    }
+
+    private static LocalDateTime at(int hour, int minute) {
+        return LocalDateTime.of(2026, 10, 18, hour, minute);
+    }
 }
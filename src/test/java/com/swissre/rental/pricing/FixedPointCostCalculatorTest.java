@@ -0,0 +1,183 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CitySegment;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedPointCostCalculatorTest {
+
+    private static final String[] QUANTITIES = {
+            "0", "0.000", "0.001", "0.004", "0.005", "0.006", "0.5", "1", "1.005", "1.015", "2.675",
+            "12.5", "17.59", "20", "22", "40", "79.999", "80", "80.0", "80.001", "80.01", "95",
+            "99.999", "100", "100.00", "123.456", "180", "999.995", "1000", "123456.789", "1000000000"
+    };
+
+    private final CostCalculator reference = new CostCalculator();
+    private final FixedPointCostCalculator calculator = new FixedPointCostCalculator();
+
+    @Test
+    void matchesReferenceOverQuantityGrid() {
+        for (VehicleType type : VehicleType.values()) {
+            for (String km : QUANTITIES) {
+                for (String energy : QUANTITIES) {
+                    for (int passages = 0; passages <= 3; passages++) {
+                        assertSameAsReference(rental(type, km, energy, passages % 2 == 0, passages, "0"));
+                        assertSameAsReference(rental(type, km, energy, passages % 2 == 1, passages, km));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void matchesReferenceForRandomRentals() {
+        Random random = new Random(20260213L);
+        VehicleType[] types = VehicleType.values();
+
+        for (int i = 0; i < 200_000; i++) {
+            BigDecimal km = randomQuantity(random);
+            BigDecimal energy = randomQuantity(random);
+            BigDecimal cityKm = km.multiply(BigDecimal.valueOf(random.nextInt(101)))
+                    .divide(BigDecimal.valueOf(100), random.nextInt(5), RoundingMode.DOWN);
+            VehicleRental rental = new VehicleRental(types[random.nextInt(types.length)], km, energy,
+                    random.nextBoolean(), random.nextInt(6), cityKm);
+
+            assertSameAsReference(rental);
+        }
+    }
+
+    @Test
+    void matchesReferenceAcrossEcoBonusRatioBoundary() {
+        for (long kmMilli = 80_001; kmMilli <= 200_000; kmMilli += 7) {
+            long boundary = kmMilli * 22 / 100;
+            for (long energyMilli = boundary - 2; energyMilli <= boundary + 2; energyMilli++) {
+                assertSameAsReference(new VehicleRental(VehicleType.E_VAN, BigDecimal.valueOf(kmMilli, 3),
+                        BigDecimal.valueOf(energyMilli, 3), false, 0, BigDecimal.ZERO));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // 22 - kWh/100km is below the 10-digit rounding step, so the ratio rounds up to 22
+            "40000000.041, 8800000.009, 0.00",
+            "39999999.991, 8799999.998, -10.00",
+            "100, 21.99999, -10.00"
+    })
+    void ecoBonusHonoursRatioRounding(String km, String energy, String expected) {
+        VehicleRental rental = rental(VehicleType.E_VAN, km, energy, false, 0, "0");
+        assertEquals(new BigDecimal(expected), calculator.calculate(rental).ecoBonus());
+        assertSameAsReference(rental);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "95.0001, 20, 0",
+            "95, 20.12345678, 0",
+            "1000000000.001, 20, 0",
+            "123456789012345678, 5, 1000"
+    })
+    void delegatesUnrepresentableInputsToReference(String km, String energy, String cityKm) {
+        assertSameAsReference(rental(VehicleType.E_VAN, km, energy, true, 3, cityKm));
+        assertSameAsReference(rental(VehicleType.LARGE_VAN, km, energy, false, 1, cityKm));
+    }
+
+    @Test
+    void delegatesTimedRentalsWhenTariffHasWindows() {
+        Tariff base = Tariff.DEFAULT;
+        Tariff rushHour = new Tariff("rush-hour", base.ratesPerKm(), base.energyRates(), base.vignetteCost(),
+                base.gubristCostPerPassage(), base.gubristMaxPaid(), base.congestionRatePerKm(), base.ecoBonusAmount(),
+                base.ecoBonusMinKm(), base.ecoBonusMaxKwhPer100(), TariffWindows.parse("07:00-09:00@4.00"),
+                TariffWindows.parse("07:00-09:00@2.00"));
+        FixedPointCostCalculator windowed = new FixedPointCostCalculator(rushHour);
+        CostCalculator windowedReference = new CostCalculator(new TariffRegistry(rushHour));
+        LocalDateTime rushHourStart = LocalDateTime.of(2026, 10, 18, 7, 30);
+        VehicleRental rental = new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"), new BigDecimal("5"),
+                false, 1, new BigDecimal("3"), List.of(rushHourStart),
+                List.of(new CitySegment(rushHourStart, new BigDecimal("3"))));
+
+        CostBreakdown expected = windowedReference.calculate(rental);
+        assertEquals(new BigDecimal("4.00"), expected.gubristCost());
+        assertEquals(expected, windowed.calculate(rental));
+        assertEquals(expected.subtotal().movePointRight(2).longValueExact(), windowed.subtotalCentimes(rental));
+        assertEquals(reference.calculate(rental), calculator.calculate(rental));
+    }
+
+    @Test
+    void subtotalCentimesMatchesBreakdownSubtotal() {
+        VehicleRental rental = rental(VehicleType.E_VAN, "95", "20", true, 3, "0");
+        assertEquals(7460L, calculator.subtotalCentimes(rental));
+    }
+
+    @Test
+    void dailySummaryMatchesReference() {
+        List<VehicleRental> rentals = new ArrayList<>();
+        Random random = new Random(42L);
+        for (int i = 0; i < 5_000; i++) {
+            BigDecimal km = randomQuantity(random);
+            rentals.add(new VehicleRental(VehicleType.values()[i % 3], km, randomQuantity(random),
+                    random.nextBoolean(), random.nextInt(4), km.divide(BigDecimal.TWO)));
+        }
+
+        DailySummary expected = reference.calculateDailySummary(rentals);
+        DailySummary actual = calculator.calculateDailySummary(rentals);
+
+        assertEquals(expected, actual);
+        assertEquals(expected.grandTotal().movePointRight(2).longValueExact(), calculator.grandTotalCentimes(rentals));
+    }
+
+    @Test
+    void dailySummaryEmptyList() {
+        assertEquals(reference.calculateDailySummary(List.of()), calculator.calculateDailySummary(List.of()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0, 0",
+            "1.5, 1500",
+            "80.010, 80010",
+            "1000000000, 1000000000000",
+            "0.0001, -1",
+            "1000000000.001, -1"
+    })
+    void toMilliConvertsOrRejects(String value, long expected) {
+        assertEquals(expected, FixedPointCostCalculator.toMilli(new BigDecimal(value)));
+    }
+
+    private void assertSameAsReference(VehicleRental rental) {
+        CostBreakdown expected = reference.calculate(rental);
+        assertEquals(expected, calculator.calculate(rental), rental.toString());
+    }
+
+    private static BigDecimal randomQuantity(Random random) {
+        long unscaled = switch (random.nextInt(4)) {
+            case 0 -> random.nextInt(1_000);
+            case 1 -> random.nextInt(100_000);
+            case 2 -> random.nextInt(10_000_000);
+            default -> Math.abs(random.nextLong() % 10_000_000_000_000L);
+        };
+        return BigDecimal.valueOf(unscaled, random.nextInt(6));
+    }
+
+    private VehicleRental rental(VehicleType type, String km, String energy,
+                                 boolean vignette, int gubrist, String cityKm) {
+        return new VehicleRental(type, new BigDecimal(km), new BigDecimal(energy),
+                vignette, gubrist, new BigDecimal(cityKm));
+    }
+}
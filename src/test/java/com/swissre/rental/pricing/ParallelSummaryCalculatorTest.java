@@ -0,0 +1,86 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelSummaryCalculatorTest {
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    @ParameterizedTest
+    @CsvSource({
+            "1, 1",
+            "2, 7",
+            "4, 100",
+            "8, 4096"
+    })
+    void matchesSequentialSummary(int parallelism, int chunkSize) {
+        List<VehicleRental> rentals = randomRentals(10_000);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ParallelSummaryCalculator parallel = new ParallelSummaryCalculator(calculator, pool, chunkSize);
+            assertEquals(calculator.calculateDailySummary(rentals), parallel.calculateDailySummary(rentals));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void keepsBreakdownOrder() {
+        List<VehicleRental> rentals = randomRentals(1_000);
+        DailySummary summary = new ParallelSummaryCalculator(calculator, ForkJoinPool.commonPool(), 3)
+                .calculateDailySummary(rentals);
+
+        for (int i = 0; i < rentals.size(); i++) {
+            assertEquals(rentals.get(i), summary.breakdowns().get(i).rental());
+        }
+    }
+
+    @Test
+    void acceptsNonRandomAccessLists() {
+        List<VehicleRental> rentals = new LinkedList<>(randomRentals(500));
+        DailySummary summary = new ParallelSummaryCalculator(calculator).calculateDailySummary(rentals);
+        assertEquals(calculator.calculateDailySummary(rentals), summary);
+    }
+
+    @Test
+    void emptyListHasZeroGrandTotal() {
+        DailySummary summary = new ParallelSummaryCalculator(calculator).calculateDailySummary(List.of());
+        assertTrue(summary.breakdowns().isEmpty());
+        assertEquals(new BigDecimal("0.00"), summary.grandTotal());
+    }
+
+    @Test
+    void rejectsNonPositiveChunkSize() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new ParallelSummaryCalculator(calculator, ForkJoinPool.commonPool(), 0));
+    }
+
+    private static List<VehicleRental> randomRentals(int count) {
+        Random random = new Random(7L);
+        VehicleType[] types = VehicleType.values();
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal km = BigDecimal.valueOf(random.nextInt(500_000), 2);
+            rentals.add(new VehicleRental(types[random.nextInt(types.length)], km,
+                    BigDecimal.valueOf(random.nextInt(10_000), 2), random.nextBoolean(),
+                    random.nextInt(4), km.divide(BigDecimal.TEN)));
+        }
+        return rentals;
+    }
+}
@@ -0,0 +1,81 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RentalBatchTest {
+
+    @Test
+    void roundTripsRentals() {
+        VehicleRental rental = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("180.5"),
+                new BigDecimal("15"), true, 2, new BigDecimal("30.125"));
+        RentalBatch batch = new RentalBatch();
+        batch.add(rental);
+
+        assertEquals(1, batch.size());
+        assertEquals(VehicleType.LARGE_VAN, batch.vehicleType(0));
+        assertEquals(rental, batch.rental(0));
+    }
+
+    @Test
+    void normalizesTrailingZeros() {
+        RentalBatch batch = new RentalBatch();
+        batch.add(VehicleType.E_VAN, 100_000, 22_500, false, 0, 0);
+
+        VehicleRental rental = batch.rental(0);
+        assertEquals(new BigDecimal("100"), rental.kilometersDriven());
+        assertEquals(new BigDecimal("22.5"), rental.energyConsumed());
+        assertEquals(new BigDecimal("0"), rental.cityKilometers());
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() {
+        RentalBatch batch = new RentalBatch(1);
+        for (int i = 0; i < 100; i++) {
+            batch.add(VehicleType.COMPACT_VAN, i * 1_000L, 500, i % 2 == 0, i % 3, 0);
+        }
+
+        assertEquals(100, batch.size());
+        assertEquals(new BigDecimal("99"), batch.rental(99).kilometersDriven());
+        assertEquals(0, batch.rental(99).gubristTunnelPassages());
+    }
+
+    @Test
+    void rejectsMoreThanThreeDecimals() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, new BigDecimal("95.0001"),
+                BigDecimal.TEN, false, 0, BigDecimal.ZERO);
+        assertThrows(IllegalArgumentException.class, () -> new RentalBatch().add(rental));
+    }
+
+    @Test
+    void rejectsCityKilometersAboveTotal() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new RentalBatch().add(VehicleType.E_VAN, 1_000, 0, false, 0, 2_000));
+    }
+
+    @Test
+    void rejectsNegativePassages() {
+        assertThrows(IllegalArgumentException.class, () ->
+                new RentalBatch().add(VehicleType.E_VAN, 1_000, 0, false, -1, 0));
+    }
+
+    @Test
+    void rejectsTimedRentals() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 1,
+                BigDecimal.ZERO, List.of(LocalDateTime.of(2026, 10, 18, 7, 30)), List.of());
+        assertThrows(IllegalArgumentException.class, () -> new RentalBatch().add(rental));
+    }
+
+    @Test
+    void indexOutOfRangeThrows() {
+        assertThrows(IndexOutOfBoundsException.class, () -> new RentalBatch().rental(0));
+    }
+}
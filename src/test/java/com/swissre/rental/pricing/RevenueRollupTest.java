@@ -0,0 +1,184 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueRollupTest {
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    @Test
+    void emptyRollupIsZero() {
+        RevenueRollup.Snapshot snapshot = new RevenueRollup().snapshot();
+
+        assertEquals(0, snapshot.rentalCount());
+        assertEquals(new BigDecimal("0.00"), snapshot.grandTotal());
+        assertEquals(new BigDecimal("0.00"), snapshot.total(ChargeComponent.ECO_BONUS));
+    }
+
+    @Test
+    void matchesWalkingTheBreakdowns() {
+        DailySummary summary = calculator.calculateDailySummary(randomRentals(5_000));
+        RevenueRollup rollup = new RevenueRollup();
+        summary.breakdowns().forEach(rollup::record);
+
+        RevenueRollup.Snapshot snapshot = rollup.snapshot();
+
+        assertEquals(summary.grandTotal(), snapshot.grandTotal());
+        assertEquals(5_000, snapshot.rentalCount());
+        for (VehicleType type : VehicleType.values()) {
+            List<CostBreakdown> ofType = summary.breakdowns().stream()
+                    .filter(breakdown -> breakdown.rental().vehicleType() == type).toList();
+            assertEquals(ofType.size(), snapshot.rentalCount(type));
+            assertEquals(sum(ofType.stream().map(CostBreakdown::subtotal).toList()), snapshot.revenue(type));
+            for (ChargeComponent component : ChargeComponent.values()) {
+                assertEquals(sum(ofType.stream().map(component::amountOf).toList()), snapshot.total(type, component));
+            }
+        }
+        for (ChargeComponent component : ChargeComponent.values()) {
+            assertEquals(sum(summary.breakdowns().stream().map(component::amountOf).toList()), snapshot.total(component));
+        }
+    }
+
+    @Test
+    void retractTakesBackRecordedRental() {
+        List<CostBreakdown> breakdowns = calculator.calculateDailySummary(randomRentals(50)).breakdowns();
+        RevenueRollup rollup = new RevenueRollup();
+        breakdowns.forEach(rollup::record);
+
+        breakdowns.subList(10, 50).forEach(rollup::retract);
+
+        RevenueRollup.Snapshot snapshot = rollup.snapshot();
+        assertEquals(10, snapshot.rentalCount());
+        assertEquals(sum(breakdowns.subList(0, 10).stream().map(CostBreakdown::subtotal).toList()), snapshot.grandTotal());
+        for (ChargeComponent component : ChargeComponent.values()) {
+            assertEquals(sum(breakdowns.subList(0, 10).stream().map(component::amountOf).toList()), snapshot.total(component));
+        }
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws Exception {
+        DailySummary summary = calculator.calculateDailySummary(randomRentals(20_000));
+        RevenueRollup rollup = new RevenueRollup();
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < summary.breakdowns().size(); i += threads) {
+                        rollup.record(summary.breakdowns().get(i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(summary.grandTotal(), rollup.snapshot().grandTotal());
+        assertEquals(20_000, rollup.snapshot().rentalCount());
+    }
+
+    @Test
+    void parallelSummaryFeedsRollup() {
+        List<VehicleRental> rentals = randomRentals(10_000);
+        RevenueRollup rollup = new RevenueRollup();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            DailySummary summary = new ParallelSummaryCalculator(calculator, pool, 100)
+                    .calculateDailySummary(rentals, rollup);
+
+            assertEquals(calculator.calculateDailySummary(rentals).grandTotal(), rollup.snapshot().grandTotal());
+            assertEquals(summary.grandTotal(), rollup.snapshot().grandTotal());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void rejectsFractionsOfCentimes() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 0,
+                BigDecimal.ZERO);
+        CostBreakdown breakdown = new CostBreakdown(rental, new BigDecimal("1.005"), BigDecimal.ZERO, BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("1.005"));
+        RevenueRollup rollup = new RevenueRollup();
+
+        assertThrows(IllegalArgumentException.class, () -> rollup.record(breakdown));
+        assertEquals(0, rollup.snapshot().rentalCount());
+    }
+
+    @Test
+    void reportsAmountsBeyondTheCentimeRangeAsOverflow() {
+        VehicleRental rental = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("99999999999999999999999"),
+                BigDecimal.ZERO, false, 0, BigDecimal.ZERO);
+        CostBreakdown breakdown = calculator.calculate(rental);
+        RevenueRollup rollup = new RevenueRollup();
+
+        assertFalse(RevenueRollup.canRecord(breakdown));
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> rollup.record(breakdown));
+        assertTrue(e.getMessage().contains("overflows"));
+        assertEquals(0, rollup.snapshot().rentalCount());
+    }
+
+    @Test
+    void canRecordAcceptsWholeCentimesOnly() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 0,
+                BigDecimal.ZERO);
+
+        assertTrue(RevenueRollup.canRecord(calculator.calculate(rental)));
+        assertFalse(RevenueRollup.canRecord(new CostBreakdown(rental, new BigDecimal("1.005"), BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("1.005"))));
+    }
+
+    @Test
+    void acceptsAmountsWithFewerDecimals() {
+        VehicleRental rental = new VehicleRental(VehicleType.E_VAN, BigDecimal.TEN, BigDecimal.ONE, false, 0,
+                BigDecimal.ZERO);
+        RevenueRollup rollup = new RevenueRollup();
+
+        rollup.record(new CostBreakdown(rental, new BigDecimal("7"), new BigDecimal("0.3"), BigDecimal.ZERO,
+                BigDecimal.ZERO, BigDecimal.ZERO, BigDecimal.ZERO, new BigDecimal("7.3")));
+
+        assertEquals(new BigDecimal("7.30"), rollup.snapshot().grandTotal());
+        assertEquals(new BigDecimal("0.30"), rollup.snapshot().total(ChargeComponent.ENERGY));
+    }
+
+    private static BigDecimal sum(List<BigDecimal> amounts) {
+        return amounts.stream().reduce(BigDecimal.ZERO, BigDecimal::add).setScale(2);
+    }
+
+    private static List<VehicleRental> randomRentals(int count) {
+        Random random = new Random(11L);
+        VehicleType[] types = VehicleType.values();
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal km = BigDecimal.valueOf(random.nextInt(500_000), 2);
+            rentals.add(new VehicleRental(types[random.nextInt(types.length)], km,
+                    BigDecimal.valueOf(random.nextInt(10_000), 2), random.nextBoolean(),
+                    random.nextInt(4), km.divide(BigDecimal.TEN)));
+        }
+        return rentals;
+    }
+}
@@ -0,0 +1,100 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.ChargeComponent;
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SummaryAccumulatorTest {
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    @Test
+    void pdfExampleTotals() {
+        SummaryAccumulator accumulator = new SummaryAccumulator(calculator);
+        accumulator.addAll(pdfExampleRentals());
+
+        assertEquals(3, accumulator.rentalCount());
+        assertEquals(new BigDecimal("365.40"), accumulator.grandTotal());
+        assertEquals(new BigDecimal("74.60"), accumulator.total(VehicleType.E_VAN));
+        assertEquals(new BigDecimal("42.55"), accumulator.total(VehicleType.COMPACT_VAN));
+        assertEquals(new BigDecimal("248.25"), accumulator.total(VehicleType.LARGE_VAN));
+        assertEquals(new BigDecimal("286.40"), accumulator.total(ChargeComponent.DISTANCE));
+        assertEquals(new BigDecimal("45.00"), accumulator.total(ChargeComponent.ENERGY));
+        assertEquals(new BigDecimal("9.00"), accumulator.total(ChargeComponent.VIGNETTE));
+        assertEquals(new BigDecimal("5.00"), accumulator.total(ChargeComponent.GUBRIST));
+        assertEquals(new BigDecimal("30.00"), accumulator.total(ChargeComponent.CONGESTION));
+        assertEquals(new BigDecimal("-10.00"), accumulator.total(ChargeComponent.ECO_BONUS));
+    }
+
+    @Test
+    void emptyAccumulatorHasZeroTotals() {
+        SummaryAccumulator accumulator = new SummaryAccumulator(calculator);
+
+        assertEquals(0, accumulator.rentalCount());
+        assertEquals(new BigDecimal("0.00"), accumulator.grandTotal());
+        assertEquals(new BigDecimal("0.00"), accumulator.total(VehicleType.E_VAN));
+        assertEquals(new BigDecimal("0.00"), accumulator.total(ChargeComponent.ECO_BONUS));
+    }
+
+    @Test
+    void matchesDailySummaryForLargeFeed() {
+        List<VehicleRental> rentals = randomRentals(20_000);
+        DailySummary expected = calculator.calculateDailySummary(rentals);
+
+        SummaryAccumulator accumulator = new SummaryAccumulator(calculator);
+        accumulator.addAll(rentals.iterator());
+
+        assertEquals(expected.grandTotal(), accumulator.grandTotal());
+        assertEquals(rentals.size(), accumulator.rentalCount());
+        BigDecimal componentSum = BigDecimal.ZERO;
+        for (ChargeComponent component : ChargeComponent.values()) {
+            componentSum = componentSum.add(accumulator.total(component));
+        }
+        assertEquals(expected.grandTotal(), componentSum);
+        for (VehicleType type : VehicleType.values()) {
+            assertEquals(rentals.stream().filter(r -> r.vehicleType() == type).count(), accumulator.rentalCount(type));
+        }
+    }
+
+    @Test
+    void forwardsEachBreakdownToSinkInOrder() {
+        List<VehicleRental> rentals = pdfExampleRentals();
+        List<CostBreakdown> received = new ArrayList<>();
+
+        SummaryAccumulator accumulator = new SummaryAccumulator(calculator, received::add);
+        accumulator.addAll(rentals);
+
+        assertEquals(calculator.calculateDailySummary(rentals).breakdowns(), received);
+    }
+
+    private List<VehicleRental> pdfExampleRentals() {
+        return List.of(
+                new VehicleRental(VehicleType.E_VAN, new BigDecimal("95"), new BigDecimal("20"), true, 3, BigDecimal.ZERO),
+                new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"), new BigDecimal("5"), false, 0, BigDecimal.ZERO),
+                new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("180"), new BigDecimal("15"), false, 0, new BigDecimal("30"))
+        );
+    }
+
+    private static List<VehicleRental> randomRentals(int count) {
+        Random random = new Random(11L);
+        VehicleType[] types = VehicleType.values();
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal km = BigDecimal.valueOf(random.nextInt(300_000), 2);
+            rentals.add(new VehicleRental(types[random.nextInt(types.length)], km,
+                    BigDecimal.valueOf(random.nextInt(8_000), 2), random.nextBoolean(),
+                    random.nextInt(4), km.divide(BigDecimal.valueOf(4))));
+        }
+        return rentals;
+    }
+}
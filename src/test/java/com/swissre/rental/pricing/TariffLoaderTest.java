@@ -0,0 +1,123 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.TariffWindows;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TariffLoaderTest {
+
+    private static final String TARIFF_2026_03 = """
+            version=2026-03
+            COMPACT_VAN.ratePerKm=0.85
+            COMPACT_VAN.energyRate=2.05
+            LARGE_VAN.ratePerKm=1.10
+            LARGE_VAN.energyRate=2.05
+            E_VAN.ratePerKm=0.70
+            E_VAN.energyRate=0.32
+            vignette.cost=9.50
+            gubrist.costPerPassage=3.00
+            gubrist.maxPaid=3
+            congestion.ratePerKm=1.20
+            ecoBonus.amount=-12.00
+            ecoBonus.minKm=75
+            ecoBonus.maxKwhPer100=21.5
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void loadsAllKeys() throws IOException {
+        Tariff tariff = TariffLoader.load(new StringReader(TARIFF_2026_03));
+
+        assertEquals("2026-03", tariff.version());
+        assertEquals(new BigDecimal("0.85"), tariff.ratePerKm(VehicleType.COMPACT_VAN));
+        assertEquals(new BigDecimal("0.32"), tariff.energyRate(VehicleType.E_VAN));
+        assertEquals(new BigDecimal("9.50"), tariff.vignetteCost());
+        assertEquals(new BigDecimal("3.00"), tariff.gubristCostPerPassage());
+        assertEquals(3, tariff.gubristMaxPaid());
+        assertEquals(new BigDecimal("1.20"), tariff.congestionRatePerKm());
+        assertEquals(new BigDecimal("-12.00"), tariff.ecoBonusAmount());
+        assertEquals(new BigDecimal("75"), tariff.ecoBonusMinKm());
+        assertEquals(new BigDecimal("21.5"), tariff.ecoBonusMaxKwhPer100());
+        assertEquals(TariffWindows.NONE, tariff.gubristWindows());
+        assertEquals(TariffWindows.NONE, tariff.congestionWindows());
+    }
+
+    @Test
+    void loadsTimeOfDayWindows() throws IOException {
+        Tariff tariff = TariffLoader.load(new StringReader(TARIFF_2026_03
+                + "gubrist.windows=07:00-09:00@4.00,16:30-18:30@4.00\n"
+                + "congestion.windows=22:00-06:00@0.50\n"));
+
+        assertEquals(2, tariff.gubristWindows().windows().size());
+        assertEquals(new BigDecimal("4.00"), tariff.gubristWindows().rateAt(LocalTime.of(17, 0), BigDecimal.ONE));
+        assertEquals(new BigDecimal("0.50"), tariff.congestionWindows().rateAt(LocalTime.of(1, 0), BigDecimal.ONE));
+        assertTrue(tariff.hasWindows());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"7-9@4.00", "07:00-09:00@four", "07:00-09:00", "07:00-09:00@4,08:00-10:00@4"})
+    void invalidWindowsThrow(String windows) {
+        String content = TARIFF_2026_03 + "gubrist.windows=" + windows + "\n";
+        assertThrows(IllegalArgumentException.class, () -> TariffLoader.load(new StringReader(content)));
+    }
+
+    @Test
+    void loadsFromFile() throws IOException {
+        Path file = tempDir.resolve("tariff.properties");
+        Files.writeString(file, TARIFF_2026_03);
+
+        assertEquals("2026-03", TariffLoader.load(file).version());
+    }
+
+    @Test
+    void bundledDefaultTariffMatchesBuiltIn() throws IOException {
+        try (Reader reader = new InputStreamReader(
+                TariffLoader.class.getResourceAsStream("/tariff-default.properties"), StandardCharsets.UTF_8)) {
+            assertEquals(Tariff.DEFAULT, TariffLoader.load(reader));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"version", "E_VAN.energyRate", "gubrist.maxPaid", "ecoBonus.maxKwhPer100"})
+    void missingKeyThrows(String key) {
+        String content = TARIFF_2026_03.lines()
+                .filter(line -> !line.startsWith(key + "="))
+                .reduce("", (a, b) -> a + b + "\n");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> TariffLoader.load(new StringReader(content)));
+        assertEquals("Missing tariff key: " + key, e.getMessage());
+    }
+
+    @Test
+    void invalidNumberThrows() {
+        String content = TARIFF_2026_03.replace("vignette.cost=9.50", "vignette.cost=nine");
+        assertThrows(IllegalArgumentException.class, () -> TariffLoader.load(new StringReader(content)));
+    }
+
+    @Test
+    void negativeRateThrows() {
+        String content = TARIFF_2026_03.replace("congestion.ratePerKm=1.20", "congestion.ratePerKm=-1");
+        assertThrows(IllegalArgumentException.class, () -> TariffLoader.load(new StringReader(content)));
+    }
+}
@@ -0,0 +1,160 @@
+package com.swissre.rental.pricing;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.Tariff;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TariffRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final VehicleRental rental = new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal("40"),
+            new BigDecimal("5"), true, 3, new BigDecimal("10"));
+
+    @Test
+    void startsWithDefaultTariff() {
+        assertSame(Tariff.DEFAULT, new TariffRegistry().current());
+    }
+
+    @Test
+    void publishReplacesCurrentTariff() {
+        TariffRegistry registry = new TariffRegistry();
+        Tariff doubled = doubledTariff("2026-04");
+
+        registry.publish(doubled);
+
+        assertSame(doubled, registry.current());
+    }
+
+    @Test
+    void publishNullThrows() {
+        assertThrows(NullPointerException.class, () -> new TariffRegistry().publish(null));
+    }
+
+    @Test
+    void loadPublishesFileTariff() throws IOException {
+        Path file = tempDir.resolve("tariff.properties");
+        Files.writeString(file, """
+                version=file-1
+                COMPACT_VAN.ratePerKm=1
+                COMPACT_VAN.energyRate=2
+                LARGE_VAN.ratePerKm=1
+                LARGE_VAN.energyRate=2
+                E_VAN.ratePerKm=1
+                E_VAN.energyRate=0.5
+                vignette.cost=10
+                gubrist.costPerPassage=3
+                gubrist.maxPaid=1
+                congestion.ratePerKm=2
+                ecoBonus.amount=-5
+                ecoBonus.minKm=50
+                ecoBonus.maxKwhPer100=20
+                """);
+        TariffRegistry registry = new TariffRegistry();
+        CostCalculator calculator = new CostCalculator(registry);
+
+        registry.load(file);
+        CostBreakdown breakdown = calculator.calculate(rental);
+
+        assertEquals("file-1", breakdown.tariffVersion());
+        // 40.00 + 10.00 + 10.00 + 3.00 + 20.00
+        assertEquals(new BigDecimal("83.00"), breakdown.subtotal());
+    }
+
+    @Test
+    void breakdownRecordsTariffVersion() {
+        TariffRegistry registry = new TariffRegistry();
+        CostCalculator calculator = new CostCalculator(registry);
+
+        assertEquals(Tariff.DEFAULT_VERSION, calculator.calculate(rental).tariffVersion());
+        registry.publish(doubledTariff("2026-04"));
+        CostBreakdown breakdown = calculator.calculate(rental);
+
+        assertEquals("2026-04", breakdown.tariffVersion());
+        assertEquals(new BigDecimal("65.60"), breakdown.distanceCost());
+    }
+
+    @Test
+    void swapDuringSummaryOnlyAffectsLaterCalculations() {
+        TariffRegistry registry = new TariffRegistry();
+        CostCalculator calculator = new CostCalculator(registry);
+        Tariff next = doubledTariff("2026-04");
+        int size = 1_000;
+
+        DailySummary summary = calculator.calculateDailySummary(new AbstractList<>() {
+            @Override
+            public VehicleRental get(int index) {
+                if (index == size / 2) {
+                    registry.publish(next);
+                }
+                return rental;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        });
+
+        assertTrue(summary.breakdowns().stream().allMatch(b -> b.tariffVersion().equals(Tariff.DEFAULT_VERSION)));
+        assertEquals(calculator.calculate(rental, Tariff.DEFAULT).subtotal().multiply(BigDecimal.valueOf(size)),
+                summary.grandTotal());
+        assertEquals("2026-04", calculator.calculate(rental).tariffVersion());
+    }
+
+    @Test
+    void fixedPointEngineMatchesReferenceForCustomTariff() {
+        Tariff tariff = doubledTariff("2026-04");
+        CostCalculator reference = new CostCalculator(new TariffRegistry(tariff));
+        FixedPointCostCalculator fixedPoint = new FixedPointCostCalculator(tariff);
+
+        for (int km = 0; km <= 300; km += 7) {
+            for (VehicleType type : VehicleType.values()) {
+                VehicleRental r = new VehicleRental(type, BigDecimal.valueOf(km * 1_001L, 3),
+                        BigDecimal.valueOf(km * 213L, 3), km % 2 == 0, km % 4, BigDecimal.valueOf(km, 1));
+                assertEquals(reference.calculate(r), fixedPoint.calculate(r));
+            }
+        }
+    }
+
+    @Test
+    void fixedPointEngineRejectsRatesWithTooManyDecimals() {
+        Map<VehicleType, BigDecimal> rates = new EnumMap<>(Tariff.DEFAULT.ratesPerKm());
+        rates.put(VehicleType.E_VAN, new BigDecimal("0.123456"));
+        Tariff tariff = new Tariff("precise", rates, Tariff.DEFAULT.energyRates(), Tariff.DEFAULT.vignetteCost(),
+                Tariff.DEFAULT.gubristCostPerPassage(), 2, Tariff.DEFAULT.congestionRatePerKm(),
+                Tariff.DEFAULT.ecoBonusAmount(), Tariff.DEFAULT.ecoBonusMinKm(), Tariff.DEFAULT.ecoBonusMaxKwhPer100());
+
+        assertThrows(IllegalArgumentException.class, () -> new FixedPointCostCalculator(tariff));
+    }
+
+    private static Tariff doubledTariff(String version) {
+        Tariff base = Tariff.DEFAULT;
+        Map<VehicleType, BigDecimal> ratesPerKm = new EnumMap<>(VehicleType.class);
+        Map<VehicleType, BigDecimal> energyRates = new EnumMap<>(VehicleType.class);
+        for (VehicleType type : VehicleType.values()) {
+            ratesPerKm.put(type, base.ratePerKm(type).multiply(BigDecimal.TWO));
+            energyRates.put(type, base.energyRate(type).multiply(BigDecimal.TWO));
+        }
+        return new Tariff(version, ratesPerKm, energyRates, new BigDecimal("18.00"), new BigDecimal("5.00"), 3,
+                new BigDecimal("2.00"), new BigDecimal("-20.00"), new BigDecimal("80"), new BigDecimal("22"));
+    }
+}
@@ -9,10 +9,18 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.Iterator;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CompanySummaryFormatterTest {
@@ -133,4 +141,119 @@ class CompanySummaryFormatterTest {
         String output = formatter.formatSummary(single);
         assertTrue(output.contains("Total vehicles: 1"));
     }
+
+    @Test
+    void writeSummary_toWriter_matchesFormatSummary() throws IOException {
+        StringWriter writer = new StringWriter();
+
+        formatter.writeSummary(fullSummary(), writer);
+
+        assertEquals(formatter.formatSummary(fullSummary()), writer.toString());
+    }
+
+    @Test
+    void writeSummary_toChannel_matchesFormatSummary() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        formatter.writeSummary(fullSummary(), Channels.newChannel(bytes));
+
+        assertEquals(formatter.formatSummary(fullSummary()), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeSummary_fromIterator_computesGrandTotal() throws IOException {
+        StringBuilder out = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        formatter.writeSummary(3, fullSummary().breakdowns().iterator(), out);
+        formatter.writeSummary(3, fullSummary().breakdowns().iterator(), Channels.newChannel(bytes));
+
+        assertEquals(formatter.formatSummary(fullSummary()), out.toString());
+        assertEquals(out.toString(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeSummary_fromIterator_emptyDay() throws IOException {
+        StringBuilder out = new StringBuilder();
+
+        formatter.writeSummary(0, List.<CostBreakdown>of().iterator(), out);
+
+        assertEquals(formatter.formatSummary(new DailySummary(List.of(), new BigDecimal("0.00"))), out.toString());
+    }
+
+    @Test
+    void writeSummary_fromIterator_streamsOneRentalPerAppend() throws IOException {
+        int rentals = 100_000;
+        CostBreakdown breakdown = compactVanBreakdown();
+        Iterator<CostBreakdown> generated = new Iterator<>() {
+            private int produced;
+
+            @Override
+            public boolean hasNext() {
+                return produced < rentals;
+            }
+
+            @Override
+            public CostBreakdown next() {
+                produced++;
+                return breakdown;
+            }
+        };
+        CountingAppendable out = new CountingAppendable();
+
+        formatter.writeSummary(rentals, generated, out);
+
+        assertEquals(rentals + 2, out.appends);
+        assertTrue(out.longestAppend < 2_048);
+        assertTrue(out.last.contains("4255000.00"));
+    }
+
+    @Test
+    void writeSummary_fromIterator_rejectsWrongVehicleCount() {
+        assertThrows(IllegalArgumentException.class,
+                () -> formatter.writeSummary(5, fullSummary().breakdowns().iterator(), new StringBuilder()));
+    }
+
+    @Test
+    void formatSummary_forGivenDate_onlyChangesDateLine() {
+        String output = formatter.formatSummary(LocalDate.of(2025, 12, 31), fullSummary());
+
+        assertTrue(output.contains("Date: 31/12/2025"));
+        assertEquals(formatter.formatSummary(fullSummary()).replace("13/02/2026", "31/12/2025"), output);
+    }
+
+    @Test
+    void writeSummary_forGivenDate_matchesFormatSummary() throws IOException {
+        LocalDate date = LocalDate.of(2025, 12, 31);
+        StringBuilder out = new StringBuilder();
+
+        formatter.writeSummary(date, fullSummary(), out);
+
+        assertEquals(formatter.formatSummary(date, fullSummary()), out.toString());
+    }
+
+    private static final class CountingAppendable implements Appendable {
+
+        private int appends;
+        private int longestAppend;
+        private String last = "";
+
+        @Override
+        public Appendable append(CharSequence csq) {
+            appends++;
+            longestAppend = Math.max(longestAppend, csq.length());
+            last = csq.toString();
+            return this;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) {
+            return append(csq.subSequence(start, end));
+        }
+
+        @Override
+        public Appendable append(char c) {
+            return append(String.valueOf(c));
+        }
+    }
 }
@@ -11,6 +11,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -105,4 +106,12 @@ class CustomerReceiptFormatterTest {
         assertTrue(receipt.contains("30 km"));
         assertFalse(receipt.contains("City congestion"));
     }
+
+    @Test
+    void formatReceipt_forGivenDate_onlyChangesDateLine() {
+        String receipt = formatter.formatReceipt(LocalDate.of(2025, 12, 31), eVanBreakdown());
+
+        assertTrue(receipt.contains("Date: 31/12/2025"));
+        assertEquals(formatter.formatReceipt(eVanBreakdown()).replace("13/02/2026", "31/12/2025"), receipt);
+    }
 }
@@ -0,0 +1,84 @@
+package com.swissre.rental.report;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FixedWidthLineWriterTest {
+
+    private final FixedWidthLineWriter lines = new FixedWidthLineWriter(50);
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0", "0.00", "0E+3", "0E-30", "7", "-7", "64.60", "-10.00", "0.05", "-0.005", "1E+2",
+            "-1.20E+5", "123456789012345678.9", "9223372036854775807", "-9223372036854775808", "1E-20",
+            "12345678901234567890123.45"})
+    void appendPlain_matchesToPlainString(String text) {
+        BigDecimal value = new BigDecimal(text);
+
+        assertEquals(value.toPlainString(), FixedWidthLineWriter.appendPlain(new StringBuilder(), value).toString());
+        assertEquals(value.stripTrailingZeros().toPlainString(),
+                FixedWidthLineWriter.appendStripped(new StringBuilder(), value).toString());
+        assertEquals(value.toPlainString().length(), FixedWidthLineWriter.plainLength(value));
+    }
+
+    @Test
+    void appendPlain_matchesToPlainStringForRandomValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            BigInteger unscaled = random.nextInt(10) == 0
+                    ? new BigInteger(random.nextInt(100) + 1, random).negate()
+                    : BigInteger.valueOf(random.nextLong() >> random.nextInt(64));
+            BigDecimal value = new BigDecimal(unscaled, random.nextInt(50) - 25);
+
+            assertEquals(value.toPlainString(), FixedWidthLineWriter.appendPlain(new StringBuilder(), value).toString());
+            assertEquals(value.stripTrailingZeros().toPlainString(),
+                    FixedWidthLineWriter.appendStripped(new StringBuilder(), value).toString());
+            assertEquals(value.toPlainString().length(), FixedWidthLineWriter.plainLength(value));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"0.00", "64.60", "-10.00", "123456789012.34", "-12345678901234567890.12"})
+    void chargeLine_matchesStringFormat(String amount) {
+        BigDecimal value = new BigDecimal(amount);
+        for (String label : new String[] {"TOTAL", "Zurich Congestion Fee", "A label that is far too long for fifty"}) {
+            for (int indent : new int[] {0, 2}) {
+                assertEquals(legacyChargeLine(" ".repeat(indent) + label, value),
+                        lines.chargeLine(new StringBuilder(), indent, label, value).toString());
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "CHARGES", "JEFF'S CAR RENTAL", "A centred text that is longer than fifty characters"})
+    void leftAndCenterLines_matchStringFormat(String text) {
+        int padding = Math.max(0, (50 - text.length()) / 2);
+
+        assertEquals(legacyLeftLine(text), lines.leftLine(new StringBuilder(), text).toString());
+        assertEquals(legacyLeftLine(" ".repeat(padding) + text), lines.centerLine(new StringBuilder(), text).toString());
+        assertEquals("| " + " ".repeat(48) + " |", lines.emptyLine(new StringBuilder()).toString());
+    }
+
+    @Test
+    void bordersUseTheConfiguredWidth() {
+        assertEquals("+" + "-".repeat(50) + "+", lines.border(new StringBuilder()).toString());
+        assertEquals("+" + "=".repeat(50) + "+", lines.doubleBorder(new StringBuilder()).toString());
+        assertEquals("|" + "-".repeat(50) + "|", lines.separator(new StringBuilder()).toString());
+    }
+
+    private static String legacyLeftLine(String text) {
+        return "| " + String.format("%-48s", text) + " |";
+    }
+
+    private static String legacyChargeLine(String label, BigDecimal amount) {
+        String amountStr = String.format("CHF %12s", amount.toPlainString());
+        int space = 48 - label.length() - amountStr.length();
+        return legacyLeftLine(label + " ".repeat(Math.max(1, space)) + amountStr);
+    }
+}
@@ -0,0 +1,147 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedRentalStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    @Test
+    void appendedRentalsSurviveReopening() throws IOException {
+        List<VehicleRental> rentals = rentals(25);
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir, 8)) {
+            rentals.forEach(rental -> append(store, rental));
+            assertEquals(4, store.segmentCount());
+        }
+
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir)) {
+            assertEquals(25, store.size());
+            List<VehicleRental> scanned = new ArrayList<>();
+            store.forEach(scanned::add);
+            assertEquals(rentals, scanned);
+            assertEquals(rentals.get(17), store.rental(17));
+
+            store.append(rentals.get(0));
+            assertEquals(26, store.size());
+            assertEquals(4, store.segmentCount());
+        }
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir)) {
+            assertEquals(rentals.get(0), store.rental(25));
+        }
+    }
+
+    @Test
+    void scansFeedTheCalculators() throws IOException {
+        List<VehicleRental> rentals = rentals(100);
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir, 16)) {
+            rentals.forEach(rental -> append(store, rental));
+
+            List<VehicleRental> scanned = new ArrayList<>();
+            store.forEach(scanned::add);
+            BigDecimal expected = calculator.calculateDailySummary(rentals).grandTotal();
+            assertEquals(expected, calculator.calculateDailySummary(scanned).grandTotal());
+            assertEquals(expected, store.grandTotal(new FixedPointCostCalculator()));
+        }
+    }
+
+    @Test
+    void emptyStoreHasNoSegments() throws IOException {
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir.resolve("empty"))) {
+            assertEquals(0, store.size());
+            assertEquals(0, store.segmentCount());
+            assertEquals(0, store.grandTotalCentimes(new FixedPointCostCalculator()));
+            assertThrows(IndexOutOfBoundsException.class, () -> store.rental(0));
+        }
+    }
+
+    @Test
+    void rejectsForeignOrIncompleteSegments() throws IOException {
+        Files.write(tempDir.resolve("rentals-000000.seg"), new byte[64]);
+        assertThrows(IOException.class, () -> MappedRentalStore.open(tempDir));
+
+        Path gap = tempDir.resolve("gap");
+        try (MappedRentalStore store = MappedRentalStore.open(gap, 2)) {
+            rentals(5).forEach(rental -> append(store, rental));
+        }
+        Files.delete(gap.resolve("rentals-000001.seg"));
+        assertThrows(IOException.class, () -> MappedRentalStore.open(gap));
+    }
+
+    @Test
+    void ignoresSegmentLeftHalfCreatedByACrash() throws IOException {
+        List<VehicleRental> rentals = rentals(3);
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir, 2)) {
+            rentals.subList(0, 2).forEach(rental -> append(store, rental));
+        }
+        // A crash before the next segment's header reached the disk leaves only its temporary file.
+        Files.write(tempDir.resolve("rentals-000001.seg.tmp"), new byte[64]);
+
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir)) {
+            assertEquals(1, store.segmentCount());
+            append(store, rentals.get(2));
+        }
+        try (MappedRentalStore store = MappedRentalStore.open(tempDir)) {
+            List<VehicleRental> scanned = new ArrayList<>();
+            store.forEach(scanned::add);
+            assertEquals(rentals, scanned);
+        }
+        assertFalse(Files.exists(tempDir.resolve("rentals-000001.seg.tmp")));
+    }
+
+    @Test
+    void ordersSegmentsNumericallyPastAMillion() {
+        List<Path> files = List.of(Path.of("rentals-1000000.seg"), Path.of("rentals-999999.seg"),
+                Path.of("rentals-000000.seg"), Path.of("rentals-1000001.seg"));
+
+        assertEquals(List.of(files.get(2), files.get(1), files.get(0), files.get(3)),
+                files.stream().sorted(MappedRentalStore.SEGMENT_ORDER).toList());
+    }
+
+    @Test
+    void closedStoreRejectsUse() throws IOException {
+        MappedRentalStore store = MappedRentalStore.open(tempDir);
+        store.close();
+
+        assertThrows(IllegalStateException.class, () -> store.append(rentals(1).get(0)));
+        assertThrows(IllegalArgumentException.class, () -> MappedRentalStore.open(tempDir, 0));
+    }
+
+    private static void append(MappedRentalStore store, VehicleRental rental) {
+        try {
+            store.append(rental);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /** Quantities without trailing zeros, which the packed layout does not keep. */
+    private static List<VehicleRental> rentals(int count) {
+        VehicleType[] types = VehicleType.values();
+        String[] energies = {"5", "0.6", "0.07", "8.25", "12.5", "31"};
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rentals.add(new VehicleRental(types[i % types.length], BigDecimal.valueOf(40 + i * 7L),
+                    new BigDecimal(energies[i % energies.length]), i % 2 == 0, i % 4, BigDecimal.valueOf(i % 40)));
+        }
+        return rentals;
+    }
+}
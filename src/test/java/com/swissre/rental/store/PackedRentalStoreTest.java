@@ -0,0 +1,119 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.FixedPointCostCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PackedRentalStoreTest {
+
+    @Test
+    void rentalsRoundTripThroughThePackedWords() {
+        List<VehicleRental> rentals = randomRentals(5_000);
+        PackedRentalStore store = new PackedRentalStore(1);
+        rentals.forEach(store::add);
+
+        assertEquals(rentals.size(), store.size());
+        for (int i = 0; i < rentals.size(); i++) {
+            assertEquals(rentals.get(i), store.rental(i));
+        }
+    }
+
+    @Test
+    void largestValuesDoNotBleedIntoNeighbouringFields() {
+        PackedRentalStore store = new PackedRentalStore();
+        long max = FixedPointCostCalculator.MAX_MILLI;
+        store.add(VehicleType.E_VAN, max, max, true, PackedRentalStore.MAX_GUBRIST_PASSAGES, max);
+        store.add(VehicleType.COMPACT_VAN, 0, 0, false, 0, 0);
+
+        assertEquals(VehicleType.E_VAN, store.vehicleType(0));
+        assertEquals(max, store.kilometersMilli(0));
+        assertEquals(max, store.energyMilli(0));
+        assertTrue(store.motorwayVignette(0));
+        assertEquals(PackedRentalStore.MAX_GUBRIST_PASSAGES, store.gubristTunnelPassages(0));
+        assertEquals(max, store.cityKilometersMilli(0));
+        assertEquals(VehicleType.COMPACT_VAN, store.vehicleType(1));
+        assertFalse(store.motorwayVignette(1));
+        assertEquals(0, store.gubristTunnelPassages(1));
+    }
+
+    @Test
+    void grandTotalMatchesPricingTheRentals() {
+        List<VehicleRental> rentals = randomRentals(20_000);
+        PackedRentalStore store = new PackedRentalStore();
+        rentals.forEach(store::add);
+        FixedPointCostCalculator calculator = new FixedPointCostCalculator();
+
+        assertEquals(calculator.grandTotalCentimes(rentals), store.grandTotalCentimes(calculator));
+    }
+
+    @Test
+    void viewReadsLikeTheRentalWithoutAllocatingOne() {
+        VehicleRental rental = new VehicleRental(VehicleType.LARGE_VAN, new BigDecimal("120.5"),
+                new BigDecimal("14.25"), true, 2, new BigDecimal("30"));
+        PackedRentalStore store = new PackedRentalStore();
+        store.add(VehicleType.COMPACT_VAN, 1_000, 0, false, 0, 0);
+        store.add(rental);
+
+        PackedRentalStore.View view = store.view();
+        assertSame(view, view.at(1));
+        assertEquals(rental.vehicleType(), view.vehicleType());
+        assertEquals(rental.kilometersDriven(), view.kilometersDriven());
+        assertEquals(rental.energyConsumed(), view.energyConsumed());
+        assertEquals(rental.motorwayVignette(), view.motorwayVignette());
+        assertEquals(rental.gubristTunnelPassages(), view.gubristTunnelPassages());
+        assertEquals(rental.cityKilometers(), view.cityKilometers());
+        assertEquals(120_500L, view.kilometersMilli());
+        assertEquals(rental, view.toRental());
+
+        List<Integer> visited = new ArrayList<>();
+        store.forEach(each -> visited.add(each.index()));
+        assertEquals(List.of(0, 1), visited);
+        assertThrows(IndexOutOfBoundsException.class, () -> view.at(2));
+    }
+
+    @Test
+    void rejectsRentalsOutsideThePackedLayout() {
+        PackedRentalStore store = new PackedRentalStore();
+
+        assertThrows(IllegalArgumentException.class, () -> store.add(new VehicleRental(VehicleType.E_VAN,
+                new BigDecimal("1.0001"), BigDecimal.ONE, false, 0, BigDecimal.ZERO)));
+        assertThrows(IllegalArgumentException.class, () -> store.add(VehicleType.E_VAN, 1_000, 0, false,
+                PackedRentalStore.MAX_GUBRIST_PASSAGES + 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> store.add(VehicleType.E_VAN, 1_000, 0, false, 0, 2_000));
+        assertThrows(IllegalArgumentException.class, () -> store.add(new VehicleRental(VehicleType.E_VAN,
+                BigDecimal.ONE, BigDecimal.ONE, false, 1, BigDecimal.ZERO,
+                List.of(LocalDateTime.of(2026, 10, 18, 7, 30)), List.of())));
+        assertThrows(IllegalArgumentException.class, () -> new PackedRentalStore(-1));
+        assertEquals(0, store.size());
+    }
+
+    private static List<VehicleRental> randomRentals(int count) {
+        Random random = new Random(42);
+        VehicleType[] types = VehicleType.values();
+        List<VehicleRental> rentals = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            BigDecimal kilometers = BigDecimal.valueOf(random.nextInt(500_000), 1).stripTrailingZeros();
+            kilometers = kilometers.scale() < 0 ? kilometers.setScale(0) : kilometers;
+            BigDecimal energy = BigDecimal.valueOf(random.nextInt(20_000), 2).stripTrailingZeros();
+            energy = energy.scale() < 0 ? energy.setScale(0) : energy;
+            BigDecimal city = kilometers.signum() == 0 ? BigDecimal.ZERO : BigDecimal.valueOf(random.nextInt(
+                    kilometers.intValue() + 1));
+            rentals.add(new VehicleRental(types[random.nextInt(types.length)], kilometers, energy,
+                    random.nextBoolean(), random.nextInt(5), city));
+        }
+        return rentals;
+    }
+}
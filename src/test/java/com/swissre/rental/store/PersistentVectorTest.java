@@ -0,0 +1,128 @@
+package com.swissre.rental.store;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersistentVectorTest {
+
+    @Test
+    void emptyVectorHasNoElements() {
+        PersistentVector<String> vector = PersistentVector.empty();
+
+        assertTrue(vector.isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.get(0));
+        assertThrows(NoSuchElementException.class, () -> vector.iterator().next());
+    }
+
+    @Test
+    void appendsAcrossTreeLevels() {
+        int count = 32 * 32 * 32 + 100;
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < count; i++) {
+            vector = vector.plus(i);
+        }
+
+        assertEquals(count, vector.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (int) vector.get(i));
+        }
+        int expected = 0;
+        for (int element : vector) {
+            assertEquals(expected++, element);
+        }
+        assertEquals(count, expected);
+    }
+
+    @Test
+    void oldVersionsAreUnchanged() {
+        PersistentVector<Integer> original = PersistentVector.copyOf(IntStream.range(0, 2_000).boxed().toList());
+        List<Integer> copy = new ArrayList<>(original);
+
+        PersistentVector<Integer> appended = original.plus(-1);
+        PersistentVector<Integer> updated = original.with(1_000, -2);
+        PersistentVector<Integer> removed = original.minus(5);
+        PersistentVector<Integer> taken = original.take(33);
+
+        assertEquals(copy, original);
+        assertEquals(2_001, appended.size());
+        assertEquals(-2, (int) updated.get(1_000));
+        assertEquals(6, (int) removed.get(5));
+        assertEquals(1_999, removed.size());
+        assertEquals(copy.subList(0, 33), taken);
+    }
+
+    @Test
+    void matchesArrayListUnderRandomChanges() {
+        Random random = new Random(42L);
+        List<Integer> model = new ArrayList<>();
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int step = 0; step < 20_000; step++) {
+            int roll = random.nextInt(100);
+            if (roll < 70 || model.isEmpty()) {
+                model.add(step);
+                vector = vector.plus(step);
+            } else if (roll < 90) {
+                int index = random.nextInt(model.size());
+                model.set(index, -step);
+                vector = vector.with(index, -step);
+            } else if (roll < 99) {
+                int index = model.size() - 1 - random.nextInt(Math.min(model.size(), 40));
+                model.remove(index);
+                vector = vector.minus(index);
+            } else {
+                int count = random.nextInt(model.size() + 1);
+                model = new ArrayList<>(model.subList(0, count));
+                vector = vector.take(count);
+            }
+            if (step % 1_000 == 0) {
+                assertEquals(model, vector);
+            }
+        }
+        assertEquals(model, vector);
+        assertEquals(model.hashCode(), vector.hashCode());
+    }
+
+    @Test
+    void takeShrinksTreeAndKeepsAppending() {
+        PersistentVector<Integer> vector = PersistentVector.copyOf(IntStream.range(0, 40_000).boxed().toList());
+
+        for (int count : new int[] {33_000, 1_025, 1_024, 64, 32, 31, 1}) {
+            PersistentVector<Integer> taken = vector.take(count);
+            PersistentVector<Integer> grown = taken.plusAll(IntStream.range(count, count + 2_000).boxed().toList());
+
+            assertEquals(IntStream.range(0, count).boxed().toList(), taken);
+            assertEquals(IntStream.range(0, count + 2_000).boxed().toList(), grown);
+        }
+        assertSame(vector, vector.take(vector.size()));
+        assertTrue(vector.take(0).isEmpty());
+    }
+
+    @Test
+    void rejectsInvalidIndexes() {
+        PersistentVector<Integer> vector = PersistentVector.copyOf(List.of(1, 2, 3));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.with(3, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.minus(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> vector.take(4));
+        assertThrows(UnsupportedOperationException.class, () -> vector.add(4));
+    }
+
+    @Test
+    void iteratorStopsAtEnd() {
+        Iterator<Integer> iterator = PersistentVector.copyOf(List.of(1)).iterator();
+        iterator.next();
+
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+}
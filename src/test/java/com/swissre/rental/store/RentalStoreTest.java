@@ -0,0 +1,209 @@
+package com.swissre.rental.store;
+
+import com.swissre.rental.model.CostBreakdown;
+import com.swissre.rental.model.DailySummary;
+import com.swissre.rental.model.VehicleRental;
+import com.swissre.rental.model.VehicleType;
+import com.swissre.rental.pricing.CostCalculator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalStoreTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 2, 13);
+
+    private final CostCalculator calculator = new CostCalculator();
+
+    private CostBreakdown priced(String kilometers) {
+        return calculator.calculate(new VehicleRental(VehicleType.COMPACT_VAN, new BigDecimal(kilometers),
+                new BigDecimal("5"), false, 0, BigDecimal.ZERO));
+    }
+
+    @Test
+    void openDaySummaryMatchesRecalculation() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.add(priced("40"));
+        store.add(priced("120"));
+
+        DailySummary summary = store.openSummary();
+
+        assertEquals(calculator.calculateDailySummary(store.openRentals()), summary);
+        assertEquals(2, store.openRentals().size());
+    }
+
+    @Test
+    void addAllMatchesAddingOneByOne() {
+        List<CostBreakdown> priced = List.of(priced("40"), priced("120"), priced("7.5"));
+        RentalStore single = new RentalStore(FIRST_DAY);
+        priced.forEach(single::add);
+        RentalStore batched = new RentalStore(FIRST_DAY);
+
+        batched.addAll(priced);
+
+        assertEquals(single.openSummary(), batched.openSummary());
+        assertEquals(single.openRollup().grandTotal(), batched.openRollup().grandTotal());
+        assertEquals(batched.openSummary().grandTotal(), batched.openRollup().grandTotal());
+    }
+
+    @Test
+    void updateAndRemoveKeepTotalsAndRollupExact() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.addAll(List.of(priced("40"), priced("120"), priced("7.5")));
+        CostBreakdown corrected = priced("90");
+
+        assertEquals(priced("40"), store.update(0, corrected));
+        assertEquals(priced("120"), store.remove(1));
+
+        assertEquals(List.of(corrected.rental(), priced("7.5").rental()), store.openRentals());
+        assertEquals(calculator.calculateDailySummary(store.openRentals()), store.openSummary());
+        assertEquals(store.openSummary().grandTotal(), store.openRollup().grandTotal());
+        assertEquals(2, store.openRollup().rentalCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> store.remove(2));
+    }
+
+    @Test
+    void updateRejectsAmountsTheRollupCannotHoldWithoutChangingTheDay() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.addAll(List.of(priced("40"), priced("120")));
+        DailySummary before = store.openSummary();
+
+        assertThrows(IllegalArgumentException.class, () -> store.update(0, priced("99999999999999999999999")));
+
+        assertEquals(before, store.openSummary());
+        assertEquals(before.grandTotal(), store.openRollup().grandTotal());
+        assertEquals(2, store.openRollup().rentalCount());
+    }
+
+    @Test
+    void snapshotsAreNotDisturbedByLaterChanges() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.addAll(List.of(priced("40"), priced("120")));
+        DailySummary summary = store.openSummary();
+        List<VehicleRental> rentals = store.openRentals();
+
+        store.add(priced("7.5"));
+        store.update(0, priced("90"));
+        store.remove(1);
+
+        assertEquals(calculator.calculateDailySummary(List.of(priced("40").rental(), priced("120").rental())), summary);
+        assertEquals(List.of(priced("40").rental(), priced("120").rental()), rentals);
+    }
+
+    @Test
+    void readersSeeConsistentSnapshotsWhileWriting() throws Exception {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                store.add(priced("40"));
+                if (i % 3 == 0) {
+                    store.remove(store.openRentals().size() - 1);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            DailySummary summary = store.openSummary();
+            BigDecimal sum = summary.breakdowns().stream().map(CostBreakdown::subtotal)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            assertEquals(summary.grandTotal(), sum.setScale(2));
+        }
+        writer.join();
+
+        assertEquals(1_333, store.openRentals().size());
+        assertEquals(store.openSummary().grandTotal(), store.openRollup().grandTotal());
+    }
+
+    @Test
+    void sealKeepsDayTotalsAndOpensNextDay() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.add(priced("40"));
+        DailySummary before = calculator.calculateDailySummary(store.openRentals());
+
+        SealedDay sealed = store.seal(FIRST_DAY.plusDays(1));
+        store.add(priced("120"));
+
+        assertEquals(FIRST_DAY, sealed.date());
+        assertEquals(before.grandTotal(), sealed.revenue());
+        assertEquals(1, sealed.rentalCount());
+        assertEquals(before.grandTotal(), sealed.rollup().grandTotal());
+        assertEquals(1, sealed.rollup().rentalCount(VehicleType.COMPACT_VAN));
+        assertEquals(1, store.openRollup().rentalCount());
+        assertEquals(FIRST_DAY.plusDays(1), store.openDate());
+        assertEquals(1, store.openRentals().size());
+        assertSame(sealed, store.sealedDay(FIRST_DAY).orElseThrow());
+        assertFalse(store.sealedDay(FIRST_DAY.plusDays(1)).isPresent());
+    }
+
+    @Test
+    void sealRejectsDateNotAfterOpenDay() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+
+        assertThrows(IllegalArgumentException.class, () -> store.seal(FIRST_DAY));
+        assertThrows(IllegalArgumentException.class, () -> store.seal(FIRST_DAY.minusDays(1)));
+    }
+
+    @Test
+    void rangeQueriesSumSealedDaysOnly() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        BigDecimal expected = BigDecimal.ZERO;
+        for (int day = 0; day < 40; day++) {
+            for (int rental = 0; rental <= day % 3; rental++) {
+                CostBreakdown breakdown = priced(Integer.toString(10 + day));
+                store.add(breakdown);
+                if (day >= 5 && day <= 20) {
+                    expected = expected.add(breakdown.subtotal());
+                }
+            }
+            store.seal(FIRST_DAY.plusDays(day + 1));
+        }
+        store.add(priced("999"));
+
+        assertEquals(40, store.sealedDayCount());
+        assertEquals(expected, store.revenue(FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(20)));
+        assertEquals(16, store.sealedDays(FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(20)).size());
+        assertEquals(expected, store.sealedDays(FIRST_DAY.plusDays(5), FIRST_DAY.plusDays(20)).stream()
+                .map(SealedDay::revenue).reduce(BigDecimal.ZERO, BigDecimal::add));
+        assertEquals(79, store.rentalCount(FIRST_DAY.minusYears(1), FIRST_DAY.plusYears(1)));
+    }
+
+    @Test
+    void rangeWithoutSealedDaysIsEmpty() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.add(priced("40"));
+
+        assertEquals(new BigDecimal("0.00"), store.revenue(FIRST_DAY.minusDays(7), FIRST_DAY));
+        assertEquals(0, store.rentalCount(FIRST_DAY.minusDays(7), FIRST_DAY));
+        assertTrue(store.sealedDays(FIRST_DAY.minusDays(7), FIRST_DAY).isEmpty());
+    }
+
+    @Test
+    void skippedDaysHaveNoPartition() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+        store.add(priced("40"));
+        store.seal(FIRST_DAY.plusDays(3));
+        store.add(priced("50"));
+        store.seal(FIRST_DAY.plusDays(4));
+
+        assertFalse(store.sealedDay(FIRST_DAY.plusDays(1)).isPresent());
+        assertEquals(List.of(FIRST_DAY, FIRST_DAY.plusDays(3)),
+                store.sealedDays(FIRST_DAY, FIRST_DAY.plusDays(10)).stream().map(SealedDay::date).toList());
+        assertEquals(store.sealedDay(FIRST_DAY.plusDays(3)).orElseThrow().revenue(),
+                store.revenue(FIRST_DAY.plusDays(1), FIRST_DAY.plusDays(3)));
+    }
+
+    @Test
+    void rejectsInvertedRange() {
+        RentalStore store = new RentalStore(FIRST_DAY);
+
+        assertThrows(IllegalArgumentException.class, () -> store.revenue(FIRST_DAY, FIRST_DAY.minusDays(1)));
+    }
+}